@@ -122,23 +122,18 @@ public class InputAdapter {
      * @param y      The new y position of the cursor
      */
     public void cursorPosCallback(long window, double x, double y) {
-        // Create the event
-        UltralightMouseEvent event = new UltralightMouseEvent()
-                .x((int) (x * xScale))
-                .y((int) (y * yScale))
-                .type(UltralightMouseEventType.MOVED);
-
-        // Translate the mouse state to the event
+        // Translate the mouse state to a button
+        int button = UltralightInputEvents.MOUSE_BUTTON_NONE;
         if (glfwGetMouseButton(window, GLFW_MOUSE_BUTTON_LEFT) == GLFW_PRESS) {
-            event.button(UltralightMouseEventButton.LEFT);
+            button = UltralightInputEvents.MOUSE_BUTTON_LEFT;
         } else if (glfwGetMouseButton(window, GLFW_MOUSE_BUTTON_MIDDLE) == GLFW_PRESS) {
-            event.button(UltralightMouseEventButton.MIDDLE);
+            button = UltralightInputEvents.MOUSE_BUTTON_MIDDLE;
         } else if (glfwGetMouseButton(window, GLFW_MOUSE_BUTTON_RIGHT) == GLFW_PRESS) {
-            event.button(UltralightMouseEventButton.RIGHT);
+            button = UltralightInputEvents.MOUSE_BUTTON_RIGHT;
         }
 
-        // Fire the event
-        view.fireMouseEvent(event);
+        // Fire the event, mouse movement is frequent enough to avoid allocating an event object for it
+        view.fireMouseEvent(UltralightInputEvents.MOUSE_MOVED, (int) (x * xScale), (int) (y * yScale), button);
     }
 
     /**
@@ -198,14 +193,8 @@ public class InputAdapter {
      * @param yDelta The y scroll delta
      */
     public void scrollCallback(long window, double xDelta, double yDelta) {
-        // Create the event
-        UltralightScrollEvent event = new UltralightScrollEvent()
-                .deltaX((int) xDelta * 32)
-                .deltaY((int) yDelta * 32)
-                .type(UltralightScrollEventType.BY_PIXEL);
-
         // Fire the event
-        view.fireScrollEvent(event);
+        view.fireScrollEvent(UltralightInputEvents.SCROLL_BY_PIXEL, (int) xDelta * 32, (int) yDelta * 32);
     }
 
     /**
@@ -61,6 +61,17 @@ public class ViewContextProvider implements ContextProvider {
         }
     }
 
+    /**
+     * All providers of the same view share the same Javascript context, returning the view here allows
+     * asynchronous calls into it to be batched.
+     *
+     * @return The view this provider synchronizes with
+     */
+    @Override
+    public Object contextKey() {
+        return view;
+    }
+
     /**
      * Factory class for context providers.
      */
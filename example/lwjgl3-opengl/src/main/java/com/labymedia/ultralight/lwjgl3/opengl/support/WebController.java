@@ -35,6 +35,8 @@ import com.labymedia.ultralight.lwjgl3.opengl.listener.ExampleViewListener;
 import org.lwjgl.glfw.GLFW;
 import org.lwjgl.opengl.GL30;
 
+import java.nio.file.Paths;
+
 import static org.lwjgl.glfw.GLFW.glfwMakeContextCurrent;
 import static org.lwjgl.opengl.GL20.*;
 
@@ -79,6 +81,8 @@ public class WebController {
 
     public void initGPUDriver() {
         this.driver = new UltralightOpenGLGPUDriverNative(this.window, false, GLFW.Functions.GetProcAddress);
+        this.driver.setProgramCacheDirectory(Paths.get("./shader-cache"));
+        this.driver.preloadPrograms();
 
         this.platform.setGPUDriver(this.driver);
         this.renderer = UltralightRenderer.create();
@@ -123,6 +127,9 @@ public class WebController {
      */
     public void update() {
         this.renderer.update();
+
+        // The command list recorded by render() is queued for the active window
+        this.driver.setActiveWindow(this.window);
         this.renderer.render();
 
         if (lastJavascriptGarbageCollections == 0) {
@@ -154,10 +161,9 @@ public class WebController {
         glfwMakeContextCurrent(window);
         glPushAttrib(GL_ENABLE_BIT | GL_COLOR_BUFFER_BIT | GL_TRANSFORM_BIT);
 
-        if (this.driver.hasCommandsPending()) {
-            //GLFW.glfwMakeContextCurrent(this.window);
-            this.driver.drawCommandList();
-            //GLFW.glfwSwapBuffers(this.window);
+        // Draw the commands queued for this window, the context of the window is current already
+        if (this.driver.hasCommandsPending(this.window)) {
+            this.driver.drawCommandList(this.window);
         }
 
         glPopAttrib();
@@ -166,8 +172,6 @@ public class WebController {
         GL30.glBindRenderbuffer(GL30.GL_RENDERBUFFER, 0);
 
         this.renderHtmlTexture(this.view, this.window);
-        glfwMakeContextCurrent(window);
-
     }
 
     private void renderHtmlTexture(UltralightView view, long window) {
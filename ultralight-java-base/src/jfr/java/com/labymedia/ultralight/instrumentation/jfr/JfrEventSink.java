@@ -0,0 +1,117 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.instrumentation.jfr;
+
+import com.labymedia.ultralight.instrumentation.UltralightEvent;
+import com.labymedia.ultralight.instrumentation.UltralightEventSink;
+import com.labymedia.ultralight.instrumentation.UltralightEventType;
+import jdk.jfr.EventType;
+
+/**
+ * Event sink recording Java Flight Recorder events.
+ * <p>
+ * This class is loaded reflectively by {@link com.labymedia.ultralight.instrumentation.UltralightEvents}, it must
+ * not be referenced directly so the library keeps working on JVMs without JFR.
+ */
+public final class JfrEventSink implements UltralightEventSink {
+    private static final EventType SCRIPT_EVALUATION = EventType.getEventType(ScriptEvaluationEvent.class);
+    private static final EventType JAVASCRIPT_CALLBACK = EventType.getEventType(JavascriptCallbackEvent.class);
+    private static final EventType FILE_READ = EventType.getEventType(FileReadEvent.class);
+    private static final EventType GPU_DRIVER_CALLBACK = EventType.getEventType(GPUDriverCallbackEvent.class);
+    private static final EventType FFI_DELETION = EventType.getEventType(FFIDeletionEvent.class);
+    private static final EventType RENDERER_CALL = EventType.getEventType(RendererCallEvent.class);
+
+    @Override
+    public boolean isEnabled(UltralightEventType type) {
+        return jfrType(type).isEnabled();
+    }
+
+    @Override
+    public UltralightEvent begin(UltralightEventType type) {
+        // Only allocate an event if a recording is interested in it
+        if (!jfrType(type).isEnabled()) {
+            return UltralightEvent.DISABLED;
+        }
+
+        UltralightJfrEvent event;
+        switch (type) {
+            case SCRIPT_EVALUATION:
+                event = new ScriptEvaluationEvent();
+                break;
+
+            case JAVASCRIPT_CALLBACK:
+                event = new JavascriptCallbackEvent();
+                break;
+
+            case FILE_READ:
+                event = new FileReadEvent();
+                break;
+
+            case GPU_DRIVER_CALLBACK:
+                event = new GPUDriverCallbackEvent();
+                break;
+
+            case FFI_DELETION:
+                event = new FFIDeletionEvent();
+                break;
+
+            case RENDERER_CALL:
+                event = new RendererCallEvent();
+                break;
+
+            default:
+                throw new AssertionError("Unhandled event type " + type);
+        }
+
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Retrieves the JFR event type backing an event type.
+     *
+     * @param type The event type to retrieve the JFR event type for
+     * @return The JFR event type
+     */
+    private static EventType jfrType(UltralightEventType type) {
+        switch (type) {
+            case SCRIPT_EVALUATION:
+                return SCRIPT_EVALUATION;
+
+            case JAVASCRIPT_CALLBACK:
+                return JAVASCRIPT_CALLBACK;
+
+            case FILE_READ:
+                return FILE_READ;
+
+            case GPU_DRIVER_CALLBACK:
+                return GPU_DRIVER_CALLBACK;
+
+            case FFI_DELETION:
+                return FFI_DELETION;
+
+            case RENDERER_CALL:
+                return RENDERER_CALL;
+
+            default:
+                throw new AssertionError("Unhandled event type " + type);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.instrumentation.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event recorded for scripts evaluated in a view.
+ */
+@Name("com.labymedia.ultralight.ScriptEvaluation")
+@Label("Script Evaluation")
+@Description("Evaluation of a script in a view")
+final class ScriptEvaluationEvent extends UltralightJfrEvent {
+    @Label("View URL")
+    String view;
+
+    @Label("Script Length")
+    @Description("Length of the evaluated script in characters")
+    long scriptLength;
+
+    @Override
+    protected void apply(String subject, long size) {
+        this.view = subject;
+        this.scriptLength = size;
+    }
+}
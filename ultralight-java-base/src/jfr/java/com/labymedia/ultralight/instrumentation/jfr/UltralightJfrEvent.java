@@ -0,0 +1,47 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.instrumentation.jfr;
+
+import com.labymedia.ultralight.instrumentation.UltralightEvent;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+
+/**
+ * Base for all JFR events emitted by Ultralight.
+ */
+@Category("Ultralight")
+abstract class UltralightJfrEvent extends Event implements UltralightEvent {
+    @Override
+    public void commit(String subject, long size) {
+        end();
+        if (shouldCommit()) {
+            apply(subject, size);
+            commit();
+        }
+    }
+
+    /**
+     * Writes the subject and size into the fields of this event.
+     *
+     * @param subject The subject of the event
+     * @param size    The size of the event
+     */
+    protected abstract void apply(String subject, long size);
+}
@@ -24,9 +24,14 @@ import com.labymedia.ultralight.annotation.NativeType;
 import com.labymedia.ultralight.annotation.Unsigned;
 import com.labymedia.ultralight.config.UltralightConfig;
 import com.labymedia.ultralight.ffi.ObjectWithHandle;
+import com.labymedia.ultralight.instrumentation.EventRecordingFileSystem;
+import com.labymedia.ultralight.instrumentation.EventRecordingGPUDriver;
+import com.labymedia.ultralight.instrumentation.UltralightEventType;
+import com.labymedia.ultralight.instrumentation.UltralightEvents;
 import com.labymedia.ultralight.plugin.clipboard.UltralightClipboard;
 import com.labymedia.ultralight.plugin.filesystem.UltralightFileSystem;
 import com.labymedia.ultralight.plugin.logging.UltralightLogger;
+import com.labymedia.ultralight.plugin.logging.UltralightLoggerConfig;
 import com.labymedia.ultralight.plugin.render.UltralightGPUDriver;
 import com.labymedia.ultralight.plugin.render.UltralightGPUDriverNative;
 
@@ -77,17 +82,37 @@ public class UltralightPlatform implements ObjectWithHandle {
 
     /**
      * Set the File System (will be used for all file system operations).
+     * <p>
+     * File reads are only recorded as events if a recording of them is active when this method is called.
      *
      * @param fileSystem The file system to use
      */
-    public native void setFileSystem(UltralightFileSystem fileSystem);
+    public void setFileSystem(UltralightFileSystem fileSystem) {
+        if (fileSystem != null && UltralightEvents.isEnabled(UltralightEventType.FILE_READ)) {
+            fileSystem = new EventRecordingFileSystem(fileSystem);
+        }
+
+        nativeSetFileSystem(fileSystem);
+    }
+
+    private native void nativeSetFileSystem(UltralightFileSystem fileSystem);
 
     /**
      * Set the GPU driver implementation.
+     * <p>
+     * GPU driver callbacks are only recorded as events if a recording of them is active when this method is called.
      *
      * @param gpuDriver The GPU driver implementation to use
      */
-    public native void setGPUDriver(UltralightGPUDriver gpuDriver);
+    public void setGPUDriver(UltralightGPUDriver gpuDriver) {
+        if (gpuDriver != null && UltralightEvents.isEnabled(UltralightEventType.GPU_DRIVER_CALLBACK)) {
+            gpuDriver = new EventRecordingGPUDriver(gpuDriver);
+        }
+
+        nativeSetGPUDriver(gpuDriver);
+    }
+
+    private native void nativeSetGPUDriver(UltralightGPUDriver gpuDriver);
 
     /**
      * Set the GPU driver implementation.
@@ -107,12 +132,39 @@ public class UltralightPlatform implements ObjectWithHandle {
 
     // TODO: Surface factory support
 
+    /**
+     * Sets the internal logger implementation to the provided one. Every message is passed synchronously.
+     *
+     * @param logger The logger to use
+     */
+    public void setLogger(UltralightLogger logger) {
+        setLogger(logger, new UltralightLoggerConfig());
+    }
+
     /**
      * Sets the internal logger implementation to the provided one.
+     * <p>
+     * If the previous logger was asynchronous, its remaining messages are delivered before this method returns.
+     * The logger can't be replaced from within an asynchronous log callback.
      *
      * @param logger The logger to use
+     * @param config The config controlling filtering and delivery of messages
+     */
+    public native void setLogger(UltralightLogger logger, UltralightLoggerConfig config);
+
+    /**
+     * Retrieves the amount of messages the current logger discarded for being below its minimum level.
+     *
+     * @return The amount of filtered messages, or {@code 0}, if no logger is set
+     */
+    public native long filteredLogMessageCount();
+
+    /**
+     * Retrieves the amount of messages the current logger dropped because its asynchronous buffer was full.
+     *
+     * @return The amount of dropped messages, or {@code 0}, if no logger is set
      */
-    public native void setLogger(UltralightLogger logger);
+    public native long droppedLogMessageCount();
 
     /**https://www.youtube.com/
      * Set the native GPU driver implementation.
@@ -25,6 +25,17 @@ import com.labymedia.ultralight.annotation.Unsigned;
 import com.labymedia.ultralight.config.UltralightViewConfig;
 import com.labymedia.ultralight.ffi.ObjectWithHandle;
 import com.labymedia.ultralight.ffi.RefPtr;
+import com.labymedia.ultralight.instrumentation.UltralightEvent;
+import com.labymedia.ultralight.instrumentation.UltralightEventType;
+import com.labymedia.ultralight.instrumentation.UltralightEvents;
+import com.labymedia.ultralight.instrumentation.UltralightFrameStatistics;
+import com.labymedia.ultralight.instrumentation.UltralightInstrumentationListener;
+import com.labymedia.ultralight.instrumentation.UltralightMemoryReport;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
 /**
  * The core of Ultralight. You should initialize it after setting up
@@ -53,9 +64,26 @@ public class UltralightRenderer implements ObjectWithHandle {
      */
     public static native UltralightRenderer create();
 
+    // Amount of tracked views below which dead ones are not pruned when creating views
+    private static final int MINIMUM_VIEW_PRUNE_THRESHOLD = 16;
+
     // C++ RefPtr of the object
     private final RefPtr<UltralightRenderer> ptr;
 
+    // Views created by this renderer, used to collect paint statistics
+    private final List<WeakReference<UltralightView>> views;
+    private int viewPruneThreshold;
+
+    // Instrumentation state, only touched while a listener is set
+    private volatile UltralightInstrumentationListener instrumentationListener;
+    private final long[] gpuDriverCounters;
+    private final List<UltralightView> frameViews;
+    private final List<UltralightView> paintedViews;
+    private boolean[] neededPaint;
+    private long frameNumber;
+    private int pendingUpdateCount;
+    private long pendingUpdateNanos;
+
     /**
      * Constructs a new {@link UltralightRenderer} from the given native
      * {@link RefPtr}.
@@ -64,7 +92,14 @@ public class UltralightRenderer implements ObjectWithHandle {
      */
     @NativeCall
     private UltralightRenderer(RefPtr<UltralightRenderer> ptr) {
+        ptr.bindOwnerType(UltralightRenderer.class);
         this.ptr = ptr;
+        this.views = new ArrayList<>();
+        this.viewPruneThreshold = MINIMUM_VIEW_PRUNE_THRESHOLD;
+        this.gpuDriverCounters = new long[UltralightFrameStatistics.GPU_DRIVER_COUNTER_COUNT];
+        this.frameViews = new ArrayList<>();
+        this.paintedViews = new ArrayList<>();
+        this.neededPaint = new boolean[0];
     }
 
     // TODO: Session API
@@ -77,7 +112,29 @@ public class UltralightRenderer implements ObjectWithHandle {
      * @param config Configuration details for the View.
      * @return The created view
      */
-    public native UltralightView createView(
+    public UltralightView createView(
+            @NativeType("uint32_t") @Unsigned long width,
+            @NativeType("uint32_t") @Unsigned long height,
+            UltralightViewConfig config
+    ) {
+        UltralightView view = nativeCreateView(width, height, config);
+        if (view != null) {
+            synchronized (views) {
+                if (views.size() >= viewPruneThreshold) {
+                    // Drop dead views on insert as well, the list would otherwise grow forever without a listener.
+                    // Doubling the threshold keeps the pruning cost constant per created view.
+                    views.removeIf((reference) -> isDead(reference.get()));
+                    viewPruneThreshold = Math.max(MINIMUM_VIEW_PRUNE_THRESHOLD, views.size() * 2);
+                }
+
+                views.add(new WeakReference<>(view));
+            }
+        }
+
+        return view;
+    }
+
+    private native UltralightView nativeCreateView(
             @NativeType("uint32_t") @Unsigned long width,
             @NativeType("uint32_t") @Unsigned long height,
             UltralightViewConfig config
@@ -87,12 +144,169 @@ public class UltralightRenderer implements ObjectWithHandle {
      * Update timers and dispatch internal callbacks. You should call this often
      * from your main application loop.
      */
-    public native void update();
+    public void update() {
+        boolean traced = UltralightEvents.isEnabled(UltralightEventType.RENDERER_CALL);
+        boolean instrumented = instrumentationListener != null;
+        if (!traced && !instrumented) {
+            nativeUpdate();
+            return;
+        }
+
+        UltralightEvent event = traced ?
+                UltralightEvents.begin(UltralightEventType.RENDERER_CALL) : UltralightEvent.DISABLED;
+        long start = instrumented ? System.nanoTime() : 0;
+
+        try {
+            nativeUpdate();
+        } finally {
+            if (instrumented) {
+                pendingUpdateNanos += System.nanoTime() - start;
+                pendingUpdateCount++;
+            }
+
+            event.commit("update", 0);
+        }
+    }
+
+    private native void nativeUpdate();
 
     /**
      * Render all active views to display lists and dispatch calls to GPUDriver.
      */
-    public native void render();
+    public void render() {
+        UltralightInstrumentationListener listener = instrumentationListener;
+        if (listener == null) {
+            if (!UltralightEvents.isEnabled(UltralightEventType.RENDERER_CALL)) {
+                nativeRender();
+                return;
+            }
+
+            UltralightEvent event = UltralightEvents.begin(UltralightEventType.RENDERER_CALL);
+            try {
+                nativeRender();
+            } finally {
+                event.commit("render", 0);
+            }
+            return;
+        }
+
+        // The buffers are reused for every frame, the statistics are only valid while the listener is invoked
+        List<UltralightView> liveViews = collectViews(frameViews);
+        int viewCount = liveViews.size();
+        if (neededPaint.length < viewCount) {
+            neededPaint = new boolean[viewCount];
+        }
+
+        for (int i = 0; i < viewCount; i++) {
+            neededPaint[i] = liveViews.get(i).needsPaint();
+        }
+
+        UltralightEvent event = UltralightEvents.begin(UltralightEventType.RENDERER_CALL);
+        long start = System.nanoTime();
+        try {
+            nativeRender();
+        } finally {
+            event.commit("render", 0);
+        }
+        long renderNanos = System.nanoTime() - start;
+
+        // The renderer paints exactly the views which needed it, surface dirty bounds accumulate until they are
+        // cleared by the application and would count views painted in earlier frames as well
+        paintedViews.clear();
+        for (int i = 0; i < viewCount; i++) {
+            if (neededPaint[i]) {
+                paintedViews.add(liveViews.get(i));
+            }
+        }
+
+        takeGPUDriverCounters(gpuDriverCounters);
+        UltralightFrameStatistics statistics = new UltralightFrameStatistics(
+                frameNumber++,
+                pendingUpdateCount,
+                pendingUpdateNanos,
+                renderNanos,
+                viewCount,
+                paintedViews,
+                gpuDriverCounters
+        );
+
+        pendingUpdateCount = 0;
+        pendingUpdateNanos = 0;
+        try {
+            listener.onFrame(statistics);
+        } finally {
+            // Don't keep the views reachable until the next frame
+            liveViews.clear();
+            paintedViews.clear();
+        }
+    }
+
+    private native void nativeRender();
+
+    /**
+     * Sets the listener receiving per frame statistics. Collecting statistics adds a small overhead to
+     * {@link #update()} and {@link #render()}, so the listener should only be set while the statistics are needed.
+     * <p>
+     * The GPU driver counters are global to the platform, if multiple renderers share a GPU driver the counters of a
+     * frame contain the work of all of them.
+     *
+     * @param listener The listener to invoke after every frame, or {@code null}, to disable instrumentation
+     */
+    public void setInstrumentationListener(UltralightInstrumentationListener listener) {
+        if (listener != null && instrumentationListener == null) {
+            // Discard counters accumulated while not instrumenting
+            takeGPUDriverCounters(gpuDriverCounters);
+            pendingUpdateCount = 0;
+            pendingUpdateNanos = 0;
+        }
+
+        this.instrumentationListener = listener;
+    }
+
+    /**
+     * Retrieves the listener receiving per frame statistics.
+     *
+     * @return The current instrumentation listener, or {@code null}, if none
+     */
+    public UltralightInstrumentationListener getInstrumentationListener() {
+        return instrumentationListener;
+    }
+
+    /**
+     * Collects all views of this renderer which are still alive and drops the collected and destroyed ones.
+     *
+     * @param liveViews The list to clear and fill with the views which are still alive
+     * @return The given list
+     */
+    private List<UltralightView> collectViews(List<UltralightView> liveViews) {
+        liveViews.clear();
+
+        synchronized (views) {
+            Iterator<WeakReference<UltralightView>> it = views.iterator();
+            while (it.hasNext()) {
+                UltralightView view = it.next().get();
+                if (isDead(view)) {
+                    it.remove();
+                } else {
+                    liveViews.add(view);
+                }
+            }
+        }
+
+        return liveViews;
+    }
+
+    /**
+     * Determines whether a tracked view can not be used anymore.
+     *
+     * @param view The view to check, {@code null} if it has been garbage collected
+     * @return {@code true} if the view has been garbage collected or destroyed, {@code false} otherwise
+     */
+    private static boolean isDead(UltralightView view) {
+        return view == null || view.isDestroyed();
+    }
+
+    private static native void takeGPUDriverCounters(long[] target);
 
     /**
      * Attempt to release as much memory as possible. <b>Don't call this from any
@@ -105,6 +319,18 @@ public class UltralightRenderer implements ObjectWithHandle {
      */
     public native void logMemoryUsage();
 
+    /**
+     * Collect detailed memory usage statistics. This captures the output of {@link #logMemoryUsage()} instead of
+     * passing it to the platform logger.
+     *
+     * @return The memory usage statistics
+     */
+    public UltralightMemoryReport memoryReport() {
+        return UltralightMemoryReport.parse(captureMemoryUsage());
+    }
+
+    private native String[] captureMemoryUsage();
+
     @Override
     public @NativeType("void *")
     @Unsigned
@@ -24,16 +24,26 @@ import com.labymedia.ultralight.annotation.NativeType;
 import com.labymedia.ultralight.annotation.Unsigned;
 import com.labymedia.ultralight.ffi.ObjectWithHandle;
 import com.labymedia.ultralight.ffi.RefPtr;
+import com.labymedia.ultralight.input.UltralightInputEventBuffer;
+import com.labymedia.ultralight.input.UltralightInputEvents;
 import com.labymedia.ultralight.input.UltralightKeyEvent;
 import com.labymedia.ultralight.input.UltralightKeyEventType;
 import com.labymedia.ultralight.input.UltralightMouseEvent;
 import com.labymedia.ultralight.input.UltralightScrollEvent;
+import com.labymedia.ultralight.instrumentation.UltralightEvent;
+import com.labymedia.ultralight.instrumentation.UltralightEventType;
+import com.labymedia.ultralight.instrumentation.UltralightEvents;
 import com.labymedia.ultralight.javascript.JavascriptContextLock;
 import com.labymedia.ultralight.javascript.JavascriptEvaluationException;
 import com.labymedia.ultralight.plugin.loading.UltralightLoadListener;
 import com.labymedia.ultralight.plugin.render.UltralightRenderTarget;
+import com.labymedia.ultralight.plugin.view.MessageLevel;
+import com.labymedia.ultralight.plugin.view.MessageSource;
+import com.labymedia.ultralight.plugin.view.UltralightConsoleMessageListener;
 import com.labymedia.ultralight.plugin.view.UltralightViewListener;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Objects;
 
 /**
@@ -55,6 +65,7 @@ public class UltralightView implements ObjectWithHandle {
      */
     @NativeCall
     private UltralightView(RefPtr<UltralightView> ptr) {
+        ptr.bindOwnerType(UltralightView.class);
         this.ptr = ptr;
     }
 
@@ -193,7 +204,18 @@ public class UltralightView implements ObjectWithHandle {
      * @return The JavaScript result typecast to a String.
      * @throws JavascriptEvaluationException If the evaluated script throws an exception
      */
-    public native String evaluateScript(String script) throws JavascriptEvaluationException;
+    public String evaluateScript(String script) throws JavascriptEvaluationException {
+        UltralightEvent event = UltralightEvents.begin(UltralightEventType.SCRIPT_EVALUATION);
+        try {
+            return nativeEvaluateScript(script);
+        } finally {
+            if (event.isEnabled()) {
+                event.commit(url(), script.length());
+            }
+        }
+    }
+
+    private native String nativeEvaluateScript(String script) throws JavascriptEvaluationException;
 
     /**
      * Whether or not we can navigate backwards in history.
@@ -290,6 +312,97 @@ public class UltralightView implements ObjectWithHandle {
      */
     public native void fireScrollEvent(UltralightScrollEvent event);
 
+    /**
+     * Fire a keyboard event described by its primitive components, avoiding the allocation and field access of an
+     * {@link UltralightKeyEvent}. The key identifier is derived from the virtual key code.
+     *
+     * @param type           The type code of the event, one of the {@code UltralightInputEvents.KEY_*} constants
+     * @param modifiers      The {@link com.labymedia.ultralight.input.UltralightInputModifier} modifiers
+     * @param virtualKeyCode The virtual key code, see {@link com.labymedia.ultralight.input.UltralightKey#getId()}
+     * @param nativeKeyCode  The platform specific key code
+     * @param flags          The flags of the event, a combination of the {@code UltralightInputEvents.KEY_FLAG_*}
+     *                       constants
+     * @param text           The text generated by the event, or {@code null}
+     * @param unmodifiedText The text that would have been generated without modifiers, or {@code null}
+     * @throws IllegalArgumentException If the type code is invalid
+     * @see UltralightInputEvents
+     */
+    public native void fireKeyEvent(
+            int type,
+            @NativeType("unsigned") @Unsigned int modifiers,
+            int virtualKeyCode,
+            int nativeKeyCode,
+            int flags,
+            String text,
+            String unmodifiedText
+    );
+
+    /**
+     * Fire a mouse event described by its primitive components, avoiding the allocation and field access of an
+     * {@link UltralightMouseEvent}.
+     *
+     * @param type   The type code of the event, one of the {@code UltralightInputEvents.MOUSE_*} constants
+     * @param x      The x position of the mouse, relative to the view
+     * @param y      The y position of the mouse, relative to the view
+     * @param button The button code of the event, one of the {@code UltralightInputEvents.MOUSE_BUTTON_*} constants
+     * @throws IllegalArgumentException If the type or button code is invalid
+     * @see UltralightInputEvents
+     */
+    public native void fireMouseEvent(int type, int x, int y, int button);
+
+    /**
+     * Fire a scroll event described by its primitive components, avoiding the allocation and field access of an
+     * {@link UltralightScrollEvent}.
+     *
+     * @param type   The type code of the event, one of the {@code UltralightInputEvents.SCROLL_*} constants
+     * @param deltaX The horizontal scroll amount
+     * @param deltaY The vertical scroll amount
+     * @throws IllegalArgumentException If the type code is invalid
+     * @see UltralightInputEvents
+     */
+    public native void fireScrollEvent(int type, int deltaX, int deltaY);
+
+    /**
+     * Fire all events encoded in the remaining content of a buffer using a single native call. The position of the
+     * buffer is advanced to its limit once all events have been fired.
+     *
+     * @param buffer The direct buffer containing the events in native byte order, see
+     *               {@link UltralightInputEventBuffer} for the encoding
+     * @return The amount of events that have been fired
+     * @throws IllegalArgumentException If the buffer is not a direct buffer in native byte order, or contains an
+     *                                  invalid or truncated record
+     */
+    public int fireInputEvents(ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            throw new IllegalArgumentException("buffer needs to be a direct buffer");
+        } else if (buffer.order() != ByteOrder.nativeOrder()) {
+            throw new IllegalArgumentException("buffer needs to be in native byte order");
+        }
+
+        int fired = nativeFireInputEvents(buffer, buffer.position(), buffer.remaining());
+        buffer.position(buffer.limit());
+        return fired;
+    }
+
+    /**
+     * Fire all events stored in an input event buffer and clear it afterwards.
+     *
+     * @param events The buffer containing the events to fire
+     * @return The amount of events that have been fired
+     * @see #fireInputEvents(ByteBuffer)
+     */
+    public int fireInputEvents(UltralightInputEventBuffer events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        int fired = fireInputEvents(events.encoded());
+        events.clear();
+        return fired;
+    }
+
+    private native int nativeFireInputEvents(ByteBuffer buffer, int offset, int length);
+
     /**
      * Set a {@link UltralightViewListener} to receive callbacks for View-related events.
      *
@@ -297,6 +410,27 @@ public class UltralightView implements ObjectWithHandle {
      */
     public native void setViewListener(UltralightViewListener listener);
 
+    /**
+     * Set a listener receiving console messages in batches instead of one by one through
+     * {@link UltralightViewListener#onAddConsoleMessage(MessageSource, MessageLevel, String, long, long, String)}.
+     * While this listener is set, the view listener does not receive console messages.
+     *
+     * @param listener             The listener to set, or {@code null}, to pass console messages to the view listener
+     *                             again
+     * @param maxMessagesPerUpdate The maximum amount of distinct messages passed per update
+     */
+    public native void setConsoleMessageListener(UltralightConsoleMessageListener listener, int maxMessagesPerUpdate);
+
+    /**
+     * Set a listener receiving console messages in batches, passing at most 256 distinct messages per update.
+     *
+     * @param listener The listener to set, or {@code null}, to pass console messages to the view listener again
+     * @see #setConsoleMessageListener(UltralightConsoleMessageListener, int)
+     */
+    public void setConsoleMessageListener(UltralightConsoleMessageListener listener) {
+        setConsoleMessageListener(listener, 256);
+    }
+
     /**
      * Set a {@link UltralightLoadListener} to receive callbacks for Load-related events.
      *
@@ -342,6 +476,24 @@ public class UltralightView implements ObjectWithHandle {
      */
     public native UltralightView inspector();
 
+    /**
+     * Releases this view immediately instead of waiting for it to be garbage collected. The native view is destroyed
+     * once no other references, such as the ones of its inspector, are left. This view may not be used anymore after
+     * this method has been called.
+     */
+    public void destroy() {
+        ptr.release();
+    }
+
+    /**
+     * Determines whether this view has been destroyed using {@link #destroy()}.
+     *
+     * @return {@code true} if this view has been destroyed, {@code false} otherwise
+     */
+    public boolean isDestroyed() {
+        return ptr.isReleased();
+    }
+
     @Override
     public long getHandle() {
         return ptr.getHandle();
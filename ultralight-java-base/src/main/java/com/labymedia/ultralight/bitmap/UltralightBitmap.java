@@ -99,6 +99,7 @@ public class UltralightBitmap implements ObjectWithHandle {
      */
     @NativeCall
     private UltralightBitmap(RefPtr<UltralightBitmap> ptr) {
+        ptr.bindOwnerType(UltralightBitmap.class);
         this.ptr = ptr;
     }
 
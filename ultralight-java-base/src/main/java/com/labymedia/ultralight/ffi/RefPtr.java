@@ -43,7 +43,36 @@ public class RefPtr<T> implements ObjectWithHandle {
      */
     @NativeCall
     private RefPtr(@NativeType("ultralight::RefPtr *") @Unsigned long handle) {
-        this.handle = new DeletableObject<>(handle, RefPtr::delete);
+        this.handle = new DeletableObject<>(handle, RefPtr::delete, RefPtr.class);
+    }
+
+    /**
+     * Binds the type of the wrapper owning this pointer. The type is reported when the deletion of the pointer
+     * is recorded.
+     *
+     * @param ownerType The type of the wrapper owning this pointer
+     */
+    public void bindOwnerType(Class<? extends T> ownerType) {
+        handle.setOwnerType(ownerType);
+    }
+
+    /**
+     * Releases the reference held by this pointer immediately instead of waiting for garbage collection. The pointer
+     * may not be used anymore after this method has been called.
+     *
+     * @return {@code true} if the reference has been released, {@code false} if it has been released already
+     */
+    public boolean release() {
+        return handle.delete();
+    }
+
+    /**
+     * Determines whether the reference held by this pointer has been released using {@link #release()}.
+     *
+     * @return {@code true} if the reference has been released, {@code false} otherwise
+     */
+    public boolean isReleased() {
+        return handle.isDeleted();
     }
 
     @Override
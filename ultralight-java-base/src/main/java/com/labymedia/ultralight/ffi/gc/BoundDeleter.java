@@ -19,6 +19,10 @@
 
 package com.labymedia.ultralight.ffi.gc;
 
+import com.labymedia.ultralight.instrumentation.UltralightEvent;
+import com.labymedia.ultralight.instrumentation.UltralightEventType;
+import com.labymedia.ultralight.instrumentation.UltralightEvents;
+
 /**
  * Bound version of a {@link ObjectDeleter}.
  */
@@ -26,31 +30,50 @@ public class BoundDeleter<T> {
     private final T value;
     private final ObjectDeleter<T> deleter;
 
+    private volatile Class<?> ownerType;
     private boolean deleted;
 
     /**
      * Crates a new {@link BoundDeleter} binding an object and its deleter.
      *
-     * @param value   The object to bind to the deleter
-     * @param deleter The deleter to bind the object to
+     * @param value     The object to bind to the deleter
+     * @param deleter   The deleter to bind the object to
+     * @param ownerType The type of the wrapper owning the object, reported when the deletion is recorded
      */
-    BoundDeleter(T value, ObjectDeleter<T> deleter) {
+    BoundDeleter(T value, ObjectDeleter<T> deleter, Class<?> ownerType) {
         this.value = value;
         this.deleter = deleter;
+        this.ownerType = ownerType;
         this.deleted = false;
     }
 
+    /**
+     * Changes the type of the wrapper owning the bound object.
+     *
+     * @param ownerType The new owner type
+     */
+    void setOwnerType(Class<?> ownerType) {
+        this.ownerType = ownerType;
+    }
+
     /**
      * Runs the deleter with the stored object.
      *
      * @return {@code true} if the object has been deleted, {@code false} otherwise
      */
-    public boolean delete() {
+    public synchronized boolean delete() {
         if (deleted) {
             return false;
         }
 
-        deleter.delete(value);
+        UltralightEvent event = UltralightEvents.begin(UltralightEventType.FFI_DELETION);
+        try {
+            deleter.delete(value);
+        } finally {
+            if (event.isEnabled()) {
+                event.commit(ownerType.getName(), 0);
+            }
+        }
         deleted = true;
         return true;
     }
@@ -60,7 +83,7 @@ public class BoundDeleter<T> {
      *
      * @return {@code true} if the deleter has been executed already, {@code false} otherwise
      */
-    public boolean isDeleted() {
+    public synchronized boolean isDeleted() {
         return deleted;
     }
 
@@ -36,8 +36,20 @@ public class DeletableObject<T> {
      * @param deleter The deleter to invoke when deleting the value
      */
     public DeletableObject(T value, ObjectDeleter<T> deleter) {
+        this(value, deleter, value.getClass());
+    }
+
+    /**
+     * Constructs a new {@link DeletableObject} with a {@link ObjectDeleter} which will be notified when this object
+     * will be deleted.
+     *
+     * @param value     The deletable value
+     * @param deleter   The deleter to invoke when deleting the value
+     * @param ownerType The type of the wrapper owning the value, reported when the deletion is recorded
+     */
+    public DeletableObject(T value, ObjectDeleter<T> deleter, Class<?> ownerType) {
         this.value = value;
-        this.deleter = new BoundDeleter<>(value, deleter);
+        this.deleter = new BoundDeleter<>(value, deleter, ownerType);
 
         // Submit the new object to the garbage collector
         FFIGarbageCollectorController.submit(this, this.deleter);
@@ -63,6 +75,16 @@ public class DeletableObject<T> {
         return deleter.isDeleted();
     }
 
+    /**
+     * Changes the type of the wrapper owning the value. This is used for values which are created before the wrapper
+     * owning them is known.
+     *
+     * @param ownerType The new owner type
+     */
+    public void setOwnerType(Class<?> ownerType) {
+        deleter.setOwnerType(ownerType);
+    }
+
     /**
      * Retrieves the stored value of this {@link DeletableObject}. The value needs to not be kept around or heap
      * corruption may occur when the original deletable object goes out of scope.
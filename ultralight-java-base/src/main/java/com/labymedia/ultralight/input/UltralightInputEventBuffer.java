@@ -0,0 +1,232 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.input;
+
+import com.labymedia.ultralight.UltralightView;
+
+import java.lang.annotation.Native;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Growable buffer encoding input events for submitting them in batches using
+ * {@link UltralightView#fireInputEvents(ByteBuffer)}.
+ * <p>
+ * Events are encoded as records of 32 bit integers in native byte order, each starting with a tag:
+ * <ul>
+ *     <li>{@link #MOUSE_EVENT}: type, x, y, button</li>
+ *     <li>{@link #SCROLL_EVENT}: type, delta x, delta y</li>
+ *     <li>{@link #KEY_EVENT}: type, modifiers, virtual key code, native key code, flags, text length,
+ *     unmodified text length, followed by the UTF-16 chars of both texts and padding up to the next 4 byte
+ *     boundary</li>
+ * </ul>
+ * All type, button and flag values are the codes defined in {@link UltralightInputEvents}.
+ */
+public final class UltralightInputEventBuffer {
+    /**
+     * Record tag of mouse events
+     */
+    @Native
+    public static final int MOUSE_EVENT = 1;
+
+    /**
+     * Record tag of scroll events
+     */
+    @Native
+    public static final int SCROLL_EVENT = 2;
+
+    /**
+     * Record tag of key events
+     */
+    @Native
+    public static final int KEY_EVENT = 3;
+
+    private ByteBuffer buffer;
+    private int eventCount;
+
+    /**
+     * Constructs a new input event buffer with room for about 64 mouse events.
+     */
+    public UltralightInputEventBuffer() {
+        this(1024);
+    }
+
+    /**
+     * Constructs a new input event buffer.
+     *
+     * @param initialCapacity The initial capacity in bytes, the buffer grows when required
+     */
+    public UltralightInputEventBuffer(int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("initialCapacity must be at least 1");
+        }
+
+        this.buffer = ByteBuffer.allocateDirect(initialCapacity).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Appends a mouse event.
+     *
+     * @param type   The type code of the event
+     * @param x      The x position of the mouse, relative to the view
+     * @param y      The y position of the mouse, relative to the view
+     * @param button The button code of the event
+     * @return this
+     */
+    public UltralightInputEventBuffer mouseEvent(int type, int x, int y, int button) {
+        ensureRemaining(20);
+        buffer.putInt(MOUSE_EVENT).putInt(type).putInt(x).putInt(y).putInt(button);
+        eventCount++;
+        return this;
+    }
+
+    /**
+     * Appends a scroll event.
+     *
+     * @param type   The type code of the event
+     * @param deltaX The horizontal scroll amount
+     * @param deltaY The vertical scroll amount
+     * @return this
+     */
+    public UltralightInputEventBuffer scrollEvent(int type, int deltaX, int deltaY) {
+        ensureRemaining(16);
+        buffer.putInt(SCROLL_EVENT).putInt(type).putInt(deltaX).putInt(deltaY);
+        eventCount++;
+        return this;
+    }
+
+    /**
+     * Appends a key event. The key identifier is derived from the virtual key code.
+     *
+     * @param type           The type code of the event
+     * @param modifiers      The {@link UltralightInputModifier} modifiers of the event
+     * @param virtualKeyCode The virtual key code of the event, see {@link UltralightKey#getId()}
+     * @param nativeKeyCode  The platform specific key code of the event
+     * @param flags          The flags of the event
+     * @param text           The text generated by the event, or {@code null}
+     * @param unmodifiedText The text that would have been generated without modifiers, or {@code null}
+     * @return this
+     */
+    public UltralightInputEventBuffer keyEvent(
+            int type,
+            int modifiers,
+            int virtualKeyCode,
+            int nativeKeyCode,
+            int flags,
+            String text,
+            String unmodifiedText
+    ) {
+        int textLength = text == null ? 0 : text.length();
+        int unmodifiedTextLength = unmodifiedText == null ? 0 : unmodifiedText.length();
+        int charBytes = (textLength + unmodifiedTextLength) * 2;
+
+        ensureRemaining(32 + ((charBytes + 3) & ~3));
+        buffer.putInt(KEY_EVENT)
+                .putInt(type)
+                .putInt(modifiers)
+                .putInt(virtualKeyCode)
+                .putInt(nativeKeyCode)
+                .putInt(flags)
+                .putInt(textLength)
+                .putInt(unmodifiedTextLength);
+
+        for (int i = 0; i < textLength; i++) {
+            buffer.putChar(text.charAt(i));
+        }
+
+        for (int i = 0; i < unmodifiedTextLength; i++) {
+            buffer.putChar(unmodifiedText.charAt(i));
+        }
+
+        if ((charBytes & 3) != 0) {
+            buffer.putChar((char) 0);
+        }
+
+        eventCount++;
+        return this;
+    }
+
+    /**
+     * Appends a character input event for a unicode code point.
+     *
+     * @param codepoint The code point that has been input
+     * @return this
+     */
+    public UltralightInputEventBuffer charEvent(int codepoint) {
+        String text = new String(Character.toChars(codepoint));
+        return keyEvent(UltralightInputEvents.KEY_CHAR, 0, 0, 0, 0, text, text);
+    }
+
+    /**
+     * Retrieves the amount of events currently stored in this buffer.
+     *
+     * @return The amount of stored events
+     */
+    public int eventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Checks whether this buffer contains no events.
+     *
+     * @return {@code true} if this buffer contains no events, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return eventCount == 0;
+    }
+
+    /**
+     * Retrieves a view of the encoded events, ready to be passed to
+     * {@link UltralightView#fireInputEvents(ByteBuffer)}.
+     *
+     * @return A buffer containing the encoded events, sharing its content with this buffer
+     */
+    public ByteBuffer encoded() {
+        ByteBuffer view = buffer.duplicate().order(ByteOrder.nativeOrder());
+        view.flip();
+        return view;
+    }
+
+    /**
+     * Removes all events from this buffer, retaining its capacity.
+     */
+    public void clear() {
+        buffer.clear();
+        eventCount = 0;
+    }
+
+    /**
+     * Makes sure the buffer has room for at least the given amount of bytes, growing it when required.
+     *
+     * @param bytes The amount of bytes required
+     */
+    private void ensureRemaining(int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+
+        int newCapacity = Math.max(buffer.capacity() * 2, buffer.position() + bytes);
+        ByteBuffer grown = ByteBuffer.allocateDirect(newCapacity).order(ByteOrder.nativeOrder());
+
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+}
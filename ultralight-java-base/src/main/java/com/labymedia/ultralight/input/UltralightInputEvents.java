@@ -0,0 +1,174 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.input;
+
+import com.labymedia.ultralight.UltralightView;
+
+import java.lang.annotation.Native;
+
+/**
+ * Primitive codes used for firing input events without allocating event objects.
+ *
+ * @see UltralightView#fireMouseEvent(int, int, int, int)
+ * @see UltralightView#fireScrollEvent(int, int, int)
+ * @see UltralightView#fireKeyEvent(int, int, int, int, int, String, String)
+ * @see UltralightInputEventBuffer
+ */
+public final class UltralightInputEvents {
+    /**
+     * Key down type, see {@link UltralightKeyEventType#DOWN}
+     */
+    @Native
+    public static final int KEY_DOWN = 0;
+
+    /**
+     * Key up type, see {@link UltralightKeyEventType#UP}
+     */
+    @Native
+    public static final int KEY_UP = 1;
+
+    /**
+     * Raw key down type, see {@link UltralightKeyEventType#RAW_DOWN}
+     */
+    @Native
+    public static final int KEY_RAW_DOWN = 2;
+
+    /**
+     * Character input type, see {@link UltralightKeyEventType#CHAR}
+     */
+    @Native
+    public static final int KEY_CHAR = 3;
+
+    /**
+     * Whether or not the key was generated by the keypad
+     */
+    @Native
+    public static final int KEY_FLAG_KEYPAD = 1;
+
+    /**
+     * Whether or not the key event is an auto repeat
+     */
+    @Native
+    public static final int KEY_FLAG_AUTO_REPEAT = 1 << 1;
+
+    /**
+     * Whether or not the key is a system key
+     */
+    @Native
+    public static final int KEY_FLAG_SYSTEM_KEY = 1 << 2;
+
+    /**
+     * Mouse moved type, see {@link UltralightMouseEventType#MOVED}
+     */
+    @Native
+    public static final int MOUSE_MOVED = 0;
+
+    /**
+     * Mouse button pressed type, see {@link UltralightMouseEventType#DOWN}
+     */
+    @Native
+    public static final int MOUSE_DOWN = 1;
+
+    /**
+     * Mouse button released type, see {@link UltralightMouseEventType#UP}
+     */
+    @Native
+    public static final int MOUSE_UP = 2;
+
+    /**
+     * No mouse button
+     */
+    @Native
+    public static final int MOUSE_BUTTON_NONE = 0;
+
+    /**
+     * The left mouse button, see {@link UltralightMouseEventButton#LEFT}
+     */
+    @Native
+    public static final int MOUSE_BUTTON_LEFT = 1;
+
+    /**
+     * The middle mouse button, see {@link UltralightMouseEventButton#MIDDLE}
+     */
+    @Native
+    public static final int MOUSE_BUTTON_MIDDLE = 2;
+
+    /**
+     * The right mouse button, see {@link UltralightMouseEventButton#RIGHT}
+     */
+    @Native
+    public static final int MOUSE_BUTTON_RIGHT = 3;
+
+    /**
+     * Scroll by pixel type, see {@link UltralightScrollEventType#BY_PIXEL}
+     */
+    @Native
+    public static final int SCROLL_BY_PIXEL = 0;
+
+    /**
+     * Scroll by page type, see {@link UltralightScrollEventType#BY_PAGE}
+     */
+    @Native
+    public static final int SCROLL_BY_PAGE = 1;
+
+    // Static constants class
+    private UltralightInputEvents() {
+    }
+
+    /**
+     * Converts a key event type to its primitive code.
+     *
+     * @param type The type to convert
+     * @return The primitive code of the type
+     */
+    public static int keyType(UltralightKeyEventType type) {
+        return type.ordinal();
+    }
+
+    /**
+     * Converts a mouse event type to its primitive code.
+     *
+     * @param type The type to convert
+     * @return The primitive code of the type
+     */
+    public static int mouseType(UltralightMouseEventType type) {
+        return type.ordinal();
+    }
+
+    /**
+     * Converts a mouse button to its primitive code.
+     *
+     * @param button The button to convert, or {@code null}, if no button is involved
+     * @return The primitive code of the button
+     */
+    public static int mouseButton(UltralightMouseEventButton button) {
+        return button == null ? MOUSE_BUTTON_NONE : button.ordinal() + 1;
+    }
+
+    /**
+     * Converts a scroll event type to its primitive code.
+     *
+     * @param type The type to convert
+     * @return The primitive code of the type
+     */
+    public static int scrollType(UltralightScrollEventType type) {
+        return type.ordinal();
+    }
+}
@@ -880,4 +880,13 @@ public enum UltralightKey {
     UltralightKey(int id) {
         this.id = id;
     }
+
+    /**
+     * Retrieves the virtual key code of this key.
+     *
+     * @return The virtual key code of this key
+     */
+    public int getId() {
+        return id;
+    }
 }
@@ -0,0 +1,89 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.instrumentation;
+
+import com.labymedia.ultralight.plugin.filesystem.UltralightFileSystem;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * File system wrapper emitting {@link UltralightEventType#FILE_READ} events for reads of another file system.
+ */
+public final class EventRecordingFileSystem implements UltralightFileSystem {
+    private final UltralightFileSystem delegate;
+    private final Map<Long, String> openPaths;
+
+    /**
+     * Constructs a new {@link EventRecordingFileSystem}.
+     *
+     * @param delegate The file system to forward all calls to
+     */
+    public EventRecordingFileSystem(UltralightFileSystem delegate) {
+        this.delegate = delegate;
+        this.openPaths = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public boolean fileExists(String path) {
+        return delegate.fileExists(path);
+    }
+
+    @Override
+    public long getFileSize(long handle) {
+        return delegate.getFileSize(handle);
+    }
+
+    @Override
+    public String getFileMimeType(String path) {
+        return delegate.getFileMimeType(path);
+    }
+
+    @Override
+    public long openFile(String path, boolean openForWriting) {
+        long handle = delegate.openFile(path, openForWriting);
+        if (handle != INVALID_FILE_HANDLE) {
+            openPaths.put(handle, path);
+        }
+
+        return handle;
+    }
+
+    @Override
+    public void closeFile(long handle) {
+        openPaths.remove(handle);
+        delegate.closeFile(handle);
+    }
+
+    @Override
+    public long readFromFile(long handle, ByteBuffer data, long length) {
+        UltralightEvent event = UltralightEvents.begin(UltralightEventType.FILE_READ);
+        long read = -1;
+        try {
+            read = delegate.readFromFile(handle, data, length);
+            return read;
+        } finally {
+            if (event.isEnabled()) {
+                event.commit(openPaths.get(handle), read);
+            }
+        }
+    }
+}
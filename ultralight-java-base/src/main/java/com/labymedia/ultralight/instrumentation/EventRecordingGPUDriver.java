@@ -0,0 +1,176 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.instrumentation;
+
+import com.labymedia.ultralight.bitmap.UltralightBitmap;
+import com.labymedia.ultralight.plugin.render.UltralightCommand;
+import com.labymedia.ultralight.plugin.render.UltralightGPUDriver;
+import com.labymedia.ultralight.plugin.render.UltralightIndexBuffer;
+import com.labymedia.ultralight.plugin.render.UltralightRenderBuffer;
+import com.labymedia.ultralight.plugin.render.UltralightVertexBuffer;
+
+/**
+ * GPU driver wrapper emitting {@link UltralightEventType#GPU_DRIVER_CALLBACK} events for the callbacks of another
+ * driver which do actual work. Id allocation and synchronization callbacks are forwarded without events.
+ */
+public final class EventRecordingGPUDriver implements UltralightGPUDriver {
+    private final UltralightGPUDriver delegate;
+
+    /**
+     * Constructs a new {@link EventRecordingGPUDriver}.
+     *
+     * @param delegate The driver to forward all calls to
+     */
+    public EventRecordingGPUDriver(UltralightGPUDriver delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Retrieves the driver all calls are forwarded to.
+     *
+     * @return The wrapped driver
+     */
+    public UltralightGPUDriver getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void beginSynchronize() {
+        delegate.beginSynchronize();
+    }
+
+    @Override
+    public void endSynchronize() {
+        delegate.endSynchronize();
+    }
+
+    @Override
+    public long nextTextureId() {
+        return delegate.nextTextureId();
+    }
+
+    @Override
+    public void createTexture(long textureId, UltralightBitmap bitmap) {
+        UltralightEvent event = UltralightEvents.begin(UltralightEventType.GPU_DRIVER_CALLBACK);
+        try {
+            delegate.createTexture(textureId, bitmap);
+        } finally {
+            if (event.isEnabled()) {
+                event.commit("createTexture", bitmap.size());
+            }
+        }
+    }
+
+    @Override
+    public void updateTexture(long textureId, UltralightBitmap bitmap) {
+        UltralightEvent event = UltralightEvents.begin(UltralightEventType.GPU_DRIVER_CALLBACK);
+        try {
+            delegate.updateTexture(textureId, bitmap);
+        } finally {
+            if (event.isEnabled()) {
+                event.commit("updateTexture", bitmap.size());
+            }
+        }
+    }
+
+    @Override
+    public void destroyTexture(long textureId) {
+        UltralightEvent event = UltralightEvents.begin(UltralightEventType.GPU_DRIVER_CALLBACK);
+        try {
+            delegate.destroyTexture(textureId);
+        } finally {
+            event.commit("destroyTexture", 0);
+        }
+    }
+
+    @Override
+    public long nextRenderBufferId() {
+        return delegate.nextRenderBufferId();
+    }
+
+    @Override
+    public void createRenderBuffer(long renderBufferId, UltralightRenderBuffer buffer) {
+        UltralightEvent event = UltralightEvents.begin(UltralightEventType.GPU_DRIVER_CALLBACK);
+        try {
+            delegate.createRenderBuffer(renderBufferId, buffer);
+        } finally {
+            event.commit("createRenderBuffer", 0);
+        }
+    }
+
+    @Override
+    public void destroyRenderBuffer(long renderBufferId) {
+        UltralightEvent event = UltralightEvents.begin(UltralightEventType.GPU_DRIVER_CALLBACK);
+        try {
+            delegate.destroyRenderBuffer(renderBufferId);
+        } finally {
+            event.commit("destroyRenderBuffer", 0);
+        }
+    }
+
+    @Override
+    public long nextGeometryId() {
+        return delegate.nextGeometryId();
+    }
+
+    @Override
+    public void createGeometry(long geometryId, UltralightVertexBuffer vertices, UltralightIndexBuffer indices) {
+        UltralightEvent event = UltralightEvents.begin(UltralightEventType.GPU_DRIVER_CALLBACK);
+        try {
+            delegate.createGeometry(geometryId, vertices, indices);
+        } finally {
+            if (event.isEnabled()) {
+                event.commit("createGeometry", vertices.getData().capacity() + indices.getData().capacity());
+            }
+        }
+    }
+
+    @Override
+    public void updateGeometry(long geometryId, UltralightVertexBuffer vertices, UltralightIndexBuffer indices) {
+        UltralightEvent event = UltralightEvents.begin(UltralightEventType.GPU_DRIVER_CALLBACK);
+        try {
+            delegate.updateGeometry(geometryId, vertices, indices);
+        } finally {
+            if (event.isEnabled()) {
+                event.commit("updateGeometry", vertices.getData().capacity() + indices.getData().capacity());
+            }
+        }
+    }
+
+    @Override
+    public void destroyGeometry(long geometryId) {
+        UltralightEvent event = UltralightEvents.begin(UltralightEventType.GPU_DRIVER_CALLBACK);
+        try {
+            delegate.destroyGeometry(geometryId);
+        } finally {
+            event.commit("destroyGeometry", 0);
+        }
+    }
+
+    @Override
+    public void updateCommandList(UltralightCommand[] list) {
+        UltralightEvent event = UltralightEvents.begin(UltralightEventType.GPU_DRIVER_CALLBACK);
+        try {
+            delegate.updateCommandList(list);
+        } finally {
+            event.commit("updateCommandList", list.length);
+        }
+    }
+}
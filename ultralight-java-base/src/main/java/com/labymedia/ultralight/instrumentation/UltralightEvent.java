@@ -0,0 +1,56 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.instrumentation;
+
+/**
+ * An event which has been started by an {@link UltralightEventSink} and is committed once the
+ * measured operation has finished.
+ */
+public interface UltralightEvent {
+    /**
+     * Event returned when the requested event type is not being recorded.
+     */
+    UltralightEvent DISABLED = new UltralightEvent() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void commit(String subject, long size) {
+        }
+    };
+
+    /**
+     * Determines whether this event is being recorded. Callers should check this before computing
+     * expensive subjects.
+     *
+     * @return {@code true} if this event is being recorded, {@code false} otherwise
+     */
+    boolean isEnabled();
+
+    /**
+     * Ends and commits this event.
+     *
+     * @param subject The subject of the event, see {@link UltralightEventType} for the meaning per type
+     * @param size    The size of the event, see {@link UltralightEventType} for the meaning per type
+     */
+    void commit(String subject, long size);
+}
@@ -0,0 +1,42 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.instrumentation;
+
+/**
+ * Receiver of events emitted by the bridge layer. The sink in use is selected once by
+ * {@link UltralightEvents}.
+ */
+public interface UltralightEventSink {
+    /**
+     * Determines whether a recording is currently interested in events of the given type.
+     *
+     * @param type The type of the events to check
+     * @return {@code true} if events of the given type are being recorded, {@code false} otherwise
+     */
+    boolean isEnabled(UltralightEventType type);
+
+    /**
+     * Begins a new event of the given type.
+     *
+     * @param type The type of the event to begin
+     * @return The started event, or {@link UltralightEvent#DISABLED}, if the type is not being recorded
+     */
+    UltralightEvent begin(UltralightEventType type);
+}
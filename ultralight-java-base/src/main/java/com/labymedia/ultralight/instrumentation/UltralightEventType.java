@@ -0,0 +1,57 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.instrumentation;
+
+/**
+ * Types of events which can be recorded by an {@link UltralightEventSink}.
+ */
+public enum UltralightEventType {
+    /**
+     * Evaluation of a script in a view, the subject is the URL of the view and the size the length of the script.
+     */
+    SCRIPT_EVALUATION,
+
+    /**
+     * Call from Javascript into a Java method or constructor, the subject is the invoked member and the size the
+     * amount of arguments.
+     */
+    JAVASCRIPT_CALLBACK,
+
+    /**
+     * Read from a Java file system, the subject is the path of the file and the size the amount of bytes read.
+     */
+    FILE_READ,
+
+    /**
+     * Callback into a Java GPU driver, the subject is the name of the callback and the size the amount of bytes
+     * uploaded or commands submitted.
+     */
+    GPU_DRIVER_CALLBACK,
+
+    /**
+     * Deletion of a native object by the FFI garbage collector, the subject is the type of the deleted object.
+     */
+    FFI_DELETION,
+
+    /**
+     * Call to update or render of a renderer, the subject is the name of the call.
+     */
+    RENDERER_CALL
+}
@@ -0,0 +1,82 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.instrumentation;
+
+/**
+ * Entry point for emitting events from the bridge layer.
+ * <p>
+ * When running on a JVM with Java Flight Recorder support, events are recorded as JFR events in the
+ * {@code Ultralight} category. The JFR integration targets Java 11 and is loaded reflectively, so on older JVMs
+ * and JVMs without {@code jdk.jfr} every event is {@link UltralightEvent#DISABLED}. The bridges only install their
+ * instrumenting wrappers if the corresponding event type is being recorded at the time they are set up.
+ */
+public final class UltralightEvents {
+    private static final String JFR_SINK_CLASS = "com.labymedia.ultralight.instrumentation.jfr.JfrEventSink";
+
+    private static final UltralightEventSink SINK = loadSink();
+
+    // Static class
+    private UltralightEvents() {
+    }
+
+    /**
+     * Loads the JFR event sink if available.
+     *
+     * @return The loaded sink, or {@code null}, if JFR is not available
+     */
+    private static UltralightEventSink loadSink() {
+        try {
+            Class.forName("jdk.jfr.Event", false, UltralightEvents.class.getClassLoader());
+            return (UltralightEventSink) Class.forName(JFR_SINK_CLASS).getConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // JFR or the compiled integration are not available
+            return null;
+        }
+    }
+
+    /**
+     * Determines whether events can be recorded at all on this JVM.
+     *
+     * @return {@code true} if an event sink is available, {@code false} otherwise
+     */
+    public static boolean isAvailable() {
+        return SINK != null;
+    }
+
+    /**
+     * Determines whether events of the given type are currently being recorded.
+     *
+     * @param type The type of the events to check
+     * @return {@code true} if events of the given type are being recorded, {@code false} otherwise
+     */
+    public static boolean isEnabled(UltralightEventType type) {
+        return SINK != null && SINK.isEnabled(type);
+    }
+
+    /**
+     * Begins a new event of the given type.
+     *
+     * @param type The type of the event to begin
+     * @return The started event, or {@link UltralightEvent#DISABLED}, if the type is not being recorded
+     */
+    public static UltralightEvent begin(UltralightEventType type) {
+        return SINK == null ? UltralightEvent.DISABLED : SINK.begin(type);
+    }
+}
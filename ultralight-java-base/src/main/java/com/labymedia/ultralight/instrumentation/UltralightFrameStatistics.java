@@ -0,0 +1,240 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.instrumentation;
+
+import com.labymedia.ultralight.UltralightView;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Statistics collected for a single frame of an {@link com.labymedia.ultralight.UltralightRenderer}.
+ * <p>
+ * The GPU driver counters are captured by the native side around whatever driver has been set on the platform, so
+ * they are available for both Java and native GPU drivers. When rendering on the CPU all driver counters are 0.
+ * <p>
+ * The painted views and the counters are not copied. The renderer reuses them for every frame, so statistics passed
+ * to an {@link UltralightInstrumentationListener} are only valid while the listener is invoked.
+ */
+public final class UltralightFrameStatistics {
+    // Indices into the counter array, keep in sync with the native GPUDriverCounter enum
+    private static final int COMMAND_LISTS = 0;
+    private static final int COMMANDS = 1;
+    private static final int GEOMETRY_CREATES = 2;
+    private static final int GEOMETRY_UPDATES = 3;
+    private static final int GEOMETRY_BYTES = 4;
+    private static final int TEXTURE_CREATES = 5;
+    private static final int TEXTURE_UPDATES = 6;
+    private static final int TEXTURE_BYTES = 7;
+
+    /**
+     * The amount of counters collected from the GPU driver per frame.
+     */
+    public static final int GPU_DRIVER_COUNTER_COUNT = 8;
+
+    private final long frameNumber;
+    private final int updateCount;
+    private final long updateNanos;
+    private final long renderNanos;
+    private final int trackedViewCount;
+    private final List<UltralightView> paintedViews;
+    private final long[] gpuDriverCounters;
+
+    /**
+     * Constructs new {@link UltralightFrameStatistics}.
+     *
+     * @param frameNumber       The sequential number of the frame, starting at 0
+     * @param updateCount       The amount of update calls accounted to this frame
+     * @param updateNanos       The total time spent in update calls, in nanoseconds
+     * @param renderNanos       The time spent in the render call, in nanoseconds
+     * @param trackedViewCount  The amount of views alive while rendering
+     * @param paintedViews      The views which have been painted during the frame, not copied
+     * @param gpuDriverCounters The counters collected from the GPU driver, needs to contain at least
+     *                          {@link #GPU_DRIVER_COUNTER_COUNT} elements, not copied
+     */
+    public UltralightFrameStatistics(
+            long frameNumber,
+            int updateCount,
+            long updateNanos,
+            long renderNanos,
+            int trackedViewCount,
+            List<UltralightView> paintedViews,
+            long[] gpuDriverCounters
+    ) {
+        if (gpuDriverCounters.length < GPU_DRIVER_COUNTER_COUNT) {
+            throw new IllegalArgumentException("Expected at least " + GPU_DRIVER_COUNTER_COUNT + " counters");
+        }
+
+        this.frameNumber = frameNumber;
+        this.updateCount = updateCount;
+        this.updateNanos = updateNanos;
+        this.renderNanos = renderNanos;
+        this.trackedViewCount = trackedViewCount;
+        this.paintedViews = Collections.unmodifiableList(paintedViews);
+        this.gpuDriverCounters = gpuDriverCounters;
+    }
+
+    /**
+     * Retrieves the sequential number of this frame.
+     *
+     * @return The frame number, starting at 0
+     */
+    public long getFrameNumber() {
+        return frameNumber;
+    }
+
+    /**
+     * Retrieves the amount of update calls since the previous frame.
+     *
+     * @return The amount of update calls
+     */
+    public int getUpdateCount() {
+        return updateCount;
+    }
+
+    /**
+     * Retrieves the total time spent in update calls since the previous frame.
+     *
+     * @return The update time in nanoseconds
+     */
+    public long getUpdateNanos() {
+        return updateNanos;
+    }
+
+    /**
+     * Retrieves the time spent in the render call of this frame.
+     *
+     * @return The render time in nanoseconds
+     */
+    public long getRenderNanos() {
+        return renderNanos;
+    }
+
+    /**
+     * Retrieves the amount of views which were alive while rendering.
+     *
+     * @return The amount of views created by the renderer and not yet garbage collected
+     */
+    public int getTrackedViewCount() {
+        return trackedViewCount;
+    }
+
+    /**
+     * Retrieves the views which have been painted during this frame, which are the views that have been flagged as
+     * needing a paint before rendering.
+     *
+     * @return The painted views
+     */
+    public List<UltralightView> getPaintedViews() {
+        return paintedViews;
+    }
+
+    /**
+     * Retrieves the amount of command lists submitted to the GPU driver.
+     *
+     * @return The amount of command lists
+     */
+    public long getCommandListCount() {
+        return gpuDriverCounters[COMMAND_LISTS];
+    }
+
+    /**
+     * Retrieves the amount of GPU commands (draws and clears) submitted to the GPU driver.
+     *
+     * @return The amount of GPU commands
+     */
+    public long getCommandCount() {
+        return gpuDriverCounters[COMMANDS];
+    }
+
+    /**
+     * Retrieves the amount of geometry created on the GPU driver.
+     *
+     * @return The amount of geometry creations
+     */
+    public long getGeometryCreateCount() {
+        return gpuDriverCounters[GEOMETRY_CREATES];
+    }
+
+    /**
+     * Retrieves the amount of geometry updated on the GPU driver.
+     *
+     * @return The amount of geometry updates
+     */
+    public long getGeometryUpdateCount() {
+        return gpuDriverCounters[GEOMETRY_UPDATES];
+    }
+
+    /**
+     * Retrieves the amount of vertex and index data passed to the GPU driver.
+     *
+     * @return The amount of geometry data in bytes
+     */
+    public long getGeometryBytes() {
+        return gpuDriverCounters[GEOMETRY_BYTES];
+    }
+
+    /**
+     * Retrieves the amount of textures created on the GPU driver.
+     *
+     * @return The amount of texture creations
+     */
+    public long getTextureCreateCount() {
+        return gpuDriverCounters[TEXTURE_CREATES];
+    }
+
+    /**
+     * Retrieves the amount of textures updated on the GPU driver.
+     *
+     * @return The amount of texture updates
+     */
+    public long getTextureUpdateCount() {
+        return gpuDriverCounters[TEXTURE_UPDATES];
+    }
+
+    /**
+     * Retrieves the amount of bitmap data uploaded to the GPU driver.
+     *
+     * @return The amount of texture data in bytes
+     */
+    public long getTextureBytes() {
+        return gpuDriverCounters[TEXTURE_BYTES];
+    }
+
+    @Override
+    public String toString() {
+        return "UltralightFrameStatistics{" +
+                "frameNumber=" + frameNumber +
+                ", updateCount=" + updateCount +
+                ", updateNanos=" + updateNanos +
+                ", renderNanos=" + renderNanos +
+                ", trackedViewCount=" + trackedViewCount +
+                ", paintedViews=" + paintedViews.size() +
+                ", commandLists=" + getCommandListCount() +
+                ", commands=" + getCommandCount() +
+                ", geometryCreates=" + getGeometryCreateCount() +
+                ", geometryUpdates=" + getGeometryUpdateCount() +
+                ", geometryBytes=" + getGeometryBytes() +
+                ", textureCreates=" + getTextureCreateCount() +
+                ", textureUpdates=" + getTextureUpdateCount() +
+                ", textureBytes=" + getTextureBytes() +
+                '}';
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.instrumentation;
+
+/**
+ * Listener receiving per frame statistics of an {@link com.labymedia.ultralight.UltralightRenderer}.
+ * <p>
+ * A frame ends with every call to {@link com.labymedia.ultralight.UltralightRenderer#render()}, all calls to
+ * {@link com.labymedia.ultralight.UltralightRenderer#update()} since the previous frame are accounted to it.
+ * The listener is invoked on the thread calling {@code render()}, so implementations should return quickly. The
+ * statistics are reused for the next frame and must not be kept after the listener returns, values which are needed
+ * later have to be copied.
+ */
+public interface UltralightInstrumentationListener {
+    /**
+     * Called after a frame has been rendered.
+     *
+     * @param statistics The statistics of the frame
+     */
+    void onFrame(UltralightFrameStatistics statistics);
+}
@@ -0,0 +1,213 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.instrumentation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Structured form of the memory usage statistics Ultralight normally prints to the log.
+ * <p>
+ * Ultralight does not expose its memory statistics other than as log text, so this report is built by capturing the
+ * lines of {@code LogMemoryUsage} and parsing every {@code name: value} line into an {@link Entry}. The raw lines are
+ * kept as well, in case the format changes between Ultralight versions.
+ */
+public final class UltralightMemoryReport {
+    private static final Pattern SIZE_PATTERN =
+            Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*(bytes|byte|b|kib|kb|k|mib|mb|m|gib|gb|g)?\\b",
+                    Pattern.CASE_INSENSITIVE);
+
+    private final List<String> lines;
+    private final List<Entry> entries;
+
+    private UltralightMemoryReport(List<String> lines, List<Entry> entries) {
+        this.lines = Collections.unmodifiableList(lines);
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Parses a memory report from the captured log lines.
+     *
+     * @param lines The lines logged by Ultralight
+     * @return The parsed report
+     */
+    public static UltralightMemoryReport parse(String[] lines) {
+        List<String> splitLines = new ArrayList<>();
+        for (String line : lines) {
+            // A single log message may contain multiple lines
+            splitLines.addAll(Arrays.asList(line.split("\\r?\\n")));
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        for (String line : splitLines) {
+            int separator = line.indexOf(':');
+            if (separator < 0) {
+                continue;
+            }
+
+            String name = line.substring(0, separator).trim();
+            String value = line.substring(separator + 1).trim();
+            if (name.isEmpty() || value.isEmpty()) {
+                continue;
+            }
+
+            int depth = 0;
+            while (depth < line.length() && Character.isWhitespace(line.charAt(depth))) {
+                depth++;
+            }
+
+            entries.add(new Entry(name, value, depth, parseBytes(value)));
+        }
+
+        return new UltralightMemoryReport(splitLines, entries);
+    }
+
+    /**
+     * Parses a human readable size into bytes.
+     *
+     * @param value The value to parse
+     * @return The parsed amount of bytes, or {@code -1}, if the value does not contain a size
+     */
+    private static long parseBytes(String value) {
+        Matcher matcher = SIZE_PATTERN.matcher(value);
+        if (!matcher.find()) {
+            return -1;
+        }
+
+        double amount = Double.parseDouble(matcher.group(1));
+        String unit = matcher.group(2);
+        if (unit == null) {
+            return (long) amount;
+        }
+
+        switch (unit.toLowerCase(Locale.ROOT).charAt(0)) {
+            case 'k':
+                return (long) (amount * 1024);
+            case 'm':
+                return (long) (amount * 1024 * 1024);
+            case 'g':
+                return (long) (amount * 1024 * 1024 * 1024);
+            default:
+                return (long) amount;
+        }
+    }
+
+    /**
+     * Retrieves the raw lines this report has been parsed from.
+     *
+     * @return The raw lines
+     */
+    public List<String> getLines() {
+        return lines;
+    }
+
+    /**
+     * Retrieves all entries of this report in the order they have been logged.
+     *
+     * @return All entries
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Retrieves the first entry with the given name, ignoring case.
+     *
+     * @param name The name of the entry
+     * @return The entry, or {@code null}, if no entry with the given name exists
+     */
+    public Entry getEntry(String name) {
+        for (Entry entry : entries) {
+            if (entry.getName().equalsIgnoreCase(name)) {
+                return entry;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return String.join(System.lineSeparator(), lines);
+    }
+
+    /**
+     * A single {@code name: value} line of a memory report.
+     */
+    public static final class Entry {
+        private final String name;
+        private final String value;
+        private final int depth;
+        private final long bytes;
+
+        private Entry(String name, String value, int depth, long bytes) {
+            this.name = name;
+            this.value = value;
+            this.depth = depth;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Retrieves the name of this entry.
+         *
+         * @return The name of this entry
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Retrieves the unparsed value of this entry.
+         *
+         * @return The value as logged
+         */
+        public String getValue() {
+            return value;
+        }
+
+        /**
+         * Retrieves the indentation of this entry, nested entries have a greater depth than their parent.
+         *
+         * @return The amount of leading whitespace characters
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * Retrieves the value of this entry as a size.
+         *
+         * @return The size in bytes, or {@code -1}, if the value is not a size
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + value;
+        }
+    }
+}
@@ -37,7 +37,7 @@ public class JavascriptClass implements ObjectWithHandle {
      * @param handle The native handle to wrap
      */
     private JavascriptClass(long handle) {
-        this.handle = new DeletableObject<>(handle, JavascriptClass::release);
+        this.handle = new DeletableObject<>(handle, JavascriptClass::release, JavascriptClass.class);
     }
 
     /**
@@ -36,7 +36,8 @@ public class JavascriptClassDefinition implements ObjectWithHandle {
      * Constructs a new {@link JavascriptClassDefinition} which is completely empty.
      */
     public JavascriptClassDefinition() {
-        this.handle = new DeletableObject<>(createEmpty(), JavascriptClassDefinition::free);
+        this.handle = new DeletableObject<>(
+                createEmpty(), JavascriptClassDefinition::free, JavascriptClassDefinition.class);
     }
 
     /**
@@ -137,6 +137,15 @@ public class JavascriptContext implements ObjectWithHandle, JavascriptLockedObje
      */
     public native JavascriptObject makeArray(JavascriptValue... arguments) throws JavascriptException;
 
+    /**
+     * Creates a new Javascript array of numbers in a single native call.
+     *
+     * @param values The numbers to put into the array
+     * @return The created array
+     * @throws JavascriptException If the creation of the array fails
+     */
+    public native JavascriptObject makeNumberArray(double[] values) throws JavascriptException;
+
     /**
      * Creates a new Javascript date object.
      *
@@ -166,6 +166,20 @@ public class JavascriptObject extends JavascriptValue {
      */
     public native void setPrivate(Object data) throws UnsupportedOperationException;
 
+    /**
+     * Caches the value of a property of an object created from a {@link JavascriptClass}. Further lookups of the
+     * property are answered natively with the cached value, without invoking the property getter of the class.
+     * <p>
+     * The cached values are stored in an object referenced by a private symbol of this object. They don't show up in
+     * the property names of this object and are collected together with it.
+     *
+     * @param propertyName The name of the property to cache the value of
+     * @param value        The value to cache
+     * @return {@code true} if the value has been cached, {@code false} if this object can't cache values
+     * @throws JavascriptException If an error occurs while caching the value
+     */
+    public native boolean cacheProperty(String propertyName, JavascriptValue value) throws JavascriptException;
+
     /**
      * Tests whether the object can be called as a function.
      *
@@ -206,4 +220,18 @@ public class JavascriptObject extends JavascriptValue {
      * @return The object enumerable property names
      */
     public native String[] copyPropertyNames();
+
+    /**
+     * Copies the elements of this array like object into a Java array, converting every element to a number.
+     * <p>
+     * This is equivalent to reading the {@code length} property and calling {@link #getPropertyAtIndex(long)} and
+     * {@link JavascriptValue#toNumber()} for every index, but does so in a single native call. Unlike
+     * {@link JavascriptValue#toNumber()}, elements are not coerced, every element has to be a number. Typed arrays
+     * are supported as well.
+     *
+     * @return The elements of this object as numbers
+     * @throws JavascriptException If an error occurs while reading the elements
+     * @throws IllegalArgumentException If an element is not a number
+     */
+    public native double[] toNumberArray() throws JavascriptException;
 }
@@ -39,14 +39,14 @@ public class UltralightMatrix implements ObjectWithHandle {
      */
     @NativeCall
     private UltralightMatrix(long handle) {
-        this.handle = new DeletableObject<>(handle, UltralightMatrix::delete);
+        this.handle = new DeletableObject<>(handle, UltralightMatrix::delete, UltralightMatrix.class);
     }
 
     /**
      * Constructs a new, empty matrix.
      */
     public UltralightMatrix() {
-        this.handle = new DeletableObject<>(construct(), UltralightMatrix::delete);
+        this.handle = new DeletableObject<>(construct(), UltralightMatrix::delete, UltralightMatrix.class);
     }
 
     /**
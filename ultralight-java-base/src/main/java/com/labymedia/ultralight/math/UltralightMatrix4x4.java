@@ -39,19 +39,27 @@ public class UltralightMatrix4x4 implements ObjectWithHandle {
      */
     @NativeCall
     private UltralightMatrix4x4(long handle) {
-        this.handle = new DeletableObject<>(handle, UltralightMatrix4x4::delete);
+        this.handle = new DeletableObject<>(handle, UltralightMatrix4x4::delete, UltralightMatrix4x4.class);
     }
 
     /**
      * Constructs a new, empty 4x4 matrix.
      */
     public UltralightMatrix4x4() {
-        this.handle = new DeletableObject<>(construct(), UltralightMatrix4x4::delete);
+        this.handle = new DeletableObject<>(construct(), UltralightMatrix4x4::delete, UltralightMatrix4x4.class);
     }
 
     public native @NativeType("float*")
     float[] getData();
 
+    /**
+     * Overwrites the data of this matrix.
+     *
+     * @param data The 16 values of the matrix, in the same order as returned by {@link #getData()}
+     * @throws IllegalArgumentException If {@code data} does not contain exactly 16 values
+     */
+    public native void setData(@NativeType("float*") float[] data);
+
     /**
      * Set to identity matrix.
      */
@@ -38,4 +38,20 @@ public interface UltralightLogger {
      * @param message The message to log
      */
     void logMessage(UltralightLogLevel level, String message);
+
+    /**
+     * Called with a batch of messages when the logger has been set up for asynchronous delivery using
+     * {@link UltralightLoggerConfig#asynchronous(boolean)}. This is invoked on a dedicated thread.
+     * <p>
+     * The default implementation passes every message to {@link #logMessage(UltralightLogLevel, String)}.
+     *
+     * @param levels   The levels of the messages
+     * @param messages The messages to log
+     * @param count    The amount of valid entries in both arrays
+     */
+    default void logMessages(UltralightLogLevel[] levels, String[] messages, int count) {
+        for (int i = 0; i < count; i++) {
+            logMessage(levels[i], messages[i]);
+        }
+    }
 }
@@ -0,0 +1,105 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.plugin.logging;
+
+import java.lang.annotation.Native;
+
+/**
+ * Controls how messages are passed from Ultralight to an {@link UltralightLogger}.
+ * <p>
+ * By default every message is passed synchronously on the thread Ultralight logs from. A chatty page can stall
+ * rendering this way, so messages can be filtered natively by level and delivered asynchronously in batches.
+ */
+public class UltralightLoggerConfig {
+    /**
+     * The least severe level which is still passed to the logger. Messages below it are discarded before crossing
+     * into Java. The default passes all messages.
+     */
+    @Native
+    private UltralightLogLevel minimumLevel = UltralightLogLevel.INFO;
+
+    /**
+     * Whether messages should be copied into a bounded buffer and delivered to the logger in batches by a dedicated
+     * thread. When the buffer overflows messages are dropped, the logger is informed about the amount of dropped
+     * messages with the next batch.
+     */
+    @Native
+    private boolean asynchronous = false;
+
+    /**
+     * The amount of messages the buffer can hold in asynchronous mode, rounded up to the next power of two.
+     */
+    @Native
+    private int bufferCapacity = 1024;
+
+    /**
+     * The maximum delay in milliseconds before buffered messages are delivered in asynchronous mode.
+     */
+    @Native
+    private long flushIntervalMillis = 50;
+
+    /**
+     * Sets the minimumLevel field of this instance.
+     *
+     * @param minimumLevel The new value of the field
+     * @return this
+     * @see #minimumLevel
+     */
+    public UltralightLoggerConfig minimumLevel(UltralightLogLevel minimumLevel) {
+        this.minimumLevel = minimumLevel;
+        return this;
+    }
+
+    /**
+     * Sets the asynchronous field of this instance.
+     *
+     * @param asynchronous The new value of the field
+     * @return this
+     * @see #asynchronous
+     */
+    public UltralightLoggerConfig asynchronous(boolean asynchronous) {
+        this.asynchronous = asynchronous;
+        return this;
+    }
+
+    /**
+     * Sets the bufferCapacity field of this instance.
+     *
+     * @param bufferCapacity The new value of the field
+     * @return this
+     * @see #bufferCapacity
+     */
+    public UltralightLoggerConfig bufferCapacity(int bufferCapacity) {
+        this.bufferCapacity = bufferCapacity;
+        return this;
+    }
+
+    /**
+     * Sets the flushIntervalMillis field of this instance.
+     *
+     * @param flushIntervalMillis The new value of the field
+     * @return this
+     * @see #flushIntervalMillis
+     */
+    public UltralightLoggerConfig flushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+        return this;
+    }
+}
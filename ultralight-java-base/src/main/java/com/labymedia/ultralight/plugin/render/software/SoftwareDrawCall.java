@@ -0,0 +1,247 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.plugin.render.software;
+
+import com.labymedia.ultralight.math.IntRect;
+import com.labymedia.ultralight.math.UltralightMatrix4x4;
+import com.labymedia.ultralight.math.Vec4;
+import com.labymedia.ultralight.plugin.render.UltralightGPUState;
+import com.labymedia.ultralight.plugin.render.UltralightShaderType;
+
+/**
+ * A command of a command list, prepared for being executed by many tiles in parallel.
+ * <p>
+ * Everything which is the same for all pixels is resolved once while preparing: uniforms are copied out of the native
+ * objects, textures are looked up and the triangles are transformed into pixel space together with their bounds.
+ */
+final class SoftwareDrawCall {
+    final boolean clear;
+    final SoftwareTexture target;
+
+    final boolean path;
+    final boolean blend;
+    final SoftwareTexture texture1;
+    final SoftwareTexture texture2;
+    final SoftwareTexture texture3;
+    final float[] scalars;
+    final float[] vectors;
+    final float[] clip;
+    final int clipSize;
+
+    final SoftwareGeometry geometry;
+    final int[] triangleIndices;
+    final float[] positions;
+    final int[] bounds;
+    final int triangleCount;
+
+    final int minX;
+    final int minY;
+    final int maxX;
+    final int maxY;
+
+    /**
+     * Prepares a clear render buffer command.
+     *
+     * @param target The texture of the render buffer to clear
+     */
+    SoftwareDrawCall(SoftwareTexture target) {
+        this.clear = true;
+        this.target = target;
+        this.path = false;
+        this.blend = false;
+        this.texture1 = null;
+        this.texture2 = null;
+        this.texture3 = null;
+        this.scalars = null;
+        this.vectors = null;
+        this.clip = null;
+        this.clipSize = 0;
+        this.geometry = null;
+        this.triangleIndices = null;
+        this.positions = null;
+        this.bounds = null;
+        this.triangleCount = 0;
+        this.minX = 0;
+        this.minY = 0;
+        this.maxX = target.width;
+        this.maxY = target.height;
+    }
+
+    /**
+     * Prepares a draw geometry command.
+     *
+     * @param target        The texture of the render buffer to draw into
+     * @param state         The state of the command
+     * @param texture1      The texture bound to the first slot, or {@code null}
+     * @param texture2      The texture bound to the second slot, or {@code null}
+     * @param texture3      The texture bound to the third slot, or {@code null}
+     * @param geometry      The geometry to draw
+     * @param indicesOffset The first index to draw
+     * @param indicesCount  The amount of indices to draw
+     */
+    SoftwareDrawCall(
+            SoftwareTexture target,
+            UltralightGPUState state,
+            SoftwareTexture texture1,
+            SoftwareTexture texture2,
+            SoftwareTexture texture3,
+            SoftwareGeometry geometry,
+            int indicesOffset,
+            int indicesCount
+    ) {
+        this.clear = false;
+        this.target = target;
+        this.path = state.getShaderType() == UltralightShaderType.FILL_PATH;
+        this.blend = state.shouldEnableBlend();
+        this.texture1 = texture1;
+        this.texture2 = texture2;
+        this.texture3 = texture3;
+        this.geometry = geometry;
+
+        this.scalars = new float[8];
+        float[] uniformScalar = state.getUniformScalar();
+        System.arraycopy(uniformScalar, 0, scalars, 0, Math.min(uniformScalar.length, scalars.length));
+
+        this.vectors = new float[32];
+        Vec4[] uniformVector = state.getUniformVector();
+        for (int i = 0; i < Math.min(uniformVector.length, 8); i++) {
+            System.arraycopy(uniformVector[i].getValue(), 0, vectors, i * 4, 4);
+        }
+
+        UltralightMatrix4x4[] clipMatrices = state.getClip();
+        this.clipSize = Math.min(state.getClipSize(), clipMatrices.length);
+        this.clip = new float[clipSize * 16];
+        for (int i = 0; i < clipSize; i++) {
+            System.arraycopy(clipMatrices[i].getData(), 0, clip, i * 16, 16);
+        }
+
+        // Pixels outside of the viewport, the target and the scissor rect are never touched
+        int limitX = (int) Math.min(state.getViewportWidth(), target.width);
+        int limitY = (int) Math.min(state.getViewportHeight(), target.height);
+        int left = 0;
+        int top = 0;
+        if (state.shouldEnableScissor()) {
+            IntRect scissor = state.getScissorRect();
+            left = Math.max(left, scissor.getLeft());
+            top = Math.max(top, scissor.getTop());
+            limitX = Math.min(limitX, scissor.getRight());
+            limitY = Math.min(limitY, scissor.getBottom());
+        }
+
+        int firstIndex = Math.max(0, Math.min(indicesOffset, geometry.indices.length));
+        int lastIndex = Math.min(geometry.indices.length, firstIndex + indicesCount);
+        int triangles = Math.max(0, (lastIndex - firstIndex) / 3);
+
+        this.triangleIndices = new int[triangles * 3];
+        this.positions = new float[triangles * 6];
+        this.bounds = new int[triangles * 4];
+
+        // The transform maps into pixel space, the orthographic projection of the GPU is not needed
+        float[] m = state.getTransformMatrix().getData();
+        int vertexCount = geometry.vertexCount();
+        int stride = geometry.stride;
+
+        int count = 0;
+        int unionMinX = Integer.MAX_VALUE;
+        int unionMinY = Integer.MAX_VALUE;
+        int unionMaxX = Integer.MIN_VALUE;
+        int unionMaxY = Integer.MIN_VALUE;
+
+        for (int i = 0; i < triangles; i++) {
+            float minPx = Float.POSITIVE_INFINITY;
+            float minPy = Float.POSITIVE_INFINITY;
+            float maxPx = Float.NEGATIVE_INFINITY;
+            float maxPy = Float.NEGATIVE_INFINITY;
+            boolean valid = true;
+
+            for (int corner = 0; corner < 3; corner++) {
+                int vertex = geometry.indices[firstIndex + i * 3 + corner];
+                if (vertex < 0 || vertex >= vertexCount) {
+                    valid = false;
+                    break;
+                }
+
+                float x = geometry.vertices[vertex * stride + SoftwareGeometry.X];
+                float y = geometry.vertices[vertex * stride + SoftwareGeometry.Y];
+                float w = m[3] * x + m[7] * y + m[15];
+                float px = (m[0] * x + m[4] * y + m[12]) / w;
+                float py = (m[1] * x + m[5] * y + m[13]) / w;
+
+                triangleIndices[count * 3 + corner] = vertex * stride;
+                positions[count * 6 + corner * 2] = px;
+                positions[count * 6 + corner * 2 + 1] = py;
+
+                minPx = Math.min(minPx, px);
+                minPy = Math.min(minPy, py);
+                maxPx = Math.max(maxPx, px);
+                maxPy = Math.max(maxPy, py);
+            }
+
+            if (!valid) {
+                continue;
+            }
+
+            // Pixels are covered when their center is inside of the triangle
+            int triangleMinX = Math.max(left, (int) Math.ceil(minPx - 0.5f));
+            int triangleMinY = Math.max(top, (int) Math.ceil(minPy - 0.5f));
+            int triangleMaxX = Math.min(limitX, (int) Math.floor(maxPx - 0.5f) + 1);
+            int triangleMaxY = Math.min(limitY, (int) Math.floor(maxPy - 0.5f) + 1);
+            if (triangleMinX >= triangleMaxX || triangleMinY >= triangleMaxY) {
+                continue;
+            }
+
+            bounds[count * 4] = triangleMinX;
+            bounds[count * 4 + 1] = triangleMinY;
+            bounds[count * 4 + 2] = triangleMaxX;
+            bounds[count * 4 + 3] = triangleMaxY;
+
+            unionMinX = Math.min(unionMinX, triangleMinX);
+            unionMinY = Math.min(unionMinY, triangleMinY);
+            unionMaxX = Math.max(unionMaxX, triangleMaxX);
+            unionMaxY = Math.max(unionMaxY, triangleMaxY);
+            count++;
+        }
+
+        this.triangleCount = count;
+        this.minX = count == 0 ? 0 : unionMinX;
+        this.minY = count == 0 ? 0 : unionMinY;
+        this.maxX = count == 0 ? 0 : unionMaxX;
+        this.maxY = count == 0 ? 0 : unionMaxY;
+    }
+
+    /**
+     * Determines whether this command covers no pixel at all.
+     *
+     * @return {@code true}, if executing this command has no effect
+     */
+    boolean isEmpty() {
+        return minX >= maxX || minY >= maxY;
+    }
+
+    /**
+     * Determines whether this command reads from a texture.
+     *
+     * @param texture The texture to check
+     * @return {@code true}, if the texture is bound to any slot of this command
+     */
+    boolean samples(SoftwareTexture texture) {
+        return texture1 == texture || texture2 == texture || texture3 == texture;
+    }
+}
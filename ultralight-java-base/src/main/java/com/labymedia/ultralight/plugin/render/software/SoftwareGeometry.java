@@ -0,0 +1,112 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.plugin.render.software;
+
+import com.labymedia.ultralight.plugin.render.UltralightIndexBuffer;
+import com.labymedia.ultralight.plugin.render.UltralightVertexBuffer;
+import com.labymedia.ultralight.plugin.render.UltralightVertexBufferFormat;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * CPU side geometry of the software driver.
+ * <p>
+ * Vertices are decoded once when the geometry is created or updated, into floats laid out as
+ * {@code x, y, r, g, b, a, texU, texV, objU, objV, data0 ... data6}. The attributes after the position are exactly
+ * the varyings of the fragment shaders and can be interpolated as one block. Path vertices only carry a single
+ * coordinate, which becomes both the texture and the object coordinate.
+ */
+final class SoftwareGeometry {
+    static final int X = 0;
+    static final int Y = 1;
+    static final int COLOR = 2;
+    static final int TEX = 6;
+    static final int OBJ = 8;
+    static final int DATA = 10;
+
+    static final int PATH_STRIDE = DATA;
+    static final int FILL_STRIDE = DATA + 28;
+
+    private static final int PATH_VERTEX_SIZE = 20;
+    private static final int FILL_VERTEX_SIZE = 140;
+
+    final int stride;
+    final float[] vertices;
+    final int[] indices;
+
+    /**
+     * Decodes the buffers passed to the driver.
+     *
+     * @param vertexBuffer The vertices of the geometry
+     * @param indexBuffer  The indices of the geometry
+     */
+    SoftwareGeometry(UltralightVertexBuffer vertexBuffer, UltralightIndexBuffer indexBuffer) {
+        boolean path = vertexBuffer.getFormat() == UltralightVertexBufferFormat.FORMAT_2F_4UB_2F;
+        int vertexSize = path ? PATH_VERTEX_SIZE : FILL_VERTEX_SIZE;
+
+        // The buffers point at native structs
+        ByteBuffer data = vertexBuffer.getData().duplicate().order(ByteOrder.nativeOrder());
+        data.clear();
+        int count = data.capacity() / vertexSize;
+
+        this.stride = path ? PATH_STRIDE : FILL_STRIDE;
+        this.vertices = new float[count * stride];
+
+        for (int i = 0; i < count; i++) {
+            int in = i * vertexSize;
+            int out = i * stride;
+
+            vertices[out + X] = data.getFloat(in);
+            vertices[out + Y] = data.getFloat(in + 4);
+            for (int channel = 0; channel < 4; channel++) {
+                vertices[out + COLOR + channel] = (data.get(in + 8 + channel) & 0xFF) * (1.0f / 255.0f);
+            }
+            vertices[out + TEX] = data.getFloat(in + 12);
+            vertices[out + TEX + 1] = data.getFloat(in + 16);
+
+            if (path) {
+                vertices[out + OBJ] = vertices[out + TEX];
+                vertices[out + OBJ + 1] = vertices[out + TEX + 1];
+            } else {
+                for (int j = 0; j < 30; j++) {
+                    vertices[out + OBJ + j] = data.getFloat(in + 20 + j * 4);
+                }
+            }
+        }
+
+        ByteBuffer indexData = indexBuffer.getData().duplicate().order(ByteOrder.nativeOrder());
+        indexData.clear();
+        IntBuffer indexInts = indexData.asIntBuffer();
+
+        this.indices = new int[indexInts.remaining()];
+        indexInts.get(indices);
+    }
+
+    /**
+     * Retrieves the amount of vertices in this geometry.
+     *
+     * @return The amount of vertices
+     */
+    int vertexCount() {
+        return vertices.length / stride;
+    }
+}
@@ -0,0 +1,728 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.plugin.render.software;
+
+import static com.labymedia.ultralight.plugin.render.software.SoftwareGeometry.COLOR;
+import static com.labymedia.ultralight.plugin.render.software.SoftwareGeometry.DATA;
+import static com.labymedia.ultralight.plugin.render.software.SoftwareGeometry.OBJ;
+import static com.labymedia.ultralight.plugin.render.software.SoftwareGeometry.TEX;
+
+/**
+ * Java port of the fill and fill path fragment shaders used by the OpenGL driver.
+ * <p>
+ * The functions follow the GLSL sources closely, so both renderers can be compared line by line. Colors are
+ * premultiplied RGBA in {@code [0, 1]}. An instance holds scratch space and must only be used by one thread.
+ * <p>
+ * Like the GLSL sources, no fill type samples the third texture slot. It is still bound to the draw calls, so a draw
+ * reading a render buffer through it is ordered after the draws into that render buffer.
+ */
+final class SoftwareShader {
+    private static final float AA_WIDTH = 0.354f;
+
+    private static final int FILL_SOLID = 0;
+    private static final int FILL_IMAGE = 1;
+    private static final int FILL_PATTERN_IMAGE = 2;
+    private static final int FILL_PATTERN_GRADIENT = 3;
+    private static final int FILL_ROUNDED_RECT = 7;
+    private static final int FILL_BOX_SHADOW = 8;
+    private static final int FILL_BLEND = 9;
+    private static final int FILL_MASK = 10;
+    private static final int FILL_GLYPH = 11;
+
+    private final float[] sample = new float[4];
+    private final float[] stroke = new float[4];
+    private final float[] src = new float[4];
+    private final float[] dest = new float[4];
+    private final float[] radiiX = new float[4];
+    private final float[] radiiY = new float[4];
+    private final float[] hsl = new float[3];
+    private final float[] hslOther = new float[3];
+
+    /**
+     * Determines how many of the vertex attributes the fill shader reads for a triangle, so pixels do not need to
+     * interpolate data the fill type of the triangle ignores.
+     *
+     * @param vertices The vertices of the geometry
+     * @param a        The offset of the first vertex of the triangle
+     * @param b        The offset of the second vertex of the triangle
+     * @param c        The offset of the third vertex of the triangle
+     * @return The exclusive end of the attributes to interpolate
+     */
+    static int varyingsEnd(float[] vertices, int a, int b, int c) {
+        int fillType = (int) (vertices[a + DATA] + 0.5f);
+        if (fillType != (int) (vertices[b + DATA] + 0.5f) || fillType != (int) (vertices[c + DATA] + 0.5f)) {
+            // Mixed fill types within a triangle, the shader decides per pixel
+            return SoftwareGeometry.FILL_STRIDE;
+        }
+
+        switch (fillType) {
+            case FILL_SOLID:
+            case FILL_IMAGE:
+            case FILL_PATTERN_IMAGE:
+            case FILL_BLEND:
+            case FILL_MASK:
+            case FILL_GLYPH:
+                return DATA + 4;
+
+            case FILL_ROUNDED_RECT:
+                return DATA + 20;
+
+            default:
+                return SoftwareGeometry.FILL_STRIDE;
+        }
+    }
+
+    /**
+     * Runs the fill shader for a fragment.
+     *
+     * @param f    The interpolated vertex attributes of the fragment
+     * @param call The draw call providing uniforms and textures
+     * @param out  The array to write the RGBA result to
+     * @return {@code false}, if the fragment has been discarded
+     */
+    boolean shadeFill(float[] f, SoftwareDrawCall call, float[] out) {
+        switch ((int) (f[DATA] + 0.5f)) {
+            case FILL_SOLID:
+                copy(f, COLOR, out);
+                break;
+
+            case FILL_IMAGE:
+                fillImage(f, call, f[TEX], f[TEX + 1], out);
+                break;
+
+            case FILL_PATTERN_IMAGE:
+                fillPatternImage(f, call, out);
+                break;
+
+            case FILL_PATTERN_GRADIENT:
+                fillPatternGradient(f, call, out);
+                break;
+
+            case FILL_ROUNDED_RECT:
+                fillRoundedRect(f, out);
+                break;
+
+            case FILL_BOX_SHADOW:
+                if (!fillBoxShadow(f, out)) {
+                    return false;
+                }
+                break;
+
+            case FILL_BLEND:
+                fillBlend(f, call, out);
+                break;
+
+            case FILL_MASK:
+                fillImage(f, call, f[TEX], f[TEX + 1], out);
+                sample(call.texture2, f[OBJ], f[OBJ + 1], sample);
+                scale(out, sample[3]);
+                break;
+
+            case FILL_GLYPH:
+                fillGlyph(f, call, out);
+                break;
+
+            default:
+                // Undefined output in the shader
+                out[0] = out[1] = out[2] = out[3] = 0;
+                break;
+        }
+
+        applyClip(f, call, out, 0);
+        return true;
+    }
+
+    /**
+     * Runs the fill path shader for a fragment.
+     *
+     * @param f    The interpolated vertex attributes of the fragment
+     * @param call The draw call providing uniforms
+     * @param out  The array to write the RGBA result to
+     */
+    void shadePath(float[] f, SoftwareDrawCall call, float[] out) {
+        copy(f, COLOR, out);
+        applyClip(f, call, out, -AA_WIDTH);
+    }
+
+    private void fillImage(float[] f, SoftwareDrawCall call, float u, float v, float[] out) {
+        sample(call.texture1, u, v, out);
+        for (int i = 0; i < 4; i++) {
+            out[i] *= f[COLOR + i];
+        }
+    }
+
+    private void fillPatternImage(float[] f, SoftwareDrawCall call, float[] out) {
+        float[] vector = call.vectors;
+
+        // Vector[0] is the tile rect in UV space, Vector[1].zw the tile size, Vector[2..3] the affine transform
+        float px = f[OBJ];
+        float py = f[OBJ + 1];
+        float tx = px * vector[8] + py * vector[10] + vector[12];
+        float ty = px * vector[9] + py * vector[11] + vector[13];
+
+        float u = fract(tx / vector[6]);
+        float v = fract(ty / vector[7]);
+        u = u * (vector[2] - vector[0]) + vector[0];
+        v = v * (vector[3] - vector[1]) + vector[1];
+
+        fillImage(f, call, u, v, out);
+    }
+
+    private void fillPatternGradient(float[] f, SoftwareDrawCall call, float[] out) {
+        int stops = (int) (f[DATA + 1] + 0.5f);
+        boolean radial = (int) (f[DATA + 2] + 0.5f) != 0;
+        float p0x = f[DATA + 4];
+        float p0y = f[DATA + 5];
+        float p1x = f[DATA + 6];
+        float p1y = f[DATA + 7];
+
+        float t;
+        if (radial) {
+            float r0 = p1x;
+            float r1 = p1y;
+            float rDelta = r1 - r0;
+            t = length(f[TEX] - p0x, f[TEX + 1] - p0y);
+            t = clamp(t / rDelta - r0 / rDelta, 0, 1);
+        } else {
+            float vx = p1x - p0x;
+            float vy = p1y - p0y;
+            t = clamp(((f[TEX] - p0x) * vx + (f[TEX + 1] - p0y) * vy) / (vx * vx + vy * vy), 0, 1);
+        }
+
+        gradientStopColor(f, call, 0, out);
+        gradientStopColor(f, call, 1, sample);
+        mix(out, sample, ramp(gradientStopPercent(f, call, 0), gradientStopPercent(f, call, 1), t), out);
+
+        // The shader unrolls up to seven stops
+        for (int stop = 2; stop < Math.min(stops, 7); stop++) {
+            gradientStopColor(f, call, stop, sample);
+            mix(out, sample, ramp(gradientStopPercent(f, call, stop - 1), gradientStopPercent(f, call, stop), t), out);
+        }
+    }
+
+    private static float gradientStopPercent(float[] f, SoftwareDrawCall call, int offset) {
+        return offset < 4 ? f[DATA + 8 + offset] : call.scalars[offset - 4];
+    }
+
+    private static void gradientStopColor(float[] f, SoftwareDrawCall call, int offset, float[] out) {
+        if (offset < 4) {
+            copy(f, DATA + 12 + offset * 4, out);
+        } else {
+            copy(call.vectors, (offset - 4) * 4, out);
+        }
+    }
+
+    private void fillRoundedRect(float[] f, float[] out) {
+        float sizeX = f[DATA + 2];
+        float sizeY = f[DATA + 3];
+        float px = (f[TEX] - 0.5f) * sizeX;
+        float py = (f[TEX + 1] - 0.5f) * sizeY;
+
+        float d = sdRoundRect(px, py, sizeX, sizeY, f, DATA + 4, f, DATA + 8);
+
+        // Fill background
+        float alpha = antialias(-d, AA_WIDTH, 0);
+        copy(f, COLOR, out);
+        scale(out, alpha);
+
+        // Draw stroke
+        float strokeWidth = f[DATA + 12];
+        if (strokeWidth > 0) {
+            alpha = Math.min(antialias(-d, AA_WIDTH, 0), 1 - antialias(-d, AA_WIDTH, strokeWidth));
+            copy(f, DATA + 16, stroke);
+            scale(stroke, alpha);
+            blendOver(stroke, out);
+        }
+    }
+
+    private boolean fillBoxShadow(float[] f, float[] out) {
+        float px = f[OBJ];
+        float py = f[OBJ + 1];
+        boolean inset = (int) (f[DATA + 1] + 0.5f) != 0;
+        float radius = f[DATA + 2];
+
+        float sdClip = sdRoundRect(
+                px - f[DATA + 16], py - f[DATA + 17], f[DATA + 18], f[DATA + 19], f, DATA + 20, f, DATA + 24);
+        float sdRect = sdRoundRect(
+                px - f[DATA + 4], py - f[DATA + 5], f[DATA + 6], f[DATA + 7], f, DATA + 8, f, DATA + 12);
+
+        float clip = inset ? -sdRect : sdClip;
+        float d = inset ? -sdClip : sdRect;
+        if (clip < 0) {
+            return false;
+        }
+
+        float alpha = radius >= 1
+                ? (float) (Math.pow(antialias(-d, radius * 2 + 0.2f, 0), 1.9) * 3.3 / Math.pow(radius * 1.2, 0.15))
+                : antialias(-d, AA_WIDTH, inset ? -1 : 1);
+        alpha = clamp(alpha, 0, 1) * f[COLOR + 3];
+
+        out[0] = f[COLOR] * alpha;
+        out[1] = f[COLOR + 1] * alpha;
+        out[2] = f[COLOR + 2] * alpha;
+        out[3] = alpha;
+        return true;
+    }
+
+    private void fillGlyph(float[] f, SoftwareDrawCall call, float[] out) {
+        sample(call.texture1, f[TEX], f[TEX + 1], sample);
+        float alpha = clamp(sample[0] * f[COLOR + 3], 0, 1);
+
+        // Texture2 holds the gamma correction ramp indexed by coverage and luma of the fill color
+        sample(call.texture2, alpha, f[DATA + 1], sample);
+        float corrected = sample[0];
+
+        out[0] = f[COLOR] * corrected;
+        out[1] = f[COLOR + 1] * corrected;
+        out[2] = f[COLOR + 2] * corrected;
+        out[3] = corrected;
+    }
+
+    private void fillBlend(float[] f, SoftwareDrawCall call, float[] out) {
+        fillImage(f, call, f[TEX], f[TEX + 1], src);
+        sample(call.texture2, f[OBJ], f[OBJ + 1], dest);
+
+        float sa = src[3];
+        float da = dest[3];
+
+        switch ((int) (f[DATA + 1] + 0.5f)) {
+            case 0: // Clear
+                out[0] = out[1] = out[2] = out[3] = 0;
+                return;
+
+            case 1: // Source
+                copy(src, 0, out);
+                return;
+
+            case 2: // Over
+                combine(src, 1, dest, 1 - sa, out);
+                return;
+
+            case 3: // In
+                combine(src, da, dest, 0, out);
+                return;
+
+            case 4: // Out
+                combine(src, 1 - da, dest, 0, out);
+                return;
+
+            case 5: // Atop
+                combine(src, da, dest, 1 - sa, out);
+                return;
+
+            case 6: // DestOver
+                combine(src, 1 - da, dest, 1, out);
+                return;
+
+            case 7: // DestIn
+                combine(src, 0, dest, sa, out);
+                return;
+
+            case 8: // DestOut
+                combine(src, 0, dest, 1 - sa, out);
+                return;
+
+            case 9: // DestAtop
+                combine(src, 1 - da, dest, sa, out);
+                return;
+
+            case 10: // XOR
+                combine(src, 1 - da, dest, 1 - sa, out);
+                saturate(out);
+                return;
+
+            case 12: // Add
+                combine(src, 1, dest, 1, out);
+                saturate(out);
+                return;
+
+            default:
+                separableBlend((int) (f[DATA + 1] + 0.5f), out);
+                return;
+        }
+    }
+
+    /**
+     * Applies one of the blend modes which combine the color channels of source and destination and scale the result
+     * by the source alpha.
+     */
+    private void separableBlend(int op, float[] out) {
+        float sa = src[3];
+
+        switch (op) {
+            case 11: // Darken
+                for (int i = 0; i < 3; i++) {
+                    out[i] = Math.min(src[i], dest[i]);
+                }
+                break;
+
+            case 13: // Difference
+                for (int i = 0; i < 3; i++) {
+                    out[i] = Math.abs(dest[i] - src[i]);
+                }
+                break;
+
+            case 14: // Multiply
+                for (int i = 0; i < 3; i++) {
+                    out[i] = src[i] * dest[i];
+                }
+                break;
+
+            case 15: // Screen
+                for (int i = 0; i < 3; i++) {
+                    out[i] = 1 - (1 - dest[i]) * (1 - src[i]);
+                }
+                break;
+
+            case 16: // Overlay
+                overlay(src, dest, out);
+                break;
+
+            case 17: // Lighten
+                for (int i = 0; i < 3; i++) {
+                    out[i] = Math.max(src[i], dest[i]);
+                }
+                break;
+
+            case 18: // ColorDodge
+                for (int i = 0; i < 3; i++) {
+                    out[i] = src[i] == 1 ? src[i] : Math.min(dest[i] / (1 - src[i]), 1);
+                }
+                break;
+
+            case 19: // ColorBurn
+                for (int i = 0; i < 3; i++) {
+                    out[i] = src[i] == 0 ? src[i] : Math.max(1 - (1 - dest[i]) / src[i], 0);
+                }
+                break;
+
+            case 20: // HardLight is overlay with swapped operands
+                overlay(dest, src, out);
+                break;
+
+            case 21: // SoftLight
+                for (int i = 0; i < 3; i++) {
+                    float s = src[i];
+                    float d = dest[i];
+                    out[i] = s < 0.5f
+                            ? 2 * d * s + d * d * (1 - 2 * s)
+                            : (float) Math.sqrt(d) * (2 * s - 1) + 2 * d * (1 - s);
+                }
+                break;
+
+            case 22: // Exclusion
+                for (int i = 0; i < 3; i++) {
+                    out[i] = dest[i] + src[i] - 2 * dest[i] * src[i];
+                }
+                break;
+
+            case 23: // Hue
+                rgbToHsl(dest, hsl);
+                rgbToHsl(src, hslOther);
+                hsl[0] = hslOther[0];
+                hslToRgb(hsl, out);
+                break;
+
+            case 24: // Saturation
+                rgbToHsl(dest, hsl);
+                rgbToHsl(src, hslOther);
+                hsl[1] = hslOther[1];
+                hslToRgb(hsl, out);
+                break;
+
+            case 25: // Color
+                rgbToHsl(src, hsl);
+                rgbToHsl(dest, hslOther);
+                hsl[2] = hslOther[2];
+                hslToRgb(hsl, out);
+                break;
+
+            case 26: // Luminosity
+                rgbToHsl(dest, hsl);
+                rgbToHsl(src, hslOther);
+                hsl[2] = hslOther[2];
+                hslToRgb(hsl, out);
+                break;
+
+            default:
+                copy(src, 0, out);
+                return;
+        }
+
+        for (int i = 0; i < 3; i++) {
+            out[i] *= sa;
+        }
+        out[3] = dest[3] * sa;
+    }
+
+    private static void overlay(float[] a, float[] b, float[] out) {
+        for (int i = 0; i < 3; i++) {
+            out[i] = b[i] < 0.5f ? 2 * b[i] * a[i] : 1 - 2 * (1 - b[i]) * (1 - a[i]);
+        }
+    }
+
+    private static void rgbToHsl(float[] color, float[] out) {
+        float eps = 0.0000001f;
+        float r = color[0];
+        float g = color[1];
+        float b = color[2];
+        float min = Math.min(r, Math.min(g, b));
+        float max = Math.max(r, Math.max(g, b));
+        float delta = max - min + eps;
+
+        float h = step(g, r) * step(b, r) * ((g - b) / delta)
+                + step(r, g) * step(b, g) * (2 + (b - r) / delta)
+                + step(r, b) * step(g, b) * (4 + (r - g) / delta);
+
+        out[0] = fract(1 + h / 6);
+        out[1] = (max - min) / (1 - Math.abs(min + max - 1) + eps);
+        out[2] = (min + max) * 0.5f;
+    }
+
+    private static void hslToRgb(float[] hsl, float[] out) {
+        float chroma = 1 - Math.abs(2 * hsl[2] - 1);
+        for (int i = 0; i < 3; i++) {
+            // Offsets 0, 4 and 2 for red, green and blue
+            float offset = (6 - i * 2) % 6;
+            float rgb = clamp(Math.abs(mod(hsl[0] * 6 + offset, 6) - 3) - 1, 0, 1);
+            out[i] = hsl[2] + hsl[1] * (rgb - 0.5f) * chroma;
+        }
+    }
+
+    private void applyClip(float[] f, SoftwareDrawCall call, float[] out, float median) {
+        float[] clip = call.clip;
+
+        for (int i = 0; i < call.clipSize; i++) {
+            int base = i * 16;
+
+            // Column 0: origin and size, column 1: packed radii, columns 2 and 3: affine transform and inverse flag
+            for (int corner = 0; corner < 4; corner++) {
+                float packed = clip[base + 4 + corner];
+                radiiX[corner] = (float) Math.floor(packed / 65536.0f);
+                radiiY[corner] = (float) Math.floor(packed - radiiX[corner] * 65536.0f);
+            }
+            boolean inverse = clip[base + 14] != 0;
+
+            float px = f[OBJ];
+            float py = f[OBJ + 1];
+            float tx = px * clip[base + 8] + py * clip[base + 10] + clip[base + 12] - clip[base];
+            float ty = px * clip[base + 9] + py * clip[base + 11] + clip[base + 13] - clip[base + 1];
+
+            float d = sdRoundRect(tx, ty, clip[base + 2], clip[base + 3], radiiX, 0, radiiY, 0);
+            if (inverse) {
+                d = -d;
+            }
+
+            scale(out, antialias(-d, AA_WIDTH, median));
+        }
+    }
+
+    private void sample(SoftwareTexture texture, float u, float v, float[] out) {
+        if (texture == null) {
+            out[0] = out[1] = out[2] = out[3] = 0;
+        } else {
+            texture.sample(u, v, out);
+        }
+    }
+
+    private static float sdRect(float px, float py, float halfX, float halfY) {
+        float dx = Math.abs(px) - halfX;
+        float dy = Math.abs(py) - halfY;
+        return Math.min(Math.max(dx, dy), 0) + length(Math.max(dx, 0), Math.max(dy, 0));
+    }
+
+    private static float sdRoundRect(
+            float px, float py, float sizeX, float sizeY, float[] rx, int rxOffset, float[] ry, int ryOffset) {
+        float halfX = sizeX * 0.5f;
+        float halfY = sizeY * 0.5f;
+
+        // Top-Left
+        float r = rx[rxOffset];
+        float s = ry[ryOffset];
+        float cx = -halfX + r;
+        float cy = -halfY + s;
+        if (r * s > 0 && px < cx && py <= cy) {
+            return sdEllipse(px - cx, py - cy, r, s);
+        }
+
+        // Top-Right
+        r = rx[rxOffset + 1];
+        s = ry[ryOffset + 1];
+        cx = halfX - r;
+        cy = -halfY + s;
+        if (r * s > 0 && px >= cx && py <= cy) {
+            return sdEllipse(px - cx, py - cy, r, s);
+        }
+
+        // Bottom-Right
+        r = rx[rxOffset + 2];
+        s = ry[ryOffset + 2];
+        cx = halfX - r;
+        cy = halfY - s;
+        if (r * s > 0 && px >= cx && py >= cy) {
+            return sdEllipse(px - cx, py - cy, r, s);
+        }
+
+        // Bottom-Left
+        r = rx[rxOffset + 3];
+        s = ry[ryOffset + 3];
+        cx = -halfX + r;
+        cy = halfY - s;
+        if (r * s > 0 && px < cx && py > cy) {
+            return sdEllipse(px - cx, py - cy, r, s);
+        }
+
+        return sdRect(px, py, halfX, halfY);
+    }
+
+    /**
+     * Signed distance to an ellipse, port of the MIT licensed {@code sdEllipse} by Inigo Quilez used by the shaders.
+     */
+    private static float sdEllipse(float px, float py, float abX, float abY) {
+        if (Math.abs(abX - abY) < 0.1f) {
+            return length(px, py) - abX;
+        }
+
+        double x = Math.abs(px);
+        double y = Math.abs(py);
+        double a = abX;
+        double b = abY;
+        if (x > y) {
+            double swap = x;
+            x = y;
+            y = swap;
+
+            swap = a;
+            a = b;
+            b = swap;
+        }
+
+        double l = b * b - a * a;
+        double m = a * x / l;
+        double n = b * y / l;
+        double m2 = m * m;
+        double n2 = n * n;
+
+        double c = (m2 + n2 - 1.0) / 3.0;
+        double c3 = c * c * c;
+        double q = c3 + m2 * n2 * 2.0;
+        double d = c3 + m2 * n2;
+        double g = m + m * n2;
+
+        double co;
+        if (d < 0.0) {
+            double p = Math.acos(q / c3) / 3.0;
+            double s = Math.cos(p);
+            double t = Math.sin(p) * Math.sqrt(3.0);
+            double rx = Math.sqrt(-c * (s + t + 2.0) + m2);
+            double ry = Math.sqrt(-c * (s - t + 2.0) + m2);
+            co = (ry + Math.signum(l) * rx + Math.abs(g) / (rx * ry) - m) / 2.0;
+        } else {
+            double h = 2.0 * m * n * Math.sqrt(d);
+            double s = Math.signum(q + h) * Math.cbrt(Math.abs(q + h));
+            double u = Math.signum(q - h) * Math.cbrt(Math.abs(q - h));
+            double rx = -s - u - c * 4.0 + 2.0 * m2;
+            double ry = (s - u) * Math.sqrt(3.0);
+            double rm = Math.sqrt(rx * rx + ry * ry);
+            double p = ry / Math.sqrt(rm - rx);
+            co = (p + 2.0 * g / rm - m) / 2.0;
+        }
+        double si = Math.sqrt(1.0 - co * co);
+
+        double closestX = a * co;
+        double closestY = b * si;
+        return (float) (Math.hypot(closestX - x, closestY - y) * Math.signum(y - closestY));
+    }
+
+    private static float antialias(float d, float width, float median) {
+        return smoothstep(median - width, median + width, d);
+    }
+
+    private static float smoothstep(float edge0, float edge1, float x) {
+        float t = clamp((x - edge0) / (edge1 - edge0), 0, 1);
+        return t * t * (3 - 2 * t);
+    }
+
+    private static float ramp(float min, float max, float value) {
+        return clamp((value - min) / (max - min), 0, 1);
+    }
+
+    private static float step(float edge, float x) {
+        return x < edge ? 0 : 1;
+    }
+
+    private static float fract(float x) {
+        return x - (float) Math.floor(x);
+    }
+
+    private static float mod(float x, float y) {
+        return x - y * (float) Math.floor(x / y);
+    }
+
+    private static float clamp(float value, float min, float max) {
+        return Math.min(Math.max(value, min), max);
+    }
+
+    private static float length(float x, float y) {
+        return (float) Math.sqrt(x * x + y * y);
+    }
+
+    private static void copy(float[] from, int offset, float[] out) {
+        out[0] = from[offset];
+        out[1] = from[offset + 1];
+        out[2] = from[offset + 2];
+        out[3] = from[offset + 3];
+    }
+
+    private static void scale(float[] color, float factor) {
+        color[0] *= factor;
+        color[1] *= factor;
+        color[2] *= factor;
+        color[3] *= factor;
+    }
+
+    private static void mix(float[] a, float[] b, float t, float[] out) {
+        for (int i = 0; i < 4; i++) {
+            out[i] = a[i] + (b[i] - a[i]) * t;
+        }
+    }
+
+    private static void combine(float[] a, float aFactor, float[] b, float bFactor, float[] out) {
+        for (int i = 0; i < 4; i++) {
+            out[i] = a[i] * aFactor + b[i] * bFactor;
+        }
+    }
+
+    private static void saturate(float[] color) {
+        for (int i = 0; i < 4; i++) {
+            color[i] = clamp(color[i], 0, 1);
+        }
+    }
+
+    /**
+     * Composites a premultiplied color over another one, writing the result into the second color.
+     */
+    private static void blendOver(float[] over, float[] under) {
+        float inverse = 1 - over[3];
+        for (int i = 0; i < 4; i++) {
+            under[i] = over[i] + under[i] * inverse;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.plugin.render.software;
+
+import com.labymedia.ultralight.bitmap.UltralightBitmap;
+import com.labymedia.ultralight.bitmap.UltralightBitmapFormat;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * CPU side texture of the software driver.
+ * <p>
+ * Pixels are stored as premultiplied ARGB integers, which matches the memory layout of
+ * {@link UltralightBitmapFormat#BGRA8_UNORM_SRGB} on little endian machines. Single channel bitmaps are expanded the
+ * way OpenGL samples a red-only texture, with the value in the red channel and an opaque alpha.
+ */
+final class SoftwareTexture {
+    final int width;
+    final int height;
+    final int[] pixels;
+
+    /**
+     * Constructs a new, transparent texture.
+     *
+     * @param width  The width of the texture in pixels
+     * @param height The height of the texture in pixels
+     */
+    SoftwareTexture(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.pixels = new int[width * height];
+    }
+
+    /**
+     * Creates a texture from the pixels of a bitmap.
+     *
+     * @param bitmap The bitmap to copy
+     * @return The created texture
+     */
+    static SoftwareTexture fromBitmap(UltralightBitmap bitmap) {
+        SoftwareTexture texture = new SoftwareTexture((int) bitmap.width(), (int) bitmap.height());
+        texture.upload(bitmap);
+        return texture;
+    }
+
+    /**
+     * Replaces the pixels of this texture with the pixels of a bitmap of the same size.
+     *
+     * @param bitmap The bitmap to copy
+     */
+    void upload(UltralightBitmap bitmap) {
+        boolean alphaOnly = bitmap.format() == UltralightBitmapFormat.A8_UNORM;
+        int rowBytes = (int) bitmap.rowBytes();
+        int rows = Math.min(height, (int) bitmap.height());
+        int columns = Math.min(width, (int) bitmap.width());
+
+        ByteBuffer source = bitmap.lockPixels().duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            for (int y = 0; y < rows; y++) {
+                int row = y * rowBytes;
+                int offset = y * width;
+
+                if (alphaOnly) {
+                    for (int x = 0; x < columns; x++) {
+                        pixels[offset + x] = 0xFF000000 | (source.get(row + x) & 0xFF) << 16;
+                    }
+                } else {
+                    for (int x = 0; x < columns; x++) {
+                        pixels[offset + x] = source.getInt(row + x * 4);
+                    }
+                }
+            }
+        } finally {
+            bitmap.unlockPixels();
+        }
+    }
+
+    /**
+     * Samples the texture with bilinear filtering and clamping to the edges, like the OpenGL driver configures its
+     * textures.
+     *
+     * @param u   The horizontal texture coordinate
+     * @param v   The vertical texture coordinate
+     * @param out The array to write the RGBA result to
+     */
+    void sample(float u, float v, float[] out) {
+        if (pixels.length == 0) {
+            out[0] = out[1] = out[2] = out[3] = 0;
+            return;
+        }
+
+        float x = u * width - 0.5f;
+        float y = v * height - 0.5f;
+        if (!(x == x) || !(y == y)) {
+            // Coordinates of NaN sample the first texel on the GPU
+            x = 0;
+            y = 0;
+        }
+
+        int x0 = (int) Math.floor(x);
+        int y0 = (int) Math.floor(y);
+        float fx = x - x0;
+        float fy = y - y0;
+
+        int left = clamp(x0, width);
+        int right = clamp(x0 + 1, width);
+        int top = clamp(y0, height) * width;
+        int bottom = clamp(y0 + 1, height) * width;
+
+        int topLeft = pixels[top + left];
+        int topRight = pixels[top + right];
+        int bottomLeft = pixels[bottom + left];
+        int bottomRight = pixels[bottom + right];
+
+        for (int channel = 0; channel < 4; channel++) {
+            // RGBA order in the output, ARGB in the packed pixel
+            int shift = channel == 3 ? 24 : 16 - channel * 8;
+
+            float upper = lerp(topLeft >>> shift & 0xFF, topRight >>> shift & 0xFF, fx);
+            float lower = lerp(bottomLeft >>> shift & 0xFF, bottomRight >>> shift & 0xFF, fx);
+            out[channel] = lerp(upper, lower, fy) * (1.0f / 255.0f);
+        }
+    }
+
+    /**
+     * Writes the pixels of this texture as BGRA rows into a buffer.
+     *
+     * @param destination The buffer to write to
+     * @param rowBytes    The amount of bytes between two rows in the buffer
+     */
+    void copyTo(ByteBuffer destination, int rowBytes) {
+        ByteBuffer out = destination.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int start = out.position();
+
+        for (int y = 0; y < height; y++) {
+            int row = start + y * rowBytes;
+            int offset = y * width;
+
+            for (int x = 0; x < width; x++) {
+                out.putInt(row + x * 4, pixels[offset + x]);
+            }
+        }
+    }
+
+    private static int clamp(int value, int size) {
+        return value < 0 ? 0 : (value >= size ? size - 1 : value);
+    }
+
+    private static float lerp(float a, float b, float t) {
+        return a + (b - a) * t;
+    }
+}
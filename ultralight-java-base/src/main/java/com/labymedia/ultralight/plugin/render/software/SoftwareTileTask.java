@@ -0,0 +1,288 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.plugin.render.software;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Executes a run of commands drawing into the same texture, split into square tiles.
+ * <p>
+ * Tiles never share pixels, so each one can execute all commands in their original order without synchronizing
+ * with other tiles. The range of tiles is halved until a single tile is left, leaving the balancing to the fork-join
+ * pool.
+ */
+final class SoftwareTileTask extends RecursiveAction {
+    private static final long serialVersionUID = 5942458926736332844L;
+
+    private final List<SoftwareDrawCall> calls;
+    private final SoftwareTexture target;
+    private final int originX;
+    private final int originY;
+    private final int endX;
+    private final int endY;
+    private final int columns;
+    private final int tileSize;
+    private final int from;
+    private final int to;
+
+    /**
+     * Constructs a new {@link SoftwareTileTask}.
+     *
+     * @param calls    The commands to execute
+     * @param target   The texture all commands draw into
+     * @param originX  The left edge of the tile grid in pixels
+     * @param originY  The top edge of the tile grid in pixels
+     * @param endX     The exclusive right edge of the area to execute in pixels
+     * @param endY     The exclusive bottom edge of the area to execute in pixels
+     * @param columns  The amount of tiles in a row of the grid
+     * @param tileSize The width and height of a tile in pixels
+     * @param from     The first tile to execute
+     * @param to       The tile to stop before
+     */
+    SoftwareTileTask(
+            List<SoftwareDrawCall> calls,
+            SoftwareTexture target,
+            int originX,
+            int originY,
+            int endX,
+            int endY,
+            int columns,
+            int tileSize,
+            int from,
+            int to
+    ) {
+        this.calls = calls;
+        this.target = target;
+        this.originX = originX;
+        this.originY = originY;
+        this.endX = endX;
+        this.endY = endY;
+        this.columns = columns;
+        this.tileSize = tileSize;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from > 1) {
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new SoftwareTileTask(calls, target, originX, originY, endX, endY, columns, tileSize, from, middle),
+                    new SoftwareTileTask(calls, target, originX, originY, endX, endY, columns, tileSize, middle, to)
+            );
+            return;
+        }
+
+        Rasterizer rasterizer = new Rasterizer(target);
+        for (int tile = from; tile < to; tile++) {
+            int x0 = originX + (tile % columns) * tileSize;
+            int y0 = originY + (tile / columns) * tileSize;
+            int x1 = Math.min(x0 + tileSize, endX);
+            int y1 = Math.min(y0 + tileSize, endY);
+
+            for (SoftwareDrawCall call : calls) {
+                rasterizer.execute(call, x0, y0, x1, y1);
+            }
+        }
+    }
+
+    /**
+     * Per worker state for executing commands within a tile.
+     */
+    private static final class Rasterizer {
+        private final SoftwareTexture target;
+        private final SoftwareShader shader;
+        private final float[] fragment;
+        private final float[] color;
+
+        private Rasterizer(SoftwareTexture target) {
+            this.target = target;
+            this.shader = new SoftwareShader();
+            this.fragment = new float[SoftwareGeometry.FILL_STRIDE];
+            this.color = new float[4];
+        }
+
+        /**
+         * Executes a command within a rectangle of the target.
+         *
+         * @param call The command to execute
+         * @param x0   The left edge of the rectangle
+         * @param y0   The top edge of the rectangle
+         * @param x1   The exclusive right edge of the rectangle
+         * @param y1   The exclusive bottom edge of the rectangle
+         */
+        private void execute(SoftwareDrawCall call, int x0, int y0, int x1, int y1) {
+            x0 = Math.max(x0, call.minX);
+            y0 = Math.max(y0, call.minY);
+            x1 = Math.min(x1, call.maxX);
+            y1 = Math.min(y1, call.maxY);
+            if (x0 >= x1 || y0 >= y1) {
+                return;
+            }
+
+            if (call.clear) {
+                for (int y = y0; y < y1; y++) {
+                    Arrays.fill(target.pixels, y * target.width + x0, y * target.width + x1, 0);
+                }
+                return;
+            }
+
+            for (int triangle = 0; triangle < call.triangleCount; triangle++) {
+                int[] bounds = call.bounds;
+                int minX = Math.max(x0, bounds[triangle * 4]);
+                int minY = Math.max(y0, bounds[triangle * 4 + 1]);
+                int maxX = Math.min(x1, bounds[triangle * 4 + 2]);
+                int maxY = Math.min(y1, bounds[triangle * 4 + 3]);
+
+                if (minX < maxX && minY < maxY) {
+                    rasterizeTriangle(call, triangle, minX, minY, maxX, maxY);
+                }
+            }
+        }
+
+        /**
+         * Shades all pixels of a rectangle whose centers are covered by a triangle.
+         *
+         * @param call     The command the triangle belongs to
+         * @param triangle The index of the triangle in the command
+         * @param minX     The left edge of the rectangle
+         * @param minY     The top edge of the rectangle
+         * @param maxX     The exclusive right edge of the rectangle
+         * @param maxY     The exclusive bottom edge of the rectangle
+         */
+        private void rasterizeTriangle(SoftwareDrawCall call, int triangle, int minX, int minY, int maxX, int maxY) {
+            float[] positions = call.positions;
+            float ax = positions[triangle * 6];
+            float ay = positions[triangle * 6 + 1];
+            float bx = positions[triangle * 6 + 2];
+            float by = positions[triangle * 6 + 3];
+            float cx = positions[triangle * 6 + 4];
+            float cy = positions[triangle * 6 + 5];
+
+            int a = call.triangleIndices[triangle * 3];
+            int b = call.triangleIndices[triangle * 3 + 1];
+            int c = call.triangleIndices[triangle * 3 + 2];
+
+            float area = (bx - ax) * (cy - ay) - (by - ay) * (cx - ax);
+            if (!(area != 0)) {
+                return;
+            }
+
+            if (area < 0) {
+                // Bring the triangle into a consistent winding, the GPU does not cull either
+                float swap = bx;
+                bx = cx;
+                cx = swap;
+                swap = by;
+                by = cy;
+                cy = swap;
+
+                int swapIndex = b;
+                b = c;
+                c = swapIndex;
+                area = -area;
+            }
+
+            // Pixels exactly on a shared edge belong to exactly one of the two triangles
+            boolean includeA = isIncluded(cx - bx, cy - by);
+            boolean includeB = isIncluded(ax - cx, ay - cy);
+            boolean includeC = isIncluded(bx - ax, by - ay);
+
+            float[] vertices = call.geometry.vertices;
+            int end = call.path ? call.geometry.stride : SoftwareShader.varyingsEnd(vertices, a, b, c);
+            float inverseArea = 1 / area;
+
+            for (int y = minY; y < maxY; y++) {
+                float py = y + 0.5f;
+                int row = y * target.width;
+
+                for (int x = minX; x < maxX; x++) {
+                    float px = x + 0.5f;
+
+                    float wa = (cx - bx) * (py - by) - (cy - by) * (px - bx);
+                    float wb = (ax - cx) * (py - cy) - (ay - cy) * (px - cx);
+                    float wc = (bx - ax) * (py - ay) - (by - ay) * (px - ax);
+                    if (!covers(wa, includeA) || !covers(wb, includeB) || !covers(wc, includeC)) {
+                        continue;
+                    }
+
+                    wa *= inverseArea;
+                    wb *= inverseArea;
+                    wc *= inverseArea;
+                    for (int i = SoftwareGeometry.COLOR; i < end; i++) {
+                        fragment[i] = wa * vertices[a + i] + wb * vertices[b + i] + wc * vertices[c + i];
+                    }
+
+                    if (call.path) {
+                        shader.shadePath(fragment, call, color);
+                    } else if (!shader.shadeFill(fragment, call, color)) {
+                        continue;
+                    }
+
+                    int index = row + x;
+                    target.pixels[index] = call.blend ? blend(color, target.pixels[index]) : pack(color);
+                }
+            }
+        }
+
+        private static boolean isIncluded(float dx, float dy) {
+            return dy > 0 || (dy == 0 && dx < 0);
+        }
+
+        private static boolean covers(float weight, boolean includeEdge) {
+            return weight > 0 || (weight == 0 && includeEdge);
+        }
+
+        /**
+         * Blends a premultiplied color over a pixel, like the {@code GL_ONE, GL_ONE_MINUS_SRC_ALPHA} blend function
+         * of the OpenGL driver.
+         *
+         * @param color       The RGBA color to blend
+         * @param destination The packed pixel to blend over
+         * @return The blended packed pixel
+         */
+        private static int blend(float[] color, int destination) {
+            float inverse = 1 - saturate(color[3]);
+            return channel(saturate(color[3]) + (destination >>> 24) * inverse * (1.0f / 255.0f)) << 24
+                    | channel(saturate(color[0]) + (destination >>> 16 & 0xFF) * inverse * (1.0f / 255.0f)) << 16
+                    | channel(saturate(color[1]) + (destination >>> 8 & 0xFF) * inverse * (1.0f / 255.0f)) << 8
+                    | channel(saturate(color[2]) + (destination & 0xFF) * inverse * (1.0f / 255.0f));
+        }
+
+        private static int pack(float[] color) {
+            return channel(saturate(color[3])) << 24
+                    | channel(saturate(color[0])) << 16
+                    | channel(saturate(color[1])) << 8
+                    | channel(saturate(color[2]));
+        }
+
+        private static float saturate(float value) {
+            // NaN ends up as 0, like the GPU writing it into a normalized target
+            return value > 0 ? (value < 1 ? value : 1) : 0;
+        }
+
+        private static int channel(float value) {
+            return Math.min(255, (int) (value * 255 + 0.5f));
+        }
+    }
+}
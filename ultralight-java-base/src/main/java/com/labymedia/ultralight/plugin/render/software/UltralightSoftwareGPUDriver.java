@@ -0,0 +1,344 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.plugin.render.software;
+
+import com.labymedia.ultralight.UltralightRenderer;
+import com.labymedia.ultralight.annotation.NativeType;
+import com.labymedia.ultralight.annotation.Unsigned;
+import com.labymedia.ultralight.bitmap.UltralightBitmap;
+import com.labymedia.ultralight.bitmap.UltralightBitmapFormat;
+import com.labymedia.ultralight.plugin.render.UltralightCommand;
+import com.labymedia.ultralight.plugin.render.UltralightCommandType;
+import com.labymedia.ultralight.plugin.render.UltralightGPUDriver;
+import com.labymedia.ultralight.plugin.render.UltralightGPUState;
+import com.labymedia.ultralight.plugin.render.UltralightIndexBuffer;
+import com.labymedia.ultralight.plugin.render.UltralightRenderBuffer;
+import com.labymedia.ultralight.plugin.render.UltralightVertexBuffer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * GPU driver executing command lists on the CPU, for running accelerated views on machines without a GPU.
+ * <p>
+ * Textures live in Java memory and the fill and fill path shaders of the OpenGL driver are evaluated per pixel in
+ * Java, including clipping and scissoring. Consecutive commands drawing into the same render buffer are executed
+ * together, split into tiles which are rasterized in parallel on a {@link ForkJoinPool}. Multisampling is not
+ * emulated, so path edges are not antialiased.
+ * <p>
+ * Command lists are executed as soon as Ultralight submits them, so the render targets of all views are up to date
+ * once {@link UltralightRenderer#render()} returns. Use {@link #readTexture(long, ByteBuffer)} or
+ * {@link #createBitmap(long)} with the texture id of the render target of a view to retrieve its pixels.
+ * <p>
+ * Like any GPU driver, this class is only ever called from the thread running the renderer and is not thread safe.
+ */
+public class UltralightSoftwareGPUDriver implements UltralightGPUDriver {
+    private static final int TILE_SIZE = 64;
+
+    private final ForkJoinPool pool;
+
+    private final Map<Long, SoftwareTexture> textures;
+    private final Map<Long, Long> renderBuffers;
+    private final Map<Long, SoftwareGeometry> geometries;
+
+    private long nextTextureId;
+    private long nextRenderBufferId;
+    private long nextGeometryId;
+
+    /**
+     * Constructs a new {@link UltralightSoftwareGPUDriver} rasterizing on the common fork-join pool.
+     */
+    public UltralightSoftwareGPUDriver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a new {@link UltralightSoftwareGPUDriver} rasterizing on the given pool.
+     *
+     * @param pool The pool to rasterize tiles on
+     */
+    public UltralightSoftwareGPUDriver(ForkJoinPool pool) {
+        this.pool = pool;
+        this.textures = new HashMap<>();
+        this.renderBuffers = new HashMap<>();
+        this.geometries = new HashMap<>();
+    }
+
+    /**
+     * Retrieves the width of a texture.
+     *
+     * @param textureId The id of the texture
+     * @return The width of the texture in pixels
+     * @throws IllegalArgumentException If the texture does not exist
+     */
+    public int getTextureWidth(@Unsigned @NativeType("uint32_t") long textureId) {
+        return texture(textureId).width;
+    }
+
+    /**
+     * Retrieves the height of a texture.
+     *
+     * @param textureId The id of the texture
+     * @return The height of the texture in pixels
+     * @throws IllegalArgumentException If the texture does not exist
+     */
+    public int getTextureHeight(@Unsigned @NativeType("uint32_t") long textureId) {
+        return texture(textureId).height;
+    }
+
+    /**
+     * Copies the pixels of a texture into a buffer, as tightly packed rows in the layout of
+     * {@link UltralightBitmapFormat#BGRA8_UNORM_SRGB}. The position of the buffer is not changed.
+     *
+     * @param textureId   The id of the texture
+     * @param destination The buffer to copy into, starting at its position
+     * @throws IllegalArgumentException If the texture does not exist or the buffer is too small
+     */
+    public void readTexture(@Unsigned @NativeType("uint32_t") long textureId, ByteBuffer destination) {
+        SoftwareTexture texture = texture(textureId);
+        if (destination.remaining() < texture.width * texture.height * 4) {
+            throw new IllegalArgumentException("The destination buffer is too small for texture " + textureId);
+        }
+
+        texture.copyTo(destination, texture.width * 4);
+    }
+
+    /**
+     * Copies the pixels of a texture into a new bitmap, for example to write them to a PNG.
+     *
+     * @param textureId The id of the texture
+     * @return The created bitmap
+     * @throws IllegalArgumentException If the texture does not exist
+     */
+    public UltralightBitmap createBitmap(@Unsigned @NativeType("uint32_t") long textureId) {
+        SoftwareTexture texture = texture(textureId);
+
+        UltralightBitmap bitmap = UltralightBitmap.create(
+                texture.width, texture.height, UltralightBitmapFormat.BGRA8_UNORM_SRGB);
+        ByteBuffer pixels = bitmap.lockPixels();
+        try {
+            texture.copyTo(pixels, (int) bitmap.rowBytes());
+        } finally {
+            bitmap.unlockPixels();
+        }
+
+        return bitmap;
+    }
+
+    @Override
+    public void beginSynchronize() {
+    }
+
+    @Override
+    public void endSynchronize() {
+    }
+
+    @Override
+    public long nextTextureId() {
+        return ++nextTextureId;
+    }
+
+    @Override
+    public void createTexture(long textureId, UltralightBitmap bitmap) {
+        if (bitmap.isEmpty()) {
+            // Backing texture of a render buffer
+            textures.put(textureId, new SoftwareTexture((int) bitmap.width(), (int) bitmap.height()));
+        } else {
+            textures.put(textureId, SoftwareTexture.fromBitmap(bitmap));
+        }
+    }
+
+    @Override
+    public void updateTexture(long textureId, UltralightBitmap bitmap) {
+        if (bitmap.isEmpty()) {
+            return;
+        }
+
+        SoftwareTexture texture = textures.get(textureId);
+        if (texture != null && texture.width == bitmap.width() && texture.height == bitmap.height()) {
+            texture.upload(bitmap);
+        } else {
+            textures.put(textureId, SoftwareTexture.fromBitmap(bitmap));
+        }
+    }
+
+    @Override
+    public void destroyTexture(long textureId) {
+        textures.remove(textureId);
+    }
+
+    @Override
+    public long nextRenderBufferId() {
+        return ++nextRenderBufferId;
+    }
+
+    @Override
+    public void createRenderBuffer(long renderBufferId, UltralightRenderBuffer buffer) {
+        renderBuffers.put(renderBufferId, buffer.getTextureId());
+
+        SoftwareTexture texture = textures.get(buffer.getTextureId());
+        if (texture == null || texture.width != buffer.getWidth() || texture.height != buffer.getHeight()) {
+            // The size of the render buffer is authoritative for its backing texture
+            textures.put(buffer.getTextureId(), new SoftwareTexture((int) buffer.getWidth(), (int) buffer.getHeight()));
+        }
+    }
+
+    @Override
+    public void destroyRenderBuffer(long renderBufferId) {
+        renderBuffers.remove(renderBufferId);
+    }
+
+    @Override
+    public long nextGeometryId() {
+        return ++nextGeometryId;
+    }
+
+    @Override
+    public void createGeometry(long geometryId, UltralightVertexBuffer vertices, UltralightIndexBuffer indices) {
+        geometries.put(geometryId, new SoftwareGeometry(vertices, indices));
+    }
+
+    @Override
+    public void updateGeometry(long geometryId, UltralightVertexBuffer vertices, UltralightIndexBuffer indices) {
+        geometries.put(geometryId, new SoftwareGeometry(vertices, indices));
+    }
+
+    @Override
+    public void destroyGeometry(long geometryId) {
+        geometries.remove(geometryId);
+    }
+
+    @Override
+    public void updateCommandList(UltralightCommand[] list) {
+        List<SoftwareDrawCall> batch = new ArrayList<>();
+        SoftwareTexture batchTarget = null;
+
+        for (UltralightCommand command : list) {
+            SoftwareDrawCall call = prepare(command);
+            if (call == null || call.isEmpty()) {
+                continue;
+            }
+
+            // A command reading what the current run draws has to wait for the run to complete
+            if (call.target != batchTarget || call.samples(batchTarget)) {
+                execute(batch);
+                batch = new ArrayList<>();
+                batchTarget = call.target;
+            }
+
+            batch.add(call);
+        }
+
+        execute(batch);
+    }
+
+    /**
+     * Resolves everything a command needs for being executed.
+     *
+     * @param command The command to prepare
+     * @return The prepared command, or {@code null}, if the command draws to the screen or references resources
+     * which do not exist
+     */
+    private SoftwareDrawCall prepare(UltralightCommand command) {
+        UltralightGPUState state = command.getGpuState();
+
+        // Render buffer 0 is the screen, which does not exist without a window
+        Long targetId = renderBuffers.get(state.getRenderBufferId());
+        SoftwareTexture target = targetId != null ? textures.get(targetId) : null;
+        if (target == null) {
+            return null;
+        }
+
+        if (command.getCommandType() == UltralightCommandType.CLEAR_RENDER_BUFFER) {
+            return new SoftwareDrawCall(target);
+        }
+
+        SoftwareGeometry geometry = geometries.get(command.getGeometryId());
+        if (geometry == null) {
+            return null;
+        }
+
+        return new SoftwareDrawCall(
+                target,
+                state,
+                textures.get(state.getTexture1Id()),
+                textures.get(state.getTexture2Id()),
+                textures.get(state.getTexture3Id()),
+                geometry,
+                (int) command.getIndicesOffset(),
+                (int) command.getIndicesCount()
+        );
+    }
+
+    /**
+     * Executes a run of commands drawing into the same texture, split into tiles.
+     *
+     * @param batch The commands to execute
+     */
+    private void execute(List<SoftwareDrawCall> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        SoftwareTexture target = batch.get(0).target;
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (SoftwareDrawCall call : batch) {
+            minX = Math.min(minX, call.minX);
+            minY = Math.min(minY, call.minY);
+            maxX = Math.max(maxX, call.maxX);
+            maxY = Math.max(maxY, call.maxY);
+        }
+
+        int columns = (maxX - minX + TILE_SIZE - 1) / TILE_SIZE;
+        int rows = (maxY - minY + TILE_SIZE - 1) / TILE_SIZE;
+        SoftwareTileTask task = new SoftwareTileTask(
+                batch, target, minX, minY, maxX, maxY, columns, TILE_SIZE, 0, columns * rows);
+
+        if (columns * rows == 1) {
+            // Not worth a round trip through the pool
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    /**
+     * Looks up a texture for the public accessors.
+     *
+     * @param textureId The id of the texture
+     * @return The texture
+     * @throws IllegalArgumentException If the texture does not exist
+     */
+    private SoftwareTexture texture(long textureId) {
+        SoftwareTexture texture = textures.get(textureId);
+        if (texture == null) {
+            throw new IllegalArgumentException("Texture " + textureId + " does not exist");
+        }
+
+        return texture;
+    }
+}
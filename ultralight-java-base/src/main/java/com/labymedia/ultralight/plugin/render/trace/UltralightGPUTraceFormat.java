@@ -0,0 +1,62 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.plugin.render.trace;
+
+/**
+ * Layout of the binary GPU traces written by {@link UltralightRecordingGPUDriver} and read by
+ * {@link UltralightGPUTraceReplayer}.
+ * <p>
+ * All values are little endian. A trace starts with {@link #MAGIC} and {@link #VERSION}, followed by records which
+ * each start with one of the record tags. A tag of {@link #END} or the end of the file terminates the trace, which
+ * makes the zero padding left behind by an untruncated memory mapping a valid end marker.
+ * <p>
+ * Ids and sizes are stored as 32 bit integers, enums as their ordinal in a single byte. Bitmaps are stored as
+ * {@code width, height, format, rowBytes, size, pixels} or as width and height of 0 when empty, buffers as
+ * {@code size, bytes}. Commands store {@code type, geometryId, indicesCount, indicesOffset} and either a full GPU
+ * state or {@link #STATE_REPEAT} if the state equals the one of the previous command in the same list.
+ */
+final class UltralightGPUTraceFormat {
+    static final int MAGIC = 0x54474C55; // "ULGT"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+
+    static final byte END = 0;
+    static final byte BEGIN_SYNCHRONIZE = 1;
+    static final byte END_SYNCHRONIZE = 2;
+    static final byte CREATE_TEXTURE = 3;
+    static final byte UPDATE_TEXTURE = 4;
+    static final byte DESTROY_TEXTURE = 5;
+    static final byte CREATE_RENDER_BUFFER = 6;
+    static final byte DESTROY_RENDER_BUFFER = 7;
+    static final byte CREATE_GEOMETRY = 8;
+    static final byte UPDATE_GEOMETRY = 9;
+    static final byte DESTROY_GEOMETRY = 10;
+    static final byte COMMAND_LIST = 11;
+
+    static final byte STATE_FULL = 0;
+    static final byte STATE_REPEAT = 1;
+
+    static final int FLAG_TEXTURING = 1;
+    static final int FLAG_BLEND = 1 << 1;
+    static final int FLAG_SCISSOR = 1 << 2;
+
+    private UltralightGPUTraceFormat() {
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.plugin.render.trace;
+
+/**
+ * Counters and timings of a single frame replayed from a GPU trace.
+ * <p>
+ * A frame spans everything from one {@code beginSynchronize} up to and including the matching
+ * {@code endSynchronize}. Calls recorded outside of a synchronization are accounted to the following frame.
+ *
+ * @see UltralightGPUTraceReplayer#replayFrame()
+ */
+public final class UltralightGPUTraceFrameStatistics {
+    private final int frame;
+    private final long recordedTime;
+    private final long replayTime;
+    private final long commandLists;
+    private final long commands;
+    private final long drawCommands;
+    private final long resourceCalls;
+    private final long textureBytes;
+    private final long geometryBytes;
+
+    /**
+     * Constructs new frame statistics.
+     *
+     * @param frame         the index of the frame in the trace
+     * @param recordedTime  the time between the start of this and the previous frame while recording in nanoseconds
+     * @param replayTime    the time spent replaying the frame in nanoseconds
+     * @param commandLists  the amount of command lists submitted
+     * @param commands      the amount of commands in all command lists
+     * @param drawCommands  the amount of draw geometry commands in all command lists
+     * @param resourceCalls the amount of texture, render buffer and geometry create, update and destroy calls
+     * @param textureBytes  the amount of pixel data uploaded in bytes
+     * @param geometryBytes the amount of vertex and index data uploaded in bytes
+     */
+    public UltralightGPUTraceFrameStatistics(
+            int frame,
+            long recordedTime,
+            long replayTime,
+            long commandLists,
+            long commands,
+            long drawCommands,
+            long resourceCalls,
+            long textureBytes,
+            long geometryBytes
+    ) {
+        this.frame = frame;
+        this.recordedTime = recordedTime;
+        this.replayTime = replayTime;
+        this.commandLists = commandLists;
+        this.commands = commands;
+        this.drawCommands = drawCommands;
+        this.resourceCalls = resourceCalls;
+        this.textureBytes = textureBytes;
+        this.geometryBytes = geometryBytes;
+    }
+
+    /**
+     * Get the index of the frame in the trace.
+     *
+     * @return the index of the frame
+     */
+    public int getFrame() {
+        return frame;
+    }
+
+    /**
+     * Get the time between the start of this frame and the start of the previous frame while the trace was recorded.
+     * This is {@code 0} for the first frame.
+     *
+     * @return the recorded frame time in nanoseconds
+     */
+    public long getRecordedTime() {
+        return recordedTime;
+    }
+
+    /**
+     * Get the time spent decoding the frame and executing it on the target driver.
+     *
+     * @return the replay time in nanoseconds
+     */
+    public long getReplayTime() {
+        return replayTime;
+    }
+
+    /**
+     * Get the amount of command lists submitted during the frame.
+     *
+     * @return the amount of command lists
+     */
+    public long getCommandLists() {
+        return commandLists;
+    }
+
+    /**
+     * Get the amount of commands in all command lists of the frame.
+     *
+     * @return the amount of commands
+     */
+    public long getCommands() {
+        return commands;
+    }
+
+    /**
+     * Get the amount of draw geometry commands in all command lists of the frame.
+     *
+     * @return the amount of draw commands
+     */
+    public long getDrawCommands() {
+        return drawCommands;
+    }
+
+    /**
+     * Get the amount of texture, render buffer and geometry create, update and destroy calls of the frame.
+     *
+     * @return the amount of resource calls
+     */
+    public long getResourceCalls() {
+        return resourceCalls;
+    }
+
+    /**
+     * Get the amount of pixel data passed to created and updated textures.
+     *
+     * @return the uploaded pixel data in bytes
+     */
+    public long getTextureBytes() {
+        return textureBytes;
+    }
+
+    /**
+     * Get the amount of vertex and index data passed to created and updated geometry.
+     *
+     * @return the uploaded geometry data in bytes
+     */
+    public long getGeometryBytes() {
+        return geometryBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "UltralightGPUTraceFrameStatistics{" +
+                "frame=" + frame +
+                ", recordedTime=" + recordedTime +
+                ", replayTime=" + replayTime +
+                ", commandLists=" + commandLists +
+                ", commands=" + commands +
+                ", drawCommands=" + drawCommands +
+                ", resourceCalls=" + resourceCalls +
+                ", textureBytes=" + textureBytes +
+                ", geometryBytes=" + geometryBytes +
+                '}';
+    }
+}
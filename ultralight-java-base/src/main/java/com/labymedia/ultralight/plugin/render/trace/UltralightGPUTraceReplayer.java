@@ -0,0 +1,476 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.plugin.render.trace;
+
+import com.labymedia.ultralight.bitmap.UltralightBitmap;
+import com.labymedia.ultralight.bitmap.UltralightBitmapFormat;
+import com.labymedia.ultralight.math.IntRect;
+import com.labymedia.ultralight.math.UltralightMatrix4x4;
+import com.labymedia.ultralight.math.Vec4;
+import com.labymedia.ultralight.plugin.render.UltralightCommand;
+import com.labymedia.ultralight.plugin.render.UltralightCommandType;
+import com.labymedia.ultralight.plugin.render.UltralightGPUDriver;
+import com.labymedia.ultralight.plugin.render.UltralightGPUState;
+import com.labymedia.ultralight.plugin.render.UltralightIndexBuffer;
+import com.labymedia.ultralight.plugin.render.UltralightRenderBuffer;
+import com.labymedia.ultralight.plugin.render.UltralightShaderType;
+import com.labymedia.ultralight.plugin.render.UltralightVertexBuffer;
+import com.labymedia.ultralight.plugin.render.UltralightVertexBufferFormat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays a GPU trace written by {@link UltralightRecordingGPUDriver} into another GPU driver.
+ * <p>
+ * Ids in the trace are translated to ids handed out by the target driver, so the target does not need to generate
+ * the same ids as the recorded driver. Bitmaps, vertex and index buffers passed to the target point directly into the
+ * memory mapped trace and are only valid for the duration of the call, just like the buffers passed by Ultralight.
+ * <p>
+ * Replaying requires the natives to be loaded, since bitmaps and matrices are native objects.
+ */
+public class UltralightGPUTraceReplayer implements AutoCloseable {
+    private static final UltralightBitmapFormat[] BITMAP_FORMATS = UltralightBitmapFormat.values();
+    private static final UltralightVertexBufferFormat[] VERTEX_FORMATS = UltralightVertexBufferFormat.values();
+    private static final UltralightShaderType[] SHADER_TYPES = UltralightShaderType.values();
+    private static final UltralightCommandType[] COMMAND_TYPES = UltralightCommandType.values();
+
+    private final UltralightGPUDriver target;
+    private final FileChannel channel;
+    private final ByteBuffer data;
+
+    private final Map<Integer, Long> textureIds;
+    private final Map<Integer, Long> renderBufferIds;
+    private final Map<Integer, Long> geometryIds;
+
+    private boolean finished;
+    private int frame;
+    private long previousBegin;
+
+    private long recordedTime;
+    private long commandLists;
+    private long commands;
+    private long drawCommands;
+    private long resourceCalls;
+    private long textureBytes;
+    private long geometryBytes;
+
+    /**
+     * Opens a trace for replaying it into a driver.
+     *
+     * @param trace  The trace to replay
+     * @param target The driver to replay the trace into
+     * @throws IOException If the trace can not be read or is not a GPU trace
+     */
+    public UltralightGPUTraceReplayer(Path trace, UltralightGPUDriver target) throws IOException {
+        this.target = target;
+        this.channel = FileChannel.open(trace, StandardOpenOption.READ);
+
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("GPU traces larger than 2 GiB are not supported");
+        }
+
+        this.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+        if (size < UltralightGPUTraceFormat.HEADER_SIZE || data.getInt() != UltralightGPUTraceFormat.MAGIC) {
+            channel.close();
+            throw new IOException(trace + " is not a GPU trace");
+        }
+
+        int version = data.getInt();
+        if (version != UltralightGPUTraceFormat.VERSION) {
+            channel.close();
+            throw new IOException("Unsupported GPU trace version " + version);
+        }
+
+        this.textureIds = new HashMap<>();
+        this.renderBufferIds = new HashMap<>();
+        this.geometryIds = new HashMap<>();
+        this.previousBegin = -1;
+    }
+
+    /**
+     * Replays all remaining frames of the trace.
+     *
+     * @return The statistics of every replayed frame
+     */
+    public List<UltralightGPUTraceFrameStatistics> replay() {
+        List<UltralightGPUTraceFrameStatistics> frames = new ArrayList<>();
+
+        UltralightGPUTraceFrameStatistics statistics;
+        while ((statistics = replayFrame()) != null) {
+            frames.add(statistics);
+        }
+
+        return frames;
+    }
+
+    /**
+     * Replays the next frame of the trace.
+     *
+     * @return The statistics of the replayed frame, or {@code null}, if the trace has ended
+     * @throws IllegalStateException If the trace is corrupted
+     */
+    public UltralightGPUTraceFrameStatistics replayFrame() {
+        if (finished) {
+            return null;
+        }
+
+        long start = System.nanoTime();
+        boolean replayed = false;
+
+        while (data.hasRemaining()) {
+            byte tag = data.get();
+            if (tag == UltralightGPUTraceFormat.END) {
+                break;
+            }
+
+            replayed = true;
+            switch (tag) {
+                case UltralightGPUTraceFormat.BEGIN_SYNCHRONIZE: {
+                    long timestamp = data.getLong();
+                    recordedTime = previousBegin < 0 ? 0 : timestamp - previousBegin;
+                    previousBegin = timestamp;
+
+                    target.beginSynchronize();
+                    break;
+                }
+
+                case UltralightGPUTraceFormat.END_SYNCHRONIZE:
+                    data.getLong();
+                    target.endSynchronize();
+                    return finishFrame(start);
+
+                case UltralightGPUTraceFormat.CREATE_TEXTURE: {
+                    long textureId = target.nextTextureId();
+                    textureIds.put(data.getInt(), textureId);
+                    target.createTexture(textureId, readBitmap());
+                    resourceCalls++;
+                    break;
+                }
+
+                case UltralightGPUTraceFormat.UPDATE_TEXTURE: {
+                    long textureId = translate(textureIds, data.getInt());
+                    target.updateTexture(textureId, readBitmap());
+                    resourceCalls++;
+                    break;
+                }
+
+                case UltralightGPUTraceFormat.DESTROY_TEXTURE:
+                    target.destroyTexture(release(textureIds, data.getInt()));
+                    resourceCalls++;
+                    break;
+
+                case UltralightGPUTraceFormat.CREATE_RENDER_BUFFER: {
+                    long renderBufferId = target.nextRenderBufferId();
+                    renderBufferIds.put(data.getInt(), renderBufferId);
+
+                    UltralightRenderBuffer buffer = new UltralightRenderBuffer(
+                            translate(textureIds, data.getInt()),
+                            Integer.toUnsignedLong(data.getInt()),
+                            Integer.toUnsignedLong(data.getInt()),
+                            data.get() != 0,
+                            data.get() != 0
+                    );
+                    target.createRenderBuffer(renderBufferId, buffer);
+                    resourceCalls++;
+                    break;
+                }
+
+                case UltralightGPUTraceFormat.DESTROY_RENDER_BUFFER:
+                    target.destroyRenderBuffer(release(renderBufferIds, data.getInt()));
+                    resourceCalls++;
+                    break;
+
+                case UltralightGPUTraceFormat.CREATE_GEOMETRY: {
+                    long geometryId = target.nextGeometryId();
+                    geometryIds.put(data.getInt(), geometryId);
+
+                    UltralightVertexBufferFormat format = VERTEX_FORMATS[data.get()];
+                    ByteBuffer vertices = readBuffer();
+                    ByteBuffer indices = readBuffer();
+                    geometryBytes += vertices.remaining() + indices.remaining();
+
+                    target.createGeometry(
+                            geometryId,
+                            new UltralightVertexBuffer(format, vertices),
+                            new UltralightIndexBuffer(indices)
+                    );
+                    resourceCalls++;
+                    break;
+                }
+
+                case UltralightGPUTraceFormat.UPDATE_GEOMETRY: {
+                    long geometryId = translate(geometryIds, data.getInt());
+
+                    UltralightVertexBufferFormat format = VERTEX_FORMATS[data.get()];
+                    ByteBuffer vertices = readBuffer();
+                    ByteBuffer indices = readBuffer();
+                    geometryBytes += vertices.remaining() + indices.remaining();
+
+                    target.updateGeometry(
+                            geometryId,
+                            new UltralightVertexBuffer(format, vertices),
+                            new UltralightIndexBuffer(indices)
+                    );
+                    resourceCalls++;
+                    break;
+                }
+
+                case UltralightGPUTraceFormat.DESTROY_GEOMETRY:
+                    target.destroyGeometry(release(geometryIds, data.getInt()));
+                    resourceCalls++;
+                    break;
+
+                case UltralightGPUTraceFormat.COMMAND_LIST:
+                    target.updateCommandList(readCommandList());
+                    commandLists++;
+                    break;
+
+                default:
+                    throw new IllegalStateException(
+                            "Corrupted GPU trace, unknown record " + tag + " at offset " + (data.position() - 1));
+            }
+        }
+
+        finished = true;
+        return replayed ? finishFrame(start) : null;
+    }
+
+    /**
+     * Closes the trace. The driver replayed into is not affected.
+     *
+     * @throws IOException If the trace fails to close
+     */
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        channel.close();
+    }
+
+    /**
+     * Collects the counters of the current frame and resets them.
+     *
+     * @param start The time the frame started replaying at
+     * @return The statistics of the frame
+     */
+    private UltralightGPUTraceFrameStatistics finishFrame(long start) {
+        UltralightGPUTraceFrameStatistics statistics = new UltralightGPUTraceFrameStatistics(
+                frame++,
+                recordedTime,
+                System.nanoTime() - start,
+                commandLists,
+                commands,
+                drawCommands,
+                resourceCalls,
+                textureBytes,
+                geometryBytes
+        );
+
+        recordedTime = 0;
+        commandLists = 0;
+        commands = 0;
+        drawCommands = 0;
+        resourceCalls = 0;
+        textureBytes = 0;
+        geometryBytes = 0;
+
+        return statistics;
+    }
+
+    /**
+     * Reads a bitmap of a texture record.
+     *
+     * @return The read bitmap
+     */
+    private UltralightBitmap readBitmap() {
+        long width = Integer.toUnsignedLong(data.getInt());
+        long height = Integer.toUnsignedLong(data.getInt());
+        if (width == 0 && height == 0) {
+            return UltralightBitmap.create();
+        }
+
+        UltralightBitmapFormat format = BITMAP_FORMATS[data.get()];
+        long rowBytes = Integer.toUnsignedLong(data.getInt());
+        ByteBuffer pixels = readBuffer();
+        textureBytes += pixels.remaining();
+
+        return UltralightBitmap.create(width, height, format, rowBytes, pixels, false);
+    }
+
+    /**
+     * Reads a length prefixed buffer.
+     *
+     * @return A view of the buffer in the trace
+     */
+    private ByteBuffer readBuffer() {
+        int size = data.getInt();
+
+        ByteBuffer buffer = data.slice();
+        buffer.limit(size);
+        data.position(data.position() + size);
+
+        return buffer;
+    }
+
+    /**
+     * Reads a command list record.
+     *
+     * @return The read commands
+     */
+    private UltralightCommand[] readCommandList() {
+        UltralightCommand[] list = new UltralightCommand[data.getInt()];
+
+        UltralightGPUState state = null;
+        for (int i = 0; i < list.length; i++) {
+            UltralightCommandType type = COMMAND_TYPES[data.get()];
+            int geometryId = data.getInt();
+            long indicesCount = Integer.toUnsignedLong(data.getInt());
+            long indicesOffset = Integer.toUnsignedLong(data.getInt());
+
+            if (data.get() == UltralightGPUTraceFormat.STATE_FULL) {
+                state = readState();
+            }
+
+            if (type == UltralightCommandType.DRAW_GEOMETRY) {
+                drawCommands++;
+            }
+
+            list[i] = new UltralightCommand(
+                    type, state, translate(geometryIds, geometryId), indicesCount, indicesOffset);
+        }
+
+        commands += list.length;
+        return list;
+    }
+
+    /**
+     * Reads a full GPU state of a command.
+     *
+     * @return The read state
+     */
+    private UltralightGPUState readState() {
+        long viewportWidth = Integer.toUnsignedLong(data.getInt());
+        long viewportHeight = Integer.toUnsignedLong(data.getInt());
+        UltralightMatrix4x4 transform = readMatrix();
+        int flags = data.get();
+        UltralightShaderType shaderType = SHADER_TYPES[data.get()];
+        long renderBufferId = translate(renderBufferIds, data.getInt());
+        long texture1Id = translate(textureIds, data.getInt());
+        long texture2Id = translate(textureIds, data.getInt());
+        long texture3Id = translate(textureIds, data.getInt());
+
+        float[] scalars = readFloats(Byte.toUnsignedInt(data.get()));
+
+        Vec4[] vectors = new Vec4[Byte.toUnsignedInt(data.get())];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = new Vec4(readFloats(4));
+        }
+
+        short clipSize = (short) Byte.toUnsignedInt(data.get());
+        UltralightMatrix4x4[] clip = new UltralightMatrix4x4[clipSize];
+        for (int i = 0; i < clip.length; i++) {
+            clip[i] = readMatrix();
+        }
+
+        boolean enableScissor = (flags & UltralightGPUTraceFormat.FLAG_SCISSOR) != 0;
+        IntRect scissorRect = enableScissor
+                ? new IntRect(data.getInt(), data.getInt(), data.getInt(), data.getInt())
+                : new IntRect();
+
+        return new UltralightGPUState(
+                viewportWidth,
+                viewportHeight,
+                transform,
+                (flags & UltralightGPUTraceFormat.FLAG_TEXTURING) != 0,
+                (flags & UltralightGPUTraceFormat.FLAG_BLEND) != 0,
+                shaderType,
+                renderBufferId,
+                texture1Id,
+                texture2Id,
+                texture3Id,
+                scalars,
+                vectors,
+                clipSize,
+                clip,
+                enableScissor,
+                scissorRect
+        );
+    }
+
+    /**
+     * Reads a 4x4 matrix.
+     *
+     * @return The read matrix
+     */
+    private UltralightMatrix4x4 readMatrix() {
+        UltralightMatrix4x4 matrix = new UltralightMatrix4x4();
+        matrix.setData(readFloats(16));
+        return matrix;
+    }
+
+    /**
+     * Reads an amount of floats.
+     *
+     * @param count The amount of floats to read
+     * @return The read floats
+     */
+    private float[] readFloats(int count) {
+        float[] values = new float[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = data.getFloat();
+        }
+        return values;
+    }
+
+    /**
+     * Translates a recorded id to the id of the target driver. Unknown ids, like {@code 0} for no texture or the
+     * screen render buffer, are passed through.
+     *
+     * @param ids The id mapping of the resource type
+     * @param id  The recorded id
+     * @return The id of the target driver
+     */
+    private static long translate(Map<Integer, Long> ids, int id) {
+        Long translated = ids.get(id);
+        return translated != null ? translated : Integer.toUnsignedLong(id);
+    }
+
+    /**
+     * Translates a recorded id to the id of the target driver and forgets about it.
+     *
+     * @param ids The id mapping of the resource type
+     * @param id  The recorded id
+     * @return The id of the target driver
+     */
+    private static long release(Map<Integer, Long> ids, int id) {
+        Long translated = ids.remove(id);
+        return translated != null ? translated : Integer.toUnsignedLong(id);
+    }
+}
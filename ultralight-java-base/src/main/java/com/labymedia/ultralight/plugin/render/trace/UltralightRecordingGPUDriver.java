@@ -0,0 +1,445 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.plugin.render.trace;
+
+import com.labymedia.ultralight.annotation.NativeType;
+import com.labymedia.ultralight.annotation.Unsigned;
+import com.labymedia.ultralight.bitmap.UltralightBitmap;
+import com.labymedia.ultralight.math.IntRect;
+import com.labymedia.ultralight.math.UltralightMatrix4x4;
+import com.labymedia.ultralight.math.Vec4;
+import com.labymedia.ultralight.plugin.render.UltralightCommand;
+import com.labymedia.ultralight.plugin.render.UltralightGPUDriver;
+import com.labymedia.ultralight.plugin.render.UltralightGPUState;
+import com.labymedia.ultralight.plugin.render.UltralightIndexBuffer;
+import com.labymedia.ultralight.plugin.render.UltralightRenderBuffer;
+import com.labymedia.ultralight.plugin.render.UltralightVertexBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * GPU driver recording every call into a binary trace, which can be replayed later using
+ * {@link UltralightGPUTraceReplayer}.
+ * <p>
+ * The trace is written through a memory mapped window of the file, which is moved forward whenever a record does not
+ * fit anymore. Calls are forwarded to an optional delegate after they have been recorded, so the driver can be put in
+ * front of the driver actually rendering. Without a delegate, ids are handed out by the recorder itself.
+ * <p>
+ * Like any GPU driver, this class is only ever called from the thread running the renderer and is not thread safe.
+ */
+public class UltralightRecordingGPUDriver implements UltralightGPUDriver, AutoCloseable {
+    private static final int WINDOW_SIZE = 16 * 1024 * 1024;
+
+    private final UltralightGPUDriver delegate;
+    private final FileChannel channel;
+    private final long startTime;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    private ByteBuffer state;
+    private ByteBuffer previousState;
+
+    private long nextTextureId;
+    private long nextRenderBufferId;
+    private long nextGeometryId;
+
+    /**
+     * Constructs a new {@link UltralightRecordingGPUDriver} which only records calls.
+     *
+     * @param trace The file to write the trace to, will be replaced if it exists
+     * @throws IOException If the file can not be opened
+     */
+    public UltralightRecordingGPUDriver(Path trace) throws IOException {
+        this(trace, null);
+    }
+
+    /**
+     * Constructs a new {@link UltralightRecordingGPUDriver} which records calls and forwards them to another driver.
+     *
+     * @param trace    The file to write the trace to, will be replaced if it exists
+     * @param delegate The driver to forward calls to, or {@code null}, if calls should only be recorded
+     * @throws IOException If the file can not be opened
+     */
+    public UltralightRecordingGPUDriver(Path trace, UltralightGPUDriver delegate) throws IOException {
+        this.delegate = delegate;
+        this.channel = FileChannel.open(
+                trace,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+        );
+        this.startTime = System.nanoTime();
+
+        this.state = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+        this.previousState = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+
+        map(0, WINDOW_SIZE);
+        window.putInt(UltralightGPUTraceFormat.MAGIC);
+        window.putInt(UltralightGPUTraceFormat.VERSION);
+    }
+
+    /**
+     * Retrieves the amount of bytes written to the trace so far.
+     *
+     * @return The size of the trace in bytes
+     */
+    public long getBytesWritten() {
+        return windowStart + window.position();
+    }
+
+    @Override
+    public void beginSynchronize() {
+        reserve(9).put(UltralightGPUTraceFormat.BEGIN_SYNCHRONIZE).putLong(System.nanoTime() - startTime);
+
+        if (delegate != null) {
+            delegate.beginSynchronize();
+        }
+    }
+
+    @Override
+    public void endSynchronize() {
+        reserve(9).put(UltralightGPUTraceFormat.END_SYNCHRONIZE).putLong(System.nanoTime() - startTime);
+
+        if (delegate != null) {
+            delegate.endSynchronize();
+        }
+    }
+
+    @Override
+    public long nextTextureId() {
+        return delegate != null ? delegate.nextTextureId() : ++nextTextureId;
+    }
+
+    @Override
+    public void createTexture(long textureId, UltralightBitmap bitmap) {
+        writeTexture(UltralightGPUTraceFormat.CREATE_TEXTURE, textureId, bitmap);
+
+        if (delegate != null) {
+            delegate.createTexture(textureId, bitmap);
+        }
+    }
+
+    @Override
+    public void updateTexture(long textureId, UltralightBitmap bitmap) {
+        writeTexture(UltralightGPUTraceFormat.UPDATE_TEXTURE, textureId, bitmap);
+
+        if (delegate != null) {
+            delegate.updateTexture(textureId, bitmap);
+        }
+    }
+
+    @Override
+    public void destroyTexture(long textureId) {
+        reserve(5).put(UltralightGPUTraceFormat.DESTROY_TEXTURE).putInt((int) textureId);
+
+        if (delegate != null) {
+            delegate.destroyTexture(textureId);
+        }
+    }
+
+    @Override
+    public long nextRenderBufferId() {
+        return delegate != null ? delegate.nextRenderBufferId() : ++nextRenderBufferId;
+    }
+
+    @Override
+    public void createRenderBuffer(long renderBufferId, UltralightRenderBuffer buffer) {
+        reserve(19)
+                .put(UltralightGPUTraceFormat.CREATE_RENDER_BUFFER)
+                .putInt((int) renderBufferId)
+                .putInt((int) buffer.getTextureId())
+                .putInt((int) buffer.getWidth())
+                .putInt((int) buffer.getHeight())
+                .put((byte) (buffer.hasStencilBuffer() ? 1 : 0))
+                .put((byte) (buffer.hasDepthBuffer() ? 1 : 0));
+
+        if (delegate != null) {
+            delegate.createRenderBuffer(renderBufferId, buffer);
+        }
+    }
+
+    @Override
+    public void destroyRenderBuffer(long renderBufferId) {
+        reserve(5).put(UltralightGPUTraceFormat.DESTROY_RENDER_BUFFER).putInt((int) renderBufferId);
+
+        if (delegate != null) {
+            delegate.destroyRenderBuffer(renderBufferId);
+        }
+    }
+
+    @Override
+    public long nextGeometryId() {
+        return delegate != null ? delegate.nextGeometryId() : ++nextGeometryId;
+    }
+
+    @Override
+    public void createGeometry(long geometryId, UltralightVertexBuffer vertices, UltralightIndexBuffer indices) {
+        writeGeometry(UltralightGPUTraceFormat.CREATE_GEOMETRY, geometryId, vertices, indices);
+
+        if (delegate != null) {
+            delegate.createGeometry(geometryId, vertices, indices);
+        }
+    }
+
+    @Override
+    public void updateGeometry(long geometryId, UltralightVertexBuffer vertices, UltralightIndexBuffer indices) {
+        writeGeometry(UltralightGPUTraceFormat.UPDATE_GEOMETRY, geometryId, vertices, indices);
+
+        if (delegate != null) {
+            delegate.updateGeometry(geometryId, vertices, indices);
+        }
+    }
+
+    @Override
+    public void destroyGeometry(long geometryId) {
+        reserve(5).put(UltralightGPUTraceFormat.DESTROY_GEOMETRY).putInt((int) geometryId);
+
+        if (delegate != null) {
+            delegate.destroyGeometry(geometryId);
+        }
+    }
+
+    @Override
+    public void updateCommandList(UltralightCommand[] list) {
+        reserve(5).put(UltralightGPUTraceFormat.COMMAND_LIST).putInt(list.length);
+
+        previousState.clear().flip();
+        for (UltralightCommand command : list) {
+            encodeState(command.getGpuState());
+
+            boolean repeat = state.equals(previousState);
+            ByteBuffer out = reserve(14 + (repeat ? 0 : state.remaining()))
+                    .put((byte) command.getCommandType().ordinal())
+                    .putInt((int) command.getGeometryId())
+                    .putInt((int) command.getIndicesCount())
+                    .putInt((int) command.getIndicesOffset());
+
+            if (repeat) {
+                out.put(UltralightGPUTraceFormat.STATE_REPEAT);
+            } else {
+                out.put(UltralightGPUTraceFormat.STATE_FULL).put(state.duplicate());
+
+                ByteBuffer swap = previousState;
+                previousState = state;
+                state = swap;
+            }
+        }
+
+        if (delegate != null) {
+            delegate.updateCommandList(list);
+        }
+    }
+
+    /**
+     * Writes the end marker, cuts off the unused part of the mapping and closes the trace.
+     * <p>
+     * Some platforms refuse to truncate files which are still mapped, in which case the trace keeps its zero padding.
+     * Readers treat the padding as the end of the trace.
+     *
+     * @throws IOException If the trace fails to close
+     */
+    @Override
+    public void close() throws IOException {
+        long size = getBytesWritten();
+        reserve(1).put(UltralightGPUTraceFormat.END);
+        window.force();
+
+        try {
+            channel.truncate(size + 1);
+        } catch (IOException ignored) {
+            // The mapping is still alive, the padding marks the end of the trace
+        }
+
+        channel.close();
+    }
+
+    /**
+     * Writes a texture record.
+     *
+     * @param tag       The tag of the record
+     * @param textureId The id of the texture
+     * @param bitmap    The bitmap of the texture
+     */
+    private void writeTexture(byte tag, @Unsigned @NativeType("uint32_t") long textureId, UltralightBitmap bitmap) {
+        if (bitmap.isEmpty()) {
+            reserve(13).put(tag).putInt((int) textureId).putInt(0).putInt(0);
+            return;
+        }
+
+        ByteBuffer pixels = bitmap.lockPixels();
+        try {
+            int size = (int) (bitmap.rowBytes() * bitmap.height());
+            ByteBuffer data = pixels.duplicate();
+            data.clear().limit(Math.min(size, data.capacity()));
+
+            reserve(22 + data.remaining())
+                    .put(tag)
+                    .putInt((int) textureId)
+                    .putInt((int) bitmap.width())
+                    .putInt((int) bitmap.height())
+                    .put((byte) bitmap.format().ordinal())
+                    .putInt((int) bitmap.rowBytes())
+                    .putInt(data.remaining())
+                    .put(data);
+        } finally {
+            bitmap.unlockPixels();
+        }
+    }
+
+    /**
+     * Writes a geometry record.
+     *
+     * @param tag        The tag of the record
+     * @param geometryId The id of the geometry
+     * @param vertices   The vertices of the geometry
+     * @param indices    The indices of the geometry
+     */
+    private void writeGeometry(
+            byte tag,
+            @Unsigned @NativeType("uint32_t") long geometryId,
+            UltralightVertexBuffer vertices,
+            UltralightIndexBuffer indices
+    ) {
+        ByteBuffer vertexData = vertices.getData().duplicate();
+        ByteBuffer indexData = indices.getData().duplicate();
+        vertexData.clear();
+        indexData.clear();
+
+        reserve(14 + vertexData.remaining() + indexData.remaining())
+                .put(tag)
+                .putInt((int) geometryId)
+                .put((byte) vertices.getFormat().ordinal())
+                .putInt(vertexData.remaining())
+                .put(vertexData)
+                .putInt(indexData.remaining())
+                .put(indexData);
+    }
+
+    /**
+     * Encodes a GPU state into {@link #state}, leaving the buffer ready to be read.
+     *
+     * @param gpuState The state to encode
+     */
+    private void encodeState(UltralightGPUState gpuState) {
+        float[] scalars = gpuState.getUniformScalar();
+        Vec4[] vectors = gpuState.getUniformVector();
+        UltralightMatrix4x4[] clip = gpuState.getClip();
+        int clipSize = Math.min(gpuState.getClipSize(), clip.length);
+
+        int size = 8 + 64 + 2 + 16 + 1 + scalars.length * 4 + 1 + vectors.length * 16 + 1 + clipSize * 64 + 16;
+        if (state.capacity() < size) {
+            state = ByteBuffer.allocate(size * 2).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        state.clear();
+
+        int flags = 0;
+        if (gpuState.shouldEnableTexturing()) {
+            flags |= UltralightGPUTraceFormat.FLAG_TEXTURING;
+        }
+        if (gpuState.shouldEnableBlend()) {
+            flags |= UltralightGPUTraceFormat.FLAG_BLEND;
+        }
+        if (gpuState.shouldEnableScissor()) {
+            flags |= UltralightGPUTraceFormat.FLAG_SCISSOR;
+        }
+
+        state.putInt((int) gpuState.getViewportWidth()).putInt((int) gpuState.getViewportHeight());
+        putFloats(gpuState.getTransformMatrix().getData());
+        state.put((byte) flags)
+                .put((byte) gpuState.getShaderType().ordinal())
+                .putInt((int) gpuState.getRenderBufferId())
+                .putInt((int) gpuState.getTexture1Id())
+                .putInt((int) gpuState.getTexture2Id())
+                .putInt((int) gpuState.getTexture3Id());
+
+        state.put((byte) scalars.length);
+        putFloats(scalars);
+
+        state.put((byte) vectors.length);
+        for (Vec4 vector : vectors) {
+            putFloats(vector.getValue());
+        }
+
+        state.put((byte) clipSize);
+        for (int i = 0; i < clipSize; i++) {
+            putFloats(clip[i].getData());
+        }
+
+        if (gpuState.shouldEnableScissor()) {
+            IntRect scissor = gpuState.getScissorRect();
+            state.putInt(scissor.getLeft())
+                    .putInt(scissor.getTop())
+                    .putInt(scissor.getRight())
+                    .putInt(scissor.getBottom());
+        }
+
+        state.flip();
+    }
+
+    /**
+     * Appends floats to {@link #state}.
+     *
+     * @param values The values to append
+     */
+    private void putFloats(float[] values) {
+        for (float value : values) {
+            state.putFloat(value);
+        }
+    }
+
+    /**
+     * Makes sure the current window has space for a record, moving the window forward if required.
+     *
+     * @param bytes The size of the record in bytes
+     * @return The window to write the record to
+     */
+    private ByteBuffer reserve(int bytes) {
+        if (window.remaining() < bytes) {
+            map(getBytesWritten(), Math.max(WINDOW_SIZE, bytes));
+        }
+
+        return window;
+    }
+
+    /**
+     * Maps a new window of the trace file.
+     *
+     * @param position The file offset the window starts at
+     * @param size     The size of the window in bytes
+     */
+    private void map(long position, int size) {
+        try {
+            window = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+            window.order(ByteOrder.LITTLE_ENDIAN);
+            windowStart = position;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map the GPU trace at offset " + position, e);
+        }
+    }
+}
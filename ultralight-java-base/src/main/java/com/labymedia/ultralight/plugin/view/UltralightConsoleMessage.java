@@ -0,0 +1,148 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.plugin.view;
+
+import com.labymedia.ultralight.annotation.NativeCall;
+import com.labymedia.ultralight.annotation.NativeType;
+import com.labymedia.ultralight.annotation.Unsigned;
+
+/**
+ * A console message delivered to an {@link UltralightConsoleMessageListener}.
+ */
+public final class UltralightConsoleMessage {
+    private final MessageSource source;
+    private final MessageLevel level;
+    private final String message;
+    private final long lineNumber;
+    private final long columnNumber;
+    private final String sourceId;
+    private final int repeatCount;
+
+    /**
+     * Constructs a new {@link UltralightConsoleMessage}.
+     *
+     * @param source       The source the message originated from
+     * @param level        The severity of the message
+     * @param message      The message itself
+     * @param lineNumber   The line the message originated from
+     * @param columnNumber The column the message originated from
+     * @param sourceId     The id of the source
+     * @param repeatCount  How often the message has been added since the previous update
+     */
+    @NativeCall
+    private UltralightConsoleMessage(
+            MessageSource source,
+            MessageLevel level,
+            String message,
+            long lineNumber,
+            long columnNumber,
+            String sourceId,
+            int repeatCount
+    ) {
+        this.source = source;
+        this.level = level;
+        this.message = message;
+        this.lineNumber = lineNumber;
+        this.columnNumber = columnNumber;
+        this.sourceId = sourceId;
+        this.repeatCount = repeatCount;
+    }
+
+    /**
+     * Retrieves the source the message originated from.
+     *
+     * @return The source of the message
+     */
+    public MessageSource getSource() {
+        return source;
+    }
+
+    /**
+     * Retrieves the severity of the message.
+     *
+     * @return The level of the message
+     */
+    public MessageLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Retrieves the message itself.
+     *
+     * @return The message
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Retrieves the line the message originated from.
+     *
+     * @return The line number
+     */
+    public @NativeType("uint32_t")
+    @Unsigned
+    long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Retrieves the column the message originated from.
+     *
+     * @return The column number
+     */
+    public @NativeType("uint32_t")
+    @Unsigned
+    long getColumnNumber() {
+        return columnNumber;
+    }
+
+    /**
+     * Retrieves the id of the source the message originated from.
+     *
+     * @return The source id
+     */
+    public String getSourceId() {
+        return sourceId;
+    }
+
+    /**
+     * Retrieves how often this exact message has been added since the previous update. Identical messages are
+     * merged natively instead of being passed to Java one by one.
+     *
+     * @return The amount of times the message has been added, at least 1
+     */
+    public int getRepeatCount() {
+        return repeatCount;
+    }
+
+    @Override
+    public String toString() {
+        return "UltralightConsoleMessage{" +
+                "source=" + source +
+                ", level=" + level +
+                ", message='" + message + '\'' +
+                ", lineNumber=" + lineNumber +
+                ", columnNumber=" + columnNumber +
+                ", sourceId='" + sourceId + '\'' +
+                ", repeatCount=" + repeatCount +
+                '}';
+    }
+}
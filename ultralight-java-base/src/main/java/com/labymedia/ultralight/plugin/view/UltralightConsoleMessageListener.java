@@ -0,0 +1,40 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.plugin.view;
+
+import java.util.List;
+
+/**
+ * Batched alternative to {@link UltralightViewListener#onAddConsoleMessage(MessageSource, MessageLevel, String,
+ * long, long, String)}.
+ * <p>
+ * Console messages are collected natively and passed once per {@link com.labymedia.ultralight.UltralightRenderer#update()}.
+ * Identical messages are merged, see {@link UltralightConsoleMessage#getRepeatCount()}, and once the per update limit
+ * is reached further distinct messages are only counted.
+ */
+public interface UltralightConsoleMessageListener {
+    /**
+     * Called after an update with the console messages added since the previous update.
+     *
+     * @param messages        The distinct messages in the order they have first been added
+     * @param suppressedCount The amount of messages which have been discarded because the limit was reached
+     */
+    void onConsoleMessages(List<UltralightConsoleMessage> messages, long suppressedCount);
+}
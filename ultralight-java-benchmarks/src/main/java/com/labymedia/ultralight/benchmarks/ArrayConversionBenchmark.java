@@ -0,0 +1,125 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.benchmarks;
+
+import com.labymedia.ultralight.UltralightLoadException;
+import com.labymedia.ultralight.UltralightView;
+import com.labymedia.ultralight.databind.Databind;
+import com.labymedia.ultralight.databind.DatabindConfiguration;
+import com.labymedia.ultralight.databind.utils.JavascriptConversionUtils;
+import com.labymedia.ultralight.javascript.JavascriptContext;
+import com.labymedia.ultralight.javascript.JavascriptContextLock;
+import com.labymedia.ultralight.javascript.JavascriptValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of converting arrays between Java and Javascript.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ArrayConversionBenchmark {
+    @Param({"16", "1024", "65536"})
+    public int size;
+
+    private UltralightView view;
+    private JavascriptContextLock lock;
+    private JavascriptContext context;
+    private JavascriptConversionUtils conversionUtils;
+
+    private double[] doubles;
+    private int[] ints;
+    private String[] strings;
+
+    private JavascriptValue javascriptNumbers;
+    private JavascriptValue javascriptStrings;
+
+    @Setup
+    public void setup() throws UltralightLoadException {
+        view = BenchmarkEnvironment.get().createView(256, 256, "<html><body></body></html>");
+        conversionUtils = new Databind(DatabindConfiguration.builder().build()).getConversionUtils();
+
+        lock = view.lockJavascriptContext();
+        context = lock.getContext();
+
+        doubles = new double[size];
+        ints = new int[size];
+        strings = new String[size];
+        for (int i = 0; i < size; i++) {
+            doubles[i] = i * 0.5;
+            ints[i] = i;
+            strings[i] = Integer.toString(i);
+        }
+
+        javascriptNumbers = conversionUtils.toJavascript(context, doubles);
+        javascriptStrings = conversionUtils.toJavascript(context, strings);
+    }
+
+    @TearDown
+    public void tearDown() {
+        lock.close();
+    }
+
+    @Benchmark
+    public JavascriptValue doublesToJavascript() {
+        return conversionUtils.toJavascript(context, doubles);
+    }
+
+    @Benchmark
+    public JavascriptValue intsToJavascript() {
+        return conversionUtils.toJavascript(context, ints);
+    }
+
+    @Benchmark
+    public JavascriptValue stringsToJavascript() {
+        return conversionUtils.toJavascript(context, strings);
+    }
+
+    @Benchmark
+    public Object doublesFromJavascript() {
+        return conversionUtils.fromJavascript(javascriptNumbers, double[].class);
+    }
+
+    @Benchmark
+    public Object intsFromJavascript() {
+        return conversionUtils.fromJavascript(javascriptNumbers, int[].class);
+    }
+
+    @Benchmark
+    public Object stringsFromJavascript() {
+        return conversionUtils.fromJavascript(javascriptStrings, String[].class);
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares JMH results in CSV format against a baseline and reports regressions.
+ * <p>
+ * A benchmark regresses if its score is worse than the baseline by more than both the relative threshold and the
+ * combined score errors. The process exits with status {@code 1} if any benchmark regressed and with status
+ * {@code 2} if there is nothing to compare, as an empty baseline would otherwise let every run pass.
+ */
+public final class BaselineComparison {
+    private BaselineComparison() {
+    }
+
+    /**
+     * Entry point of the comparison.
+     *
+     * @param args The path of the baseline, the path of the results and optionally the relative threshold
+     * @throws IOException If reading one of the files fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.csv> <results.csv> [threshold]");
+            System.exit(2);
+        }
+
+        Map<String, Result> baseline = read(Paths.get(args[0]));
+        Map<String, Result> results = read(Paths.get(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.1;
+
+        if (baseline.isEmpty()) {
+            System.err.printf("The baseline %s contains no results, record one using jmhUpdateBaseline%n", args[0]);
+            System.exit(2);
+        } else if (results.isEmpty()) {
+            System.err.printf("The results %s contain no benchmarks, run the jmh task first%n", args[1]);
+            System.exit(2);
+        }
+
+        int regressions = 0;
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            Result result = entry.getValue();
+            Result base = baseline.get(entry.getKey());
+
+            if (base == null) {
+                System.out.printf("NEW        %s: %.3f %s%n", entry.getKey(), result.score, result.unit);
+                continue;
+            } else if (!base.unit.equals(result.unit)) {
+                System.out.printf("CHANGED    %s: unit changed from %s to %s%n", entry.getKey(), base.unit, result.unit);
+                continue;
+            }
+
+            // Positive changes are always improvements, independent of the mode
+            double change = (result.score - base.score) / base.score;
+            if (!result.higherIsBetter) {
+                change = -change;
+            }
+
+            double difference = Math.abs(result.score - base.score);
+            boolean significant = difference > base.error + result.error;
+
+            String status;
+            if (change < -threshold && significant) {
+                status = "REGRESSION";
+                regressions++;
+            } else if (change > threshold && significant) {
+                status = "IMPROVED  ";
+            } else {
+                status = "OK        ";
+            }
+
+            System.out.printf("%s %s: %.3f -> %.3f %s (%+.1f%%)%n",
+                    status, entry.getKey(), base.score, result.score, result.unit, change * 100);
+        }
+
+        for (String name : baseline.keySet()) {
+            if (!results.containsKey(name)) {
+                System.out.printf("MISSING    %s%n", name);
+            }
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads JMH results from a CSV file.
+     *
+     * @param path The path of the file to read
+     * @return The results by benchmark name including parameters
+     * @throws IOException If reading the file fails
+     */
+    private static Map<String, Result> read(Path path) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        if (!Files.exists(path)) {
+            return results;
+        }
+
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        if (lines.isEmpty()) {
+            return results;
+        }
+
+        List<String> header = split(lines.get(0));
+        int benchmarkColumn = header.indexOf("Benchmark");
+        int modeColumn = header.indexOf("Mode");
+        int scoreColumn = header.indexOf("Score");
+        int errorColumn = header.indexOf("Score Error (99.9%)");
+        int unitColumn = header.indexOf("Unit");
+
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+
+            List<String> columns = split(line);
+
+            // Benchmarks are identified by their name and all parameters
+            StringBuilder name = new StringBuilder(columns.get(benchmarkColumn));
+            for (int i = 0; i < header.size() && i < columns.size(); i++) {
+                if (header.get(i).startsWith("Param: ") && !columns.get(i).isEmpty()) {
+                    name.append(' ').append(header.get(i).substring(7)).append('=').append(columns.get(i));
+                }
+            }
+
+            String error = columns.get(errorColumn);
+            results.put(name.toString(), new Result(
+                    columns.get(modeColumn).equals("thrpt"),
+                    Double.parseDouble(columns.get(scoreColumn)),
+                    error.isEmpty() || error.equals("NaN") ? 0 : Double.parseDouble(error),
+                    columns.get(unitColumn)
+            ));
+        }
+
+        return results;
+    }
+
+    /**
+     * Splits a CSV line into its columns.
+     *
+     * @param line The line to split
+     * @return The unquoted columns of the line
+     */
+    private static List<String> split(String line) {
+        List<String> columns = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    // Escaped quote
+                    current.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                columns.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+
+        columns.add(current.toString());
+        return columns;
+    }
+
+    /**
+     * A single benchmark result.
+     */
+    private static final class Result {
+        private final boolean higherIsBetter;
+        private final double score;
+        private final double error;
+        private final String unit;
+
+        /**
+         * Constructs a new {@link Result}.
+         *
+         * @param higherIsBetter Whether a higher score is better, which is the case for throughput benchmarks
+         * @param score          The score of the benchmark
+         * @param error          The error of the score
+         * @param unit           The unit of the score
+         */
+        private Result(boolean higherIsBetter, double score, double error, String unit) {
+            this.higherIsBetter = higherIsBetter;
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.benchmarks;
+
+import com.labymedia.ultralight.UltralightJava;
+import com.labymedia.ultralight.UltralightLoadException;
+import com.labymedia.ultralight.UltralightPlatform;
+import com.labymedia.ultralight.UltralightRenderer;
+import com.labymedia.ultralight.UltralightView;
+import com.labymedia.ultralight.config.FontHinting;
+import com.labymedia.ultralight.config.UltralightConfig;
+import com.labymedia.ultralight.config.UltralightViewConfig;
+import com.labymedia.ultralight.plugin.render.software.UltralightSoftwareGPUDriver;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared, headless Ultralight setup used by all benchmarks.
+ * <p>
+ * The natives are loaded from the directory given by the {@code ultralight.natives} system property, defaulting to
+ * the working directory. By default no GPU driver is set, so views are rendered by the CPU renderer. Setting the
+ * {@code ultralight.gpu} system property to {@code software} installs the {@link UltralightSoftwareGPUDriver} and
+ * creates accelerated views instead.
+ */
+public final class BenchmarkEnvironment {
+    private static final long LOAD_TIMEOUT = TimeUnit.SECONDS.toNanos(30);
+
+    private static BenchmarkEnvironment instance;
+
+    /**
+     * Retrieves the environment, initializing Ultralight on first use.
+     *
+     * @return The benchmark environment
+     * @throws UltralightLoadException If the natives fail to load
+     */
+    public static synchronized BenchmarkEnvironment get() throws UltralightLoadException {
+        if (instance == null) {
+            instance = new BenchmarkEnvironment();
+        }
+
+        return instance;
+    }
+
+    private final CapturingLogger logger;
+    private final UltralightSoftwareGPUDriver softwareDriver;
+    private final UltralightRenderer renderer;
+
+    /**
+     * Constructs the {@link BenchmarkEnvironment} by loading the natives and creating the renderer.
+     *
+     * @throws UltralightLoadException If the natives fail to load
+     */
+    private BenchmarkEnvironment() throws UltralightLoadException {
+        Path nativesDir = Paths.get(System.getProperty("ultralight.natives", "."));
+        UltralightJava.extractNativeLibrary(nativesDir);
+        UltralightJava.load(nativesDir);
+
+        UltralightPlatform platform = UltralightPlatform.instance();
+        platform.setConfig(
+                new UltralightConfig()
+                        .forceRepaint(false)
+                        .fontHinting(FontHinting.SMOOTH)
+        );
+        platform.usePlatformFontLoader();
+        platform.usePlatformFileSystem(nativesDir.toAbsolutePath().toString());
+
+        this.logger = new CapturingLogger();
+        platform.setLogger(logger);
+
+        if ("software".equals(System.getProperty("ultralight.gpu"))) {
+            this.softwareDriver = new UltralightSoftwareGPUDriver();
+            platform.setGPUDriver(softwareDriver);
+        } else {
+            this.softwareDriver = null;
+        }
+
+        this.renderer = UltralightRenderer.create();
+    }
+
+    /**
+     * Retrieves the renderer of this environment.
+     *
+     * @return The renderer
+     */
+    public UltralightRenderer getRenderer() {
+        return renderer;
+    }
+
+    /**
+     * Retrieves the logger messages of Ultralight are sent to.
+     *
+     * @return The logger
+     */
+    public CapturingLogger getLogger() {
+        return logger;
+    }
+
+    /**
+     * Retrieves the software GPU driver accelerated views are rendered with.
+     *
+     * @return The software GPU driver, or {@code null}, if views are rendered by the CPU renderer
+     */
+    public UltralightSoftwareGPUDriver getSoftwareDriver() {
+        return softwareDriver;
+    }
+
+    /**
+     * Creates a view and loads the given HTML into it. The view is accelerated if the software GPU driver is used.
+     *
+     * @param width  The width of the view
+     * @param height The height of the view
+     * @param html   The HTML to load
+     * @return The created view, after the HTML has finished loading
+     */
+    public UltralightView createView(int width, int height, String html) {
+        UltralightView view = renderer.createView(width, height,
+                new UltralightViewConfig()
+                        .isAccelerated(softwareDriver != null)
+                        .initialDeviceScale(1.0)
+                        .isTransparent(false)
+        );
+
+        view.loadHTML(html);
+        waitUntilLoaded(view);
+        return view;
+    }
+
+    /**
+     * Updates the renderer until the view has finished loading.
+     *
+     * @param view The view to wait for
+     * @throws IllegalStateException If the view does not finish loading in time
+     */
+    public void waitUntilLoaded(UltralightView view) {
+        long deadline = System.nanoTime() + LOAD_TIMEOUT;
+
+        do {
+            renderer.update();
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("View did not finish loading in time");
+            }
+        } while (view.isLoading());
+
+        renderer.render();
+    }
+}
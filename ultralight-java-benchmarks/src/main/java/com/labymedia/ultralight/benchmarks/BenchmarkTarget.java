@@ -0,0 +1,101 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.benchmarks;
+
+/**
+ * Java object exposed to Javascript for measuring databind calls.
+ */
+public class BenchmarkTarget {
+    private long counter;
+
+    /**
+     * Method without arguments.
+     *
+     * @return The amount of calls so far
+     */
+    public long noArgs() {
+        return ++counter;
+    }
+
+    /**
+     * Method with a single argument.
+     *
+     * @param value The value to add
+     * @return The sum of all values so far
+     */
+    public long oneArg(int value) {
+        return counter += value;
+    }
+
+    /**
+     * Method with five arguments of different types.
+     *
+     * @param a An integer
+     * @param b A floating point number
+     * @param c A string
+     * @param d A boolean
+     * @param e A long
+     * @return A combination of all values
+     */
+    public long fiveArgs(int a, double b, String c, boolean d, long e) {
+        return counter += a + (long) b + c.length() + (d ? 1 : 0) + e;
+    }
+
+    /**
+     * Overload selected for numbers.
+     *
+     * @param value The number
+     * @return The number
+     */
+    public double overloaded(double value) {
+        return value;
+    }
+
+    /**
+     * Overload selected for strings.
+     *
+     * @param value The string
+     * @return The length of the string
+     */
+    public int overloaded(String value) {
+        return value.length();
+    }
+
+    /**
+     * Overload selected for arrays.
+     *
+     * @param values The numbers
+     * @return The amount of numbers
+     */
+    public int overloaded(double[] values) {
+        return values.length;
+    }
+
+    /**
+     * Overload selected for two arguments.
+     *
+     * @param a The first number
+     * @param b The second number
+     * @return The sum of both numbers
+     */
+    public double overloaded(double a, double b) {
+        return a + b;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.benchmarks;
+
+import com.labymedia.ultralight.plugin.logging.UltralightLogLevel;
+import com.labymedia.ultralight.plugin.logging.UltralightLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Logger which prints errors and warnings and optionally captures all messages.
+ */
+public class CapturingLogger implements UltralightLogger {
+    private List<String> captured;
+
+    @Override
+    public synchronized void logMessage(UltralightLogLevel level, String message) {
+        if (captured != null) {
+            captured.add(message);
+        } else if (level != UltralightLogLevel.INFO) {
+            System.err.println("[Ultralight/" + level + "] " + message);
+        }
+    }
+
+    /**
+     * Runs an action and captures all messages logged while it runs.
+     *
+     * @param action The action to run
+     * @return The captured messages
+     */
+    public synchronized List<String> capture(Runnable action) {
+        captured = new ArrayList<>();
+        try {
+            action.run();
+            return captured;
+        } finally {
+            captured = null;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.benchmarks;
+
+import com.labymedia.ultralight.UltralightLoadException;
+import com.labymedia.ultralight.UltralightView;
+import com.labymedia.ultralight.databind.Databind;
+import com.labymedia.ultralight.databind.DatabindConfiguration;
+import com.labymedia.ultralight.databind.codegen.call.property.GeneratedPropertyCaller;
+import com.labymedia.ultralight.databind.call.property.ReflectivePropertyCaller;
+import com.labymedia.ultralight.javascript.JavascriptContext;
+import com.labymedia.ultralight.javascript.JavascriptContextLock;
+import com.labymedia.ultralight.javascript.JavascriptException;
+import com.labymedia.ultralight.javascript.JavascriptObject;
+import com.labymedia.ultralight.javascript.JavascriptValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures calls from Javascript into Java methods bound using databind.
+ * <p>
+ * Every benchmark invokes a Javascript function which calls the Java method {@value #CALLS} times, so the result
+ * is the cost of a single Javascript to Java call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DatabindCallBenchmark {
+    private static final int CALLS = 100;
+
+    private static final String PAGE = "<html><body><script>" +
+            "function noArgs() { for (var i = 0; i < " + CALLS + "; i++) target.noArgs(); }" +
+            "function oneArg() { for (var i = 0; i < " + CALLS + "; i++) target.oneArg(i); }" +
+            "function fiveArgs() { for (var i = 0; i < " + CALLS + "; i++) target.fiveArgs(i, 1.5, 's', true, 7); }" +
+            "function overloadedNumber() { for (var i = 0; i < " + CALLS + "; i++) target.overloaded(i); }" +
+            "function overloadedString() { for (var i = 0; i < " + CALLS + "; i++) target.overloaded('s'); }" +
+            "function overloadedTwoArgs() { for (var i = 0; i < " + CALLS + "; i++) target.overloaded(i, i); }" +
+            "</script></body></html>";
+
+    @Param({"reflective", "generated"})
+    public String implementation;
+
+    private UltralightView view;
+    private JavascriptContextLock lock;
+
+    private JavascriptObject noArgs;
+    private JavascriptObject oneArg;
+    private JavascriptObject fiveArgs;
+    private JavascriptObject overloadedNumber;
+    private JavascriptObject overloadedString;
+    private JavascriptObject overloadedTwoArgs;
+
+    @Setup
+    public void setup() throws UltralightLoadException, JavascriptException {
+        view = BenchmarkEnvironment.get().createView(256, 256, PAGE);
+
+        Databind databind = new Databind(
+                DatabindConfiguration
+                        .builder()
+                        .propertyCallerFactory(implementation.equals("generated") ?
+                                new GeneratedPropertyCaller.Factory() : new ReflectivePropertyCaller.Factory())
+                        .build()
+        );
+
+        lock = view.lockJavascriptContext();
+        JavascriptContext context = lock.getContext();
+        JavascriptObject globalObject = context.getGlobalObject();
+
+        JavascriptValue target = databind.getConversionUtils().toJavascript(context, new BenchmarkTarget());
+        globalObject.setProperty("target", target, 0);
+
+        noArgs = globalObject.getProperty("noArgs").toObject();
+        oneArg = globalObject.getProperty("oneArg").toObject();
+        fiveArgs = globalObject.getProperty("fiveArgs").toObject();
+        overloadedNumber = globalObject.getProperty("overloadedNumber").toObject();
+        overloadedString = globalObject.getProperty("overloadedString").toObject();
+        overloadedTwoArgs = globalObject.getProperty("overloadedTwoArgs").toObject();
+    }
+
+    @TearDown
+    public void tearDown() {
+        lock.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public JavascriptValue callNoArgs() throws JavascriptException {
+        return noArgs.callAsFunction(null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public JavascriptValue callOneArg() throws JavascriptException {
+        return oneArg.callAsFunction(null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public JavascriptValue callFiveArgs() throws JavascriptException {
+        return fiveArgs.callAsFunction(null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public JavascriptValue callOverloadedNumber() throws JavascriptException {
+        return overloadedNumber.callAsFunction(null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public JavascriptValue callOverloadedString() throws JavascriptException {
+        return overloadedString.callAsFunction(null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public JavascriptValue callOverloadedTwoArgs() throws JavascriptException {
+        return overloadedTwoArgs.callAsFunction(null);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.benchmarks;
+
+import com.labymedia.ultralight.UltralightLoadException;
+import com.labymedia.ultralight.UltralightView;
+import com.labymedia.ultralight.databind.Databind;
+import com.labymedia.ultralight.databind.DatabindConfiguration;
+import com.labymedia.ultralight.databind.codegen.functional.GeneratedFunctionalImplementationFactory;
+import com.labymedia.ultralight.databind.context.ContextProvider;
+import com.labymedia.ultralight.databind.utils.ProxyFunctionalImplementationFactory;
+import com.labymedia.ultralight.javascript.JavascriptContextLock;
+import com.labymedia.ultralight.javascript.JavascriptException;
+import com.labymedia.ultralight.javascript.JavascriptValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+
+/**
+ * Measures round trips from Java into Javascript functions bound to functional interfaces.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FunctionalCallBenchmark {
+    private static final String PAGE = "<html><body><script>" +
+            "var sum = 0;" +
+            "function add(a, b) { return a + b; }" +
+            "function accumulate(value) { sum += value; }" +
+            "</script></body></html>";
+
+    @Param({"proxy", "generated"})
+    public String implementation;
+
+    private IntBinaryOperator add;
+    private IntConsumer accumulate;
+
+    @Setup
+    public void setup() throws UltralightLoadException, JavascriptException {
+        UltralightView view = BenchmarkEnvironment.get().createView(256, 256, PAGE);
+
+        Databind databind = new Databind(
+                DatabindConfiguration
+                        .builder()
+                        .contextProviderFactory((value) -> new DirectContextProvider(view))
+                        .functionalImplementationFactory(implementation.equals("generated") ?
+                                new GeneratedFunctionalImplementationFactory() :
+                                new ProxyFunctionalImplementationFactory())
+                        .build()
+        );
+
+        try (JavascriptContextLock lock = view.lockJavascriptContext()) {
+            JavascriptValue addFunction = lock.getContext().getGlobalObject().getProperty("add");
+            JavascriptValue accumulateFunction = lock.getContext().getGlobalObject().getProperty("accumulate");
+
+            add = (IntBinaryOperator) databind.getConversionUtils().fromJavascript(
+                    addFunction, IntBinaryOperator.class);
+            accumulate = (IntConsumer) databind.getConversionUtils().fromJavascript(
+                    accumulateFunction, IntConsumer.class);
+        }
+    }
+
+    @Benchmark
+    public int callWithResult() {
+        return add.applyAsInt(20, 22);
+    }
+
+    @Benchmark
+    public void callWithoutResult() {
+        accumulate.accept(1);
+    }
+
+    /**
+     * Context provider executing callbacks directly on the calling thread.
+     */
+    private static class DirectContextProvider implements ContextProvider {
+        private final UltralightView view;
+
+        /**
+         * Constructs a new {@link DirectContextProvider} for the given view.
+         *
+         * @param view The view to lock the context of
+         */
+        private DirectContextProvider(UltralightView view) {
+            this.view = view;
+        }
+
+        @Override
+        public void syncWithJavascript(Consumer<JavascriptContextLock> callback) {
+            try (JavascriptContextLock lock = view.lockJavascriptContext()) {
+                callback.accept(lock);
+            }
+        }
+
+        @Override
+        public Object contextKey() {
+            return view;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.benchmarks;
+
+import com.labymedia.ultralight.UltralightJava;
+import com.labymedia.ultralight.UltralightLoadException;
+import com.labymedia.ultralight.bitmap.UltralightBitmap;
+import com.labymedia.ultralight.plugin.render.UltralightCommand;
+import com.labymedia.ultralight.plugin.render.UltralightGPUDriver;
+import com.labymedia.ultralight.plugin.render.UltralightIndexBuffer;
+import com.labymedia.ultralight.plugin.render.UltralightRenderBuffer;
+import com.labymedia.ultralight.plugin.render.UltralightVertexBuffer;
+import com.labymedia.ultralight.plugin.render.trace.UltralightGPUTraceFrameStatistics;
+import com.labymedia.ultralight.plugin.render.trace.UltralightGPUTraceReplayer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a GPU trace recorded by {@link com.labymedia.ultralight.plugin.render.trace.UltralightRecordingGPUDriver}
+ * into a GPU driver and reports per frame command counts, uploaded bytes and timings.
+ * <p>
+ * The first argument is the trace to replay. Supported options are {@code --driver <class>}, naming a
+ * {@link UltralightGPUDriver} with a public no-argument constructor to replay into, and {@code --frames}, which prints
+ * every single frame instead of only the summary. Without a driver, the trace is replayed into a driver discarding
+ * all calls, which measures the cost of decoding the trace alone.
+ */
+public final class GPUTraceReplay {
+    private GPUTraceReplay() {
+    }
+
+    /**
+     * Entry point of the tool.
+     *
+     * @param args The arguments of the tool
+     * @throws UltralightLoadException      If the natives fail to load
+     * @throws IOException                  If the trace can not be read
+     * @throws ReflectiveOperationException If the driver can not be constructed
+     */
+    public static void main(String[] args) throws UltralightLoadException, IOException, ReflectiveOperationException {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage: GPUTraceReplay <trace> [--driver <class>] [--frames]");
+        }
+
+        Path trace = Paths.get(args[0]);
+        String driverClass = null;
+        boolean printFrames = false;
+
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--driver":
+                    if (++i >= args.length) {
+                        throw new IllegalArgumentException("--driver requires a class name");
+                    }
+                    driverClass = args[i];
+                    break;
+
+                case "--frames":
+                    printFrames = true;
+                    break;
+
+                default:
+                    throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+
+        // Bitmaps and matrices of the trace are native objects
+        Path nativesDir = Paths.get(System.getProperty("ultralight.natives", "."));
+        UltralightJava.extractNativeLibrary(nativesDir);
+        UltralightJava.load(nativesDir);
+
+        UltralightGPUDriver driver = driverClass == null
+                ? new DiscardingGPUDriver()
+                : (UltralightGPUDriver) Class.forName(driverClass).getConstructor().newInstance();
+
+        List<UltralightGPUTraceFrameStatistics> frames;
+        try (UltralightGPUTraceReplayer replayer = new UltralightGPUTraceReplayer(trace, driver)) {
+            frames = replayer.replay();
+        }
+
+        System.out.printf("Replayed %d frames of %s into %s%n%n",
+                frames.size(), trace, driver.getClass().getName());
+        if (frames.isEmpty()) {
+            return;
+        }
+
+        if (printFrames) {
+            System.out.printf("  %6s %10s %10s %6s %8s %6s %9s %12s %12s%n",
+                    "frame", "recorded", "replay", "lists", "commands", "draws", "resources", "texture", "geometry");
+            for (UltralightGPUTraceFrameStatistics frame : frames) {
+                System.out.printf("  %6d %7.3f ms %7.3f ms %6d %8d %6d %9d %10d B %10d B%n",
+                        frame.getFrame(),
+                        toMillis(frame.getRecordedTime()),
+                        toMillis(frame.getReplayTime()),
+                        frame.getCommandLists(),
+                        frame.getCommands(),
+                        frame.getDrawCommands(),
+                        frame.getResourceCalls(),
+                        frame.getTextureBytes(),
+                        frame.getGeometryBytes());
+            }
+            System.out.println();
+        }
+
+        printSummary(frames);
+    }
+
+    /**
+     * Prints the totals and timing distribution of all frames.
+     *
+     * @param frames The replayed frames
+     */
+    private static void printSummary(List<UltralightGPUTraceFrameStatistics> frames) {
+        long[] replayTimes = new long[frames.size()];
+        long commands = 0;
+        long drawCommands = 0;
+        long resourceCalls = 0;
+        long textureBytes = 0;
+        long geometryBytes = 0;
+
+        for (int i = 0; i < replayTimes.length; i++) {
+            UltralightGPUTraceFrameStatistics frame = frames.get(i);
+
+            replayTimes[i] = frame.getReplayTime();
+            commands += frame.getCommands();
+            drawCommands += frame.getDrawCommands();
+            resourceCalls += frame.getResourceCalls();
+            textureBytes += frame.getTextureBytes();
+            geometryBytes += frame.getGeometryBytes();
+        }
+
+        Arrays.sort(replayTimes);
+        long total = 0;
+        for (long time : replayTimes) {
+            total += time;
+        }
+
+        int count = replayTimes.length;
+        System.out.printf("  replay time          mean %.3f ms, p50 %.3f ms, p95 %.3f ms, max %.3f ms%n",
+                toMillis(total / (double) count),
+                toMillis(replayTimes[percentileIndex(count, 0.50)]),
+                toMillis(replayTimes[percentileIndex(count, 0.95)]),
+                toMillis(replayTimes[count - 1]));
+        System.out.printf("  commands             %.1f per frame, %.1f draws per frame%n",
+                (double) commands / count, (double) drawCommands / count);
+        System.out.printf("  resource calls       %.1f per frame%n", (double) resourceCalls / count);
+        System.out.printf("  uploads              %.1f KiB texture and %.1f KiB geometry per frame%n",
+                textureBytes / 1024.0 / count, geometryBytes / 1024.0 / count);
+    }
+
+    /**
+     * Retrieves the index of a percentile in sorted values.
+     *
+     * @param count      The amount of values
+     * @param percentile The percentile between 0 and 1
+     * @return The index of the percentile
+     */
+    private static int percentileIndex(int count, double percentile) {
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return Math.max(0, Math.min(count - 1, index));
+    }
+
+    /**
+     * Converts nanoseconds to milliseconds.
+     *
+     * @param nanos The nanoseconds to convert
+     * @return The converted milliseconds
+     */
+    private static double toMillis(double nanos) {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * GPU driver handing out ids and discarding every call.
+     */
+    private static final class DiscardingGPUDriver implements UltralightGPUDriver {
+        private long nextId;
+
+        @Override
+        public void beginSynchronize() {
+        }
+
+        @Override
+        public void endSynchronize() {
+        }
+
+        @Override
+        public long nextTextureId() {
+            return ++nextId;
+        }
+
+        @Override
+        public void createTexture(long textureId, UltralightBitmap bitmap) {
+        }
+
+        @Override
+        public void updateTexture(long textureId, UltralightBitmap bitmap) {
+        }
+
+        @Override
+        public void destroyTexture(long textureId) {
+        }
+
+        @Override
+        public long nextRenderBufferId() {
+            return ++nextId;
+        }
+
+        @Override
+        public void createRenderBuffer(long renderBufferId, UltralightRenderBuffer buffer) {
+        }
+
+        @Override
+        public void destroyRenderBuffer(long renderBufferId) {
+        }
+
+        @Override
+        public long nextGeometryId() {
+            return ++nextId;
+        }
+
+        @Override
+        public void createGeometry(long geometryId, UltralightVertexBuffer vertices, UltralightIndexBuffer indices) {
+        }
+
+        @Override
+        public void updateGeometry(long geometryId, UltralightVertexBuffer vertices, UltralightIndexBuffer indices) {
+        }
+
+        @Override
+        public void destroyGeometry(long geometryId) {
+        }
+
+        @Override
+        public void updateCommandList(UltralightCommand[] list) {
+        }
+    }
+}
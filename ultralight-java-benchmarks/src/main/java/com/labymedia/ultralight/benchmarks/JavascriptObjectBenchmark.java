@@ -0,0 +1,102 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.benchmarks;
+
+import com.labymedia.ultralight.UltralightLoadException;
+import com.labymedia.ultralight.UltralightView;
+import com.labymedia.ultralight.javascript.JavascriptContext;
+import com.labymedia.ultralight.javascript.JavascriptContextLock;
+import com.labymedia.ultralight.javascript.JavascriptException;
+import com.labymedia.ultralight.javascript.JavascriptObject;
+import com.labymedia.ultralight.javascript.JavascriptValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures property access on plain Javascript objects through {@link JavascriptObject}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class JavascriptObjectBenchmark {
+    private UltralightView view;
+    private JavascriptContextLock lock;
+
+    private JavascriptObject object;
+    private JavascriptValue number;
+    private JavascriptValue string;
+
+    @Setup
+    public void setup() throws UltralightLoadException {
+        view = BenchmarkEnvironment.get().createView(256, 256,
+                "<html><body><script>var target = { number: 42, string: 'value' };</script></body></html>");
+
+        lock = view.lockJavascriptContext();
+        JavascriptContext context = lock.getContext();
+
+        object = context.getGlobalObject().getProperty("target").toObject();
+        number = context.makeNumber(1337);
+        string = context.makeString("benchmark");
+    }
+
+    @TearDown
+    public void tearDown() {
+        lock.close();
+    }
+
+    @Benchmark
+    public double getNumberProperty() throws JavascriptException {
+        return object.getProperty("number").toNumber();
+    }
+
+    @Benchmark
+    public String getStringProperty() throws JavascriptException {
+        return object.getProperty("string").toStringCopy();
+    }
+
+    @Benchmark
+    public void setNumberProperty() throws JavascriptException {
+        object.setProperty("number", number, 0);
+    }
+
+    @Benchmark
+    public void setStringProperty() throws JavascriptException {
+        object.setProperty("string", string, 0);
+    }
+
+    @Benchmark
+    public boolean hasProperty() {
+        return object.hasProperty("number");
+    }
+}
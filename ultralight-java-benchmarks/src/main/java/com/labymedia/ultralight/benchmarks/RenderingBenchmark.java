@@ -0,0 +1,451 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.benchmarks;
+
+import com.labymedia.ultralight.UltralightLoadException;
+import com.labymedia.ultralight.UltralightRenderer;
+import com.labymedia.ultralight.UltralightSurface;
+import com.labymedia.ultralight.UltralightView;
+import com.labymedia.ultralight.instrumentation.UltralightMemoryReport;
+import com.labymedia.ultralight.math.IntRect;
+import com.labymedia.ultralight.plugin.render.software.UltralightSoftwareGPUDriver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless frame timing harness for the CPU renderer.
+ * <p>
+ * For every bundled reference page, a set of views is created and driven for a fixed amount of frames. The harness
+ * reports update and render time per frame, pixels touched per frame according to the dirty bounds of the view
+ * surfaces, the bandwidth of copying the surface pixels and the resident memory before and after purging.
+ * <p>
+ * When the environment uses the software GPU driver, the views are accelerated and have no surface. Their render
+ * targets are copied as a whole instead, and the render time includes executing the command lists.
+ * <p>
+ * Supported arguments are {@code --views <n>}, {@code --frames <n>}, {@code --warmup <n>},
+ * {@code --width <pixels>}, {@code --height <pixels>} and {@code --pages <name,...>}.
+ */
+public final class RenderingBenchmark {
+    private static final String[] PAGES = {"static-text", "css-animations", "large-table", "canvas"};
+
+    private static ByteBuffer renderTargetCopy = ByteBuffer.allocate(0);
+
+    private RenderingBenchmark() {
+    }
+
+    /**
+     * Entry point of the harness.
+     *
+     * @param args The arguments of the harness
+     * @throws UltralightLoadException If the natives fail to load
+     * @throws IOException             If a page fails to load
+     */
+    public static void main(String[] args) throws UltralightLoadException, IOException {
+        int views = 4;
+        int frames = 300;
+        int warmup = 60;
+        int width = 1280;
+        int height = 720;
+        String[] pages = PAGES;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+
+            switch (args[i]) {
+                case "--views":
+                    views = Integer.parseInt(value);
+                    break;
+
+                case "--frames":
+                    frames = Integer.parseInt(value);
+                    break;
+
+                case "--warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+
+                case "--width":
+                    width = Integer.parseInt(value);
+                    break;
+
+                case "--height":
+                    height = Integer.parseInt(value);
+                    break;
+
+                case "--pages":
+                    pages = value.split(",");
+                    break;
+
+                default:
+                    throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+
+        if (views < 1 || frames < 1) {
+            throw new IllegalArgumentException("At least one view and one frame are required");
+        }
+
+        BenchmarkEnvironment environment = BenchmarkEnvironment.get();
+        System.out.printf("%d views of %dx%d, %d warmup frames, %d measured frames%n%n",
+                views, width, height, warmup, frames);
+
+        for (String page : pages) {
+            runPage(environment, page, loadPage(page), views, width, height, warmup, frames);
+        }
+    }
+
+    /**
+     * Runs the benchmark for a single page and prints the results.
+     *
+     * @param environment The environment to run in
+     * @param name        The name of the page
+     * @param html        The content of the page
+     * @param viewCount   The amount of views to create
+     * @param width       The width of the views
+     * @param height      The height of the views
+     * @param warmup      The amount of frames to run before measuring
+     * @param frames      The amount of frames to measure
+     */
+    private static void runPage(
+            BenchmarkEnvironment environment,
+            String name,
+            String html,
+            int viewCount,
+            int width,
+            int height,
+            int warmup,
+            int frames
+    ) {
+        UltralightRenderer renderer = environment.getRenderer();
+        UltralightSoftwareGPUDriver softwareDriver = environment.getSoftwareDriver();
+
+        List<UltralightView> views = new ArrayList<>(viewCount);
+        for (int i = 0; i < viewCount; i++) {
+            views.add(environment.createView(width, height, html));
+        }
+
+        byte[] copyBuffer = new byte[width * height * 4];
+
+        for (int frame = 0; frame < warmup; frame++) {
+            renderFrame(renderer, softwareDriver, views, copyBuffer, null, frame);
+        }
+
+        FrameStatistics statistics = new FrameStatistics(frames);
+        for (int frame = 0; frame < frames; frame++) {
+            renderFrame(renderer, softwareDriver, views, copyBuffer, statistics, frame);
+        }
+
+        long residentBeforePurge = residentMemory();
+        renderer.purgeMemory();
+        UltralightMemoryReport memoryReport = renderer.memoryReport();
+        long residentAfterPurge = residentMemory();
+
+        System.out.println("== " + name + " ==");
+        statistics.print(viewCount);
+        System.out.printf("  resident memory      %s before purge, %s after purge%n",
+                formatBytes(residentBeforePurge), formatBytes(residentAfterPurge));
+        for (UltralightMemoryReport.Entry entry : memoryReport.getEntries()) {
+            String value = entry.getBytes() >= 0 ? formatBytes(entry.getBytes()) : entry.getValue();
+            System.out.println("  | " + spaces(entry.getDepth()) + entry.getName() + ": " + value);
+        }
+        System.out.println();
+
+        // Destroy the views right away, so the next page is not measured with them still alive
+        for (UltralightView view : views) {
+            view.destroy();
+        }
+        views.clear();
+        renderer.purgeMemory();
+    }
+
+    /**
+     * Creates a string consisting of spaces.
+     *
+     * @param count The amount of spaces
+     * @return The created string
+     */
+    private static String spaces(int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, ' ');
+        return new String(chars);
+    }
+
+    /**
+     * Updates and renders a single frame and copies the dirty surfaces.
+     *
+     * @param renderer       The renderer to drive
+     * @param softwareDriver The software GPU driver accelerated views are rendered with, or {@code null}
+     * @param views          The views to copy the surfaces of
+     * @param copyBuffer     The buffer to copy the pixels into
+     * @param statistics     The statistics to record the frame in, or {@code null}, if the frame is not measured
+     * @param frame          The index of the frame
+     */
+    private static void renderFrame(
+            UltralightRenderer renderer,
+            UltralightSoftwareGPUDriver softwareDriver,
+            List<UltralightView> views,
+            byte[] copyBuffer,
+            FrameStatistics statistics,
+            int frame
+    ) {
+        long start = System.nanoTime();
+        renderer.update();
+        long updated = System.nanoTime();
+        renderer.render();
+        long rendered = System.nanoTime();
+
+        long dirtyPixels = 0;
+        long copiedBytes = 0;
+        long copyTime = 0;
+
+        for (UltralightView view : views) {
+            if (softwareDriver != null) {
+                long copyStart = System.nanoTime();
+                long textureId = view.renderTarget().getTextureId();
+                int length = copyRenderTarget(softwareDriver, textureId);
+                copyTime += System.nanoTime() - copyStart;
+
+                dirtyPixels += length / 4;
+                copiedBytes += length;
+                continue;
+            }
+
+            UltralightSurface surface = view.surface();
+
+            IntRect dirty = surface.dirtyBounds();
+            if (dirty.width() <= 0 || dirty.height() <= 0) {
+                continue;
+            }
+
+            dirtyPixels += (long) dirty.width() * dirty.height();
+
+            // Copy the dirty rows like an application uploading the surface would do
+            long copyStart = System.nanoTime();
+            ByteBuffer pixels = surface.lockPixels();
+            try {
+                int rowBytes = (int) surface.rowBytes();
+                int offset = dirty.getTop() * rowBytes;
+                int length = Math.min(dirty.height() * rowBytes, Math.min(copyBuffer.length, pixels.capacity() - offset));
+
+                pixels.position(offset);
+                pixels.get(copyBuffer, 0, length);
+                copiedBytes += length;
+            } finally {
+                surface.unlockPixels();
+            }
+            copyTime += System.nanoTime() - copyStart;
+
+            surface.clearDirtyBounds();
+        }
+
+        if (statistics != null) {
+            statistics.record(frame, updated - start, rendered - updated, dirtyPixels, copiedBytes, copyTime);
+        }
+    }
+
+    /**
+     * Copies the render target of an accelerated view out of the software GPU driver.
+     *
+     * @param softwareDriver The driver the view is rendered with
+     * @param textureId      The texture of the render target
+     * @return The amount of bytes copied
+     */
+    private static int copyRenderTarget(UltralightSoftwareGPUDriver softwareDriver, long textureId) {
+        int length = softwareDriver.getTextureWidth(textureId) * softwareDriver.getTextureHeight(textureId) * 4;
+        if (renderTargetCopy.capacity() < length) {
+            renderTargetCopy = ByteBuffer.allocate(length);
+        }
+
+        softwareDriver.readTexture(textureId, renderTargetCopy);
+        return length;
+    }
+
+    /**
+     * Loads a bundled reference page.
+     *
+     * @param name The name of the page
+     * @return The content of the page
+     * @throws IOException If the page does not exist or can not be read
+     */
+    private static String loadPage(String name) throws IOException {
+        try (InputStream stream = RenderingBenchmark.class.getResourceAsStream("/pages/" + name + ".html")) {
+            if (stream == null) {
+                throw new IOException("Page " + name + " does not exist");
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Determines the resident memory of this process.
+     *
+     * @return The resident memory in bytes, or {@code -1}, if it can not be determined on this platform
+     */
+    private static long residentMemory() {
+        Path status = Paths.get("/proc/self/status");
+        if (!Files.isReadable(status)) {
+            return -1;
+        }
+
+        try {
+            for (String line : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmRSS:")) {
+                    // Reported in kB
+                    return Long.parseLong(line.substring(6).replace("kB", "").trim()) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Formats an amount of bytes for humans.
+     *
+     * @param bytes The amount of bytes, or {@code -1}, if unknown
+     * @return The formatted amount
+     */
+    private static String formatBytes(long bytes) {
+        return bytes < 0 ? "n/a" : String.format("%.1f MiB", bytes / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Collected statistics of all measured frames.
+     */
+    private static final class FrameStatistics {
+        private final long[] updateTimes;
+        private final long[] renderTimes;
+        private long dirtyPixels;
+        private long copiedBytes;
+        private long copyTime;
+
+        /**
+         * Constructs new, empty {@link FrameStatistics}.
+         *
+         * @param frames The amount of frames which will be recorded
+         */
+        private FrameStatistics(int frames) {
+            this.updateTimes = new long[frames];
+            this.renderTimes = new long[frames];
+        }
+
+        /**
+         * Records a single frame.
+         *
+         * @param frame       The index of the frame
+         * @param updateTime  The time spent in {@link UltralightRenderer#update()} in nanoseconds
+         * @param renderTime  The time spent in {@link UltralightRenderer#render()} in nanoseconds
+         * @param dirtyPixels The amount of pixels touched by the frame
+         * @param copiedBytes The amount of bytes copied from the surfaces
+         * @param copyTime    The time spent copying in nanoseconds
+         */
+        private void record(int frame, long updateTime, long renderTime, long dirtyPixels, long copiedBytes, long copyTime) {
+            this.updateTimes[frame] = updateTime;
+            this.renderTimes[frame] = renderTime;
+            this.dirtyPixels += dirtyPixels;
+            this.copiedBytes += copiedBytes;
+            this.copyTime += copyTime;
+        }
+
+        /**
+         * Prints the statistics.
+         *
+         * @param viewCount The amount of views which have been rendered
+         */
+        private void print(int viewCount) {
+            int frames = updateTimes.length;
+
+            printTimes("update", updateTimes);
+            printTimes("render", renderTimes);
+            System.out.printf("  dirty pixels         %.0f per frame, %.0f per view and frame%n",
+                    (double) dirtyPixels / frames, (double) dirtyPixels / frames / viewCount);
+            System.out.printf("  lockPixels copy      %.1f MiB per frame, %.1f MiB/s%n",
+                    copiedBytes / (1024.0 * 1024.0) / frames,
+                    copyTime == 0 ? 0 : copiedBytes / (1024.0 * 1024.0) / (copyTime / (double) TimeUnit.SECONDS.toNanos(1)));
+        }
+
+        /**
+         * Prints the distribution of a set of frame times.
+         *
+         * @param name  The name of the measured phase
+         * @param times The times in nanoseconds
+         */
+        private static void printTimes(String name, long[] times) {
+            long[] sorted = times.clone();
+            Arrays.sort(sorted);
+
+            long total = 0;
+            for (long time : sorted) {
+                total += time;
+            }
+
+            System.out.printf("  %-20s mean %.3f ms, p50 %.3f ms, p95 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                    name,
+                    toMillis(total / (double) sorted.length),
+                    toMillis(percentile(sorted, 0.50)),
+                    toMillis(percentile(sorted, 0.95)),
+                    toMillis(percentile(sorted, 0.99)),
+                    toMillis(sorted[sorted.length - 1]));
+        }
+
+        /**
+         * Retrieves a percentile of sorted values.
+         *
+         * @param sorted     The sorted values
+         * @param percentile The percentile between 0 and 1
+         * @return The value at the percentile
+         */
+        private static long percentile(long[] sorted, double percentile) {
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+
+        /**
+         * Converts nanoseconds to milliseconds.
+         *
+         * @param nanos The nanoseconds to convert
+         * @return The converted milliseconds
+         */
+        private static double toMillis(double nanos) {
+            return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
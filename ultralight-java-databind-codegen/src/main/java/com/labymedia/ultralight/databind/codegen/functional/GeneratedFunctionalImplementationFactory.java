@@ -0,0 +1,285 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+
+package com.labymedia.ultralight.databind.codegen.functional;
+
+import com.labymedia.ultralight.databind.utils.FunctionalImplementationFactory;
+import com.labymedia.ultralight.databind.utils.FunctionalInterfaceBinding;
+import com.labymedia.ultralight.databind.utils.FunctionalInvoker;
+import com.labymedia.ultralight.databind.utils.ProxyFunctionalImplementationFactory;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+import javassist.NotFoundException;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.security.SecureClassLoader;
+import java.util.UUID;
+
+/**
+ * Implements functional interfaces using bytecode-generated classes.
+ * <p>
+ * A dedicated class is generated once per interface. Bound methods are implemented by directly delegating to the
+ * {@link FunctionalInvoker} and default methods are inherited from the interface, so calls neither go through an
+ * {@link java.lang.reflect.InvocationHandler} nor require method handles for default methods. Interfaces which are
+ * not public are implemented using proxies as a generated class could not access them.
+ * <p>
+ * Arguments are still passed to the invoker as an array. Converting them to Javascript requires the locked context,
+ * so they have to be captured until the call is executed, and the converters are looked up once per type through
+ * the cache of the conversion utilities.
+ */
+public class GeneratedFunctionalImplementationFactory implements FunctionalImplementationFactory {
+
+    private static final String CLASS_NAME_BASE = "GeneratedFunctionalImplementation_%s";
+
+    private static final String INVOKER_FIELD_NAME = "invoker";
+
+    private final FunctionalImplementationFactory fallbackFactory;
+
+    private final ClassValue<Boolean> generatable;
+    private final ClassValue<Constructor<?>> constructors;
+
+    public GeneratedFunctionalImplementationFactory() {
+        this.fallbackFactory = new ProxyFunctionalImplementationFactory();
+        this.generatable = new ClassValue<Boolean>() {
+            @Override
+            protected Boolean computeValue(Class<?> type) {
+                return canGenerateImplementation(FunctionalInterfaceBinding.of(type));
+            }
+        };
+        this.constructors = new ClassValue<Constructor<?>>() {
+            @Override
+            protected Constructor<?> computeValue(Class<?> type) {
+                try {
+                    return generateImplementation(FunctionalInterfaceBinding.of(type));
+                } catch (NotFoundException | CannotCompileException | IOException | NoSuchMethodException exception) {
+                    throw new ImplementationGenerationException(
+                            "Failed to generate implementation for " + type.getName(), exception);
+                }
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object implement(FunctionalInterfaceBinding binding, FunctionalInvoker invoker) {
+        Class<?> target = binding.getTarget();
+        if (!this.generatable.get(target)) {
+            return this.fallbackFactory.implement(binding, invoker);
+        }
+
+        try {
+            return this.constructors.get(target).newInstance(invoker);
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException exception) {
+            throw new ImplementationGenerationException(
+                    "Failed to instantiate implementation for " + target.getName(), exception);
+        }
+    }
+
+    /**
+     * Determines whether an implementation of the bound interface can be generated. The generated class lives in
+     * its own class loader and package, so the interface and every type of its bound methods need to be accessible
+     * from anywhere, otherwise the generated class would fail with an {@link IllegalAccessError}.
+     *
+     * @param binding The binding of the interface to test
+     * @return {@code true} if an implementation can be generated, {@code false} if the fallback has to be used
+     */
+    private static boolean canGenerateImplementation(FunctionalInterfaceBinding binding) {
+        if (!isAccessible(binding.getTarget())) {
+            return false;
+        }
+
+        for (int i = 0; i < binding.getMethodCount(); i++) {
+            Method method = binding.getMethod(i);
+
+            if (!isAccessible(method.getReturnType())) {
+                return false;
+            }
+
+            for (Class<?> type : method.getParameterTypes()) {
+                if (!isAccessible(type)) {
+                    return false;
+                }
+            }
+
+            for (Class<?> type : method.getExceptionTypes()) {
+                if (!isAccessible(type)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Determines whether a class is accessible from any package. Nested classes are only accessible if all of
+     * their enclosing classes are public as well.
+     *
+     * @param type The class to test
+     * @return {@code true} if the class is accessible from any package, {@code false} otherwise
+     */
+    private static boolean isAccessible(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+
+        if (type.isPrimitive()) {
+            return true;
+        }
+
+        for (Class<?> current = type; current != null; current = current.getDeclaringClass()) {
+            if (!Modifier.isPublic(current.getModifiers())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Generates a class implementing the bound interface.
+     *
+     * @param binding The binding of the interface to implement
+     * @return The constructor of the generated class, taking the {@link FunctionalInvoker} as its only parameter
+     */
+    private Constructor<?> generateImplementation(FunctionalInterfaceBinding binding) throws NotFoundException, CannotCompileException, IOException, NoSuchMethodException {
+        Class<?> target = binding.getTarget();
+
+        ClassPool classPool = new ClassPool(true);
+        classPool.appendClassPath(new LoaderClassPath(this.getClass().getClassLoader()));
+        if (target.getClassLoader() != null) {
+            classPool.appendClassPath(new LoaderClassPath(target.getClassLoader()));
+        }
+
+        CtClass ctClass = classPool.makeClass(
+                String.format(CLASS_NAME_BASE, UUID.randomUUID().toString().replace("-", "")));
+        ctClass.addInterface(classPool.get(target.getName()));
+
+        String invokerType = FunctionalInvoker.class.getName();
+        ctClass.addField(CtField.make(
+                String.format("private final %s %s;", invokerType, INVOKER_FIELD_NAME), ctClass));
+        ctClass.addConstructor(CtNewConstructor.make(
+                String.format("public %s(%s %s) { this.%s = $1; }",
+                        ctClass.getSimpleName(), invokerType, INVOKER_FIELD_NAME, INVOKER_FIELD_NAME), ctClass));
+
+        for (int i = 0; i < binding.getMethodCount(); i++) {
+            Method method = binding.getMethod(i);
+
+            // $args boxes all parameters into an Object[], ($r) casts and unboxes the result to the return type.
+            // The array is the capture of the call: the arguments can only be converted once the context is locked,
+            // which may happen later on another thread if the call is queued.
+            String invocation = String.format("this.%s.invoke(%d, $args)", INVOKER_FIELD_NAME, i);
+            String body = method.getReturnType() == void.class ?
+                    "{ " + invocation + "; }" :
+                    "{ return ($r) " + invocation + "; }";
+
+            ctClass.addMethod(CtNewMethod.make(
+                    Modifier.PUBLIC,
+                    toCtClass(classPool, method.getReturnType()),
+                    method.getName(),
+                    toCtClasses(classPool, method.getParameterTypes()),
+                    toCtClasses(classPool, method.getExceptionTypes()),
+                    body,
+                    ctClass));
+        }
+
+        Class<?> generatedClass = new DefinableClassLoader(target.getClassLoader(), this.getClass().getClassLoader())
+                .defineClass(ctClass.getName(), ctClass.toBytecode());
+        ctClass.detach();
+
+        return generatedClass.getConstructor(FunctionalInvoker.class);
+    }
+
+    /**
+     * Converts classes to their javassist representation.
+     *
+     * @param classPool The pool to look the classes up in
+     * @param classes   The classes to convert
+     * @return The converted classes
+     */
+    private static CtClass[] toCtClasses(ClassPool classPool, Class<?>[] classes) throws NotFoundException {
+        CtClass[] ctClasses = new CtClass[classes.length];
+        for (int i = 0; i < classes.length; i++) {
+            ctClasses[i] = toCtClass(classPool, classes[i]);
+        }
+
+        return ctClasses;
+    }
+
+    /**
+     * Converts a class to its javassist representation.
+     *
+     * @param classPool The pool to look the class up in
+     * @param type      The class to convert
+     * @return The converted class
+     */
+    private static CtClass toCtClass(ClassPool classPool, Class<?> type) throws NotFoundException {
+        // Javassist expects array types in their source form
+        StringBuilder builder = new StringBuilder();
+        for (; type.isArray(); type = type.getComponentType()) {
+            builder.append("[]");
+        }
+
+        return classPool.get(type.getName() + builder);
+    }
+
+    /**
+     * Class loader making defining new classes possible, seeing both the implemented interface and this library.
+     */
+    private static class DefinableClassLoader extends SecureClassLoader {
+
+        private final ClassLoader libraryClassLoader;
+
+        public DefinableClassLoader(ClassLoader parent, ClassLoader libraryClassLoader) {
+            super(parent);
+            this.libraryClassLoader = libraryClassLoader;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            return this.libraryClassLoader.loadClass(name);
+        }
+
+        /**
+         * Defines a new class.
+         *
+         * @param className The name of the class
+         * @param byteCode  The bytecode of the class
+         * @return The new class
+         */
+        public Class<?> defineClass(String className, byte[] byteCode) {
+            return super.defineClass(className, byteCode, 0, byteCode.length);
+        }
+    }
+}
@@ -20,10 +20,16 @@
 package com.labymedia.ultralight.databind;
 
 import com.labymedia.ultralight.databind.cache.JavascriptClassCache;
+import com.labymedia.ultralight.databind.context.ContextProvider;
 import com.labymedia.ultralight.databind.context.ContextProviderFactory;
+import com.labymedia.ultralight.databind.context.JavascriptCallQueue;
 import com.labymedia.ultralight.databind.utils.JavascriptConversionUtils;
 import com.labymedia.ultralight.javascript.JavascriptClass;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 /**
  * Representation of Databind instances.
  */
@@ -33,6 +39,7 @@ public final class Databind {
     private final ContextProviderFactory contextProviderFactory;
 
     private final JavascriptConversionUtils conversionUtils;
+    private final Map<Object, JavascriptCallQueue> callQueues;
 
     /**
      * Constructs a new {@link Databind} instance using the given configuration.
@@ -44,6 +51,7 @@ public final class Databind {
         this.classCache = configuration.classCache();
         this.contextProviderFactory = configuration.contextProviderFactory();
         this.conversionUtils = new JavascriptConversionUtils(this);
+        this.callQueues = Collections.synchronizedMap(new WeakHashMap<>());
     }
 
     /**
@@ -65,20 +73,22 @@ public final class Databind {
      * @return The converted Javascript class
      */
     public JavascriptClass toJavascript(Class<?> javaClass, boolean ignoreAutomaticPrototypeSetting) {
-        JavascriptClass javascriptClass = classCache.get(javaClass.getName());
-
-        if (javascriptClass == null) {
+        return classCache.computeIfAbsent(javaClass, (key) -> {
             if (!ignoreAutomaticPrototypeSetting && configuration.automaticPrototype()) {
                 throw new IllegalStateException("Cannot automatically import a prototype due to databind configuration");
             }
 
-            javascriptClass = classCache.put(
-                    javaClass.getName(),
-                    DatabindJavascriptClass.create(configuration, conversionUtils, javaClass, classCache)
-                            .bake());
-        }
+            return DatabindJavascriptClass.create(configuration, conversionUtils, key, classCache).bake();
+        });
+    }
 
-        return javascriptClass;
+    /**
+     * Retrieves the configuration used by this {@link Databind} instance.
+     *
+     * @return The configuration
+     */
+    public DatabindConfiguration getConfiguration() {
+        return configuration;
     }
 
     /**
@@ -99,6 +109,19 @@ public final class Databind {
         return contextProviderFactory;
     }
 
+    /**
+     * Retrieves the call queue for the context the given provider synchronizes with.
+     * <p>
+     * Queues are shared by all providers with an equal {@link ContextProvider#contextKey()} and are released
+     * once the key is no longer reachable.
+     *
+     * @param contextProvider The provider to retrieve the queue for
+     * @return The call queue of the context
+     */
+    public JavascriptCallQueue getCallQueue(ContextProvider contextProvider) {
+        return callQueues.computeIfAbsent(contextProvider.contextKey(), (key) -> new JavascriptCallQueue());
+    }
+
     /**
      * Determines whether functional conversion is supported (depends on whether a context provider factory
      * is available).
@@ -19,13 +19,21 @@
 
 package com.labymedia.ultralight.databind;
 
+import com.labymedia.ultralight.databind.cache.ConcurrentJavascriptClassCache;
 import com.labymedia.ultralight.databind.cache.JavascriptClassCache;
-import com.labymedia.ultralight.databind.cache.NaiveJavascriptClassCache;
 import com.labymedia.ultralight.databind.call.HeuristicMethodChooser;
 import com.labymedia.ultralight.databind.call.MethodChooser;
 import com.labymedia.ultralight.databind.call.property.PropertyCaller;
 import com.labymedia.ultralight.databind.call.property.ReflectivePropertyCaller;
+import com.labymedia.ultralight.databind.context.ContextProvider;
 import com.labymedia.ultralight.databind.context.ContextProviderFactory;
+import com.labymedia.ultralight.databind.conversion.TypeConverter;
+import com.labymedia.ultralight.databind.conversion.TypeConverterRegistry;
+import com.labymedia.ultralight.databind.utils.FunctionalImplementationFactory;
+import com.labymedia.ultralight.databind.utils.ProxyFunctionalImplementationFactory;
+
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Databind configuration.
@@ -36,31 +44,48 @@ public final class DatabindConfiguration {
     private final PropertyCaller.Factory propertyCallerFactory;
     private final boolean automaticPrototype;
     private final ContextProviderFactory contextProviderFactory;
+    private final boolean cacheBoundMethods;
+    private final TypeConverterRegistry typeConverters;
+    private final boolean asynchronousFunctionalCalls;
+    private final FunctionalImplementationFactory functionalImplementationFactory;
 
     /**
      * Constructs a new {@link DatabindConfiguration}.
      * Use the {@link Builder} for creating instances outside of this class
      *
-     * @param classCache             The class cache used by this configuration
-     * @param methodChooser          The method chooser used by this configuration
-     * @param propertyCallerFactory  The factory creating the property caller used for calling properties on
-     *                               java objects and classes
-     * @param automaticPrototype     If {@code true}, automatic prototyping is enabled
-     * @param contextProviderFactory The factory for binding context providers, or {@code null}, if this feature
-     *                               is not required
+     * @param classCache                      The class cache used by this configuration
+     * @param methodChooser                   The method chooser used by this configuration
+     * @param propertyCallerFactory           The factory creating the property caller used for calling
+     *                                        properties on java objects and classes
+     * @param automaticPrototype              If {@code true}, automatic prototyping is enabled
+     * @param contextProviderFactory          The factory for binding context providers, or {@code null}, if this
+     *                                        feature is not required
+     * @param cacheBoundMethods               If {@code true}, method objects are cached per Javascript object
+     * @param typeConverters                  The custom type converters used by this configuration
+     * @param asynchronousFunctionalCalls     If {@code true}, calls to bound functional interfaces do not block
+     * @param functionalImplementationFactory The factory implementing functional interfaces bound to Javascript
+     *                                        functions
      */
     private DatabindConfiguration(
             JavascriptClassCache classCache,
             MethodChooser methodChooser,
             PropertyCaller.Factory propertyCallerFactory,
             boolean automaticPrototype,
-            ContextProviderFactory contextProviderFactory
+            ContextProviderFactory contextProviderFactory,
+            boolean cacheBoundMethods,
+            TypeConverterRegistry typeConverters,
+            boolean asynchronousFunctionalCalls,
+            FunctionalImplementationFactory functionalImplementationFactory
     ) {
         this.classCache = classCache;
         this.methodChooser = methodChooser;
         this.propertyCallerFactory = propertyCallerFactory;
         this.automaticPrototype = automaticPrototype;
         this.contextProviderFactory = contextProviderFactory;
+        this.cacheBoundMethods = cacheBoundMethods;
+        this.typeConverters = typeConverters;
+        this.asynchronousFunctionalCalls = asynchronousFunctionalCalls;
+        this.functionalImplementationFactory = functionalImplementationFactory;
     }
 
     /**
@@ -108,6 +133,42 @@ public final class DatabindConfiguration {
         return contextProviderFactory;
     }
 
+    /**
+     * Determines if this configuration caches method objects per Javascript object.
+     *
+     * @return {@code true} if method objects are cached, {@code false} otherwise
+     */
+    public boolean cacheBoundMethods() {
+        return cacheBoundMethods;
+    }
+
+    /**
+     * Retrieves the custom type converters of this configuration.
+     *
+     * @return The custom type converters
+     */
+    public TypeConverterRegistry typeConverters() {
+        return typeConverters;
+    }
+
+    /**
+     * Determines if calls to bound functional interfaces are executed asynchronously.
+     *
+     * @return {@code true} if functional calls are asynchronous, {@code false} otherwise
+     */
+    public boolean asynchronousFunctionalCalls() {
+        return asynchronousFunctionalCalls;
+    }
+
+    /**
+     * Retrieves the factory implementing functional interfaces bound to Javascript functions.
+     *
+     * @return The functional implementation factory
+     */
+    public FunctionalImplementationFactory functionalImplementationFactory() {
+        return functionalImplementationFactory;
+    }
+
     /**
      * Creates a new {@link DatabindConfiguration} builder.
      *
@@ -126,16 +187,21 @@ public final class DatabindConfiguration {
         private PropertyCaller.Factory propertyCallerFactory;
         private boolean automaticPrototype;
         private ContextProviderFactory contextProviderFactory;
+        private boolean cacheBoundMethods;
+        private final Map<Class<?>, TypeConverter<?>> typeConverters;
+        private boolean asynchronousFunctionalCalls;
+        private FunctionalImplementationFactory functionalImplementationFactory;
 
         /**
          * Constructs a new {@link Builder} with a default configuration.
          * Use {@link DatabindConfiguration#builder()} to create instances outside of this class.
          */
         private Builder() {
-            this.classCache = new NaiveJavascriptClassCache();
-            this.methodChooser = new HeuristicMethodChooser();
+            this.classCache = new ConcurrentJavascriptClassCache();
             this.propertyCallerFactory = new ReflectivePropertyCaller.Factory();
             this.automaticPrototype = true;
+            this.typeConverters = new HashMap<>();
+            this.functionalImplementationFactory = new ProxyFunctionalImplementationFactory();
         }
 
         /**
@@ -151,6 +217,9 @@ public final class DatabindConfiguration {
 
         /**
          * Sets the method chooser to be used by the configuration being built.
+         * <p>
+         * If no method chooser is set, a {@link HeuristicMethodChooser} aware of the registered type converters
+         * is used.
          *
          * @param methodChooser The method chooser to use
          * @return this
@@ -194,14 +263,94 @@ public final class DatabindConfiguration {
             return this;
         }
 
+        /**
+         * Configures whether the configuration being built will cache method objects per Javascript object.
+         * <p>
+         * When enabled, the function object representing a Java method is created once per Javascript object and
+         * method name and cached natively on the object, instead of being created on every property access.
+         * Cached methods are resolved without calling into Java. As a side effect, accessing the same method twice on
+         * the same object yields the same function.
+         *
+         * @param cacheBoundMethods If {@code true}, method objects will be cached per Javascript object
+         * @return this
+         */
+        public Builder cacheBoundMethods(boolean cacheBoundMethods) {
+            this.cacheBoundMethods = cacheBoundMethods;
+            return this;
+        }
+
+        /**
+         * Registers a custom converter for a type.
+         * <p>
+         * The converter is used for converting Java objects of the given type and its subtypes to Javascript, and
+         * for converting Javascript values to exactly the given type. Java objects are matched by their runtime
+         * class, so a converter also applies when the declared type of a field or return value is a supertype.
+         * <p>
+         * The registered converters are copied by {@link #build()}, converters registered afterwards only apply to
+         * configurations built later.
+         *
+         * @param type      The type to register the converter for
+         * @param converter The converter to register
+         * @param <T>       The type converted by the converter
+         * @return this
+         */
+        public <T> Builder typeConverter(Class<T> type, TypeConverter<T> converter) {
+            this.typeConverters.put(type, converter);
+            return this;
+        }
+
+        /**
+         * Configures whether calls to bound functional interfaces are executed asynchronously.
+         * <p>
+         * When enabled, calls are queued per Javascript context (see {@link ContextProvider#contextKey()}) and
+         * executed in batches on the next synchronization with Javascript. Methods returning {@code void} return
+         * immediately and discard errors, methods returning a {@link java.util.concurrent.CompletionStage} or
+         * {@link java.util.concurrent.Future} receive the pending result. Only methods returning other types
+         * still block the calling thread.
+         *
+         * @param asynchronousFunctionalCalls If {@code true}, functional calls will not block the calling thread
+         * @return this
+         */
+        public Builder asynchronousFunctionalCalls(boolean asynchronousFunctionalCalls) {
+            this.asynchronousFunctionalCalls = asynchronousFunctionalCalls;
+            return this;
+        }
+
+        /**
+         * Sets the factory implementing functional interfaces bound to Javascript functions.
+         * <p>
+         * By default {@link java.lang.reflect.Proxy} instances are used, the codegen module provides a factory
+         * generating a dedicated class per interface instead.
+         *
+         * @param functionalImplementationFactory The factory to use
+         * @return this
+         */
+        public Builder functionalImplementationFactory(
+                FunctionalImplementationFactory functionalImplementationFactory) {
+            this.functionalImplementationFactory = functionalImplementationFactory;
+            return this;
+        }
+
         /**
          * Builds a {@link DatabindConfiguration}.
          *
          * @return The built {@link DatabindConfiguration}
          */
         public DatabindConfiguration build() {
+            TypeConverterRegistry typeConverters = this.typeConverters.isEmpty() ?
+                    TypeConverterRegistry.empty() : new TypeConverterRegistry(this.typeConverters);
+
             return new DatabindConfiguration(
-                    classCache, methodChooser, propertyCallerFactory, automaticPrototype, contextProviderFactory);
+                    classCache,
+                    methodChooser != null ? methodChooser : new HeuristicMethodChooser(typeConverters),
+                    propertyCallerFactory,
+                    automaticPrototype,
+                    contextProviderFactory,
+                    cacheBoundMethods,
+                    typeConverters,
+                    asynchronousFunctionalCalls,
+                    functionalImplementationFactory
+            );
         }
     }
 }
@@ -20,10 +20,14 @@
 package com.labymedia.ultralight.databind;
 
 import com.labymedia.ultralight.databind.cache.JavascriptClassCache;
+import com.labymedia.ultralight.databind.call.ArgumentArrayPool;
 import com.labymedia.ultralight.databind.call.CallData;
 import com.labymedia.ultralight.databind.call.MethodChooser;
 import com.labymedia.ultralight.databind.call.property.PropertyCaller;
 import com.labymedia.ultralight.databind.utils.JavascriptConversionUtils;
+import com.labymedia.ultralight.instrumentation.UltralightEvent;
+import com.labymedia.ultralight.instrumentation.UltralightEventType;
+import com.labymedia.ultralight.instrumentation.UltralightEvents;
 import com.labymedia.ultralight.javascript.JavascriptClass;
 import com.labymedia.ultralight.javascript.JavascriptClassAttributes;
 import com.labymedia.ultralight.javascript.JavascriptClassDefinition;
@@ -43,7 +47,6 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
@@ -63,7 +66,7 @@ public final class DatabindJavascriptClass {
     private final Map<String, Set<Method>> methods = new HashMap<>();
     private final Map<String, Field> fields = new HashMap<>();
 
-    private final Map<String, JavascriptClass> methodClassCache = new HashMap<>();
+    private DatabindPropertyTable properties;
 
     /**
      * Constructs a new {@link DatabindJavascriptClass}.
@@ -97,6 +100,7 @@ public final class DatabindJavascriptClass {
         definition.onHasProperty(this::onHasProperty);
         definition.onGetProperty(this::onGetProperty);
         definition.onSetProperty(this::onSetProperty);
+        definition.onGetPropertyNames(this::onGetPropertyNames);
     }
 
     /**
@@ -170,14 +174,24 @@ public final class DatabindJavascriptClass {
 
         // Prepare call
         Constructor<?> method = callData.getTarget();
-        List<Object> parameters = callData.constructArguments(
-                context,
-                conversionUtils,
-                arguments
-        );
+        Object[] parameters = ArgumentArrayPool.acquire(callData.getArgumentCount());
+        UltralightEvent event = UltralightEvents.begin(UltralightEventType.JAVASCRIPT_CALLBACK);
+
+        Object instance;
+        try {
+            callData.constructArguments(context, conversionUtils, arguments, parameters);
+
+            // Invoke constructor with constructed arguments
+            instance = this.propertyCaller.callConstructor(method, parameters);
+        } finally {
+            ArgumentArrayPool.release(parameters);
 
-        // Invoke constructor with constructed arguments
-        return context.makeObject(bake(), new Data(this.propertyCaller.callConstructor(method, parameters.toArray()), null));
+            if (event.isEnabled()) {
+                event.commit(method.getDeclaringClass().getName() + "#<init>", arguments.length);
+            }
+        }
+
+        return context.makeObject(bake(), new Data(instance, null));
     }
 
     /**
@@ -189,34 +203,13 @@ public final class DatabindJavascriptClass {
      * @return {@code true} if the property could be found, {@code false} otherwise
      */
     private boolean onHasProperty(JavascriptContext context, JavascriptObject object, String propertyName) {
-        // Determine whether an instance is available or if the object is static
-        boolean instanceAvailable = ((Data) object.getPrivate()).instance != null;
-
-        Field f = fields.get(propertyName);
-        if (f != null && (Modifier.isStatic(f.getModifiers()) || instanceAvailable)) {
-            // Field found and usable
-            return true;
-        }
-
-        Set<Method> methodsWithName = methods.get(propertyName);
-        if (methodsWithName == null || methodsWithName.isEmpty()) {
-            // No methods available with that name
+        DatabindPropertyTable.Property property = properties.get(propertyName);
+        if (property == null) {
             return false;
-        } else if (instanceAvailable) {
-            // There is an instance and methods with this name are available
-            return true;
         }
 
-        // There are methods with this name available, check if any of them is static
-        for (Method method : methodsWithName) {
-            if (Modifier.isStatic(method.getModifiers())) {
-                // Found a static variant
-                return true;
-            }
-        }
-
-        // No static method available
-        return false;
+        // Determine whether an instance is available or if the object is static
+        return property.isAccessible(((Data) object.getPrivate()).instance != null);
     }
 
     /**
@@ -230,28 +223,37 @@ public final class DatabindJavascriptClass {
      */
     private JavascriptValue onGetProperty(
             JavascriptContext context, JavascriptObject object, String propertyName) throws JavascriptInteropException {
+        DatabindPropertyTable.Property property = properties.get(propertyName);
+        if (property == null) {
+            // Property does not exist, delegate to parent
+            return null;
+        }
+
         Data privateData = (Data) object.getPrivate();
-        Field field = fields.get(propertyName);
 
-        if (field != null) {
+        if (property.kind() == DatabindPropertyTable.Kind.FIELD) {
+            Field field = property.field();
             return conversionUtils.toJavascript(context, this.propertyCaller.callFieldGet(privateData.instance, field), field.getType());
         }
 
-        Set<Method> methodSet = methods.get(propertyName);
-        if (methodSet == null) {
-            // Property does not exist, delegate to parent
-            return null;
+        // caching classes of methods to avoid creating a new class on every call
+        JavascriptClass handlerClass = property.handlerClass(() -> DatabindJavascriptMethodHandler.create(
+                configuration,
+                conversionUtils,
+                propertyCaller,
+                property.methods(),
+                propertyName).bake());
+
+        if (!configuration.cacheBoundMethods()) {
+            return context.makeObject(handlerClass, new DatabindJavascriptMethodHandler.Data(privateData.instance, null));
         }
 
-        return context.makeObject(
-                // caching classes of methods to avoid creating a new class on every call
-                methodClassCache.computeIfAbsent(propertyName, key -> DatabindJavascriptMethodHandler.create(
-                        configuration,
-                        conversionUtils,
-                        propertyCaller,
-                        methodSet,
-                        propertyName).bake()),
-                new DatabindJavascriptMethodHandler.Data(privateData.instance, null));
+        // Once cached, later lookups of the method are answered natively and don't reach this class anymore
+        JavascriptObject function = context.makeObject(
+                handlerClass, new DatabindJavascriptMethodHandler.Data(privateData.instance, null));
+        object.cacheProperty(propertyName, function);
+
+        return function;
     }
 
     /**
@@ -270,19 +272,31 @@ public final class DatabindJavascriptClass {
             String propertyName,
             JavascriptValue value
     ) throws JavascriptInteropException {
-        Data privateData = (Data) object.getPrivate();
-        Field field = fields.get(propertyName);
-
-        if (field != null) {
-            this.propertyCaller.callFieldSet(privateData.instance, field, conversionUtils.fromJavascript(value, field.getType()));
-            return true;
+        DatabindPropertyTable.Property property = properties.get(propertyName);
+        if (property == null) {
+            return false;
         }
 
-        if (methods.containsKey(propertyName)) {
+        if (property.kind() == DatabindPropertyTable.Kind.METHOD) {
             throw new UnsupportedOperationException("Can not set a method");
         }
 
-        return false;
+        Data privateData = (Data) object.getPrivate();
+        Field field = property.field();
+
+        this.propertyCaller.callFieldSet(privateData.instance, field, conversionUtils.fromJavascript(value, field.getGenericType()));
+        return true;
+    }
+
+    /**
+     * Called by Javascript when the property names of this class or of an instance of this class are collected.
+     *
+     * @param context The context the names are being collected in
+     * @param object  The object the names are being collected for
+     * @return The names of all properties accessible on the object
+     */
+    private String[] onGetPropertyNames(JavascriptContext context, JavascriptObject object) {
+        return properties.propertyNames(((Data) object.getPrivate()).instance != null);
     }
 
     /**
@@ -313,20 +327,12 @@ public final class DatabindJavascriptClass {
 
         JavascriptClass parentClass = null;
         if (superClass != null && javaClass != Object.class) {
-            String parentClassName = superClass.getName();
-
-            if (!classCache.contains(parentClassName)) {
-                DatabindJavascriptClass databindParent = create(
-                        configuration,
-                        conversionUtils,
-                        superClass,
-                        classCache
-                );
-
-                parentClass = classCache.put(parentClassName, databindParent.bake());
-            } else {
-                parentClass = classCache.get(parentClassName);
-            }
+            parentClass = classCache.computeIfAbsent(superClass, (key) -> create(
+                    configuration,
+                    conversionUtils,
+                    key,
+                    classCache
+            ).bake());
         }
 
         DatabindJavascriptClass javascriptClass = new DatabindJavascriptClass(
@@ -348,6 +354,9 @@ public final class DatabindJavascriptClass {
             javascriptClass.addFields(filterAccessible(iface.getFields()));
         }
 
+        // All members are known now, compute the lookup table
+        javascriptClass.properties = new DatabindPropertyTable(javascriptClass.fields, javascriptClass.methods);
+
         return javascriptClass;
     }
 
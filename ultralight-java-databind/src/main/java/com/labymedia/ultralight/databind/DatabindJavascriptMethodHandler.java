@@ -19,10 +19,14 @@
 
 package com.labymedia.ultralight.databind;
 
+import com.labymedia.ultralight.databind.call.ArgumentArrayPool;
 import com.labymedia.ultralight.databind.call.CallData;
 import com.labymedia.ultralight.databind.call.MethodChooser;
 import com.labymedia.ultralight.databind.call.property.PropertyCaller;
 import com.labymedia.ultralight.databind.utils.JavascriptConversionUtils;
+import com.labymedia.ultralight.instrumentation.UltralightEvent;
+import com.labymedia.ultralight.instrumentation.UltralightEventType;
+import com.labymedia.ultralight.instrumentation.UltralightEvents;
 import com.labymedia.ultralight.javascript.JavascriptClass;
 import com.labymedia.ultralight.javascript.JavascriptClassAttributes;
 import com.labymedia.ultralight.javascript.JavascriptClassDefinition;
@@ -32,7 +36,6 @@ import com.labymedia.ultralight.javascript.JavascriptValue;
 import com.labymedia.ultralight.javascript.interop.JavascriptInteropException;
 
 import java.lang.reflect.Method;
-import java.util.List;
 import java.util.Set;
 
 /**
@@ -113,14 +116,23 @@ public final class DatabindJavascriptMethodHandler {
 
         // Prepare the call
         Method method = callData.getTarget();
-        List<Object> parameters = callData.constructArguments(
-                context,
-                conversionUtils,
-                arguments
-        );
-
-        // Invoke method with constructed arguments
-        Object ret = propertyCaller.callMethod(privateData.instance(), method, parameters.toArray());
+        Object[] parameters = ArgumentArrayPool.acquire(callData.getArgumentCount());
+        UltralightEvent event = UltralightEvents.begin(UltralightEventType.JAVASCRIPT_CALLBACK);
+
+        Object ret;
+        try {
+            callData.constructArguments(context, conversionUtils, arguments, parameters);
+
+            // Invoke method with constructed arguments
+            ret = propertyCaller.callMethod(privateData.instance(), method, parameters);
+        } finally {
+            ArgumentArrayPool.release(parameters);
+
+            if (event.isEnabled()) {
+                event.commit(method.getDeclaringClass().getName() + "#" + method.getName(), arguments.length);
+            }
+        }
+
         Class<?> suggestedReturnType = method.getReturnType();
 
         if (ret != null) {
@@ -0,0 +1,234 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.databind;
+
+import com.labymedia.ultralight.javascript.JavascriptClass;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Immutable lookup table of all properties a {@link DatabindJavascriptClass} exposes to Javascript.
+ * <p>
+ * The table is computed once when the class is created, so every property access only requires a single lookup
+ * instead of consulting fields, methods and modifiers each time.
+ */
+final class DatabindPropertyTable {
+    private final Map<String, Property> properties;
+    private final String[] instancePropertyNames;
+    private final String[] staticPropertyNames;
+
+    /**
+     * Constructs a new {@link DatabindPropertyTable} from the indexed fields and methods of a class.
+     *
+     * @param fields  The fields of the class by their name
+     * @param methods The methods of the class by their name
+     */
+    DatabindPropertyTable(Map<String, Field> fields, Map<String, Set<Method>> methods) {
+        Map<String, Property> properties = new HashMap<>();
+
+        for (Map.Entry<String, Set<Method>> entry : methods.entrySet()) {
+            properties.put(entry.getKey(), new Property(entry.getKey(), null, entry.getValue()));
+        }
+
+        for (Map.Entry<String, Field> entry : fields.entrySet()) {
+            // Fields take precedence over methods with the same name
+            properties.put(entry.getKey(), new Property(entry.getKey(), entry.getValue(), null));
+        }
+
+        List<String> instancePropertyNames = new ArrayList<>(properties.keySet());
+        List<String> staticPropertyNames = new ArrayList<>();
+
+        for (Property property : properties.values()) {
+            if (property.staticAccessible) {
+                staticPropertyNames.add(property.name);
+            }
+        }
+
+        Collections.sort(instancePropertyNames);
+        Collections.sort(staticPropertyNames);
+
+        this.properties = properties;
+        this.instancePropertyNames = instancePropertyNames.toArray(new String[0]);
+        this.staticPropertyNames = staticPropertyNames.toArray(new String[0]);
+    }
+
+    /**
+     * Looks up a property by its name.
+     *
+     * @param name The name of the property
+     * @return The found property, or {@code null}, if this table does not contain a property with the given name
+     */
+    Property get(String name) {
+        return properties.get(name);
+    }
+
+    /**
+     * Retrieves the names of all properties accessible on an object.
+     *
+     * @param instanceAvailable Whether the object is backed by a Java instance or represents the class itself
+     * @return The sorted names of all accessible properties, the returned array must not be modified
+     */
+    String[] propertyNames(boolean instanceAvailable) {
+        return instanceAvailable ? instancePropertyNames : staticPropertyNames;
+    }
+
+    /**
+     * The kind of a property.
+     */
+    enum Kind {
+        /**
+         * The property is backed by a Java field.
+         */
+        FIELD,
+
+        /**
+         * The property is backed by a set of Java method overloads.
+         */
+        METHOD
+    }
+
+    /**
+     * A single, precomputed property entry.
+     */
+    static final class Property {
+        private final String name;
+        private final Kind kind;
+        private final boolean staticAccessible;
+        private final Field field;
+        private final Set<Method> methods;
+
+        private volatile JavascriptClass handlerClass;
+
+        /**
+         * Constructs a new {@link Property}.
+         *
+         * @param name    The name of the property
+         * @param field   The field backing the property, or {@code null}, if the property is a method
+         * @param methods The overloads backing the property, or {@code null}, if the property is a field
+         */
+        private Property(String name, Field field, Set<Method> methods) {
+            this.name = name;
+            this.field = field;
+            this.methods = methods;
+
+            if (field != null) {
+                this.kind = Kind.FIELD;
+                this.staticAccessible = Modifier.isStatic(field.getModifiers());
+            } else {
+                this.kind = Kind.METHOD;
+                this.staticAccessible = anyStatic(methods);
+            }
+        }
+
+        /**
+         * Retrieves the name of this property.
+         *
+         * @return The name of this property
+         */
+        String name() {
+            return name;
+        }
+
+        /**
+         * Retrieves the kind of this property.
+         *
+         * @return The kind of this property
+         */
+        Kind kind() {
+            return kind;
+        }
+
+        /**
+         * Determines whether this property is accessible on an object.
+         *
+         * @param instanceAvailable Whether the object is backed by a Java instance
+         * @return {@code true} if the property is accessible, {@code false} otherwise
+         */
+        boolean isAccessible(boolean instanceAvailable) {
+            return instanceAvailable || staticAccessible;
+        }
+
+        /**
+         * Retrieves the field backing this property.
+         *
+         * @return The backing field, or {@code null}, if this property is a method
+         */
+        Field field() {
+            return field;
+        }
+
+        /**
+         * Retrieves the overloads backing this property.
+         *
+         * @return The backing overloads, or {@code null}, if this property is a field
+         */
+        Set<Method> methods() {
+            return methods;
+        }
+
+        /**
+         * Retrieves the baked method handler class of this method, creating it on first use.
+         *
+         * @param factory The factory creating the handler class if it does not exist yet
+         * @return The baked method handler class
+         */
+        JavascriptClass handlerClass(Supplier<JavascriptClass> factory) {
+            JavascriptClass handlerClass = this.handlerClass;
+
+            if (handlerClass == null) {
+                synchronized (this) {
+                    handlerClass = this.handlerClass;
+
+                    if (handlerClass == null) {
+                        handlerClass = factory.get();
+                        this.handlerClass = handlerClass;
+                    }
+                }
+            }
+
+            return handlerClass;
+        }
+
+        /**
+         * Determines whether any of the given methods is static.
+         *
+         * @param methods The methods to check
+         * @return {@code true} if at least one method is static, {@code false} otherwise
+         */
+        private static boolean anyStatic(Set<Method> methods) {
+            for (Method method : methods) {
+                if (Modifier.isStatic(method.getModifiers())) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+}
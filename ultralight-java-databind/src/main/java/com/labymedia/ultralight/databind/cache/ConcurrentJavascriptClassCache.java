@@ -0,0 +1,277 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.databind.cache;
+
+import com.labymedia.ultralight.javascript.JavascriptClass;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Thread safe implementation of a {@link JavascriptClassCache} keyed by {@link Class} instances.
+ * <p>
+ * Entries are attached to the Java classes using a {@link ClassValue}, so classes with the same name from different
+ * class loaders do not collide. Note that this does not allow the Java classes to be unloaded: the native data of a
+ * Javascript class keeps global references to the Java handlers it has been defined with, which refer to the Java
+ * class, for the whole lifetime of the process. Optionally the cache can be bounded, in which case the least recently
+ * used classes are evicted once the limit is exceeded. Evicted classes are not released explicitly, callers may still
+ * hold them. Their native class is released once they are garbage collected.
+ * <p>
+ * Classes put using the name based methods of {@link JavascriptClassCache} are kept in a separate table, which the
+ * class keyed lookups fall back to. Classes created by {@link #computeIfAbsent(Class, Function)} can not be retrieved
+ * by name, as names are not unique across class loaders.
+ */
+public final class ConcurrentJavascriptClassCache implements JavascriptClassCache {
+    private final ClassValue<Entry> entries;
+    private final int maximumSize;
+    private final LinkedHashMap<Entry, Boolean> accessOrder;
+    private final Map<String, JavascriptClass> namedClasses;
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    /**
+     * Constructs a new empty, unbounded {@link ConcurrentJavascriptClassCache}.
+     */
+    public ConcurrentJavascriptClassCache() {
+        this(0);
+    }
+
+    /**
+     * Constructs a new empty {@link ConcurrentJavascriptClassCache} holding at most the given amount of classes.
+     * <p>
+     * Evicted classes are only dropped from the cache, they stay valid for as long as they are referenced.
+     *
+     * @param maximumSize The maximum amount of classes to cache, or {@code 0}, if the cache should be unbounded
+     * @throws IllegalArgumentException If the maximum size is negative
+     */
+    public ConcurrentJavascriptClassCache(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("The maximum size can not be negative");
+        }
+
+        this.entries = new ClassValue<Entry>() {
+            @Override
+            protected Entry computeValue(Class<?> type) {
+                return new Entry();
+            }
+        };
+        this.maximumSize = maximumSize;
+        this.accessOrder = new LinkedHashMap<>(16, 0.75f, true);
+        this.namedClasses = new ConcurrentHashMap<>();
+
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    @Override
+    public JavascriptClass get(Class<?> javaClass) {
+        Entry entry = entries.get(javaClass);
+        JavascriptClass javascriptClass = entry.value;
+
+        if (javascriptClass == null) {
+            javascriptClass = namedClasses.get(javaClass.getName());
+            if (javascriptClass == null) {
+                misses.increment();
+                return null;
+            }
+
+            hits.increment();
+            return javascriptClass;
+        }
+
+        hits.increment();
+        touch(entry);
+        return javascriptClass;
+    }
+
+    @Override
+    public JavascriptClass computeIfAbsent(Class<?> javaClass, Function<Class<?>, JavascriptClass> factory) {
+        Entry entry = entries.get(javaClass);
+        JavascriptClass javascriptClass = entry.value;
+
+        if (javascriptClass == null) {
+            boolean created = false;
+
+            synchronized (entry) {
+                javascriptClass = entry.value;
+
+                if (javascriptClass == null) {
+                    // Still not present, only one thread will ever get here for the same entry
+                    javascriptClass = factory.apply(javaClass);
+                    entry.value = javascriptClass;
+                    created = true;
+                }
+            }
+
+            if (created) {
+                misses.increment();
+                track(entry);
+                return javascriptClass;
+            }
+        }
+
+        hits.increment();
+        touch(entry);
+        return javascriptClass;
+    }
+
+    @Override
+    public JavascriptClass delete(Class<?> javaClass) {
+        Entry entry = entries.get(javaClass);
+        JavascriptClass javascriptClass;
+
+        synchronized (entry) {
+            javascriptClass = entry.value;
+            entry.value = null;
+        }
+
+        synchronized (accessOrder) {
+            accessOrder.remove(entry);
+        }
+
+        JavascriptClass named = namedClasses.remove(javaClass.getName());
+        return javascriptClass != null ? javascriptClass : named;
+    }
+
+    @Override
+    public boolean contains(Class<?> javaClass) {
+        return entries.get(javaClass).value != null || namedClasses.containsKey(javaClass.getName());
+    }
+
+    @Override
+    public JavascriptClass get(String name) {
+        return namedClasses.get(name);
+    }
+
+    @Override
+    public JavascriptClass put(String name, JavascriptClass javascriptClass) {
+        namedClasses.put(name, javascriptClass);
+        return javascriptClass;
+    }
+
+    @Override
+    public JavascriptClass delete(String name) {
+        return namedClasses.remove(name);
+    }
+
+    @Override
+    public boolean contains(String name) {
+        return namedClasses.containsKey(name);
+    }
+
+    /**
+     * Retrieves the amount of lookups which found a cached class.
+     *
+     * @return The amount of cache hits
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Retrieves the amount of lookups which did not find a cached class.
+     *
+     * @return The amount of cache misses
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Retrieves the amount of classes which have been evicted because the cache exceeded its maximum size.
+     *
+     * @return The amount of evicted classes
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Marks an entry as most recently used.
+     *
+     * @param entry The entry which has been accessed
+     */
+    private void touch(Entry entry) {
+        if (maximumSize == 0) {
+            return;
+        }
+
+        synchronized (accessOrder) {
+            // Access ordered lookup moves the entry to the end
+            accessOrder.get(entry);
+        }
+    }
+
+    /**
+     * Starts tracking a newly populated entry and evicts the least recently used entries if required.
+     *
+     * @param entry The entry which has been populated
+     */
+    private void track(Entry entry) {
+        if (maximumSize == 0) {
+            return;
+        }
+
+        List<Entry> evicted = new ArrayList<>();
+
+        synchronized (accessOrder) {
+            accessOrder.put(entry, Boolean.TRUE);
+
+            // Collect the eldest entries while above the size limit
+            Iterator<Map.Entry<Entry, Boolean>> it = accessOrder.entrySet().iterator();
+            while (accessOrder.size() > maximumSize && it.hasNext()) {
+                Entry eldest = it.next().getKey();
+                it.remove();
+                evicted.add(eldest);
+            }
+        }
+
+        for (Entry eldest : evicted) {
+            boolean removed;
+
+            synchronized (eldest) {
+                removed = eldest.value != null;
+                eldest.value = null;
+            }
+
+            if (removed) {
+                // Only drop the reference, the class may still be in use by the caller. It is released by the
+                // garbage collector once it becomes unreachable.
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Cache slot attached to a Java class.
+     */
+    private static final class Entry {
+        private volatile JavascriptClass value;
+    }
+}
@@ -21,6 +21,8 @@ package com.labymedia.ultralight.databind.cache;
 
 import com.labymedia.ultralight.javascript.JavascriptClass;
 
+import java.util.function.Function;
+
 /**
  * Map like cache structure for caching Javascript classes.
  */
@@ -57,4 +59,59 @@ public interface JavascriptClassCache {
      * @return {@code true} if the class is cached, {@code false} otherwise
      */
     boolean contains(String name);
+
+    /**
+     * Retrieves the class for a Java class from the cache.
+     * <p>
+     * The default implementation delegates to {@link #get(String)} using the name of the Java class.
+     *
+     * @param javaClass The Java class to retrieve the cached class for
+     * @return The cached class, or {@code null}, if the class is not cached
+     */
+    default JavascriptClass get(Class<?> javaClass) {
+        return get(javaClass.getName());
+    }
+
+    /**
+     * Removes the class for a Java class from the cache.
+     * <p>
+     * The default implementation delegates to {@link #delete(String)} using the name of the Java class.
+     *
+     * @param javaClass The Java class to remove the cached class for
+     * @return The previously cached class, or {@code null}, if the class was not cached
+     */
+    default JavascriptClass delete(Class<?> javaClass) {
+        return delete(javaClass.getName());
+    }
+
+    /**
+     * Determines whether the cache contains the class for a Java class.
+     * <p>
+     * The default implementation delegates to {@link #contains(String)} using the name of the Java class.
+     *
+     * @param javaClass The Java class to test for
+     * @return {@code true} if the class is cached, {@code false} otherwise
+     */
+    default boolean contains(Class<?> javaClass) {
+        return contains(javaClass.getName());
+    }
+
+    /**
+     * Retrieves the class for a Java class from the cache or creates and caches it if it is not present.
+     * <p>
+     * The default implementation is not atomic, implementations which can be accessed from multiple threads
+     * should override this method.
+     *
+     * @param javaClass The Java class to retrieve or create the cached class for
+     * @param factory   The factory to invoke if the class is not cached yet
+     * @return The cached or newly created class
+     */
+    default JavascriptClass computeIfAbsent(Class<?> javaClass, Function<Class<?>, JavascriptClass> factory) {
+        JavascriptClass javascriptClass = get(javaClass);
+        if (javascriptClass == null) {
+            javascriptClass = put(javaClass.getName(), factory.apply(javaClass));
+        }
+
+        return javascriptClass;
+    }
 }
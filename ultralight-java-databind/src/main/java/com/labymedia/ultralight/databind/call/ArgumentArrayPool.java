@@ -0,0 +1,98 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.databind.call;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Per thread pool of argument arrays used for calls from Javascript into Java.
+ * <p>
+ * Arrays are pooled per length, so every call receives an array of the exact arity of its target. Calls into Java
+ * may call back into Javascript and from there into Java again, thus arrays are never shared while acquired and
+ * every acquired array must be released after the call has completed.
+ */
+public final class ArgumentArrayPool {
+    private static final Object[] EMPTY = new Object[0];
+
+    /**
+     * The largest arity arrays are pooled for, larger arrays are allocated on every call.
+     */
+    private static final int MAXIMUM_POOLED_LENGTH = 16;
+
+    /**
+     * The maximum amount of arrays kept per length, which limits the nesting depth benefiting from the pool.
+     */
+    private static final int MAXIMUM_POOLED_PER_LENGTH = 8;
+
+    private static final ThreadLocal<ArgumentArrayPool> POOLS = ThreadLocal.withInitial(ArgumentArrayPool::new);
+
+    /**
+     * Acquires an array of the given length from the pool of the current thread.
+     *
+     * @param length The length of the array
+     * @return The acquired array with all elements set to {@code null}
+     */
+    public static Object[] acquire(int length) {
+        if (length == 0) {
+            return EMPTY;
+        } else if (length > MAXIMUM_POOLED_LENGTH) {
+            return new Object[length];
+        }
+
+        Object[] array = POOLS.get().arrays[length].poll();
+        return array != null ? array : new Object[length];
+    }
+
+    /**
+     * Releases an array back into the pool of the current thread.
+     * <p>
+     * The array must not be used anymore after it has been released.
+     *
+     * @param array The array to release
+     */
+    public static void release(Object[] array) {
+        int length = array.length;
+        if (length == 0 || length > MAXIMUM_POOLED_LENGTH) {
+            return;
+        }
+
+        // Clear the references so pooled arrays don't keep arguments alive
+        Arrays.fill(array, null);
+
+        ArrayDeque<Object[]> pooled = POOLS.get().arrays[length];
+        if (pooled.size() < MAXIMUM_POOLED_PER_LENGTH) {
+            pooled.push(array);
+        }
+    }
+
+    private final ArrayDeque<Object[]>[] arrays;
+
+    /**
+     * Constructs a new, empty {@link ArgumentArrayPool}.
+     */
+    @SuppressWarnings("unchecked")
+    private ArgumentArrayPool() {
+        this.arrays = (ArrayDeque<Object[]>[]) new ArrayDeque<?>[MAXIMUM_POOLED_LENGTH + 1];
+        for (int i = 1; i < arrays.length; i++) {
+            arrays[i] = new ArrayDeque<>(MAXIMUM_POOLED_PER_LENGTH);
+        }
+    }
+}
@@ -27,8 +27,12 @@ import com.labymedia.ultralight.javascript.JavascriptValue;
 import java.lang.reflect.Array;
 import java.lang.reflect.Executable;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class containing information on how to call certain {@link Executable}s from Javascript for a given set of arguments.
@@ -59,6 +63,15 @@ public class CallData<T extends Executable> {
         return target;
     }
 
+    /**
+     * Retrieves the amount of arguments the target is invoked with.
+     *
+     * @return The amount of arguments of the target
+     */
+    public int getArgumentCount() {
+        return Signature.of(target).parameterTypes.length;
+    }
+
     /**
      * Constructs the arguments based on the requested call data.
      *
@@ -69,16 +82,39 @@ public class CallData<T extends Executable> {
      */
     public List<Object> constructArguments(
             JavascriptContext context, JavascriptConversionUtils conversionUtils, JavascriptValue[] arguments) {
-        Parameter[] methodParameters = target.getParameters();
-        List<Object> parameters = new ArrayList<>();
+        Object[] parameters = new Object[getArgumentCount()];
+        constructArguments(context, conversionUtils, arguments, parameters);
+        return new ArrayList<>(Arrays.asList(parameters));
+    }
 
-        boolean injectContext = target.isAnnotationPresent(InjectJavascriptContext.class);
+    /**
+     * Constructs the arguments based on the requested call data into an existing array.
+     *
+     * @param context         The Javascript context to use for argument construction
+     * @param conversionUtils The conversion utilities used for converting objects
+     * @param arguments       The Javascript arguments
+     * @param parameters      The array to write the constructed arguments to, its length needs to match
+     *                        {@link #getArgumentCount()}
+     * @see ArgumentArrayPool
+     */
+    public void constructArguments(
+            JavascriptContext context,
+            JavascriptConversionUtils conversionUtils,
+            JavascriptValue[] arguments,
+            Object[] parameters
+    ) {
+        Signature signature = Signature.of(target);
+        Class<?>[] parameterTypes = signature.parameterTypes;
+        Type[] genericParameterTypes = signature.genericParameterTypes;
+
+        boolean injectContext = signature.injectContext;
+        int argumentOffset = injectContext ? 1 : 0;
 
         // Convert all parameters to Javascript values
-        for (int i = 0; i < methodParameters.length; i++) {
+        for (int i = 0; i < parameterTypes.length; i++) {
             if (i == 0 && injectContext) {
-                parameters.add(context);
-            } else if (i == methodParameters.length - 1 && target.isVarArgs()) {
+                parameters[i] = context;
+            } else if (i == parameterTypes.length - 1 && signature.varArgs && varArgsType != null) {
                 switch (varArgsType) {
                     case NONE:
                         // No special handling required
@@ -86,38 +122,85 @@ public class CallData<T extends Executable> {
 
                     case EMPTY:
                         // Supply empty array
-                        parameters.add(Array.newInstance(methodParameters[i].getType().getComponentType(), 0));
+                        parameters[i] = Array.newInstance(parameterTypes[i].getComponentType(), 0);
                         break;
 
                     case COMPACT:
                         // Compact remaining variable arguments into an array
                         int varArgsCount = arguments.length - i;
-                        Class<?> targetType = methodParameters[i].getType().getComponentType();
+                        Class<?> targetType = parameterTypes[i].getComponentType();
 
                         Object args = Array.newInstance(targetType, varArgsCount);
 
                         for (int x = 0; x < varArgsCount; x++) {
                             Array.set(args, x, conversionUtils.fromJavascript(
-                                    arguments[(i + x) - (injectContext ? 1 : 0)], targetType));
+                                    arguments[(i + x) - argumentOffset], targetType));
                         }
 
-                        parameters.add(args);
+                        parameters[i] = args;
                         break;
 
                     case PASS_THROUGH:
                         // Pass through the argument one to one
-                        parameters.add(conversionUtils.fromJavascript(
-                                arguments[i - (injectContext ? 1 : 0)], methodParameters[i].getType()));
+                        parameters[i] = conversionUtils.fromJavascript(
+                                arguments[i - argumentOffset], genericParameterTypes[i]);
                         break;
                 }
             } else {
                 // Single argument
-                parameters.add(conversionUtils.fromJavascript(
-                        arguments[i - (injectContext ? 1 : 0)], methodParameters[i].getType()));
+                parameters[i] = conversionUtils.fromJavascript(
+                        arguments[i - argumentOffset], genericParameterTypes[i]);
             }
         }
+    }
+
+    /**
+     * Reflective information about an executable which is required for every call.
+     * <p>
+     * Signatures are computed once per executable and cached per declaring class.
+     */
+    private static final class Signature {
+        private static final ClassValue<Map<Executable, Signature>> SIGNATURES =
+                new ClassValue<Map<Executable, Signature>>() {
+                    @Override
+                    protected Map<Executable, Signature> computeValue(Class<?> type) {
+                        return new ConcurrentHashMap<>();
+                    }
+                };
+
+        /**
+         * Retrieves the signature of an executable.
+         *
+         * @param executable The executable to retrieve the signature for
+         * @return The signature of the executable
+         */
+        private static Signature of(Executable executable) {
+            return SIGNATURES.get(executable.getDeclaringClass()).computeIfAbsent(executable, Signature::new);
+        }
 
-        return parameters;
+        private final Class<?>[] parameterTypes;
+        private final Type[] genericParameterTypes;
+        private final boolean injectContext;
+        private final boolean varArgs;
+
+        /**
+         * Constructs a new {@link Signature} by inspecting the given executable.
+         *
+         * @param executable The executable to inspect
+         */
+        private Signature(Executable executable) {
+            Parameter[] parameters = executable.getParameters();
+
+            this.parameterTypes = new Class<?>[parameters.length];
+            this.genericParameterTypes = new Type[parameters.length];
+            for (int i = 0; i < parameters.length; i++) {
+                this.parameterTypes[i] = parameters[i].getType();
+                this.genericParameterTypes[i] = parameters[i].getParameterizedType();
+            }
+
+            this.injectContext = executable.isAnnotationPresent(InjectJavascriptContext.class);
+            this.varArgs = executable.isVarArgs();
+        }
     }
 
     /**
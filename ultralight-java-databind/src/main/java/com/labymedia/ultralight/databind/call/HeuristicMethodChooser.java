@@ -20,6 +20,7 @@
 package com.labymedia.ultralight.databind.call;
 
 import com.labymedia.ultralight.databind.api.InjectJavascriptContext;
+import com.labymedia.ultralight.databind.conversion.TypeConverterRegistry;
 import com.labymedia.ultralight.databind.utils.JavascriptConversionUtils;
 import com.labymedia.ultralight.javascript.JavascriptObject;
 import com.labymedia.ultralight.javascript.JavascriptValue;
@@ -33,6 +34,25 @@ import java.util.*;
  * Default implementation of a {@link MethodChooser} selecting methods based on type inference and heuristics.
  */
 public final class HeuristicMethodChooser implements MethodChooser {
+    private final TypeConverterRegistry typeConverters;
+
+    /**
+     * Constructs a new {@link HeuristicMethodChooser} without any custom type converters.
+     */
+    public HeuristicMethodChooser() {
+        this(TypeConverterRegistry.empty());
+    }
+
+    /**
+     * Constructs a new {@link HeuristicMethodChooser} which considers the given custom type converters when
+     * matching arguments.
+     *
+     * @param typeConverters The custom type converters which can convert arguments
+     */
+    public HeuristicMethodChooser(TypeConverterRegistry typeConverters) {
+        this.typeConverters = typeConverters;
+    }
+
     @Override
     public <T extends Executable> CallData<T> choose(
             Collection<? extends T> possibilities, JavascriptValue... javascriptValues) {
@@ -233,6 +253,12 @@ public final class HeuristicMethodChooser implements MethodChooser {
         } else if (target == source) {
             // No casting required, fast case to not run through selection
             return 0;
+        } else if (typeConverters.contains(target)) {
+            // A custom converter is responsible for the conversion
+            return 10;
+        } else if (JavascriptConversionUtils.isStructuralConversion(target, source)) {
+            // Converted element by element, penalize slightly so exact matches are preferred
+            return 10;
         } else if (source == JavascriptObject.class &&
                 target.isAnnotationPresent(FunctionalInterface.class) &&
                 value.toObject().isFunction()) {
@@ -290,13 +316,19 @@ public final class HeuristicMethodChooser implements MethodChooser {
      * @return {@code true} if a zero cost conversion is possible, {@code false} otherwise
      */
     private boolean isZeroCostConversion(Class<?> target, Class<?> source) {
-        // Number to primitive
+        // Number to primitive or its wrapper
         if (source == Number.class && (target == byte.class ||
                 target == short.class ||
                 target == int.class ||
                 target == long.class ||
                 target == float.class ||
-                target == double.class
+                target == double.class ||
+                target == Byte.class ||
+                target == Short.class ||
+                target == Integer.class ||
+                target == Long.class ||
+                target == Float.class ||
+                target == Double.class
         )) {
             return true;
         } else if (source == Boolean.class && target == boolean.class) {
@@ -33,4 +33,17 @@ public interface ContextProvider {
      * @param callback The callback to execute
      */
     void syncWithJavascript(Consumer<JavascriptContextLock> callback);
+
+    /**
+     * Retrieves a key identifying the Javascript context this provider synchronizes with.
+     * <p>
+     * Providers returning equal keys share a single {@link JavascriptCallQueue}, which allows asynchronous
+     * functional calls to be batched per context. Implementations creating a new provider for every bound value
+     * should return the object owning the context, such as the view.
+     *
+     * @return The key identifying the context of this provider
+     */
+    default Object contextKey() {
+        return this;
+    }
 }
@@ -0,0 +1,288 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.databind.context;
+
+import com.labymedia.ultralight.javascript.JavascriptContextLock;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Multi producer, single consumer queue of calls into a Javascript context.
+ * <p>
+ * Calls may be submitted from any thread without blocking. The first submission into an empty queue schedules a
+ * drain through {@link ContextProvider#syncWithJavascript(Consumer)}, all calls queued until the drain runs are
+ * then executed as a single batch while the context is locked. Only one drain runs at a time, even if the provider
+ * runs drains synchronously on the submitting threads, so calls are executed in submission order. Calls made by a
+ * queued call on the draining thread can't wait for the queue and are executed immediately using
+ * {@link #runIfDraining(Consumer)}.
+ * <p>
+ * Exceptions thrown by calls are passed to the exception handler of the queue, which defaults to the uncaught
+ * exception handler of the draining thread.
+ */
+public final class JavascriptCallQueue {
+    private final ConcurrentLinkedQueue<QueuedCall> calls;
+    private final AtomicBoolean drainScheduled;
+    private final AtomicReference<Thread> drainingThread;
+    private final AtomicInteger depth;
+
+    private final LongAdder submittedCount;
+    private final LongAdder executedCount;
+    private final LongAdder batchCount;
+    private final LongAdder totalLatency;
+    private final AtomicLong maximumLatency;
+
+    private volatile Consumer<Throwable> exceptionHandler;
+
+    // Only accessed by the draining thread
+    private JavascriptContextLock drainingLock;
+
+    /**
+     * Constructs a new, empty {@link JavascriptCallQueue}.
+     */
+    public JavascriptCallQueue() {
+        this.calls = new ConcurrentLinkedQueue<>();
+        this.drainScheduled = new AtomicBoolean(false);
+        this.drainingThread = new AtomicReference<>();
+        this.depth = new AtomicInteger(0);
+
+        this.submittedCount = new LongAdder();
+        this.executedCount = new LongAdder();
+        this.batchCount = new LongAdder();
+        this.totalLatency = new LongAdder();
+        this.maximumLatency = new AtomicLong(0);
+
+        this.exceptionHandler = JavascriptCallQueue::reportUncaught;
+    }
+
+    /**
+     * Sets the handler receiving exceptions thrown by queued calls. The handler is invoked on the draining thread
+     * while the context is locked and should not throw itself.
+     *
+     * @param exceptionHandler The handler to pass exceptions to, or {@code null}, to restore the default handler
+     *                         passing them to the uncaught exception handler of the draining thread
+     */
+    public void setExceptionHandler(Consumer<Throwable> exceptionHandler) {
+        this.exceptionHandler = exceptionHandler != null ? exceptionHandler : JavascriptCallQueue::reportUncaught;
+    }
+
+    /**
+     * Submits a call to be executed on the next drain of this queue.
+     * <p>
+     * This method never blocks. Exceptions thrown by the call are passed to the exception handler of this queue
+     * and do not prevent the remaining calls of the batch from running.
+     *
+     * @param contextProvider The provider used to schedule a drain if required
+     * @param call            The call to execute while the context is locked
+     */
+    public void submit(ContextProvider contextProvider, Consumer<JavascriptContextLock> call) {
+        calls.add(new QueuedCall(call, System.nanoTime()));
+        depth.incrementAndGet();
+        submittedCount.increment();
+
+        scheduleDrain(contextProvider);
+    }
+
+    /**
+     * Executes a call immediately if the current thread is draining this queue.
+     * <p>
+     * Calls made while a queued call is running can't be submitted and waited for, the drain only continues once
+     * the running call returns. They are executed directly with the lock held by the drain instead, just like
+     * nested calls into a synchronous context provider.
+     *
+     * @param call The call to execute while the context is locked
+     * @return {@code true} if the call has been executed, {@code false} if the current thread is not draining this
+     * queue and the call has to be submitted
+     */
+    public boolean runIfDraining(Consumer<JavascriptContextLock> call) {
+        if (drainingThread.get() != Thread.currentThread()) {
+            return false;
+        }
+
+        call.accept(drainingLock);
+        return true;
+    }
+
+    /**
+     * Schedules a drain of this queue if none is pending yet.
+     *
+     * @param contextProvider The provider to schedule the drain with
+     */
+    private void scheduleDrain(ContextProvider contextProvider) {
+        if (drainScheduled.compareAndSet(false, true)) {
+            contextProvider.syncWithJavascript((lock) -> drain(contextProvider, lock));
+        }
+    }
+
+    /**
+     * Executes all calls which have been queued at the time this method is entered.
+     *
+     * @param contextProvider The provider used for scheduling the next drain if calls remain
+     * @param lock            The lock of the Javascript context
+     */
+    private void drain(ContextProvider contextProvider, JavascriptContextLock lock) {
+        // Allow new submissions to schedule the next batch while this one is running
+        drainScheduled.set(false);
+
+        if (!drainingThread.compareAndSet(null, Thread.currentThread())) {
+            // Another drain is running, possibly on another thread if the provider runs drains synchronously. It
+            // reschedules once it is done, which keeps a single consumer and the submission order.
+            return;
+        }
+
+        drainingLock = lock;
+
+        try {
+            // Limit the batch to the calls present now, producers could otherwise keep this drain alive forever
+            int remaining = depth.get();
+            if (remaining > 0) {
+                batchCount.increment();
+            }
+
+            QueuedCall call;
+            while (remaining-- > 0 && (call = calls.poll()) != null) {
+                depth.decrementAndGet();
+                recordLatency(System.nanoTime() - call.submitTime);
+
+                try {
+                    call.callback.accept(lock);
+                } catch (Throwable t) {
+                    exceptionHandler.accept(t);
+                }
+
+                executedCount.increment();
+            }
+        } finally {
+            drainingLock = null;
+            drainingThread.set(null);
+        }
+
+        // Checked after releasing the drain, so calls rejected by a concurrent drain attempt are picked up
+        if (!calls.isEmpty()) {
+            // Calls have been added which did not see a pending drain
+            scheduleDrain(contextProvider);
+        }
+    }
+
+    /**
+     * Default exception handler, passes the exception to the uncaught exception handler of the current thread.
+     *
+     * @param t The exception thrown by a queued call
+     */
+    private static void reportUncaught(Throwable t) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+    }
+
+    /**
+     * Records the time a call has been waiting in the queue.
+     *
+     * @param latency The time in nanoseconds between submission and execution
+     */
+    private void recordLatency(long latency) {
+        totalLatency.add(latency);
+
+        long current;
+        while (latency > (current = maximumLatency.get())) {
+            if (maximumLatency.compareAndSet(current, latency)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the amount of calls currently waiting for execution.
+     *
+     * @return The amount of waiting calls
+     */
+    public int depth() {
+        return depth.get();
+    }
+
+    /**
+     * Retrieves the amount of calls which have been submitted to this queue.
+     *
+     * @return The amount of submitted calls
+     */
+    public long submittedCount() {
+        return submittedCount.sum();
+    }
+
+    /**
+     * Retrieves the amount of calls which have been executed by this queue.
+     *
+     * @return The amount of executed calls
+     */
+    public long executedCount() {
+        return executedCount.sum();
+    }
+
+    /**
+     * Retrieves the amount of batches which have been executed by this queue.
+     *
+     * @return The amount of executed batches
+     */
+    public long batchCount() {
+        return batchCount.sum();
+    }
+
+    /**
+     * Retrieves the average time calls have been waiting in this queue before being executed.
+     *
+     * @return The average queue latency in nanoseconds, or {@code 0}, if no call has been executed yet
+     */
+    public long averageLatencyNanos() {
+        long executed = executedCount.sum();
+        return executed == 0 ? 0 : totalLatency.sum() / executed;
+    }
+
+    /**
+     * Retrieves the longest time a call has been waiting in this queue before being executed.
+     *
+     * @return The maximum queue latency in nanoseconds
+     */
+    public long maximumLatencyNanos() {
+        return maximumLatency.get();
+    }
+
+    /**
+     * Tuple of a queued callback and the time it has been submitted at.
+     */
+    private static final class QueuedCall {
+        private final Consumer<JavascriptContextLock> callback;
+        private final long submitTime;
+
+        /**
+         * Constructs a new {@link QueuedCall}.
+         *
+         * @param callback   The callback to execute
+         * @param submitTime The value of {@link System#nanoTime()} at submission
+         */
+        private QueuedCall(Consumer<JavascriptContextLock> callback, long submitTime) {
+            this.callback = callback;
+            this.submitTime = submitTime;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.databind.conversion;
+
+import com.labymedia.ultralight.databind.DatabindConfiguration;
+import com.labymedia.ultralight.databind.utils.JavascriptConversionUtils;
+import com.labymedia.ultralight.javascript.JavascriptContext;
+import com.labymedia.ultralight.javascript.JavascriptValue;
+
+/**
+ * Custom conversion between a Java type and Javascript values.
+ * <p>
+ * By default, Java objects of unknown types are passed to Javascript as databind objects, which requires Javascript
+ * to call into Java for every property access. A type converter can instead convert value types, such as vectors,
+ * colors or other data transfer objects, eagerly into plain Javascript values. Using
+ * {@link JavascriptContext#makeFromJSON(String)} or {@link JavascriptContext#makeNumberArray(double[])} allows
+ * creating the whole value in a single native call.
+ * <p>
+ * Javascript {@code null} and {@code undefined} are converted to Java {@code null} before a converter is consulted,
+ * and Java {@code null} is always converted to Javascript {@code null}.
+ *
+ * @param <T> The Java type this converter converts
+ * @see DatabindConfiguration.Builder#typeConverter(Class, TypeConverter)
+ */
+public interface TypeConverter<T> {
+    /**
+     * Converts a Java value to a Javascript value.
+     *
+     * @param context         The Javascript context to use for the conversion
+     * @param value           The Java value to convert, never {@code null}
+     * @param conversionUtils The conversion utilities which can be used for converting nested values
+     * @return The converted Javascript value
+     */
+    JavascriptValue toJavascript(JavascriptContext context, T value, JavascriptConversionUtils conversionUtils);
+
+    /**
+     * Converts a Javascript value to a Java value.
+     * <p>
+     * The default implementation does not support this direction and always throws.
+     *
+     * @param value           The Javascript value to convert, never {@code null} or {@code undefined}
+     * @param conversionUtils The conversion utilities which can be used for converting nested values
+     * @return The converted Java value
+     * @throws IllegalArgumentException If the value can not be converted
+     */
+    default T fromJavascript(JavascriptValue value, JavascriptConversionUtils conversionUtils) {
+        throw new IllegalArgumentException("This converter does not support converting Javascript values to Java");
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.databind.conversion;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Immutable set of {@link TypeConverter}s registered for a databind configuration.
+ */
+public final class TypeConverterRegistry {
+    private static final TypeConverterRegistry EMPTY = new TypeConverterRegistry(Collections.emptyMap());
+
+    private final Map<Class<?>, TypeConverter<?>> converters;
+
+    /**
+     * Constructs a new {@link TypeConverterRegistry} containing the given converters.
+     *
+     * @param converters The converters by the type they convert
+     */
+    public TypeConverterRegistry(Map<Class<?>, TypeConverter<?>> converters) {
+        this.converters = Collections.unmodifiableMap(new HashMap<>(converters));
+    }
+
+    /**
+     * Retrieves a registry without any converters.
+     *
+     * @return An empty registry
+     */
+    public static TypeConverterRegistry empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Determines whether this registry contains no converters at all.
+     *
+     * @return {@code true} if no converters are registered, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return converters.isEmpty();
+    }
+
+    /**
+     * Determines whether a converter has been registered for exactly the given type.
+     *
+     * @param type The type to test
+     * @return {@code true} if a converter is registered for the type, {@code false} otherwise
+     */
+    public boolean contains(Class<?> type) {
+        return converters.containsKey(type);
+    }
+
+    /**
+     * Retrieves the converter registered for exactly the given type.
+     * <p>
+     * This is used for converting Javascript values to a requested Java type.
+     *
+     * @param type The type to retrieve the converter for
+     * @return The converter, or {@code null}, if none is registered for the type
+     */
+    public TypeConverter<?> find(Class<?> type) {
+        return converters.get(type);
+    }
+
+    /**
+     * Retrieves the converter registered for the given type or the closest of its supertypes.
+     * <p>
+     * This is used for converting Java objects to Javascript, where the runtime class of an object might be a
+     * subclass or implementation of the registered type. Superclasses are preferred over interfaces.
+     *
+     * @param type The type to retrieve the converter for
+     * @return The converter, or {@code null}, if none is registered for the type or any of its supertypes
+     */
+    public TypeConverter<?> findAssignable(Class<?> type) {
+        if (converters.isEmpty()) {
+            return null;
+        }
+
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            TypeConverter<?> converter = converters.get(current);
+            if (converter != null) {
+                return converter;
+            }
+        }
+
+        // Breadth first search through all interfaces, so closer interfaces are preferred
+        Queue<Class<?>> toVisit = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            Collections.addAll(toVisit, current.getInterfaces());
+        }
+
+        while (!toVisit.isEmpty()) {
+            Class<?> iface = toVisit.remove();
+            if (!visited.add(iface)) {
+                continue;
+            }
+
+            TypeConverter<?> converter = converters.get(iface);
+            if (converter != null) {
+                return converter;
+            }
+
+            Collections.addAll(toVisit, iface.getInterfaces());
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.databind.utils;
+
+import com.labymedia.ultralight.databind.DatabindConfiguration;
+
+/**
+ * Creates the Java objects implementing functional interfaces which Javascript functions are bound to.
+ *
+ * @see DatabindConfiguration.Builder#functionalImplementationFactory(FunctionalImplementationFactory)
+ */
+public interface FunctionalImplementationFactory {
+    /**
+     * Creates an implementation of the bound interface which delegates all bound methods to the invoker.
+     *
+     * @param binding The binding of the interface to implement
+     * @param invoker The invoker to delegate calls to
+     * @return The created implementation
+     */
+    Object implement(FunctionalInterfaceBinding binding, FunctionalInvoker invoker);
+}
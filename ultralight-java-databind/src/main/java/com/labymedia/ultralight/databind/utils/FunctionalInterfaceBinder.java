@@ -23,9 +23,6 @@ import com.labymedia.ultralight.databind.Databind;
 import com.labymedia.ultralight.databind.context.ContextProvider;
 import com.labymedia.ultralight.javascript.JavascriptObject;
 
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
-
 public class FunctionalInterfaceBinder {
 
     /**
@@ -38,32 +35,15 @@ public class FunctionalInterfaceBinder {
      * @throws IllegalArgumentException If binding the interface fails
      */
     public static Object bind(Databind databind, Class<?> target, JavascriptObject function) {
-        if (!target.isAnnotationPresent(FunctionalInterface.class)) {
-            throw new IllegalArgumentException(target.getName() + " is not a functional interface");
-        } else if (!function.isFunction()) {
+        FunctionalInterfaceBinding binding = FunctionalInterfaceBinding.of(target);
+        if (!function.isFunction()) {
             throw new IllegalArgumentException(function.toString() + " is not a function");
         }
 
-        Method bindMethod = null;
-
-        // Search for a matching method
-        for (Method m : target.getMethods()) {
-            if (m.isDefault()) {
-                // Default methods are not suitable
-                continue;
-            }
-
-            bindMethod = m;
-        }
-
-        if (bindMethod == null) {
-            throw new IllegalArgumentException(target.getName() + " only contains default methods");
-        }
-
         // Bind a context provider
         ContextProvider contextProvider = databind.getContextProviderFactory().bindProvider(function);
-        return Proxy.newProxyInstance(target.getClassLoader(), new Class[]{target},
-                new FunctionalInvocationHandler(function, target, contextProvider, databind));
+        return databind.getConfiguration().functionalImplementationFactory().implement(
+                binding, new FunctionalInvoker(function, binding, contextProvider, databind));
     }
 
 }
@@ -0,0 +1,276 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.databind.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+
+/**
+ * Precomputed description of a functional interface which Javascript functions can be bound to.
+ * <p>
+ * Bindings are created once per interface and shared by all functions bound to it.
+ */
+public final class FunctionalInterfaceBinding {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<FunctionalInterfaceBinding> BINDINGS = new ClassValue<FunctionalInterfaceBinding>() {
+        @Override
+        protected FunctionalInterfaceBinding computeValue(Class<?> type) {
+            return new FunctionalInterfaceBinding(type);
+        }
+    };
+
+    /**
+     * Retrieves the binding for a functional interface.
+     *
+     * @param target The interface to retrieve the binding for
+     * @return The binding of the interface
+     * @throws IllegalArgumentException If the class is not a functional interface
+     */
+    public static FunctionalInterfaceBinding of(Class<?> target) {
+        return BINDINGS.get(target);
+    }
+
+    private final Class<?> target;
+    private final BoundMethod[] methods;
+    private final Map<Method, Integer> methodIndices;
+    private final ConcurrentMap<Method, MethodHandle> defaultMethodHandles;
+
+    /**
+     * Constructs a new {@link FunctionalInterfaceBinding} for the given interface.
+     *
+     * @param target The interface to bind
+     * @throws IllegalArgumentException If the class is not a functional interface
+     */
+    private FunctionalInterfaceBinding(Class<?> target) {
+        if (!target.isInterface() || !target.isAnnotationPresent(FunctionalInterface.class)) {
+            throw new IllegalArgumentException(target.getName() + " is not a functional interface");
+        }
+
+        List<BoundMethod> methods = new ArrayList<>();
+        for (Method method : target.getMethods()) {
+            if (!Modifier.isAbstract(method.getModifiers()) || isObjectMethod(method)) {
+                // Default methods and re-declarations of Object methods are not suitable
+                continue;
+            }
+
+            methods.add(new BoundMethod(method));
+        }
+
+        if (methods.isEmpty()) {
+            throw new IllegalArgumentException(target.getName() + " only contains default methods");
+        }
+
+        this.target = target;
+        this.methods = methods.toArray(new BoundMethod[0]);
+        this.methodIndices = new HashMap<>();
+        for (int i = 0; i < this.methods.length; i++) {
+            this.methodIndices.put(this.methods[i].method, i);
+        }
+        this.defaultMethodHandles = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Retrieves the interface described by this binding.
+     *
+     * @return The bound interface
+     */
+    public Class<?> getTarget() {
+        return target;
+    }
+
+    /**
+     * Retrieves the amount of abstract methods which are bound to the Javascript function.
+     *
+     * @return The amount of bound methods
+     */
+    public int getMethodCount() {
+        return methods.length;
+    }
+
+    /**
+     * Retrieves an abstract method which is bound to the Javascript function.
+     * <p>
+     * Usually an interface only has one such method, but bridge declarations with covariant types
+     * may add more.
+     *
+     * @param index The index of the method
+     * @return The method at the given index
+     */
+    public Method getMethod(int index) {
+        return methods[index].method;
+    }
+
+    /**
+     * Determines the index of a bound method.
+     *
+     * @param method The method to determine the index of
+     * @return The index of the method, or {@code -1}, if the method is not bound to the Javascript function
+     */
+    public int indexOf(Method method) {
+        Integer index = methodIndices.get(method);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Retrieves the precomputed data of a bound method.
+     *
+     * @param index The index of the method
+     * @return The precomputed data of the method
+     */
+    BoundMethod getBoundMethod(int index) {
+        return methods[index];
+    }
+
+    /**
+     * Retrieves a handle for invoking a default method of the interface without knowing the implementation.
+     * <p>
+     * The handle takes the instance used as {@code this} as its first argument. Handles are resolved once per
+     * method and cached afterwards.
+     *
+     * @param method The default method to retrieve the handle for
+     * @return The handle of the default method
+     * @throws IllegalAccessException If the method can not be accessed
+     */
+    public MethodHandle getDefaultMethodHandle(Method method) throws IllegalAccessException {
+        MethodHandle handle = defaultMethodHandles.get(method);
+        if (handle == null) {
+            handle = LOOKUP.in(target).unreflectSpecial(method, target);
+            defaultMethodHandles.putIfAbsent(method, handle);
+        }
+
+        return handle;
+    }
+
+    /**
+     * Determines whether a method re-declares a public method of {@link Object}.
+     *
+     * @param method The method to check
+     * @return {@code true} if the method is declared by {@link Object} as well, {@code false} otherwise
+     */
+    private static boolean isObjectMethod(Method method) {
+        try {
+            Object.class.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Describes how the result of a bound method is delivered to the caller.
+     */
+    enum ResultKind {
+        /**
+         * The method does not return anything.
+         */
+        VOID,
+
+        /**
+         * The method returns a future which is completed with the result.
+         */
+        FUTURE,
+
+        /**
+         * The method returns the result directly.
+         */
+        VALUE
+    }
+
+    /**
+     * Precomputed data of a method bound to a Javascript function.
+     */
+    static final class BoundMethod {
+        final Method method;
+        final ResultKind resultKind;
+        final Type resultType;
+        final Class<?>[] argumentClasses;
+        final Class<?>[] exceptionTypes;
+
+        /**
+         * Constructs a new {@link BoundMethod} by precomputing the data of the given method.
+         *
+         * @param method The method to precompute the data for
+         */
+        private BoundMethod(Method method) {
+            this.method = method;
+            this.exceptionTypes = method.getExceptionTypes();
+
+            Class<?> returnType = method.getReturnType();
+            if (returnType == void.class) {
+                this.resultKind = ResultKind.VOID;
+                this.resultType = null;
+            } else if (returnType == CompletionStage.class || returnType == Future.class
+                    || CompletableFuture.class.isAssignableFrom(returnType)) {
+                this.resultKind = ResultKind.FUTURE;
+                this.resultType = futureResultType(method.getGenericReturnType());
+            } else {
+                this.resultKind = ResultKind.VALUE;
+                this.resultType = returnType == Object.class ? null : method.getGenericReturnType();
+            }
+
+            // Arguments of primitive or final types always have the same runtime class
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            this.argumentClasses = new Class<?>[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                Class<?> parameterType = parameterTypes[i];
+                if (parameterType.isPrimitive() || Modifier.isFinal(parameterType.getModifiers())) {
+                    this.argumentClasses[i] = parameterType.isPrimitive() ?
+                            MethodType.methodType(parameterType).wrap().returnType() : parameterType;
+                }
+            }
+        }
+
+        /**
+         * Determines the type the result of a future returning method should be converted to.
+         *
+         * @param futureType The generic type of the future
+         * @return The type to convert the result to, or {@code null}, if the type is unknown
+         */
+        private static Type futureResultType(Type futureType) {
+            if (!(futureType instanceof ParameterizedType)) {
+                return null;
+            }
+
+            Type resultType = ((ParameterizedType) futureType).getActualTypeArguments()[0];
+            if (resultType == Object.class ||
+                    (!(resultType instanceof Class) && !(resultType instanceof ParameterizedType))) {
+                // Wildcards and type variables can not be resolved here
+                return null;
+            }
+
+            return resultType;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.databind.utils;
+
+import com.labymedia.ultralight.databind.Databind;
+import com.labymedia.ultralight.databind.context.ContextProvider;
+import com.labymedia.ultralight.databind.context.JavascriptCallQueue;
+import com.labymedia.ultralight.ffi.gc.DeletableObject;
+import com.labymedia.ultralight.javascript.JavascriptContext;
+import com.labymedia.ultralight.javascript.JavascriptContextLock;
+import com.labymedia.ultralight.javascript.JavascriptObject;
+import com.labymedia.ultralight.javascript.JavascriptProtectedValue;
+import com.labymedia.ultralight.javascript.JavascriptValue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Invokes a Javascript function bound to a functional interface.
+ * <p>
+ * Implementations of the interface, be it proxies or generated classes, delegate all bound methods to an
+ * instance of this class.
+ */
+public final class FunctionalInvoker {
+    private final Object lock;
+    private final FunctionalInterfaceBinding binding;
+    private final ContextProvider contextProvider;
+    private final Databind databind;
+    private final JavascriptCallQueue callQueue;
+
+    private final DeletableObject<ValueWrapper> protectedValue;
+
+    /**
+     * Creates a new {@link FunctionalInvoker}.
+     *
+     * @param function        The bound function
+     * @param binding         The binding of the interface the function is bound to
+     * @param contextProvider A context provider for calling into Javascript
+     * @param databind        The databind instance used for translation between Java and Javascript
+     */
+    public FunctionalInvoker(
+            JavascriptObject function,
+            FunctionalInterfaceBinding binding,
+            ContextProvider contextProvider,
+            Databind databind
+    ) {
+        this.binding = binding;
+        this.contextProvider = contextProvider;
+        this.databind = databind;
+        this.callQueue = databind.getConfiguration().asynchronousFunctionalCalls() ?
+                databind.getCallQueue(contextProvider) : null;
+        lock = new Object();
+        protectedValue = new DeletableObject<>(
+                new ValueWrapper(contextProvider, function.protect()),
+                FunctionalInvoker::delete,
+                FunctionalInvoker.class
+        );
+    }
+
+    /**
+     * Retrieves the binding of the interface the function is bound to.
+     *
+     * @return The binding of the interface
+     */
+    public FunctionalInterfaceBinding getBinding() {
+        return binding;
+    }
+
+    /**
+     * Invokes the Javascript function for a bound method.
+     *
+     * @param methodIndex The index of the invoked method in the binding
+     * @param args        The arguments passed to the method
+     * @return The result of the method
+     * @throws Throwable If the Javascript function throws an exception which is declared by the method
+     */
+    public Object invoke(int methodIndex, Object[] args) throws Throwable {
+        FunctionalInterfaceBinding.BoundMethod method = binding.getBoundMethod(methodIndex);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+
+        Consumer<JavascriptContextLock> call = (contextLock) -> {
+            try {
+                synchronized (lock) {
+                    JavascriptContext context = contextLock.getContext();
+                    JavascriptConversionUtils conversionUtils = databind.getConversionUtils();
+
+                    // Revive the Javascript value, this will effectively invalidate the protected value
+                    JavascriptObject object = protectedValue.get().value.revive(contextLock).toObject();
+
+                    // Convert all Java arguments to Javascript values
+                    JavascriptValue[] arguments = new JavascriptValue[args.length];
+                    for (int i = 0; i < arguments.length; i++) {
+                        Class<?> argumentClass = method.argumentClasses[i];
+                        arguments[i] = argumentClass != null ?
+                                conversionUtils.toJavascript(context, args[i], argumentClass) :
+                                conversionUtils.toJavascript(context, args[i]);
+                    }
+
+                    // Protect the value again
+                    protectedValue.get().value = object.protect();
+
+                    JavascriptValue returnValue = object.callAsFunction(null, arguments);
+                    if (method.resultKind == FunctionalInterfaceBinding.ResultKind.VOID) {
+                        future.complete(null);
+                    } else if (method.resultType != null) {
+                        future.complete(conversionUtils.fromJavascript(returnValue, method.resultType));
+                    } else {
+                        future.complete(conversionUtils.fromJavascript(returnValue, returnValue.getClass()));
+                    }
+                }
+            } catch (Throwable t) {
+                // Capture exceptions to prevent deadlocking
+                future.completeExceptionally(t);
+            }
+        };
+
+        if (callQueue != null) {
+            if (callQueue.runIfDraining(call)) {
+                // Called from within a queued call, waiting for the queue would never return
+            } else if (method.resultKind == FunctionalInterfaceBinding.ResultKind.VOID) {
+                // Nothing to wait for, the call will be executed eventually. As nobody observes the future, failures
+                // are rethrown to reach the exception handler of the queue.
+                callQueue.submit(contextProvider, (contextLock) -> {
+                    call.accept(contextLock);
+                    future.join();
+                });
+                return null;
+            } else {
+                // Batch the call with all other calls into the same context
+                callQueue.submit(contextProvider, call);
+            }
+        } else {
+            contextProvider.syncWithJavascript(call);
+        }
+
+        if (method.resultKind == FunctionalInterfaceBinding.ResultKind.FUTURE) {
+            // A future is expected so we let the user handle it
+            return future;
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException exception) {
+            Throwable t = exception.getCause();
+
+            if (t instanceof RuntimeException || t instanceof Error) {
+                // Unchecked, rethrow as is
+                throw t;
+            }
+
+            Class<?> throwableClass = t.getClass();
+            for (Class<?> exceptionType : method.exceptionTypes) {
+                if (exceptionType.isAssignableFrom(throwableClass)) {
+                    // Declared to be thrown by the interface method
+                    throw t;
+                }
+            }
+
+            // Checked exception which has not been declared as thrown by the interface method
+            throw new RuntimeException("Exception thrown while invoking Javascript method", t);
+        }
+    }
+
+    /**
+     * Tuple of a context provider and a protected Javascript value.
+     */
+    private static class ValueWrapper {
+        private final ContextProvider contextProvider;
+        private JavascriptProtectedValue value;
+
+        /**
+         * Constructs a new {@link ValueWrapper} for a value and its corresponding context provider.
+         *
+         * @param contextProvider The context provider to use for the value
+         * @param value           The protected value
+         */
+        private ValueWrapper(ContextProvider contextProvider, JavascriptProtectedValue value) {
+            this.contextProvider = contextProvider;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Deletes a value wrapper when it is not required anymore.
+     *
+     * @param valueWrapper The wrapper to delete
+     */
+    private static void delete(ValueWrapper valueWrapper) {
+        valueWrapper.contextProvider.syncWithJavascript((contextLock) -> valueWrapper.value.revive(contextLock));
+    }
+}
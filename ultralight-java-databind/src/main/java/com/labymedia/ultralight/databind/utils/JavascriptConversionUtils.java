@@ -21,20 +21,86 @@ package com.labymedia.ultralight.databind.utils;
 
 import com.labymedia.ultralight.databind.Databind;
 import com.labymedia.ultralight.databind.DatabindJavascriptClass;
+import com.labymedia.ultralight.databind.conversion.TypeConverter;
+import com.labymedia.ultralight.databind.conversion.TypeConverterRegistry;
 import com.labymedia.ultralight.javascript.JavascriptClass;
 import com.labymedia.ultralight.javascript.JavascriptContext;
 import com.labymedia.ultralight.javascript.JavascriptObject;
 import com.labymedia.ultralight.javascript.JavascriptType;
+import com.labymedia.ultralight.javascript.JavascriptTypedArrayType;
 import com.labymedia.ultralight.javascript.JavascriptValue;
+import com.labymedia.ultralight.util.Util;
 
 import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Helper for converting between Java and Javascript objects and classes.
+ * <p>
+ * Conversions are performed by converters which are resolved once per Java type and cached afterwards, so
+ * converting a value only requires a single lookup instead of testing the type against every supported kind.
  */
 public final class JavascriptConversionUtils {
+    private static final Method IS_RECORD_METHOD;
+    private static final Method GET_RECORD_COMPONENTS_METHOD;
+    private static final Method RECORD_COMPONENT_GET_NAME_METHOD;
+    private static final Method RECORD_COMPONENT_GET_TYPE_METHOD;
+    private static final Method RECORD_COMPONENT_GET_GENERIC_TYPE_METHOD;
+
+    static {
+        Method isRecord = null;
+        Method getRecordComponents = null;
+        Method getName = null;
+        Method getType = null;
+        Method getGenericType = null;
+
+        try {
+            // Records are only available on Java 16 and above
+            Class<?> recordComponentClass = Class.forName("java.lang.reflect.RecordComponent");
+
+            isRecord = Class.class.getMethod("isRecord");
+            getRecordComponents = Class.class.getMethod("getRecordComponents");
+            getName = recordComponentClass.getMethod("getName");
+            getType = recordComponentClass.getMethod("getType");
+            getGenericType = recordComponentClass.getMethod("getGenericType");
+        } catch (ClassNotFoundException | NoSuchMethodException ignored) {
+            isRecord = null;
+            getRecordComponents = null;
+            getName = null;
+            getType = null;
+            getGenericType = null;
+        }
+
+        IS_RECORD_METHOD = isRecord;
+        GET_RECORD_COMPONENTS_METHOD = getRecordComponents;
+        RECORD_COMPONENT_GET_NAME_METHOD = getName;
+        RECORD_COMPONENT_GET_TYPE_METHOD = getType;
+        RECORD_COMPONENT_GET_GENERIC_TYPE_METHOD = getGenericType;
+    }
+
     private final Databind databind;
+    private final TypeConverterRegistry typeConverters;
+
+    private final ClassValue<ToJavascriptConverter> toJavascriptConverters;
+    private final ClassValue<TypeConverter<Object>> runtimeTypeConverters;
+    private final ClassValue<FromJavascriptConverter> fromJavascriptConverters;
+    private final Map<Type, FromJavascriptConverter> genericFromJavascriptConverters;
 
     /**
      * Constructs a new {@link JavascriptConversionUtils} instance using the given {@link Databind} instance for
@@ -44,6 +110,28 @@ public final class JavascriptConversionUtils {
      */
     public JavascriptConversionUtils(Databind databind) {
         this.databind = databind;
+        this.typeConverters = databind.getConfiguration().typeConverters();
+
+        this.toJavascriptConverters = new ClassValue<ToJavascriptConverter>() {
+            @Override
+            protected ToJavascriptConverter computeValue(Class<?> type) {
+                return resolveToJavascriptConverter(type);
+            }
+        };
+        this.runtimeTypeConverters = new ClassValue<TypeConverter<Object>>() {
+            @Override
+            protected TypeConverter<Object> computeValue(Class<?> type) {
+                return Util.forceCast(typeConverters.findAssignable(type));
+            }
+        };
+        this.fromJavascriptConverters = new ClassValue<FromJavascriptConverter>() {
+            @Override
+            protected FromJavascriptConverter computeValue(Class<?> type) {
+                return resolveFromJavascriptConverter(type);
+            }
+        };
+        // The converters capture their types, entries live as long as this instance
+        this.genericFromJavascriptConverters = new ConcurrentHashMap<>();
     }
 
     /**
@@ -74,32 +162,150 @@ public final class JavascriptConversionUtils {
             return context.makeUndefined();
         }
 
-        javaClass = toWrapperClass(javaClass);
+        return toJavascriptConverters.get(javaClass).convert(context, object);
+    }
+
+    /**
+     * Resolves the converter used for converting Java objects of a certain class to Javascript.
+     *
+     * @param javaClass The class to resolve the converter for
+     * @return The resolved converter
+     */
+    private ToJavascriptConverter resolveToJavascriptConverter(Class<?> javaClass) {
+        Class<?> wrapperClass = toWrapperClass(javaClass);
+
+        TypeConverter<Object> typeConverter = Util.forceCast(typeConverters.findAssignable(wrapperClass));
+        if (typeConverter != null) {
+            // Custom conversion registered by the user
+            return (context, object) -> typeConverter.toJavascript(context, object, this);
+        }
+
+        ToJavascriptConverter converter = resolveDefaultToJavascriptConverter(wrapperClass);
+        if (typeConverters.isEmpty() || Modifier.isFinal(wrapperClass.getModifiers())) {
+            return converter;
+        }
+
+        // The runtime class of an object might be a subtype with a registered converter
+        return (context, object) -> {
+            TypeConverter<Object> runtimeConverter = runtimeTypeConverters.get(object.getClass());
+            return runtimeConverter != null ?
+                    runtimeConverter.toJavascript(context, object, this) : converter.convert(context, object);
+        };
+    }
 
+    /**
+     * Resolves the built-in converter used for converting Java objects of a certain class to Javascript.
+     *
+     * @param wrapperClass The class to resolve the converter for, with primitives replaced by their wrappers
+     * @return The resolved converter
+     */
+    private ToJavascriptConverter resolveDefaultToJavascriptConverter(Class<?> wrapperClass) {
         // Decide based on the object's class
-        if (javaClass == Boolean.class) {
+        if (wrapperClass == Boolean.class) {
             // Boolean conversion
-            return context.makeBoolean((Boolean) object);
-        } else if (Number.class.isAssignableFrom(javaClass)) {
+            return (context, object) -> context.makeBoolean((Boolean) object);
+        } else if (Number.class.isAssignableFrom(wrapperClass)) {
             // All java integral types (except boolean and char) can be passed as doubles
-            return context.makeNumber(((Number) object).doubleValue());
-        } else if (javaClass == String.class) {
+            return (context, object) -> context.makeNumber(((Number) object).doubleValue());
+        } else if (wrapperClass == String.class) {
             // Strings are considered primitives in Javascript
-            return context.makeString((String) object);
-        } else if (javaClass.isArray()) {
+            return (context, object) -> context.makeString((String) object);
+        } else if (wrapperClass == double[].class) {
+            // Numeric arrays are transferred in one go
+            return (context, object) -> context.makeNumberArray((double[]) object);
+        } else if (wrapperClass == float[].class) {
+            return (context, object) -> {
+                float[] values = (float[]) object;
+                double[] numbers = new double[values.length];
+
+                for (int i = 0; i < values.length; i++) {
+                    numbers[i] = values[i];
+                }
+
+                return context.makeNumberArray(numbers);
+            };
+        } else if (wrapperClass == long[].class) {
+            return (context, object) -> {
+                long[] values = (long[]) object;
+                double[] numbers = new double[values.length];
+
+                for (int i = 0; i < values.length; i++) {
+                    numbers[i] = values[i];
+                }
+
+                return context.makeNumberArray(numbers);
+            };
+        } else if (wrapperClass == int[].class) {
+            return (context, object) -> {
+                int[] values = (int[]) object;
+                double[] numbers = new double[values.length];
+
+                for (int i = 0; i < values.length; i++) {
+                    numbers[i] = values[i];
+                }
+
+                return context.makeNumberArray(numbers);
+            };
+        } else if (wrapperClass == short[].class) {
+            return (context, object) -> {
+                short[] values = (short[]) object;
+                double[] numbers = new double[values.length];
+
+                for (int i = 0; i < values.length; i++) {
+                    numbers[i] = values[i];
+                }
+
+                return context.makeNumberArray(numbers);
+            };
+        } else if (wrapperClass == byte[].class) {
+            return (context, object) -> {
+                byte[] values = (byte[]) object;
+                double[] numbers = new double[values.length];
+
+                for (int i = 0; i < values.length; i++) {
+                    numbers[i] = values[i];
+                }
+
+                return context.makeNumberArray(numbers);
+            };
+        } else if (wrapperClass.isArray()) {
             // Arrays required a recursive conversion
-            // Reflective access to handle primitive arrays too
-            int length = Array.getLength(object);
-            JavascriptValue[] values = new JavascriptValue[length];
-
-            for (int i = 0; i < length; i++) {
-                // Recursive call
-                Object value = Array.get(object, i);
-                values[i] = toJavascript(context, value, value.getClass());
-            }
+            return this::arrayToJavascript;
+        }
+
+        return (context, object) -> objectToJavascript(context, object, wrapperClass);
+    }
+
+    /**
+     * Converts an arbitrary Java array to a Javascript array by converting every element.
+     *
+     * @param context The Javascript context to use for the conversion
+     * @param object  The Java array to convert
+     * @return The converted array
+     */
+    private JavascriptValue arrayToJavascript(JavascriptContext context, Object object) {
+        // Reflective access to handle primitive arrays too
+        int length = Array.getLength(object);
+        JavascriptValue[] values = new JavascriptValue[length];
+
+        for (int i = 0; i < length; i++) {
+            // Recursive call
+            values[i] = toJavascript(context, Array.get(object, i));
+        }
 
-            return context.makeArray(values);
-        } else if (object instanceof Date) {
+        return context.makeArray(values);
+    }
+
+    /**
+     * Converts a Java object which is not a Javascript primitive to a Javascript value.
+     *
+     * @param context   The Javascript context to use for the conversion
+     * @param object    The Java object to convert
+     * @param javaClass The target java class to convert to
+     * @return The converted object as a Javascript value
+     */
+    private JavascriptValue objectToJavascript(JavascriptContext context, Object object, Class<?> javaClass) {
+        if (object instanceof Date) {
             // Dates are considered primitives in Javascript,
             // convert based on the unix epoch
             return context.makeDate(
@@ -136,6 +342,366 @@ public final class JavascriptConversionUtils {
      * @return The converted value
      */
     public Object fromJavascript(JavascriptValue value, Class<?> type) {
+        if (type == null) {
+            return convertGeneric(value, null);
+        }
+
+        return fromJavascriptConverters.get(type).convert(value);
+    }
+
+    /**
+     * Converts a Javascript value to a Java object, taking generic type arguments into account.
+     * <p>
+     * This allows Javascript arrays to be converted to {@code List<T>} and Javascript objects to be converted to
+     * {@code Map<String, T>} with converted elements.
+     *
+     * @param value The Javascript value to convert
+     * @param type  The generic type to convert the value to
+     * @return The converted value
+     */
+    public Object fromJavascript(JavascriptValue value, Type type) {
+        if (type == null || type instanceof Class) {
+            return fromJavascript(value, (Class<?>) type);
+        }
+
+        return genericFromJavascriptConverters
+                .computeIfAbsent(type, this::resolveGenericFromJavascriptConverter)
+                .convert(value);
+    }
+
+    /**
+     * Resolves the converter used for converting Javascript values to a generic type.
+     *
+     * @param type The generic type to resolve the converter for
+     * @return The resolved converter
+     */
+    private FromJavascriptConverter resolveGenericFromJavascriptConverter(Type type) {
+        if (type instanceof ParameterizedType) {
+            Class<?> rawType = erase(type);
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+
+            if (isListType(rawType)) {
+                return listConverter(rawType, arguments[0]);
+            } else if (isMapType(rawType) && erase(arguments[0]) == String.class) {
+                return mapConverter(rawType, arguments[1]);
+            }
+        }
+
+        Class<?> rawType = erase(type);
+        return (value) -> fromJavascript(value, rawType);
+    }
+
+    /**
+     * Resolves the converter used for converting Javascript values to a certain class.
+     *
+     * @param type The class to resolve the converter for
+     * @return The resolved converter
+     */
+    private FromJavascriptConverter resolveFromJavascriptConverter(Class<?> type) {
+        if (type == JavascriptValue.class) {
+            return (value) -> value;
+        }
+
+        TypeConverter<?> typeConverter = typeConverters.find(type);
+        if (typeConverter != null) {
+            // Custom conversion registered by the user
+            return (value) -> {
+                JavascriptType javascriptType = value.getType();
+                if (javascriptType == JavascriptType.NULL || javascriptType == JavascriptType.UNDEFINED) {
+                    return null;
+                }
+
+                return typeConverter.fromJavascript(value, this);
+            };
+        }
+
+        Class<?> primitiveType = toPrimitiveClass(type);
+
+        if (primitiveType == boolean.class) {
+            return (value) -> value.getType() == JavascriptType.BOOLEAN ?
+                    (Object) value.toBoolean() : convertGeneric(value, type);
+        } else if (primitiveType == byte.class) {
+            return (value) -> value.getType() == JavascriptType.NUMBER ?
+                    (Object) (byte) value.toNumber() : convertGeneric(value, type);
+        } else if (primitiveType == short.class) {
+            return (value) -> value.getType() == JavascriptType.NUMBER ?
+                    (Object) (short) value.toNumber() : convertGeneric(value, type);
+        } else if (primitiveType == int.class) {
+            return (value) -> value.getType() == JavascriptType.NUMBER ?
+                    (Object) (int) value.toNumber() : convertGeneric(value, type);
+        } else if (primitiveType == long.class) {
+            return (value) -> value.getType() == JavascriptType.NUMBER ?
+                    (Object) (long) value.toNumber() : convertGeneric(value, type);
+        } else if (primitiveType == float.class) {
+            return (value) -> value.getType() == JavascriptType.NUMBER ?
+                    (Object) (float) value.toNumber() : convertGeneric(value, type);
+        } else if (primitiveType == double.class) {
+            return (value) -> value.getType() == JavascriptType.NUMBER ?
+                    (Object) value.toNumber() : convertGeneric(value, type);
+        } else if (primitiveType == char.class) {
+            return (value) -> value.getType() == JavascriptType.NUMBER ?
+                    (Object) (char) (short) value.toNumber() : convertGeneric(value, type);
+        } else if (type == String.class) {
+            return (value) -> value.getType() == JavascriptType.STRING ? value.toString() : convertGeneric(value, type);
+        } else if (type == double[].class) {
+            // Numeric arrays are transferred in one go
+            return (value) -> isArrayLike(value) ? value.toObject().toNumberArray() : convertGeneric(value, type);
+        } else if (type == float[].class) {
+            return (value) -> {
+                if (!isArrayLike(value)) {
+                    return convertGeneric(value, type);
+                }
+
+                double[] numbers = value.toObject().toNumberArray();
+                float[] values = new float[numbers.length];
+
+                for (int i = 0; i < numbers.length; i++) {
+                    values[i] = (float) numbers[i];
+                }
+
+                return values;
+            };
+        } else if (type == long[].class) {
+            return (value) -> {
+                if (!isArrayLike(value)) {
+                    return convertGeneric(value, type);
+                }
+
+                double[] numbers = value.toObject().toNumberArray();
+                long[] values = new long[numbers.length];
+
+                for (int i = 0; i < numbers.length; i++) {
+                    values[i] = (long) numbers[i];
+                }
+
+                return values;
+            };
+        } else if (type == int[].class) {
+            return (value) -> {
+                if (!isArrayLike(value)) {
+                    return convertGeneric(value, type);
+                }
+
+                double[] numbers = value.toObject().toNumberArray();
+                int[] values = new int[numbers.length];
+
+                for (int i = 0; i < numbers.length; i++) {
+                    values[i] = (int) numbers[i];
+                }
+
+                return values;
+            };
+        } else if (type == short[].class) {
+            return (value) -> {
+                if (!isArrayLike(value)) {
+                    return convertGeneric(value, type);
+                }
+
+                double[] numbers = value.toObject().toNumberArray();
+                short[] values = new short[numbers.length];
+
+                for (int i = 0; i < numbers.length; i++) {
+                    values[i] = (short) numbers[i];
+                }
+
+                return values;
+            };
+        } else if (type == byte[].class) {
+            return (value) -> {
+                if (!isArrayLike(value)) {
+                    return convertGeneric(value, type);
+                }
+
+                double[] numbers = value.toObject().toNumberArray();
+                byte[] values = new byte[numbers.length];
+
+                for (int i = 0; i < numbers.length; i++) {
+                    values[i] = (byte) numbers[i];
+                }
+
+                return values;
+            };
+        } else if (type.isEnum()) {
+            return enumConverter(type);
+        } else if (isListType(type)) {
+            return listConverter(type, Object.class);
+        } else if (isMapType(type)) {
+            return mapConverter(type, Object.class);
+        } else if (isRecord(type)) {
+            return recordConverter(type);
+        }
+
+        return (value) -> convertGeneric(value, type);
+    }
+
+    /**
+     * Creates a converter converting Javascript strings to enum constants by their name.
+     *
+     * @param type The enum type to convert to
+     * @return The created converter
+     */
+    private FromJavascriptConverter enumConverter(Class<?> type) {
+        Map<String, Object> constants = new HashMap<>();
+        for (Object constant : type.getEnumConstants()) {
+            constants.put(((Enum<?>) constant).name(), constant);
+        }
+
+        return (value) -> {
+            if (value.getType() != JavascriptType.STRING) {
+                // Possibly a Java constructed enum constant
+                return convertGeneric(value, type);
+            }
+
+            String name = value.toString();
+            Object constant = constants.get(name);
+
+            if (constant == null) {
+                throw new IllegalArgumentException("Can not convert Javascript string " + name + " to " + type.getName());
+            }
+
+            return constant;
+        };
+    }
+
+    /**
+     * Creates a converter converting Javascript arrays to lists.
+     *
+     * @param type        The list type to convert to
+     * @param elementType The type of the list elements
+     * @return The created converter
+     */
+    private FromJavascriptConverter listConverter(Class<?> type, Type elementType) {
+        Class<?> rawElementType = erase(elementType);
+        Class<?> primitiveElementType = rawElementType == Number.class ? double.class : toPrimitiveClass(rawElementType);
+        boolean numericElements = primitiveElementType.isPrimitive() &&
+                primitiveElementType != boolean.class &&
+                primitiveElementType != char.class;
+
+        return (value) -> {
+            if (!isArrayLike(value)) {
+                // Possibly a Java constructed list
+                return convertGeneric(value, type);
+            }
+
+            JavascriptObject object = value.toObject();
+
+            if (numericElements) {
+                double[] numbers;
+
+                try {
+                    // Transfer numbers in one go and only box them on the Java side
+                    numbers = object.toNumberArray();
+                } catch (IllegalArgumentException e) {
+                    // Boxed elements may be null, convert one by one to find out and report other values
+                    numbers = null;
+                }
+
+                if (numbers != null) {
+                    List<Object> list = new ArrayList<>(numbers.length);
+
+                    for (double number : numbers) {
+                        list.add(narrowNumber(number, primitiveElementType));
+                    }
+
+                    return list;
+                }
+            }
+
+            int size = (int) object.getProperty("length").toNumber();
+            List<Object> list = new ArrayList<>(size);
+
+            for (int i = 0; i < size; i++) {
+                // Recursively convert values
+                list.add(fromJavascript(object.getPropertyAtIndex(i), elementType));
+            }
+
+            return list;
+        };
+    }
+
+    /**
+     * Creates a converter converting plain Javascript objects to maps with string keys.
+     *
+     * @param type      The map type to convert to
+     * @param valueType The type of the map values
+     * @return The created converter
+     */
+    private FromJavascriptConverter mapConverter(Class<?> type, Type valueType) {
+        return (value) -> {
+            if (!isPlainObject(value)) {
+                // Possibly a Java constructed map
+                return convertGeneric(value, type);
+            }
+
+            JavascriptObject object = value.toObject();
+            String[] names = object.copyPropertyNames();
+            Map<String, Object> map = new LinkedHashMap<>();
+
+            for (String name : names) {
+                // Recursively convert values
+                map.put(name, fromJavascript(object.getProperty(name), valueType));
+            }
+
+            return map;
+        };
+    }
+
+    /**
+     * Creates a converter converting plain Javascript objects to records using the canonical constructor.
+     *
+     * @param type The record type to convert to
+     * @return The created converter
+     */
+    private FromJavascriptConverter recordConverter(Class<?> type) {
+        Object[] components = (Object[]) invokeReflectively(GET_RECORD_COMPONENTS_METHOD, type);
+        String[] names = new String[components.length];
+        Class<?>[] types = new Class<?>[components.length];
+        Type[] genericTypes = new Type[components.length];
+
+        for (int i = 0; i < components.length; i++) {
+            names[i] = (String) invokeReflectively(RECORD_COMPONENT_GET_NAME_METHOD, components[i]);
+            types[i] = (Class<?>) invokeReflectively(RECORD_COMPONENT_GET_TYPE_METHOD, components[i]);
+            genericTypes[i] = (Type) invokeReflectively(RECORD_COMPONENT_GET_GENERIC_TYPE_METHOD, components[i]);
+        }
+
+        Constructor<?> constructor;
+        try {
+            constructor = type.getDeclaredConstructor(types);
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException | RuntimeException exception) {
+            // Not accessible, fall back to the generic conversion
+            return (value) -> convertGeneric(value, type);
+        }
+
+        return (value) -> {
+            if (!isPlainObject(value)) {
+                // Possibly a Java constructed record
+                return convertGeneric(value, type);
+            }
+
+            JavascriptObject object = value.toObject();
+            Object[] arguments = new Object[names.length];
+
+            for (int i = 0; i < names.length; i++) {
+                arguments[i] = fromJavascript(object.getProperty(names[i]), genericTypes[i]);
+            }
+
+            try {
+                return constructor.newInstance(arguments);
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException exception) {
+                throw new IllegalArgumentException("Can not construct " + type.getName() + " from Javascript object", exception);
+            }
+        };
+    }
+
+    /**
+     * Converts a Javascript value to a Java object by testing all supported conversions.
+     *
+     * @param value The Javascript value to convert
+     * @param type  The type to convert the value to
+     * @return The converted value
+     */
+    private Object convertGeneric(JavascriptValue value, Class<?> type) {
         JavascriptType javascriptType = value.getType();
 
         if (type == JavascriptValue.class) {
@@ -175,7 +741,7 @@ public final class JavascriptConversionUtils {
         } else if (javascriptType == JavascriptType.NUMBER) {
             // Number conversion
             Number number = value.toNumber();
-            if (type == Object.class) {
+            if (type == Object.class || type == Number.class) {
                 return number;
             }
 
@@ -291,6 +857,157 @@ public final class JavascriptConversionUtils {
         throw new IllegalArgumentException("Can not convert Javascript value to " + type.getName());
     }
 
+    /**
+     * Determines whether a Javascript value is an array or a typed array.
+     *
+     * @param value The value to test
+     * @return {@code true} if the value is an array or a typed array, {@code false} otherwise
+     */
+    private static boolean isArrayLike(JavascriptValue value) {
+        if (value.isArray()) {
+            return true;
+        }
+
+        JavascriptTypedArrayType typedArrayType = value.getTypedArrayType();
+        return typedArrayType != JavascriptTypedArrayType.NONE && typedArrayType != JavascriptTypedArrayType.BUFFER;
+    }
+
+    /**
+     * Determines whether a Javascript value is a plain object which has not been constructed by Java.
+     *
+     * @param value The value to test
+     * @return {@code true} if the value is a plain object, {@code false} otherwise
+     */
+    private static boolean isPlainObject(JavascriptValue value) {
+        if (value.getType() != JavascriptType.OBJECT || value.isArray() || value.isDate()) {
+            return false;
+        }
+
+        JavascriptObject object = value.toObject();
+        return object.getPrivate() == null && !object.isFunction();
+    }
+
+    /**
+     * Determines whether a class is a list like type a Javascript array can be converted to.
+     *
+     * @param type The class to test
+     * @return {@code true} if the class is a list like type, {@code false} otherwise
+     */
+    private static boolean isListType(Class<?> type) {
+        return type == List.class || type == Collection.class || type == Iterable.class || type == ArrayList.class;
+    }
+
+    /**
+     * Determines whether a class is a map type a Javascript object can be converted to.
+     *
+     * @param type The class to test
+     * @return {@code true} if the class is a map type, {@code false} otherwise
+     */
+    private static boolean isMapType(Class<?> type) {
+        return type == Map.class || type == HashMap.class || type == LinkedHashMap.class;
+    }
+
+    /**
+     * Determines whether a class is a record. Always {@code false} on Java versions without records.
+     *
+     * @param type The class to test
+     * @return {@code true} if the class is a record, {@code false} otherwise
+     */
+    private static boolean isRecord(Class<?> type) {
+        return IS_RECORD_METHOD != null && (Boolean) invokeReflectively(IS_RECORD_METHOD, type);
+    }
+
+    /**
+     * Determines whether a Java type can be created from a value of the given type by one of the structural
+     * conversions (arrays to primitive arrays and lists, strings to enums and objects to maps and records).
+     *
+     * @param target The Java type to convert to
+     * @param source The type inferred from the Javascript value using {@link #determineType(JavascriptValue)}
+     * @return {@code true} if a structural conversion is possible, {@code false} otherwise
+     */
+    public static boolean isStructuralConversion(Class<?> target, Class<?> source) {
+        if (source.isArray()) {
+            if (isListType(target)) {
+                return true;
+            }
+
+            Class<?> targetComponent = target.getComponentType();
+            return targetComponent != null &&
+                    targetComponent.isPrimitive() &&
+                    targetComponent != boolean.class &&
+                    targetComponent != char.class &&
+                    (source.getComponentType() == Number.class || source.getComponentType() == Object.class);
+        } else if (source == String.class) {
+            return target.isEnum();
+        } else if (source == JavascriptObject.class) {
+            return isMapType(target) || isRecord(target);
+        }
+
+        return false;
+    }
+
+    /**
+     * Narrows a Javascript number to a boxed Java number.
+     *
+     * @param number The number to narrow
+     * @param type   The primitive type to narrow to
+     * @return The narrowed number
+     */
+    private static Object narrowNumber(double number, Class<?> type) {
+        if (type == byte.class) {
+            return (byte) number;
+        } else if (type == short.class) {
+            return (short) number;
+        } else if (type == int.class) {
+            return (int) number;
+        } else if (type == long.class) {
+            return (long) number;
+        } else if (type == float.class) {
+            return (float) number;
+        }
+
+        return number;
+    }
+
+    /**
+     * Erases a generic type to its raw class.
+     *
+     * @param type The type to erase
+     * @return The raw class of the type
+     */
+    private static Class<?> erase(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            return erase(((ParameterizedType) type).getRawType());
+        } else if (type instanceof GenericArrayType) {
+            return Array.newInstance(erase(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        } else if (type instanceof TypeVariable) {
+            Type[] bounds = ((TypeVariable<?>) type).getBounds();
+            return bounds.length == 0 ? Object.class : erase(bounds[0]);
+        } else if (type instanceof WildcardType) {
+            Type[] bounds = ((WildcardType) type).getUpperBounds();
+            return bounds.length == 0 ? Object.class : erase(bounds[0]);
+        }
+
+        return Object.class;
+    }
+
+    /**
+     * Invokes a reflective method which is not available at compile time.
+     *
+     * @param method   The method to invoke
+     * @param instance The instance to invoke the method on
+     * @return The result of the invocation
+     */
+    private static Object invokeReflectively(Method method, Object instance) {
+        try {
+            return method.invoke(instance);
+        } catch (IllegalAccessException | InvocationTargetException exception) {
+            throw new IllegalStateException("Failed to invoke " + method.getName(), exception);
+        }
+    }
+
     /**
      * Tries to infer the type from a Javascript value.
      *
@@ -444,4 +1161,33 @@ public final class JavascriptConversionUtils {
 
         throw new AssertionError("UNREACHABLE: Primitive class passed, but no wrapper class known");
     }
-}
\ No newline at end of file
+
+    /**
+     * Converter from Java objects to Javascript values, resolved once per Java class.
+     */
+    @FunctionalInterface
+    private interface ToJavascriptConverter {
+        /**
+         * Converts a Java object to a Javascript value.
+         *
+         * @param context The Javascript context to use for the conversion
+         * @param object  The Java object to convert, never {@code null}
+         * @return The converted value
+         */
+        JavascriptValue convert(JavascriptContext context, Object object);
+    }
+
+    /**
+     * Converter from Javascript values to Java objects, resolved once per Java type.
+     */
+    @FunctionalInterface
+    private interface FromJavascriptConverter {
+        /**
+         * Converts a Javascript value to a Java object.
+         *
+         * @param value The Javascript value to convert
+         * @return The converted object
+         */
+        Object convert(JavascriptValue value);
+    }
+}
@@ -74,6 +74,22 @@ Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_hasCommandsPendi
 JNIEXPORT void JNICALL
 Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_drawCommandList(JNIEnv *, jobject, jlong handle);
 
+/*
+ * Class:     com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil
+ * Method:    hasWindowCommandsPending
+ * Signature: (JJ)Z
+ */
+JNIEXPORT jboolean JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_hasWindowCommandsPending(
+    JNIEnv *, jobject, jlong handle, jlong window);
+
+/*
+ * Class:     com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil
+ * Method:    drawWindowCommandList
+ * Signature: (JJ)V
+ */
+JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_drawWindowCommandList(
+    JNIEnv *, jobject, jlong handle, jlong window);
+
 JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_setActiveWindow(
     JNIEnv *, jobject, jlong handle, jlong window);
 JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_bindTexture(
@@ -87,6 +103,102 @@ JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNati
 JNIEXPORT jint JNICALL
 Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_getGlTextureId(JNIEnv *, jobject, jlong handle, jlong texture);
 
+/*
+ * Class:     com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil
+ * Method:    getIssuedStateCallCount
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL
+Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_getIssuedStateCallCount(JNIEnv *, jobject, jlong handle);
+
+/*
+ * Class:     com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil
+ * Method:    getSavedStateCallCount
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL
+Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_getSavedStateCallCount(JNIEnv *, jobject, jlong handle);
+
+/*
+ * Class:     com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil
+ * Method:    setReadbackLatency
+ * Signature: (JI)V
+ */
+JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_setReadbackLatency(
+    JNIEnv *, jobject, jlong handle, jint frames);
+
+/*
+ * Class:     com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil
+ * Method:    getReadbackStatistics
+ * Signature: (J[J)V
+ */
+JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_getReadbackStatistics(
+    JNIEnv *, jobject, jlong handle, jlongArray out);
+
+/*
+ * Class:     com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil
+ * Method:    setDrawBatchingEnabled
+ * Signature: (JZ)V
+ */
+JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_setDrawBatchingEnabled(
+    JNIEnv *, jobject, jlong handle, jboolean enabled);
+
+/*
+ * Class:     com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil
+ * Method:    getDrawCommandCount
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL
+Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_getDrawCommandCount(JNIEnv *, jobject, jlong handle);
+
+/*
+ * Class:     com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil
+ * Method:    getDrawCallCount
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL
+Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_getDrawCallCount(JNIEnv *, jobject, jlong handle);
+
+/*
+ * Class:     com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil
+ * Method:    setTextureDiffingEnabled
+ * Signature: (JZ)V
+ */
+JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_setTextureDiffingEnabled(
+    JNIEnv *, jobject, jlong handle, jboolean enabled);
+
+/*
+ * Class:     com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil
+ * Method:    getTextureUploadStatistics
+ * Signature: (J[J)V
+ */
+JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_getTextureUploadStatistics(
+    JNIEnv *, jobject, jlong handle, jlongArray out);
+
+/*
+ * Class:     com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil
+ * Method:    setProgramCacheDirectory
+ * Signature: (JLjava/lang/String;)V
+ */
+JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_setProgramCacheDirectory(
+    JNIEnv *, jobject, jlong handle, jstring directory);
+
+/*
+ * Class:     com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil
+ * Method:    preloadPrograms
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL
+Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_preloadPrograms(JNIEnv *, jobject, jlong handle);
+
+/*
+ * Class:     com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil
+ * Method:    getProgramCacheStatistics
+ * Signature: (J[J)V
+ */
+JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_getProgramCacheStatistics(
+    JNIEnv *, jobject, jlong handle, jlongArray out);
+
 #    ifdef __cplusplus
 }
 #    endif
@@ -20,6 +20,7 @@
 #pragma once
 #include <AppCore/Defines.h>
 #include <Ultralight/platform/GPUDriver.h>
+#include <ultralight_java/gpudriver/common/ResourceTable.h>
 #include <ultralight_java/gpudriver/gl/glad.h>
 #include <vector>
 
@@ -66,9 +67,15 @@ namespace ultralight {
         virtual void UpdateCommandList(const CommandList &list) override;
 
     protected:
-        uint32_t next_texture_id_ = 1;
-        uint32_t next_render_buffer_id_ = 1; // render buffer id 0 is reserved for default render target view.
-        uint32_t next_geometry_id_ = 1;
+        // Ids of destroyed resources are handed out again, see IdAllocator
+        void ReleaseTextureId(uint32_t texture_id);
+        void ReleaseRenderBufferId(uint32_t render_buffer_id);
+        void ReleaseGeometryId(uint32_t geometry_id);
+        void RecycleIds();
+
+        IdAllocator texture_ids_{1};
+        IdAllocator render_buffer_ids_{1}; // render buffer id 0 is reserved for default render target view.
+        IdAllocator geometry_ids_{1};
         std::vector<Command> command_list_;
         int batch_count_;
     };
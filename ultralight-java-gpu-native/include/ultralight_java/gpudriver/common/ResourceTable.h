@@ -0,0 +1,156 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+#pragma once
+#include <cstdint>
+#include <utility>
+#include <vector>
+
+namespace ultralight {
+
+    // Hands out resource ids and takes them back once the resource has been destroyed, so the id
+    // space stays compact and can be used to index a DenseTable directly.
+    //
+    // Released ids are not handed out again right away: commands which have already been recorded
+    // may still reference them, so they only become available after the next call to Recycle().
+    class IdAllocator {
+    public:
+        explicit IdAllocator(uint32_t first_id) : next_id_(first_id) {
+        }
+
+        uint32_t Allocate() {
+            if(free_ids_.empty())
+                return next_id_++;
+
+            uint32_t id = free_ids_.back();
+            free_ids_.pop_back();
+            return id;
+        }
+
+        void Release(uint32_t id) {
+            if(id < next_id_)
+                released_ids_.push_back(id);
+        }
+
+        // Makes all ids released so far available to Allocate() again.
+        void Recycle() {
+            free_ids_.insert(free_ids_.end(), released_ids_.begin(), released_ids_.end());
+            released_ids_.clear();
+        }
+
+    private:
+        uint32_t next_id_;
+        std::vector<uint32_t> free_ids_;
+        std::vector<uint32_t> released_ids_;
+    };
+
+    // Resource table indexed directly by id. Looking up an id which has no entry yet creates a
+    // default constructed one, just like std::map::operator[] does.
+    //
+    // References returned by operator[] are invalidated when the table grows.
+    template <typename T>
+    class DenseTable {
+    public:
+        T &operator[](uint32_t id) {
+            if(id >= entries_.size()) {
+                entries_.resize(id + 1);
+                occupied_.resize(id + 1, false);
+            }
+
+            occupied_[id] = true;
+            return entries_[id];
+        }
+
+        // Returns the entry for the given id, or nullptr if there is none.
+        T *Find(uint32_t id) {
+            if(id >= entries_.size() || !occupied_[id])
+                return nullptr;
+
+            return &entries_[id];
+        }
+
+        void Erase(uint32_t id) {
+            if(id >= entries_.size())
+                return;
+
+            entries_[id] = T();
+            occupied_[id] = false;
+        }
+
+        // Invokes f(id, entry) for every entry in the table, in order of ascending id.
+        template <typename F>
+        void ForEach(F f) {
+            for(uint32_t id = 0; id < entries_.size(); id++) {
+                if(occupied_[id])
+                    f(id, entries_[id]);
+            }
+        }
+
+    private:
+        std::vector<T> entries_;
+        std::vector<bool> occupied_;
+    };
+
+    // Map from GL context (window) to a per-context object. There are only ever a few contexts,
+    // so a linear search over a flat array beats a tree lookup.
+    template <typename T>
+    class ContextMap {
+    public:
+        using Entry = std::pair<void *, T>;
+        using iterator = typename std::vector<Entry>::iterator;
+
+        iterator begin() {
+            return entries_.begin();
+        }
+
+        iterator end() {
+            return entries_.end();
+        }
+
+        iterator find(void *context) {
+            for(auto i = entries_.begin(); i != entries_.end(); ++i) {
+                if(i->first == context)
+                    return i;
+            }
+
+            return entries_.end();
+        }
+
+        T &operator[](void *context) {
+            auto i = find(context);
+            if(i != entries_.end())
+                return i->second;
+
+            entries_.emplace_back(context, T());
+            return entries_.back().second;
+        }
+
+        size_t size() const {
+            return entries_.size();
+        }
+
+        void clear() {
+            entries_.clear();
+        }
+
+    private:
+        std::vector<Entry> entries_;
+    };
+
+} // namespace ultralight
@@ -0,0 +1,77 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+#pragma once
+#include "glad.h"
+
+#ifndef GL_MAP_PERSISTENT_BIT
+#    define GL_MAP_PERSISTENT_BIT 0x0040
+#endif
+#ifndef GL_MAP_COHERENT_BIT
+#    define GL_MAP_COHERENT_BIT 0x0080
+#endif
+#ifndef GL_PROGRAM_BINARY_RETRIEVABLE_HINT
+#    define GL_PROGRAM_BINARY_RETRIEVABLE_HINT 0x8257
+#endif
+#ifndef GL_PROGRAM_BINARY_LENGTH
+#    define GL_PROGRAM_BINARY_LENGTH 0x8741
+#endif
+#ifndef GL_NUM_PROGRAM_BINARY_FORMATS
+#    define GL_NUM_PROGRAM_BINARY_FORMATS 0x87FE
+#endif
+
+// ARB_buffer_storage, core since GL 4.4
+typedef void(APIENTRYP PFNGLBUFFERSTORAGEPROC)(GLenum target, GLsizeiptr size, const void *data, GLbitfield flags);
+
+// ARB_texture_storage, core since GL 4.2
+typedef void(APIENTRYP PFNGLTEXSTORAGE2DPROC)(
+    GLenum target, GLsizei levels, GLenum internalformat, GLsizei width, GLsizei height);
+
+// ARB_get_program_binary, core since GL 4.1
+typedef void(APIENTRYP PFNGLGETPROGRAMBINARYPROC)(
+    GLuint program, GLsizei bufSize, GLsizei *length, GLenum *binaryFormat, void *binary);
+typedef void(APIENTRYP PFNGLPROGRAMBINARYPROC)(
+    GLuint program, GLenum binaryFormat, const void *binary, GLsizei length);
+typedef void(APIENTRYP PFNGLPROGRAMPARAMETERIPROC)(GLuint program, GLenum pname, GLint value);
+
+namespace ultralight {
+
+    // Entry points beyond the GL 3.2 profile glad has been generated for. They are loaded
+    // manually when the context supports them and must only be used if the matching flag is set.
+    struct GLExtensions {
+        bool has_buffer_storage = false;
+        PFNGLBUFFERSTORAGEPROC BufferStorage = nullptr;
+
+        bool has_texture_storage = false;
+        PFNGLTEXSTORAGE2DPROC TexStorage2D = nullptr;
+
+        // Only set if the driver offers at least one binary format, some implementations expose the
+        // entry points without supporting any
+        bool has_program_binary = false;
+        PFNGLGETPROGRAMBINARYPROC GetProgramBinary = nullptr;
+        PFNGLPROGRAMBINARYPROC ProgramBinary = nullptr;
+        PFNGLPROGRAMPARAMETERIPROC ProgramParameteri = nullptr;
+    };
+
+    // Loads the optional entry points, requires glad to be loaded and a context to be current.
+    void LoadGLExtensions(GLADloadproc load);
+
+    const GLExtensions &gl_extensions();
+
+} // namespace ultralight
@@ -0,0 +1,136 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+#pragma once
+#include <Ultralight/platform/GPUDriver.h>
+#include <cstdint>
+#include <cstring>
+
+#include "glad.h"
+
+namespace ultralight {
+
+    // Shadow copy of a uniform value, used to skip uploads of values the program already holds.
+    template <typename T, size_t N>
+    struct UniformShadow {
+        bool valid = false;
+        T values[N];
+
+        // Stores the given values and returns whether they differ from the previously stored ones.
+        bool Update(const T *new_values) {
+            if(valid && memcmp(values, new_values, sizeof(values)) == 0)
+                return false;
+
+            memcpy(values, new_values, sizeof(values));
+            valid = true;
+            return true;
+        }
+    };
+
+    // Tracks the GL state the driver has set during the current command list and filters out
+    // calls which would not change anything. The cache has to be invalidated whenever GL state
+    // is modified behind its back, most notably at the start of every frame, since the
+    // application is free to touch the context between frames.
+    class GLStateCache {
+    public:
+        static constexpr uint8_t kMaxTextureUnits = 3;
+
+        GLStateCache();
+
+        // Forgets all tracked state.
+        void Invalidate();
+
+        void InvalidateProgram();
+        void InvalidateTextures();
+        void InvalidateFramebuffer();
+        void InvalidateVertexArray();
+
+        void UseProgram(GLuint program_id);
+
+        // Binds a texture to the given unit. Returns true if the texture was not already bound.
+        bool BindTexture(uint8_t texture_unit, GLuint texture_id);
+
+        // Sets a parameter of the texture bound to the active unit. Not cached, only counted.
+        void TexParameter(GLenum name, GLint value);
+
+        void BindFramebuffer(GLuint framebuffer_id);
+        void BindVertexArray(GLuint vertex_array_id);
+
+        void SetViewport(GLsizei width, GLsizei height);
+        void SetBlendEnabled(bool enabled);
+        void SetScissorEnabled(bool enabled);
+        void SetScissorRect(const IntRect &rect);
+
+        // Records that a call has been issued or skipped outside of the tracked state, for
+        // example a uniform upload that has been filtered using a UniformShadow.
+        void CountIssued(uint32_t calls = 1) {
+            issued_calls_ += calls;
+        }
+
+        void CountSaved(uint32_t calls = 1) {
+            saved_calls_ += calls;
+        }
+
+        // Resets the per-frame counters, keeping the values of the frame that just ended.
+        void EndFrame();
+
+        uint32_t last_frame_issued_calls() const {
+            return last_frame_issued_calls_;
+        }
+
+        uint32_t last_frame_saved_calls() const {
+            return last_frame_saved_calls_;
+        }
+
+    private:
+        void ActiveTexture(uint8_t texture_unit);
+
+        bool program_valid_;
+        GLuint program_id_;
+
+        bool textures_valid_;
+        uint8_t active_texture_unit_;
+        GLuint texture_ids_[kMaxTextureUnits];
+
+        bool framebuffer_valid_;
+        GLuint framebuffer_id_;
+
+        bool vertex_array_valid_;
+        GLuint vertex_array_id_;
+
+        bool viewport_valid_;
+        GLsizei viewport_width_;
+        GLsizei viewport_height_;
+
+        bool blend_valid_;
+        bool blend_enabled_;
+
+        bool scissor_enabled_valid_;
+        bool scissor_enabled_;
+
+        bool scissor_rect_valid_;
+        IntRect scissor_rect_;
+
+        uint32_t issued_calls_ = 0;
+        uint32_t saved_calls_ = 0;
+        uint32_t last_frame_issued_calls_ = 0;
+        uint32_t last_frame_saved_calls_ = 0;
+    };
+
+} // namespace ultralight
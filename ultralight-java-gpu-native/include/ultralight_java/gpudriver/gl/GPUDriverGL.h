@@ -20,10 +20,14 @@
 #pragma once
 #include <Ultralight/platform/GPUDriver.h>
 #include <chrono>
+#include <deque>
 #include <map>
+#include <mutex>
+#include <string>
 #include <vector>
 
 #include "../common/GPUDriverImpl.h"
+#include "GLStateCache.h"
 #include "GPUContextGL.h"
 #include "glad.h"
 
@@ -40,12 +44,39 @@ namespace ultralight {
 
     typedef ShaderType ProgramType;
 
+    // Counters describing the asynchronous readback of offscreen render buffers
+    struct ReadbackStatistics {
+        uint64_t issued = 0;            // Readbacks started with glReadPixels
+        uint64_t completed = 0;         // Readbacks copied into their bitmap
+        uint64_t superseded = 0;        // Finished readbacks skipped because a newer one finished as well
+        uint64_t stalls = 0;            // Times the CPU had to wait for the GPU to finish a readback
+        uint64_t stall_nanoseconds = 0; // Total time spent waiting for readbacks
+    };
+
+    // Counters describing the bitmap texture uploads of a frame
+    struct TextureUploadStatistics {
+        uint64_t updates = 0;           // UpdateTexture calls
+        uint64_t unchanged_updates = 0; // Updates which did not change any pixel
+        uint64_t rectangles = 0;        // Regions uploaded with glTexSubImage2D
+        uint64_t uploaded_bytes = 0;    // Pixel data uploaded, including newly created textures
+        uint64_t full_bytes = 0;        // Pixel data uploading the bitmaps completely would have transferred
+    };
+
+    // Counters describing how the shader programs have been obtained
+    struct ProgramCacheStatistics {
+        uint64_t hits = 0;                // Programs loaded from a cached binary
+        uint64_t misses = 0;              // Programs compiled from source
+        uint64_t rejected = 0;            // Cached binaries the driver refused to load, counted as misses as well
+        uint64_t stored_bytes = 0;        // Program binary data written to the cache
+        uint64_t load_nanoseconds = 0;    // Time spent loading cached binaries
+        uint64_t compile_nanoseconds = 0; // Time spent compiling and linking programs from source
+    };
+
     class GPUDriverGL : public GPUDriverImpl {
     public:
         GPUDriverGL(GPUContextGL *context);
 
-        virtual ~GPUDriverGL() {
-        }
+        virtual ~GPUDriverGL();
 
         virtual GPUContextGL *GetContext() {
             return context_;
@@ -69,6 +100,18 @@ namespace ultralight {
         virtual void SetRenderBufferBitmapDirty(uint32_t render_buffer_id, bool dirty);
 #endif
 
+        // Sets how many frames a render buffer readback may lag behind, 0 reads back synchronously. Higher
+        // values avoid stalling on the GPU at the cost of the bitmap showing older frames.
+        void SetReadbackLatency(uint32_t frames);
+
+        uint32_t readback_latency() const {
+            return readback_latency_;
+        }
+
+        const ReadbackStatistics &readback_statistics() const {
+            return readback_statistics_;
+        }
+
         virtual void CreateTexture(uint32_t texture_id, Ref<Bitmap> bitmap) override;
 
         virtual void UpdateTexture(uint32_t texture_id, Ref<Bitmap> bitmap) override;
@@ -96,8 +139,23 @@ namespace ultralight {
 
         virtual void DestroyGeometry(uint32_t geometry_id) override;
 
+        // Ultralight records one command list per frame, it is queued for the window which has been active while
+        // recording it. Queues can be drawn from any thread which has the context of their window current, draws
+        // of different windows are serialized with each other and with synchronization as they share resources.
+        virtual void BeginSynchronize() override;
+
+        virtual void EndSynchronize() override;
+
+        virtual void UpdateCommandList(const CommandList &list) override;
+
+        virtual bool HasCommandsPending() override;
+
         virtual void DrawCommandList() override;
 
+        bool HasCommandsPending(void *window);
+
+        void DrawCommandList(void *window);
+
         void BindUltralightTexture(uint32_t ultralight_texture_id);
         uint32_t GetGlTextureId(uint32_t ultralight_texture_id);
 
@@ -107,38 +165,196 @@ namespace ultralight {
         void LoadProgram(ProgramType type);
         void SelectProgram(ProgramType type);
         void UpdateUniforms(const GPUState &state);
-        void SetUniform1ui(const char *name, GLuint val);
-        void SetUniform1f(const char *name, float val);
-        void SetUniform1fv(const char *name, size_t count, const float *val);
-        void SetUniform4f(const char *name, const float val[4]);
-        void SetUniform4fv(const char *name, size_t count, const float *val);
-        void SetUniformMatrix4fv(const char *name, size_t count, const float *val);
+        void SetUniform1ui(GLint location, GLuint val);
+        void SetUniform1f(GLint location, float val);
+        void SetUniform1fv(GLint location, size_t count, const float *val);
+        void SetUniform4f(GLint location, const float val[4]);
+        void SetUniform4fv(GLint location, size_t count, const float *val);
+        void SetUniformMatrix4fv(GLint location, size_t count, const float *val);
         void SetViewport(uint32_t width, uint32_t height);
 
+        // GL state calls issued and skipped by the redundant state elimination during the last
+        // DrawCommandList call
+        const GLStateCache &state_cache() const {
+            return state_cache_;
+        }
+
+        // Enables or disables merging consecutive draws with identical state into a single draw call
+        void SetDrawBatchingEnabled(bool enabled) {
+            draw_batching_enabled_ = enabled;
+        }
+
+        bool draw_batching_enabled() const {
+            return draw_batching_enabled_;
+        }
+
+        // Enables or disables uploading only the changed regions of updated textures. Finding them requires a copy
+        // of the last uploaded pixels to be kept for every bitmap texture, so this is disabled by default.
+        void SetTextureDiffingEnabled(bool enabled) {
+            texture_diffing_enabled_ = enabled;
+        }
+
+        bool texture_diffing_enabled() const {
+            return texture_diffing_enabled_;
+        }
+
+        // Texture uploads performed in preparation of the last command list
+        const TextureUploadStatistics &texture_upload_statistics() const {
+            return last_frame_texture_uploads_;
+        }
+
+        // Sets the directory linked program binaries are cached in, an empty path disables the cache. Binaries are
+        // keyed by the GL vendor, renderer and version strings and the shader sources, so a driver update or a
+        // different GPU falls back to compiling from source. Only affects programs loaded after the call.
+        void SetProgramCacheDirectory(const std::string &directory) {
+            program_cache_directory_ = directory;
+        }
+
+        const std::string &program_cache_directory() const {
+            return program_cache_directory_;
+        }
+
+        // Loads all shader programs now instead of on the first draw, requires the context to be current
+        void PreloadPrograms();
+
+        const ProgramCacheStatistics &program_cache_statistics() const {
+            return program_cache_statistics_;
+        }
+
+        // DrawGeometry commands contained in the last command list
+        int draw_command_count() const {
+            return draw_command_count_;
+        }
+
     protected:
         Matrix ApplyProjection(const Matrix4x4 &transform, float screen_width, float screen_height, bool flip_y);
 
         void CreateFBOTexture(uint32_t texture_id, Ref<Bitmap> bitmap);
 
+        // Binds a texture while drawing a command list, skipping the bind if it is still in place
+        void BindTextureForDraw(uint8_t texture_unit, uint32_t texture_id);
+
+        // Consecutive DrawGeometry commands sharing geometry and state, drawn with a single call
+        struct DrawBatch {
+            size_t command_index; // The first command of the batch, its state applies to all of them
+            size_t first_range;   // Index of the first range in batch_index_counts_ and batch_index_offsets_
+            size_t range_count;   // Amount of index ranges, 0 for commands other than DrawGeometry
+        };
+
+        // Window VAOs and FBOs are looked up for, the one being drawn while a command list is drawn
+        void *CurrentWindow();
+
+        bool HasQueuedCommands();
+
+        // Amount of windows command lists have been queued for so far
+        size_t QueuedWindowCount();
+
+        // Guards command_queues_ only, so queueing and polling command lists don't wait for a draw. Always locked
+        // after mutex_ if both are required.
+        std::mutex queue_mutex_;
+        ContextMap<std::vector<Command>> command_queues_;
+
+        // Guards the shared resource tables and the draw state, draws of all windows use the same GL objects and
+        // tracked state and are therefore serialized
+        std::recursive_mutex mutex_;
+        void *drawing_window_ = nullptr;
+
+        // Contexts other than the one a change has been made on only see it after waiting for these
+        GLsync sync_fence_ = nullptr; // Resource updates of the last synchronization
+        void *sync_window_ = nullptr;
+        GLsync draw_fence_ = nullptr; // Render buffers drawn by the last command list
+
+        struct GeometryEntry;
+
+        void BuildDrawBatches();
+        void DrawGeometryBatch(const DrawBatch &batch);
+        const GeometryEntry &PrepareDraw(uint32_t geometry_id, const GPUState &state);
+        void FinishDraw(const GPUState &state);
+
+        std::vector<DrawBatch> draw_batches_;
+        std::vector<GLsizei> batch_index_counts_;
+        std::vector<const GLvoid *> batch_index_offsets_;
+        std::vector<GLint> batch_base_vertices_;
+        bool draw_batching_enabled_ = true;
+        int draw_command_count_ = 0;
+
         struct TextureEntry {
             GLuint tex_id = 0;             // GL Texture ID
             GLuint msaa_tex_id = 0;        // GL Texture ID (only used if MSAA is enabled)
             uint32_t render_buffer_id = 0; // Used to check if we need to perform MSAA resolve
             GLuint width, height;          // Used when resolving MSAA FBO, only valid if FBO
             bool is_sRGB = false;          // Whether or not the primary texture is sRGB or not.
+            // Whether filtering and wrapping have been configured on the texture object
+            bool has_sampler_state = false;
+
+            // Only set for textures created from a bitmap
+            GLenum internal_format = 0;
+            GLenum pixel_format = 0;
+            uint32_t bpp = 0;
+            bool is_immutable = false;  // Allocated with glTexStorage2D, has to be recreated to change its size
+            std::vector<uint8_t> shadow; // Tightly packed copy of the uploaded pixels, used to find changed regions
         };
 
         // Maps Ultralight Texture IDs to OpenGL texture handles
-        std::map<uint32_t, TextureEntry> texture_map;
+        DenseTable<TextureEntry> texture_map;
+
+        // Amount of pixel unpack buffers texture uploads are staged in, used round robin
+        static constexpr size_t kTextureUploadBuffers = 3;
+
+        // The methods below expect the texture to be bound to GL_TEXTURE_2D of texture unit 0
+        void UploadBitmap(TextureEntry &entry, Ref<Bitmap> bitmap);
+        void AllocateTexture(TextureEntry &entry, uint32_t width, uint32_t height, GLenum internal_format);
+        void UploadTextureRect(TextureEntry &entry, const uint8_t *pixels, uint32_t row_bytes, const IntRect &rect);
+
+        std::vector<GLuint> upload_pbos_;
+        size_t next_upload_pbo_ = 0;
+        std::vector<IntRect> changed_rects_;
+        bool texture_diffing_enabled_ = false;
+        TextureUploadStatistics texture_uploads_;
+        TextureUploadStatistics last_frame_texture_uploads_;
+
+        // Amount of copies of updated geometry kept around, so an update never has to wait for
+        // the GPU to finish drawing the frames still in flight
+        static constexpr uint8_t kGeometryStreamRegions = 3;
+
+        // Storage of geometry which is updated after its creation. With ARB_buffer_storage the buffers hold one
+        // region per copy and stay mapped, otherwise they hold a single region which is orphaned on every update.
+        struct GeometryStream {
+            bool persistent = false;
+            uint8_t region = 0;                 // Region draws currently read from
+            GLsizeiptr vertex_region_size = 0;  // Capacity of a region in bytes
+            GLsizeiptr index_region_size = 0;
+            uint8_t *mapped_vertices = nullptr; // Only set if persistent
+            uint8_t *mapped_indices = nullptr;
+            uint64_t region_frames[kGeometryStreamRegions] = {}; // Frame each region has last been drawn in
+        };
 
         struct GeometryEntry {
             // VAOs are not shared across GL contexts so we create them lazily for each
-            std::map<void *, GLuint> vao_map;
+            ContextMap<GLuint> vao_map;
             VertexBufferFormat vertex_format;
             GLuint vbo_vertices = 0; // VBO id for vertices
             GLuint vbo_indices = 0;  // VBO id for indices
+
+            bool is_streaming = false; // Whether the buffers have been replaced by a GeometryStream
+            GeometryStream stream;
+            GLint base_vertex = 0;      // First vertex of the current region
+            GLsizeiptr index_base = 0;  // Byte offset of the current region in the index buffer
         };
-        std::map<uint32_t, GeometryEntry> geometry_map;
+        DenseTable<GeometryEntry> geometry_map;
+
+        void CreateGeometryStream(GeometryEntry &geometry, GLsizeiptr vertices_size, GLsizeiptr indices_size);
+        void DeleteGeometryBuffers(GeometryEntry &geometry);
+
+        // Frames are counted per drawn command list, a fence is inserted after every frame which drew
+        // streamed geometry
+        void WaitForFrame(uint64_t frame);
+        void RetireFrame();
+
+        uint64_t frame_index_ = 1;
+        uint64_t completed_frame_ = 0;
+        bool frame_uses_streams_ = false;
+        std::deque<std::pair<uint64_t, GLsync>> frame_fences_;
 
         struct FBOEntry {
             GLuint fbo_id = 0;          // GL FBO ID (if MSAA is enabled, this will be used for resolve)
@@ -146,13 +362,21 @@ namespace ultralight {
             bool needs_resolve = false; // Whether or not we need to perform MSAA resolve
         };
 
+        struct ReadbackSlot {
+            GLuint pbo_id = 0;
+            GLsync fence = nullptr; // Signaled once the readback into the PBO has finished
+        };
+
         struct RenderBufferEntry {
             // FBOs are not shared across GL contexts so we create them lazily for each
-            std::map<void *, FBOEntry> fbo_map;
+            ContextMap<FBOEntry> fbo_map;
             uint32_t texture_id = 0; // The Ultralight texture ID backing this RenderBuffer.
 #if ENABLE_OFFSCREEN_GL
             RefPtr<Bitmap> bitmap;
-            GLuint pbo_id = 0;
+            // Ring of PBOs the render buffer is read back into, pending slots end right before next_readback_slot
+            std::vector<ReadbackSlot> readback_ring;
+            size_t next_readback_slot = 0;
+            size_t pending_readbacks = 0;
             bool is_bitmap_dirty = false;
             bool is_first_draw = true;
             bool needs_update = false;
@@ -169,17 +393,52 @@ namespace ultralight {
 
 #if ENABLE_OFFSCREEN_GL
         void UpdateBitmap(RenderBufferEntry &entry, GLuint pbo_id);
+
+        void CreateReadbackRing(RenderBufferEntry &entry);
+        void DestroyReadbackRing(RenderBufferEntry &entry);
+        void IssueReadback(uint32_t render_buffer_id, RenderBufferEntry &entry, GLenum format);
+        void ConsumeReadbacks(RenderBufferEntry &entry, uint32_t max_pending);
+        bool WaitForReadback(ReadbackSlot &slot, bool block);
 #endif
 
-        std::map<uint32_t, RenderBufferEntry> render_buffer_map;
+        uint32_t readback_latency_ = 0;
+        ReadbackStatistics readback_statistics_;
+
+        DenseTable<RenderBufferEntry> render_buffer_map;
 
         struct ProgramEntry {
-            GLuint program_id;
-            GLuint vert_shader_id;
-            GLuint frag_shader_id;
+            GLuint program_id = 0;
+            GLuint vert_shader_id = 0;
+            GLuint frag_shader_id = 0;
+
+            // Uniform locations, resolved once after linking
+            GLint state_location = -1;
+            GLint transform_location = -1;
+            GLint scalar4_location = -1;
+            GLint vector_location = -1;
+            GLint clip_size_location = -1;
+            GLint clip_location = -1;
+
+            // Values currently held by the program, uniforms are program state and survive program switches
+            UniformShadow<float, 4> state;
+            UniformShadow<float, 16> transform;
+            UniformShadow<float, 8> scalar4;
+            UniformShadow<float, 32> vector;
+            UniformShadow<uint32_t, 1> clip_size;
+            UniformShadow<float, 128> clip;
         };
         std::map<ProgramType, ProgramEntry> programs_;
-        GLuint cur_program_id_;
+        ProgramEntry *cur_program_ = nullptr;
+
+        // Path of the cached binary of a program type, empty if the cache is disabled or unsupported
+        std::string ProgramCachePath(ProgramType type, const std::string &vert_source, const std::string &frag_source);
+        bool LoadCachedProgram(ProgramEntry &prog, const std::string &path);
+        void StoreCachedProgram(const ProgramEntry &prog, const std::string &path);
+
+        std::string program_cache_directory_;
+        ProgramCacheStatistics program_cache_statistics_;
+
+        GLStateCache state_cache_;
 
         GPUContextGL *context_;
     };
@@ -46,6 +46,7 @@ namespace ultralight {
         }
 
         command_list_.clear();
+        RecycleIds();
         glBindFramebuffer(GL_FRAMEBUFFER, 0);
     }
 
@@ -60,15 +61,34 @@ namespace ultralight {
     }
 
     uint32_t GPUDriverImpl::NextTextureId() {
-        return next_texture_id_++;
+        return texture_ids_.Allocate();
     }
 
     uint32_t GPUDriverImpl::NextRenderBufferId() {
-        return next_render_buffer_id_++;
+        return render_buffer_ids_.Allocate();
     }
 
     uint32_t GPUDriverImpl::NextGeometryId() {
-        return next_geometry_id_++;
+        return geometry_ids_.Allocate();
+    }
+
+    void GPUDriverImpl::ReleaseTextureId(uint32_t texture_id) {
+        texture_ids_.Release(texture_id);
+    }
+
+    void GPUDriverImpl::ReleaseRenderBufferId(uint32_t render_buffer_id) {
+        render_buffer_ids_.Release(render_buffer_id);
+    }
+
+    void GPUDriverImpl::ReleaseGeometryId(uint32_t geometry_id) {
+        geometry_ids_.Release(geometry_id);
+    }
+
+    void GPUDriverImpl::RecycleIds() {
+        // The command list referencing the released ids has been drawn, they are safe to reuse now
+        texture_ids_.Recycle();
+        render_buffer_ids_.Recycle();
+        geometry_ids_.Recycle();
     }
 
     void GPUDriverImpl::UpdateCommandList(const CommandList &list) {
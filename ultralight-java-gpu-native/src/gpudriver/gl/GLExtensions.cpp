@@ -0,0 +1,74 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+#include "ultralight_java/gpudriver/gl/GLExtensions.h"
+
+#include <cstring>
+
+namespace ultralight {
+
+    static GLExtensions extensions;
+
+    static bool HasVersion(int major, int minor) {
+        return GLVersion.major > major || (GLVersion.major == major && GLVersion.minor >= minor);
+    }
+
+    static bool HasExtension(const char *name) {
+        GLint count = 0;
+        glGetIntegerv(GL_NUM_EXTENSIONS, &count);
+
+        for(GLint i = 0; i < count; i++) {
+            auto extension = reinterpret_cast<const char *>(glGetStringi(GL_EXTENSIONS, i));
+            if(extension && strcmp(extension, name) == 0)
+                return true;
+        }
+
+        return false;
+    }
+
+    void LoadGLExtensions(GLADloadproc load) {
+        extensions = GLExtensions();
+
+        if(HasVersion(4, 4) || HasExtension("GL_ARB_buffer_storage")) {
+            extensions.BufferStorage = (PFNGLBUFFERSTORAGEPROC) load("glBufferStorage");
+            extensions.has_buffer_storage = extensions.BufferStorage != nullptr;
+        }
+
+        if(HasVersion(4, 2) || HasExtension("GL_ARB_texture_storage")) {
+            extensions.TexStorage2D = (PFNGLTEXSTORAGE2DPROC) load("glTexStorage2D");
+            extensions.has_texture_storage = extensions.TexStorage2D != nullptr;
+        }
+
+        if(HasVersion(4, 1) || HasExtension("GL_ARB_get_program_binary")) {
+            extensions.GetProgramBinary = (PFNGLGETPROGRAMBINARYPROC) load("glGetProgramBinary");
+            extensions.ProgramBinary = (PFNGLPROGRAMBINARYPROC) load("glProgramBinary");
+            extensions.ProgramParameteri = (PFNGLPROGRAMPARAMETERIPROC) load("glProgramParameteri");
+
+            GLint formats = 0;
+            glGetIntegerv(GL_NUM_PROGRAM_BINARY_FORMATS, &formats);
+            extensions.has_program_binary = extensions.GetProgramBinary && extensions.ProgramBinary &&
+                                            extensions.ProgramParameteri && formats > 0;
+        }
+    }
+
+    const GLExtensions &gl_extensions() {
+        return extensions;
+    }
+
+} // namespace ultralight
@@ -0,0 +1,201 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+#include "ultralight_java/gpudriver/gl/GLStateCache.h"
+
+namespace ultralight {
+
+    GLStateCache::GLStateCache() {
+        Invalidate();
+    }
+
+    void GLStateCache::Invalidate() {
+        InvalidateProgram();
+        InvalidateTextures();
+        InvalidateFramebuffer();
+        InvalidateVertexArray();
+        viewport_valid_ = false;
+        blend_valid_ = false;
+        scissor_enabled_valid_ = false;
+        scissor_rect_valid_ = false;
+    }
+
+    void GLStateCache::InvalidateProgram() {
+        program_valid_ = false;
+    }
+
+    void GLStateCache::InvalidateTextures() {
+        textures_valid_ = false;
+    }
+
+    void GLStateCache::InvalidateFramebuffer() {
+        framebuffer_valid_ = false;
+    }
+
+    void GLStateCache::InvalidateVertexArray() {
+        vertex_array_valid_ = false;
+    }
+
+    void GLStateCache::UseProgram(GLuint program_id) {
+        if(program_valid_ && program_id_ == program_id) {
+            saved_calls_++;
+            return;
+        }
+
+        glUseProgram(program_id);
+        issued_calls_++;
+        program_id_ = program_id;
+        program_valid_ = true;
+    }
+
+    bool GLStateCache::BindTexture(uint8_t texture_unit, GLuint texture_id) {
+        if(!textures_valid_) {
+            // Nothing is known about the bindings, assume every unit holds an unknown texture
+            for(auto &id : texture_ids_) {
+                id = ~0u;
+            }
+
+            active_texture_unit_ = 0xFF;
+            textures_valid_ = true;
+        }
+
+        if(texture_ids_[texture_unit] == texture_id) {
+            saved_calls_++;
+
+            // The unit switch only counts as saved if it would not have been skipped by ActiveTexture anyway
+            if(active_texture_unit_ != texture_unit) {
+                saved_calls_++;
+            }
+
+            return false;
+        }
+
+        ActiveTexture(texture_unit);
+        glBindTexture(GL_TEXTURE_2D, texture_id);
+        issued_calls_++;
+        texture_ids_[texture_unit] = texture_id;
+        return true;
+    }
+
+    void GLStateCache::TexParameter(GLenum name, GLint value) {
+        glTexParameteri(GL_TEXTURE_2D, name, value);
+        issued_calls_++;
+    }
+
+    void GLStateCache::ActiveTexture(uint8_t texture_unit) {
+        if(active_texture_unit_ == texture_unit) {
+            saved_calls_++;
+            return;
+        }
+
+        glActiveTexture(GL_TEXTURE0 + texture_unit);
+        issued_calls_++;
+        active_texture_unit_ = texture_unit;
+    }
+
+    void GLStateCache::BindFramebuffer(GLuint framebuffer_id) {
+        if(framebuffer_valid_ && framebuffer_id_ == framebuffer_id) {
+            saved_calls_++;
+            return;
+        }
+
+        glBindFramebuffer(GL_FRAMEBUFFER, framebuffer_id);
+        issued_calls_++;
+        framebuffer_id_ = framebuffer_id;
+        framebuffer_valid_ = true;
+    }
+
+    void GLStateCache::BindVertexArray(GLuint vertex_array_id) {
+        if(vertex_array_valid_ && vertex_array_id_ == vertex_array_id) {
+            saved_calls_++;
+            return;
+        }
+
+        glBindVertexArray(vertex_array_id);
+        issued_calls_++;
+        vertex_array_id_ = vertex_array_id;
+        vertex_array_valid_ = true;
+    }
+
+    void GLStateCache::SetViewport(GLsizei width, GLsizei height) {
+        if(viewport_valid_ && viewport_width_ == width && viewport_height_ == height) {
+            saved_calls_++;
+            return;
+        }
+
+        glViewport(0, 0, width, height);
+        issued_calls_++;
+        viewport_width_ = width;
+        viewport_height_ = height;
+        viewport_valid_ = true;
+    }
+
+    void GLStateCache::SetBlendEnabled(bool enabled) {
+        if(blend_valid_ && blend_enabled_ == enabled) {
+            saved_calls_++;
+            return;
+        }
+
+        if(enabled)
+            glEnable(GL_BLEND);
+        else
+            glDisable(GL_BLEND);
+
+        issued_calls_++;
+        blend_enabled_ = enabled;
+        blend_valid_ = true;
+    }
+
+    void GLStateCache::SetScissorEnabled(bool enabled) {
+        if(scissor_enabled_valid_ && scissor_enabled_ == enabled) {
+            saved_calls_++;
+            return;
+        }
+
+        if(enabled)
+            glEnable(GL_SCISSOR_TEST);
+        else
+            glDisable(GL_SCISSOR_TEST);
+
+        issued_calls_++;
+        scissor_enabled_ = enabled;
+        scissor_enabled_valid_ = true;
+    }
+
+    void GLStateCache::SetScissorRect(const IntRect &rect) {
+        if(scissor_rect_valid_ && scissor_rect_.left == rect.left && scissor_rect_.top == rect.top &&
+           scissor_rect_.right == rect.right && scissor_rect_.bottom == rect.bottom) {
+            saved_calls_++;
+            return;
+        }
+
+        glScissor(rect.left, rect.top, (rect.right - rect.left), (rect.bottom - rect.top));
+        issued_calls_++;
+        scissor_rect_ = rect;
+        scissor_rect_valid_ = true;
+    }
+
+    void GLStateCache::EndFrame() {
+        last_frame_issued_calls_ = issued_calls_;
+        last_frame_saved_calls_ = saved_calls_;
+        issued_calls_ = 0;
+        saved_calls_ = 0;
+    }
+
+} // namespace ultralight
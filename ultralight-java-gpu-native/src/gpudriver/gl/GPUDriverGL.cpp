@@ -21,10 +21,20 @@
 
 #include <Ultralight/platform/FileSystem.h>
 #include <Ultralight/platform/Platform.h>
+#include <algorithm>
+#include <cstdio>
+#include <cstring>
 #include <fstream>
 #include <iostream>
 #include <sstream>
 
+#if _WIN32
+#    include <direct.h>
+#else
+#    include <sys/stat.h>
+#endif
+
+#include "ultralight_java/gpudriver/gl/GLExtensions.h"
 #include "ultralight_java/gpudriver/gl/GPUContextGL.h"
 #if ENABLE_OFFSCREEN_GL
 #    include "shader_fill_frag.h"
@@ -162,6 +172,68 @@ static GLuint LoadShaderFromFile(GLenum shader_type, const char *filename) {
     return shader_id;
 }
 
+// Prefix of every cached program binary, followed by the binary itself
+struct ProgramCacheHeader {
+    uint32_t magic;
+    GLenum format;
+};
+
+static constexpr uint32_t kProgramCacheMagic = 0x42504C55; // "ULPB"
+
+// FNV-1a, the terminator is hashed as well so different splits of the same characters do not collide
+static uint64_t HashString(uint64_t hash, const char *str) {
+    for(;; str++) {
+        hash ^= (uint8_t) *str;
+        hash *= 0x100000001B3ull;
+        if(!*str)
+            return hash;
+    }
+}
+
+static const char *GetGLString(GLenum name) {
+    auto str = reinterpret_cast<const char *>(glGetString(name));
+    return str ? str : "";
+}
+
+// std::filesystem is not available on the minimum macOS version, so the few file operations of the program cache
+// are implemented on top of the platform APIs
+static bool IsPathSeparator(char c) {
+#if _WIN32
+    return c == '/' || c == '\\';
+#else
+    return c == '/';
+#endif
+}
+
+// Creates a directory and all of its parents. Failures are ignored, they surface when writing into the directory.
+static void CreateDirectories(const std::string &path) {
+    for(size_t i = 1; i <= path.size(); i++) {
+        if(i < path.size() && !IsPathSeparator(path[i]))
+            continue;
+
+        std::string parent = path.substr(0, i);
+#if _WIN32
+        _mkdir(parent.c_str());
+#else
+        mkdir(parent.c_str(), 0755);
+#endif
+    }
+}
+
+// Moves a file to a path, atomically replacing the file at that path if it exists
+static bool MoveFileReplacing(const std::string &from, const std::string &to) {
+#if _WIN32
+    // std::rename fails on Windows if the target exists
+    return MoveFileExA(from.c_str(), to.c_str(), MOVEFILE_REPLACE_EXISTING) != 0;
+#else
+    return std::rename(from.c_str(), to.c_str()) == 0;
+#endif
+}
+
+static uint64_t NanosecondsSince(std::chrono::steady_clock::time_point start) {
+    return std::chrono::duration_cast<std::chrono::nanoseconds>(std::chrono::steady_clock::now() - start).count();
+}
+
 #ifdef _DEBUG
 #    define CHECK_GL()                                                                                                 \
         {                                                                                                              \
@@ -174,10 +246,34 @@ static GLuint LoadShaderFromFile(GLenum shader_type, const char *filename) {
 
 namespace ultralight {
 
+    // Invokes the upload function only if the values differ from the ones the program already holds
+    template <typename T, size_t N, typename F>
+    static void UploadIfChanged(GLStateCache &cache, UniformShadow<T, N> &shadow, const T *values, F upload) {
+        if(shadow.Update(values)) {
+            upload();
+            cache.CountIssued();
+        } else {
+            cache.CountSaved();
+        }
+    }
+
     GPUDriverGL::GPUDriverGL(GPUContextGL *context) {
         context_ = context;
     }
 
+    GPUDriverGL::~GPUDriverGL() {
+        for(auto &frame : frame_fences_)
+            glDeleteSync(frame.second);
+
+        if(sync_fence_)
+            glDeleteSync(sync_fence_);
+        if(draw_fence_)
+            glDeleteSync(draw_fence_);
+
+        if(!upload_pbos_.empty())
+            glDeleteBuffers(static_cast<GLsizei>(upload_pbos_.size()), upload_pbos_.data());
+    }
+
 #if ENABLE_OFFSCREEN_GL
     void GPUDriverGL::SetRenderBufferBitmap(uint32_t render_buffer_id, RefPtr<Bitmap> bitmap) {
         // Get our entry from RenderBuffer map, creating it if it does not exist
@@ -185,27 +281,13 @@ namespace ultralight {
 
         CHECK_GL();
 
-        // Delete any existing PBOs
-        if(entry.bitmap)
-            glDeleteBuffers(1, &entry.pbo_id);
+        // Delete any existing PBOs, readbacks still in flight belong to the old bitmap
+        DestroyReadbackRing(entry);
 
         entry.bitmap = bitmap;
 
-        if(entry.bitmap) {
-            // Generate PBO ids
-            glGenBuffers(1, &entry.pbo_id);
-
-            // Setup PBOs
-            glBindBuffer(GL_PIXEL_PACK_BUFFER, entry.pbo_id);
-            glBufferData(GL_PIXEL_PACK_BUFFER, bitmap->size(), 0, GL_STREAM_READ);
-
-            CHECK_GL();
-
-            // Reset glBindBuffer
-            glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
-
-            CHECK_GL();
-        }
+        if(entry.bitmap)
+            CreateReadbackRing(entry);
 
         // Setup rest of RenderBufferEntry, we have to be careful not to overwrite
         // the FBO id which may or may not be already set in CreateRenderBuffer()
@@ -237,79 +319,246 @@ namespace ultralight {
         }
 
         CHECK_GL();
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
-        CHECK_GL();
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
-        CHECK_GL();
-
         TextureEntry &entry = texture_map[texture_id];
         glGenTextures(1, &entry.tex_id);
         glActiveTexture(GL_TEXTURE0 + 0);
         glBindTexture(GL_TEXTURE_2D, entry.tex_id);
+        state_cache_.InvalidateTextures();
         CHECK_GL();
-        glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
-        glPixelStorei(GL_UNPACK_ROW_LENGTH, bitmap->row_bytes() / bitmap->bpp());
-        CHECK_GL();
-        if(bitmap->format() == kBitmapFormat_A8_UNORM) {
-            const void *pixels = bitmap->LockPixels();
-            glTexImage2D(
-                GL_TEXTURE_2D, 0, GL_R8, bitmap->width(), bitmap->height(), 0, GL_RED, GL_UNSIGNED_BYTE, pixels);
-            bitmap->UnlockPixels();
-        } else if(bitmap->format() == kBitmapFormat_BGRA8_UNORM_SRGB) {
-            const void *pixels = bitmap->LockPixels();
-            glTexImage2D(
-                GL_TEXTURE_2D, 0, GL_RGBA8, bitmap->width(), bitmap->height(), 0, GL_BGRA, GL_UNSIGNED_BYTE, pixels);
-            bitmap->UnlockPixels();
-        } else {
-            FATAL("Unhandled texture format: " << bitmap->format())
-        }
 
-        CHECK_GL();
-        glGenerateMipmap(GL_TEXTURE_2D);
-        CHECK_GL();
+        UploadBitmap(entry, bitmap);
     }
 
     void GPUDriverGL::UpdateTexture(uint32_t texture_id, Ref<Bitmap> bitmap) {
         glActiveTexture(GL_TEXTURE0 + 0);
         TextureEntry &entry = texture_map[texture_id];
         glBindTexture(GL_TEXTURE_2D, entry.tex_id);
+        state_cache_.InvalidateTextures();
         CHECK_GL();
-        glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
-        glPixelStorei(GL_UNPACK_ROW_LENGTH, bitmap->row_bytes() / bitmap->bpp());
-
-        if(!bitmap->IsEmpty()) {
-            if(bitmap->format() == kBitmapFormat_A8_UNORM) {
-                const void *pixels = bitmap->LockPixels();
-                glTexImage2D(
-                    GL_TEXTURE_2D, 0, GL_R8, bitmap->width(), bitmap->height(), 0, GL_RED, GL_UNSIGNED_BYTE, pixels);
-                bitmap->UnlockPixels();
-            } else if(bitmap->format() == kBitmapFormat_BGRA8_UNORM_SRGB) {
-                const void *pixels = bitmap->LockPixels();
-                glTexImage2D(
-                    GL_TEXTURE_2D,
-                    0,
-                    GL_RGBA8,
-                    bitmap->width(),
-                    bitmap->height(),
-                    0,
-                    GL_BGRA,
-                    GL_UNSIGNED_BYTE,
-                    pixels);
-                bitmap->UnlockPixels();
+
+        texture_uploads_.updates++;
+        if(!bitmap->IsEmpty())
+            UploadBitmap(entry, bitmap);
+
+        CHECK_GL();
+    }
+
+    // Compares the bitmap against the copy of the last upload, brings the copy up to date and collects the changed
+    // regions. Runs of changed rows which are only a few rows apart are merged into a single rectangle.
+    static void FindChangedRects(
+        std::vector<uint8_t> &shadow,
+        const uint8_t *pixels,
+        uint32_t row_bytes,
+        uint32_t width,
+        uint32_t height,
+        uint32_t bpp,
+        std::vector<IntRect> &rects) {
+        const int max_row_gap = 8;
+        const size_t max_rects = 16;
+
+        size_t width_bytes = static_cast<size_t>(width) * bpp;
+        for(uint32_t y = 0; y < height; y++) {
+            const uint8_t *row = pixels + static_cast<size_t>(y) * row_bytes;
+            uint8_t *copy = shadow.data() + y * width_bytes;
+            if(memcmp(row, copy, width_bytes) == 0)
+                continue;
+
+            size_t first = 0;
+            while(row[first] == copy[first])
+                first++;
+
+            size_t last = width_bytes - 1;
+            while(row[last] == copy[last])
+                last--;
+
+            memcpy(copy + first, row + first, last - first + 1);
+
+            int left = static_cast<int>(first / bpp);
+            int right = static_cast<int>(last / bpp) + 1;
+            int top = static_cast<int>(y);
+
+            if(!rects.empty() && top - rects.back().bottom <= max_row_gap) {
+                IntRect &rect = rects.back();
+                rect.left = std::min(rect.left, left);
+                rect.right = std::max(rect.right, right);
+                rect.bottom = top + 1;
             } else {
-                FATAL("Unhandled texture format: " << bitmap->format());
+                IntRect rect;
+                rect.left = left;
+                rect.top = top;
+                rect.right = right;
+                rect.bottom = top + 1;
+                rects.push_back(rect);
             }
+        }
+
+        if(rects.size() > max_rects) {
+            // Too scattered, a single upload of the bounding box is cheaper than many small ones
+            IntRect bounds = rects.front();
+            for(const auto &rect : rects) {
+                bounds.left = std::min(bounds.left, rect.left);
+                bounds.right = std::max(bounds.right, rect.right);
+            }
+            bounds.bottom = rects.back().bottom;
+
+            rects.clear();
+            rects.push_back(bounds);
+        }
+    }
+
+    void GPUDriverGL::UploadBitmap(TextureEntry &entry, Ref<Bitmap> bitmap) {
+        GLenum internal_format;
+        if(bitmap->format() == kBitmapFormat_A8_UNORM) {
+            internal_format = GL_R8;
+            entry.pixel_format = GL_RED;
+        } else if(bitmap->format() == kBitmapFormat_BGRA8_UNORM_SRGB) {
+            internal_format = GL_RGBA8;
+            entry.pixel_format = GL_BGRA;
+        } else {
+            FATAL("Unhandled texture format: " << bitmap->format());
+            return;
+        }
+
+        uint32_t width = bitmap->width();
+        uint32_t height = bitmap->height();
+        uint32_t row_bytes = bitmap->row_bytes();
+        entry.bpp = bitmap->bpp();
+
+        if(internal_format != entry.internal_format || width != entry.width || height != entry.height)
+            AllocateTexture(entry, width, height, internal_format);
+
+        size_t width_bytes = static_cast<size_t>(width) * entry.bpp;
+        texture_uploads_.full_bytes += width_bytes * height;
+
+        IntRect full;
+        full.left = 0;
+        full.top = 0;
+        full.right = static_cast<int>(width);
+        full.bottom = static_cast<int>(height);
+
+        const auto *pixels = static_cast<const uint8_t *>(bitmap->LockPixels());
+
+        changed_rects_.clear();
+        if(!texture_diffing_enabled_) {
+            std::vector<uint8_t>().swap(entry.shadow);
+            changed_rects_.push_back(full);
+        } else if(entry.shadow.empty()) {
+            // Nothing to compare against yet, remember the pixels for the next update
+            entry.shadow.resize(width_bytes * height);
+            for(uint32_t y = 0; y < height; y++)
+                memcpy(entry.shadow.data() + y * width_bytes, pixels + static_cast<size_t>(y) * row_bytes, width_bytes);
+
+            changed_rects_.push_back(full);
+        } else {
+            FindChangedRects(entry.shadow, pixels, row_bytes, width, height, entry.bpp, changed_rects_);
+        }
+
+        if(changed_rects_.empty())
+            texture_uploads_.unchanged_updates++;
+
+        for(const auto &rect : changed_rects_)
+            UploadTextureRect(entry, pixels, row_bytes, rect);
 
+        bitmap->UnlockPixels();
+        CHECK_GL();
+    }
+
+    void GPUDriverGL::AllocateTexture(TextureEntry &entry, uint32_t width, uint32_t height, GLenum internal_format) {
+        if(entry.is_immutable) {
+            // The storage can't be respecified, replace the texture object instead
+            glDeleteTextures(1, &entry.tex_id);
+            glGenTextures(1, &entry.tex_id);
+            glBindTexture(GL_TEXTURE_2D, entry.tex_id);
+            state_cache_.InvalidateTextures();
             CHECK_GL();
-            glGenerateMipmap(GL_TEXTURE_2D);
         }
 
+        entry.width = width;
+        entry.height = height;
+        entry.internal_format = internal_format;
+        std::vector<uint8_t>().swap(entry.shadow);
+
+        // Only level 0 is ever sampled, the textures are filtered with GL_LINEAR
+        if(gl_extensions().has_texture_storage) {
+            gl_extensions().TexStorage2D(GL_TEXTURE_2D, 1, internal_format, width, height);
+            entry.is_immutable = true;
+        } else {
+            glTexImage2D(
+                GL_TEXTURE_2D, 0, internal_format, width, height, 0, entry.pixel_format, GL_UNSIGNED_BYTE, nullptr);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAX_LEVEL, 0);
+            entry.is_immutable = false;
+        }
+        CHECK_GL();
+
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+        entry.has_sampler_state = true;
+        CHECK_GL();
+    }
+
+    void GPUDriverGL::UploadTextureRect(
+        TextureEntry &entry, const uint8_t *pixels, uint32_t row_bytes, const IntRect &rect) {
+        GLsizei width = rect.right - rect.left;
+        GLsizei height = rect.bottom - rect.top;
+        size_t width_bytes = static_cast<size_t>(width) * entry.bpp;
+        size_t size = width_bytes * height;
+        const uint8_t *source = pixels + static_cast<size_t>(rect.top) * row_bytes + rect.left * entry.bpp;
+
+        if(upload_pbos_.empty()) {
+            upload_pbos_.resize(kTextureUploadBuffers);
+            glGenBuffers(kTextureUploadBuffers, upload_pbos_.data());
+        }
+
+        GLuint pbo_id = upload_pbos_[next_upload_pbo_];
+        next_upload_pbo_ = (next_upload_pbo_ + 1) % kTextureUploadBuffers;
+
+        // Orphan the previous storage, the driver may still be copying it into a texture
+        glBindBuffer(GL_PIXEL_UNPACK_BUFFER, pbo_id);
+        glBufferData(GL_PIXEL_UNPACK_BUFFER, size, nullptr, GL_STREAM_DRAW);
+        auto *staging = static_cast<uint8_t *>(
+            glMapBufferRange(GL_PIXEL_UNPACK_BUFFER, 0, size, GL_MAP_WRITE_BIT | GL_MAP_INVALIDATE_BUFFER_BIT));
+        CHECK_GL();
+
+        // Rows are tightly packed, the previous alignment is restored for the application afterwards
+        GLint previous_alignment;
+        glGetIntegerv(GL_UNPACK_ALIGNMENT, &previous_alignment);
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
+        if(staging) {
+            for(GLsizei y = 0; y < height; y++)
+                memcpy(staging + y * width_bytes, source + static_cast<size_t>(y) * row_bytes, width_bytes);
+
+            glUnmapBuffer(GL_PIXEL_UNPACK_BUFFER);
+            glPixelStorei(GL_UNPACK_ROW_LENGTH, 0);
+            glTexSubImage2D(
+                GL_TEXTURE_2D, 0, rect.left, rect.top, width, height, entry.pixel_format, GL_UNSIGNED_BYTE, nullptr);
+            glBindBuffer(GL_PIXEL_UNPACK_BUFFER, 0);
+        } else {
+            // Could not map the staging buffer, upload straight from the bitmap
+            glBindBuffer(GL_PIXEL_UNPACK_BUFFER, 0);
+            glPixelStorei(GL_UNPACK_ROW_LENGTH, row_bytes / entry.bpp);
+            glTexSubImage2D(
+                GL_TEXTURE_2D, 0, rect.left, rect.top, width, height, entry.pixel_format, GL_UNSIGNED_BYTE, source);
+            glPixelStorei(GL_UNPACK_ROW_LENGTH, 0);
+        }
+        glPixelStorei(GL_UNPACK_ALIGNMENT, previous_alignment);
         CHECK_GL();
+
+        texture_uploads_.rectangles++;
+        texture_uploads_.uploaded_bytes += size;
     }
 
     void GPUDriverGL::BindTexture(uint8_t texture_unit, uint32_t texture_id) {
+        std::lock_guard<std::recursive_mutex> lock(mutex_);
+        if(draw_fence_) {
+            // The texture may have been drawn to on the context of another window
+            glWaitSync(draw_fence_, 0, GL_TIMEOUT_IGNORED);
+        }
+
+        // Called by the application outside of command lists, so the bound state can't be trusted
+        state_cache_.InvalidateTextures();
+
         glActiveTexture(GL_TEXTURE0 + texture_unit);
         BindUltralightTexture(texture_id);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
@@ -320,7 +569,34 @@ namespace ultralight {
         CHECK_GL();
     }
 
+    void GPUDriverGL::BindTextureForDraw(uint8_t texture_unit, uint32_t texture_id) {
+        TextureEntry &entry = texture_map[texture_id];
+        ResolveIfNeeded(entry.render_buffer_id);
+
+        if(!state_cache_.BindTexture(texture_unit, entry.tex_id)) {
+            // Still bound from a previous draw, sampler state has been set back then
+            return;
+        }
+
+        CHECK_GL();
+
+        if(entry.has_sampler_state || !entry.tex_id) {
+            return;
+        }
+
+        state_cache_.TexParameter(GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+        state_cache_.TexParameter(GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+        state_cache_.TexParameter(GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+        state_cache_.TexParameter(GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+        CHECK_GL();
+        entry.has_sampler_state = true;
+    }
+
     uint32_t GPUDriverGL::GetGlTextureId(uint32_t ultralight_texture_id) {
+        std::lock_guard<std::recursive_mutex> lock(mutex_);
+        if(draw_fence_)
+            glWaitSync(draw_fence_, 0, GL_TIMEOUT_IGNORED);
+
         TextureEntry &entry = texture_map[ultralight_texture_id];
         ResolveIfNeeded(entry.render_buffer_id);
         return entry.tex_id;
@@ -329,10 +605,13 @@ namespace ultralight {
     void GPUDriverGL::DestroyTexture(uint32_t texture_id) {
         TextureEntry &entry = texture_map[texture_id];
         glDeleteTextures(1, &entry.tex_id);
+        state_cache_.InvalidateTextures();
         CHECK_GL();
         if(entry.msaa_tex_id)
             glDeleteTextures(1, &entry.msaa_tex_id);
         CHECK_GL();
+        texture_map.Erase(texture_id);
+        ReleaseTextureId(texture_id);
     }
 
     void GPUDriverGL::CreateRenderBuffer(uint32_t render_buffer_id, const RenderBuffer &buffer) {
@@ -358,7 +637,7 @@ namespace ultralight {
     void GPUDriverGL::BindRenderBuffer(uint32_t render_buffer_id) {
         if(render_buffer_id == 0) {
             // Render buffer id '0' is reserved for window's backbuffer
-            glBindFramebuffer(GL_FRAMEBUFFER, 0);
+            state_cache_.BindFramebuffer(0);
             return;
         }
 
@@ -366,7 +645,7 @@ namespace ultralight {
 
         RenderBufferEntry &entry = render_buffer_map[render_buffer_id];
 
-        auto i = entry.fbo_map.find(context_->active_window());
+        auto i = entry.fbo_map.find(CurrentWindow());
         if(i == entry.fbo_map.end())
             return;
 
@@ -375,10 +654,10 @@ namespace ultralight {
         if(context_->msaa_enabled()) {
             // We use the MSAA FBO when doing multisampled rendering.
             // The other FBO (entry.fbo_id) is used for resolving.
-            glBindFramebuffer(GL_FRAMEBUFFER, fbo_entry.msaa_fbo_id);
+            state_cache_.BindFramebuffer(fbo_entry.msaa_fbo_id);
             fbo_entry.needs_resolve = true;
         } else {
-            glBindFramebuffer(GL_FRAMEBUFFER, fbo_entry.fbo_id);
+            state_cache_.BindFramebuffer(fbo_entry.fbo_id);
         }
 
         CHECK_GL();
@@ -388,7 +667,7 @@ namespace ultralight {
         // glfwMakeContextCurrent(context_->active_window());
 
         BindRenderBuffer(render_buffer_id);
-        glDisable(GL_SCISSOR_TEST);
+        state_cache_.SetScissorEnabled(false);
         CHECK_GL();
         glClearColor(0.0f, 0.0f, 0.0f, 0.0f);
         CHECK_GL();
@@ -416,11 +695,12 @@ namespace ultralight {
 
 #if ENABLE_OFFSCREEN_GL
         // Clean up PBOs if a bitmap is bound
-        if(entry.bitmap)
-            glDeleteBuffers(1, &entry.pbo_id);
+        DestroyReadbackRing(entry);
 #endif
         CHECK_GL();
-        render_buffer_map.erase(render_buffer_id);
+        state_cache_.InvalidateFramebuffer();
+        render_buffer_map.Erase(render_buffer_id);
+        ReleaseRenderBufferId(render_buffer_id);
 
         //  glfwMakeContextCurrent(previous_context);
     }
@@ -443,22 +723,218 @@ namespace ultralight {
         geometry_map[geometry_id] = geometry;
     }
 
+    // Size of a single vertex in bytes, matches the layouts set up in CreateVAOIfNeededForActiveContext
+    static GLsizeiptr VertexStride(VertexBufferFormat format) {
+        return format == kVertexBufferFormat_2f_4ub_2f_2f_28f ? 140 : 20;
+    }
+
     void GPUDriverGL::UpdateGeometry(uint32_t geometry_id, const VertexBuffer &vertices, const IndexBuffer &indices) {
 
         GeometryEntry &geometry = geometry_map[geometry_id];
+        GeometryStream &stream = geometry.stream;
         CHECK_GL();
-        glBindBuffer(GL_ARRAY_BUFFER, geometry.vbo_vertices);
-        glBufferData(GL_ARRAY_BUFFER, vertices.size, vertices.data, GL_DYNAMIC_DRAW);
+
+        if(!geometry.is_streaming || vertices.size > stream.vertex_region_size ||
+           indices.size > stream.index_region_size) {
+            // Geometry that is updated once is likely to be updated again, switch it over to streaming
+            CreateGeometryStream(geometry, vertices.size, indices.size);
+        }
+
+        if(stream.persistent) {
+            // Write to the region drawn longest ago, the GPU may still be reading the others
+            uint8_t region = (stream.region + 1) % kGeometryStreamRegions;
+            WaitForFrame(stream.region_frames[region]);
+
+            memcpy(stream.mapped_vertices + region * stream.vertex_region_size, vertices.data, vertices.size);
+            memcpy(stream.mapped_indices + region * stream.index_region_size, indices.data, indices.size);
+
+            stream.region = region;
+            geometry.base_vertex = static_cast<GLint>(
+                region * stream.vertex_region_size / VertexStride(geometry.vertex_format));
+            geometry.index_base = region * stream.index_region_size;
+        } else {
+            // Orphan the old storage so the driver does not have to wait for pending draws, and only
+            // upload the part of the buffers that is actually in use.
+            // GL_COPY_WRITE_BUFFER is used to not modify the element buffer of the bound vertex array.
+            glBindBuffer(GL_ARRAY_BUFFER, geometry.vbo_vertices);
+            glBufferData(GL_ARRAY_BUFFER, stream.vertex_region_size, nullptr, GL_STREAM_DRAW);
+            glBufferSubData(GL_ARRAY_BUFFER, 0, vertices.size, vertices.data);
+            CHECK_GL();
+            glBindBuffer(GL_COPY_WRITE_BUFFER, geometry.vbo_indices);
+            glBufferData(GL_COPY_WRITE_BUFFER, stream.index_region_size, nullptr, GL_STREAM_DRAW);
+            glBufferSubData(GL_COPY_WRITE_BUFFER, 0, indices.size, indices.data);
+            CHECK_GL();
+        }
+    }
+
+    void GPUDriverGL::CreateGeometryStream(
+        GeometryEntry &geometry, GLsizeiptr vertices_size, GLsizeiptr indices_size) {
+        DeleteGeometryBuffers(geometry);
+
+        // Leave some headroom, geometry usually grows gradually (for example while text is typed)
+        GLsizeiptr stride = VertexStride(geometry.vertex_format);
+        GLsizeiptr vertex_count = vertices_size / stride;
+        GLsizeiptr index_count = indices_size / sizeof(uint32_t);
+
+        GeometryStream &stream = geometry.stream;
+        stream = GeometryStream();
+        stream.vertex_region_size = (vertex_count + vertex_count / 2 + 16) * stride;
+        stream.index_region_size = (index_count + index_count / 2 + 48) * sizeof(uint32_t);
+
+        glGenBuffers(1, &geometry.vbo_vertices);
+        glGenBuffers(1, &geometry.vbo_indices);
+
+        if(gl_extensions().has_buffer_storage) {
+            const GLbitfield flags = GL_MAP_WRITE_BIT | GL_MAP_PERSISTENT_BIT | GL_MAP_COHERENT_BIT;
+
+            glBindBuffer(GL_ARRAY_BUFFER, geometry.vbo_vertices);
+            gl_extensions().BufferStorage(
+                GL_ARRAY_BUFFER, stream.vertex_region_size * kGeometryStreamRegions, nullptr, flags);
+            stream.mapped_vertices = static_cast<uint8_t *>(
+                glMapBufferRange(GL_ARRAY_BUFFER, 0, stream.vertex_region_size * kGeometryStreamRegions, flags));
+
+            glBindBuffer(GL_COPY_WRITE_BUFFER, geometry.vbo_indices);
+            gl_extensions().BufferStorage(
+                GL_COPY_WRITE_BUFFER, stream.index_region_size * kGeometryStreamRegions, nullptr, flags);
+            stream.mapped_indices = static_cast<uint8_t *>(glMapBufferRange(
+                GL_COPY_WRITE_BUFFER, 0, stream.index_region_size * kGeometryStreamRegions, flags));
+            CHECK_GL();
+
+            stream.persistent = stream.mapped_vertices && stream.mapped_indices;
+            if(!stream.persistent) {
+                // Mapping failed, storage is immutable so start over with plain buffers
+                glDeleteBuffers(1, &geometry.vbo_vertices);
+                glDeleteBuffers(1, &geometry.vbo_indices);
+                glGenBuffers(1, &geometry.vbo_vertices);
+                glGenBuffers(1, &geometry.vbo_indices);
+                stream.mapped_vertices = nullptr;
+                stream.mapped_indices = nullptr;
+            }
+        }
+
+        // The first update writes to region 0
+        stream.region = kGeometryStreamRegions - 1;
+
+        geometry.is_streaming = true;
+        geometry.base_vertex = 0;
+        geometry.index_base = 0;
         CHECK_GL();
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, geometry.vbo_indices);
-        glBufferData(GL_ELEMENT_ARRAY_BUFFER, indices.size, indices.data, GL_STATIC_DRAW);
+    }
+
+    void GPUDriverGL::DeleteGeometryBuffers(GeometryEntry &geometry) {
         CHECK_GL();
+        // Deleting the buffers unmaps them as well
+        glDeleteBuffers(1, &geometry.vbo_indices);
+        glDeleteBuffers(1, &geometry.vbo_vertices);
+        geometry.vbo_indices = 0;
+        geometry.vbo_vertices = 0;
         CHECK_GL();
+
+        //  auto previous_context = glfwGetCurrentContext();
+
+        for(auto i = geometry.vao_map.begin(); i != geometry.vao_map.end(); ++i) {
+            //    auto context = i->first;
+            auto vao_entry = i->second;
+            //    glfwMakeContextCurrent(context);
+            glDeleteVertexArrays(1, &vao_entry);
+            CHECK_GL();
+        }
+
+        geometry.vao_map.clear();
+        state_cache_.InvalidateVertexArray();
+
+        //  glfwMakeContextCurrent(previous_context);
+    }
+
+    void GPUDriverGL::WaitForFrame(uint64_t frame) {
+        while(frame > completed_frame_ && !frame_fences_.empty()) {
+            auto &front = frame_fences_.front();
+
+            GLenum result;
+            do {
+                result = glClientWaitSync(front.second, GL_SYNC_FLUSH_COMMANDS_BIT, 1000000);
+            } while(result == GL_TIMEOUT_EXPIRED);
+
+            glDeleteSync(front.second);
+            completed_frame_ = front.first;
+            frame_fences_.pop_front();
+        }
+    }
+
+    void GPUDriverGL::RetireFrame() {
+        if(frame_uses_streams_) {
+            frame_fences_.emplace_back(frame_index_, glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0));
+            frame_uses_streams_ = false;
+        }
+
+        frame_index_++;
+
+        // Collect fences which have already passed, so they do not pile up
+        while(!frame_fences_.empty()) {
+            auto &front = frame_fences_.front();
+            GLenum result = glClientWaitSync(front.second, 0, 0);
+            if(result != GL_ALREADY_SIGNALED && result != GL_CONDITION_SATISFIED && result != GL_WAIT_FAILED)
+                break;
+
+            glDeleteSync(front.second);
+            completed_frame_ = front.first;
+            frame_fences_.pop_front();
+        }
     }
 
     void GPUDriverGL::DrawGeometry(
         uint32_t geometry_id, uint32_t indices_count, uint32_t indices_offset, const GPUState &state) {
+        const GeometryEntry &geometry = PrepareDraw(geometry_id, state);
+        glDrawElementsBaseVertex(
+            GL_TRIANGLES,
+            indices_count,
+            GL_UNSIGNED_INT,
+            (GLvoid *) (geometry.index_base + indices_offset * sizeof(unsigned int)),
+            geometry.base_vertex);
+        CHECK_GL();
+        FinishDraw(state);
+    }
+
+    void GPUDriverGL::DrawGeometryBatch(const DrawBatch &batch) {
+        const Command &command = command_list_[batch.command_index];
+        const GeometryEntry &geometry = PrepareDraw(command.geometry_id, command.gpu_state);
+
+        if(batch.range_count == 1) {
+            glDrawElementsBaseVertex(
+                GL_TRIANGLES,
+                batch_index_counts_[batch.first_range],
+                GL_UNSIGNED_INT,
+                (const GLvoid *) ((const char *) batch_index_offsets_[batch.first_range] + geometry.index_base),
+                geometry.base_vertex);
+        } else if(!geometry.is_streaming) {
+            glMultiDrawElements(
+                GL_TRIANGLES,
+                &batch_index_counts_[batch.first_range],
+                GL_UNSIGNED_INT,
+                &batch_index_offsets_[batch.first_range],
+                static_cast<GLsizei>(batch.range_count));
+        } else {
+            // Move the ranges into the region the geometry is currently streamed to
+            for(size_t i = batch.first_range; i < batch.first_range + batch.range_count; i++) {
+                const char *offset = (const char *) batch_index_offsets_[i];
+                batch_index_offsets_[i] = offset + geometry.index_base;
+            }
 
+            batch_base_vertices_.assign(batch.range_count, geometry.base_vertex);
+            glMultiDrawElementsBaseVertex(
+                GL_TRIANGLES,
+                &batch_index_counts_[batch.first_range],
+                GL_UNSIGNED_INT,
+                &batch_index_offsets_[batch.first_range],
+                static_cast<GLsizei>(batch.range_count),
+                batch_base_vertices_.data());
+        }
+
+        CHECK_GL();
+        FinishDraw(command.gpu_state);
+    }
+
+    const GPUDriverGL::GeometryEntry &GPUDriverGL::PrepareDraw(uint32_t geometry_id, const GPUState &state) {
         //  glfwMakeContextCurrent(context_->active_window());
 
         if(programs_.empty())
@@ -475,32 +951,35 @@ namespace ultralight {
         CHECK_GL();
 
         CreateVAOIfNeededForActiveContext(geometry_id);
-        auto vao_entry = geometry.vao_map[context_->active_window()];
-        glBindVertexArray(vao_entry);
+        auto vao_entry = geometry.vao_map[CurrentWindow()];
+        state_cache_.BindVertexArray(vao_entry);
         CHECK_GL();
 
-        BindTexture(0, state.texture_1_id);
-        BindTexture(1, state.texture_2_id);
-        BindTexture(2, state.texture_3_id);
+        BindTextureForDraw(0, state.texture_1_id);
+        BindTextureForDraw(1, state.texture_2_id);
+        BindTextureForDraw(2, state.texture_3_id);
 
         CHECK_GL();
 
-        if(state.enable_scissor) {
-            glEnable(GL_SCISSOR_TEST);
-            const IntRect &r = state.scissor_rect;
-            glScissor(r.left, r.top, (r.right - r.left), (r.bottom - r.top));
-        } else {
-            glDisable(GL_SCISSOR_TEST);
-        }
+        state_cache_.SetScissorEnabled(state.enable_scissor);
+        if(state.enable_scissor)
+            state_cache_.SetScissorRect(state.scissor_rect);
 
-        if(state.enable_blend)
-            glEnable(GL_BLEND);
-        else
-            glDisable(GL_BLEND);
-        CHECK_GL();
-        glDrawElements(GL_TRIANGLES, indices_count, GL_UNSIGNED_INT, (GLvoid *) (indices_offset * sizeof(unsigned int)));
+        state_cache_.SetBlendEnabled(state.enable_blend);
         CHECK_GL();
-        glBindVertexArray(0);
+
+        if(geometry.is_streaming) {
+            // Keeps the region from being overwritten until the GPU is done with this frame
+            geometry.stream.region_frames[geometry.stream.region] = frame_index_;
+            frame_uses_streams_ = true;
+        }
+
+        return geometry;
+    }
+
+    void GPUDriverGL::FinishDraw(const GPUState &state) {
+        // The vertex array stays bound until the next draw needs a different one, it is
+        // unbound once at the end of the command list
 
 #if ENABLE_OFFSCREEN_GL
         auto &rbuf = render_buffer_map[state.render_buffer_id];
@@ -513,32 +992,173 @@ namespace ultralight {
         CHECK_GL();
     }
 
+    // Checks whether two draws produce the same output apart from their index ranges, so they can be submitted
+    // with a single draw call. The uniforms are part of the comparison, since Ultralight passes per-draw data
+    // through them.
+    static bool IsSameDrawState(const GPUState &a, const GPUState &b) {
+        if(a.render_buffer_id != b.render_buffer_id || a.shader_type != b.shader_type ||
+           a.viewport_width != b.viewport_width || a.viewport_height != b.viewport_height ||
+           a.texture_1_id != b.texture_1_id || a.texture_2_id != b.texture_2_id || a.texture_3_id != b.texture_3_id ||
+           a.enable_blend != b.enable_blend || a.enable_scissor != b.enable_scissor || a.clip_size != b.clip_size) {
+            return false;
+        }
+
+        if(a.enable_scissor &&
+           (a.scissor_rect.left != b.scissor_rect.left || a.scissor_rect.top != b.scissor_rect.top ||
+            a.scissor_rect.right != b.scissor_rect.right || a.scissor_rect.bottom != b.scissor_rect.bottom)) {
+            return false;
+        }
+
+        return memcmp(&a.transform, &b.transform, sizeof(a.transform)) == 0 &&
+               memcmp(a.uniform_scalar, b.uniform_scalar, sizeof(a.uniform_scalar)) == 0 &&
+               memcmp(a.uniform_vector, b.uniform_vector, sizeof(a.uniform_vector)) == 0 &&
+               memcmp(a.clip, b.clip, sizeof(a.clip[0]) * a.clip_size) == 0;
+    }
+
+    void GPUDriverGL::BuildDrawBatches() {
+        draw_batches_.clear();
+        batch_index_counts_.clear();
+        batch_index_offsets_.clear();
+
+        for(size_t i = 0; i < command_list_.size(); i++) {
+            const Command &command = command_list_[i];
+            if(command.command_type != kCommandType_DrawGeometry) {
+                draw_batches_.push_back({i, 0, 0});
+                continue;
+            }
+
+            draw_command_count_++;
+
+            auto *offset = reinterpret_cast<const GLvoid *>(command.indices_offset * sizeof(unsigned int));
+            auto count = static_cast<GLsizei>(command.indices_count);
+
+            if(draw_batching_enabled_ && !draw_batches_.empty()) {
+                DrawBatch &previous = draw_batches_.back();
+                const Command &previous_command = command_list_[previous.command_index];
+
+                if(previous_command.command_type == kCommandType_DrawGeometry &&
+                   previous_command.geometry_id == command.geometry_id &&
+                   IsSameDrawState(previous_command.gpu_state, command.gpu_state)) {
+                    auto previous_end = reinterpret_cast<uintptr_t>(batch_index_offsets_.back()) +
+                                        batch_index_counts_.back() * sizeof(unsigned int);
+
+                    if(previous_end == reinterpret_cast<uintptr_t>(offset)) {
+                        // Directly continues the previous range, simply extend it
+                        batch_index_counts_.back() += count;
+                    } else {
+                        batch_index_counts_.push_back(count);
+                        batch_index_offsets_.push_back(offset);
+                        previous.range_count++;
+                    }
+
+                    continue;
+                }
+            }
+
+            draw_batches_.push_back({i, batch_index_counts_.size(), 1});
+            batch_index_counts_.push_back(count);
+            batch_index_offsets_.push_back(offset);
+        }
+    }
+
     void GPUDriverGL::DestroyGeometry(uint32_t geometry_id) {
         GeometryEntry &geometry = geometry_map[geometry_id];
+        DeleteGeometryBuffers(geometry);
+
         CHECK_GL();
-        glDeleteBuffers(1, &geometry.vbo_indices);
-        glDeleteBuffers(1, &geometry.vbo_vertices);
-        CHECK_GL();
+        geometry_map.Erase(geometry_id);
+        ReleaseGeometryId(geometry_id);
+    }
 
-        //  auto previous_context = glfwGetCurrentContext();
+    void GPUDriverGL::BeginSynchronize() {
+        // Released by EndSynchronize()
+        mutex_.lock();
+        GPUDriverImpl::BeginSynchronize();
+    }
 
-        for(auto i = geometry.vao_map.begin(); i != geometry.vao_map.end(); ++i) {
-            //    auto context = i->first;
-            auto vao_entry = i->second;
-            //    glfwMakeContextCurrent(context);
-            glDeleteVertexArrays(1, &vao_entry);
-            CHECK_GL();
+    void GPUDriverGL::EndSynchronize() {
+        GPUDriverImpl::EndSynchronize();
+
+        if(QueuedWindowCount() > 1) {
+            // Command lists may be drawn on other contexts, flush the updates so they can see them
+            if(sync_fence_)
+                glDeleteSync(sync_fence_);
+
+            sync_fence_ = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+            sync_window_ = context_->active_window();
+            glFlush();
         }
 
-        CHECK_GL();
-        geometry_map.erase(geometry_id);
+        mutex_.unlock();
+    }
 
-        //  glfwMakeContextCurrent(previous_context);
+    void GPUDriverGL::UpdateCommandList(const CommandList &list) {
+        std::lock_guard<std::mutex> queue_lock(queue_mutex_);
+        if(list.size) {
+            auto &queue = command_queues_[context_->active_window()];
+            queue.assign(list.commands, list.commands + list.size);
+        }
+    }
+
+    bool GPUDriverGL::HasCommandsPending() {
+        return HasCommandsPending(context_->active_window());
+    }
+
+    bool GPUDriverGL::HasCommandsPending(void *window) {
+        std::lock_guard<std::mutex> queue_lock(queue_mutex_);
+        auto queue = command_queues_.find(window);
+        return queue != command_queues_.end() && !queue->second.empty();
+    }
+
+    bool GPUDriverGL::HasQueuedCommands() {
+        std::lock_guard<std::mutex> queue_lock(queue_mutex_);
+        for(const auto &queue : command_queues_) {
+            if(!queue.second.empty())
+                return true;
+        }
+
+        return false;
+    }
+
+    size_t GPUDriverGL::QueuedWindowCount() {
+        std::lock_guard<std::mutex> queue_lock(queue_mutex_);
+        return command_queues_.size();
+    }
+
+    void *GPUDriverGL::CurrentWindow() {
+        return drawing_window_ ? drawing_window_ : context_->active_window();
     }
 
     void GPUDriverGL::DrawCommandList() {
-        if(command_list_.empty())
+        DrawCommandList(context_->active_window());
+    }
+
+    void GPUDriverGL::DrawCommandList(void *window) {
+        std::lock_guard<std::recursive_mutex> lock(mutex_);
+
+        {
+            std::lock_guard<std::mutex> queue_lock(queue_mutex_);
+            auto queue = command_queues_.find(window);
+            if(queue != command_queues_.end())
+                command_list_.swap(queue->second);
+        }
+
+        if(command_list_.empty()) {
+            // Nothing recorded can reference released ids anymore
+            if(!HasQueuedCommands())
+                RecycleIds();
             return;
+        }
+
+        // Textures have been uploaded while synchronizing, before the command list is drawn
+        last_frame_texture_uploads_ = texture_uploads_;
+        texture_uploads_ = TextureUploadStatistics();
+
+        drawing_window_ = window;
+        if(sync_fence_ && window != sync_window_) {
+            // Resources have been updated on another context
+            glWaitSync(sync_fence_, 0, GL_TIMEOUT_IGNORED);
+        }
 
         int boundFrameBuffer = 0;
         glGetIntegerv(GL_FRAMEBUFFER_BINDING, &boundFrameBuffer);
@@ -548,55 +1168,98 @@ namespace ultralight {
         CHECK_GL();
 
         batch_count_ = 0;
+        draw_command_count_ = 0;
+
+        // The application may have changed any state since the last command list
+        state_cache_.Invalidate();
 
-        glEnable(GL_BLEND);
-        glDisable(GL_SCISSOR_TEST);
+        state_cache_.SetBlendEnabled(true);
+        state_cache_.SetScissorEnabled(false);
         glDisable(GL_DEPTH_TEST);
         glDepthFunc(GL_NEVER);
         glBlendFunc(GL_ONE, GL_ONE_MINUS_SRC_ALPHA);
 
         CHECK_GL();
 
-        for(auto i = command_list_.begin(); i != command_list_.end(); ++i) {
-            switch(i->command_type) {
+        // Merge consecutive draws that only differ in their index ranges
+        BuildDrawBatches();
+
+        for(const auto &batch : draw_batches_) {
+            const Command &command = command_list_[batch.command_index];
+            switch(command.command_type) {
                 case kCommandType_DrawGeometry:
-                    DrawGeometry(i->geometry_id, i->indices_count, i->indices_offset, i->gpu_state);
+                    DrawGeometryBatch(batch);
                     break;
                 case kCommandType_ClearRenderBuffer:
-                    ClearRenderBuffer(i->gpu_state.render_buffer_id);
+                    ClearRenderBuffer(command.gpu_state.render_buffer_id);
                     break;
             };
         }
 
         command_list_.clear();
+        if(!HasQueuedCommands())
+            RecycleIds();
 
-        glDisable(GL_SCISSOR_TEST);
+        state_cache_.BindVertexArray(0);
+        state_cache_.SetScissorEnabled(false);
 
 #if ENABLE_OFFSCREEN_GL
         GLenum format = Platform::instance().config().use_bgra_for_offscreen_rendering ? GL_BGRA : GL_RGBA;
 
-        for(auto i = render_buffer_map.begin(); i != render_buffer_map.end(); ++i) {
-            auto &rbuf = i->second;
-
-            if(rbuf.bitmap && rbuf.needs_update) {
-                ResolveIfNeeded(i->first);
-                glBindFramebuffer(GL_FRAMEBUFFER, i->second.fbo_id);
-                CHECK_GL();
-                // Perform blocking copy of pixels from FBO to current PBO
-                glBindBuffer(GL_PIXEL_PACK_BUFFER, rbuf.pbo_id);
-                CHECK_GL();
-                glReadPixels(0, 0, rbuf.bitmap->width(), rbuf.bitmap->height(), format, GL_UNSIGNED_BYTE, 0);
-                CHECK_GL();
-                UpdateBitmap(rbuf, rbuf.pbo_id);
+        bool issued_readback = false;
+        render_buffer_map.ForEach([&](uint32_t render_buffer_id, RenderBufferEntry &rbuf) {
+            if(!rbuf.bitmap)
+                return;
+
+            if(rbuf.readback_ring.size() != readback_latency_ + 1) {
+                // The latency has been changed, finish everything in flight before resizing the ring
+                ConsumeReadbacks(rbuf, 0);
+                DestroyReadbackRing(rbuf);
+                CreateReadbackRing(rbuf);
+            }
+
+            if(rbuf.needs_update) {
+                IssueReadback(render_buffer_id, rbuf, format);
                 rbuf.needs_update = false;
+                issued_readback = true;
             }
+        });
+
+        if(issued_readback) {
+            // Submit the fences, polling them could never succeed otherwise
+            glFlush();
         }
+
+        render_buffer_map.ForEach([&](uint32_t, RenderBufferEntry &rbuf) {
+            if(rbuf.bitmap)
+                ConsumeReadbacks(rbuf, readback_latency_);
+        });
 #endif
         glBindFramebuffer(GL_FRAMEBUFFER, boundFrameBuffer);
+        state_cache_.InvalidateFramebuffer();
+        state_cache_.EndFrame();
+
+        RetireFrame();
+
+        if(QueuedWindowCount() > 1) {
+            // Render buffers may be sampled on other contexts, see BindTexture()
+            if(draw_fence_)
+                glDeleteSync(draw_fence_);
+
+            draw_fence_ = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+            glFlush();
+        }
+
+        drawing_window_ = nullptr;
 
         CHECK_GL();
     }
 
+    void GPUDriverGL::SetReadbackLatency(uint32_t frames) {
+        // Rings are resized lazily during the next command list
+        readback_latency_ = frames;
+    }
+
     void GPUDriverGL::BindUltralightTexture(uint32_t ultralight_texture_id) {
         TextureEntry &entry = texture_map[ultralight_texture_id];
         ResolveIfNeeded(entry.render_buffer_id);
@@ -614,51 +1277,94 @@ namespace ultralight {
         glUseProgram(0);
         for(auto i = programs_.begin(); i != programs_.end(); i++) {
             ProgramEntry &prog = i->second;
-            glDetachShader(prog.program_id, prog.vert_shader_id);
-            glDetachShader(prog.program_id, prog.frag_shader_id);
-            glDeleteShader(prog.vert_shader_id);
-            glDeleteShader(prog.frag_shader_id);
+            // Programs loaded from a cached binary have no shaders attached
+            if(prog.vert_shader_id) {
+                glDetachShader(prog.program_id, prog.vert_shader_id);
+                glDetachShader(prog.program_id, prog.frag_shader_id);
+                glDeleteShader(prog.vert_shader_id);
+                glDeleteShader(prog.frag_shader_id);
+            }
             glDeleteProgram(prog.program_id);
         }
         programs_.clear();
+        cur_program_ = nullptr;
+        state_cache_.InvalidateProgram();
+    }
+
+    void GPUDriverGL::PreloadPrograms() {
+        std::lock_guard<std::recursive_mutex> lock(mutex_);
+        if(programs_.empty())
+            LoadPrograms();
     }
 
     void GPUDriverGL::LoadProgram(ProgramType type) {
         GLenum ErrorCheckValue = glGetError();
         ProgramEntry prog;
+        std::string vert_source, frag_source;
+        const char *vert_filename = "", *frag_filename = "";
         if(type == kShaderType_Fill) {
-            prog.vert_shader_id = LoadShaderFromSource(
-                GL_VERTEX_SHADER, shader_v2f_c4f_t2f_t2f_d28f_vert().c_str(), "shader_v2f_c4f_t2f_t2f_d28f.vert");
-            prog.frag_shader_id =
-                LoadShaderFromSource(GL_FRAGMENT_SHADER, shader_fill_frag().c_str(), "shader_fill.frag");
+            vert_source = shader_v2f_c4f_t2f_t2f_d28f_vert();
+            vert_filename = "shader_v2f_c4f_t2f_t2f_d28f.vert";
+            frag_source = shader_fill_frag();
+            frag_filename = "shader_fill.frag";
         } else if(type == kShaderType_FillPath) {
-            prog.vert_shader_id =
-                LoadShaderFromSource(GL_VERTEX_SHADER, shader_v2f_c4f_t2f_vert().c_str(), "shader_v2f_c4f_t2f.vert");
-            prog.frag_shader_id =
-                LoadShaderFromSource(GL_FRAGMENT_SHADER, shader_fill_path_frag().c_str(), "shader_fill_path.frag");
+            vert_source = shader_v2f_c4f_t2f_vert();
+            vert_filename = "shader_v2f_c4f_t2f.vert";
+            frag_source = shader_fill_path_frag();
+            frag_filename = "shader_fill_path.frag";
         }
 
-        prog.program_id = glCreateProgram();
-        glAttachShader(prog.program_id, prog.vert_shader_id);
-        glAttachShader(prog.program_id, prog.frag_shader_id);
+        std::string cache_path = ProgramCachePath(type, vert_source, frag_source);
+        bool cached = false;
+        if(!cache_path.empty()) {
+            auto start = std::chrono::steady_clock::now();
+            cached = LoadCachedProgram(prog, cache_path);
+            program_cache_statistics_.load_nanoseconds += NanosecondsSince(start);
+        }
 
-        glBindAttribLocation(prog.program_id, 0, "in_Position");
-        glBindAttribLocation(prog.program_id, 1, "in_Color");
-        glBindAttribLocation(prog.program_id, 2, "in_TexCoord");
+        if(cached) {
+            program_cache_statistics_.hits++;
+        } else {
+            auto start = std::chrono::steady_clock::now();
+            prog.vert_shader_id = LoadShaderFromSource(GL_VERTEX_SHADER, vert_source.c_str(), vert_filename);
+            prog.frag_shader_id = LoadShaderFromSource(GL_FRAGMENT_SHADER, frag_source.c_str(), frag_filename);
+
+            prog.program_id = glCreateProgram();
+            glAttachShader(prog.program_id, prog.vert_shader_id);
+            glAttachShader(prog.program_id, prog.frag_shader_id);
+
+            if(!cache_path.empty())
+                gl_extensions().ProgramParameteri(prog.program_id, GL_PROGRAM_BINARY_RETRIEVABLE_HINT, GL_TRUE);
+
+            glBindAttribLocation(prog.program_id, 0, "in_Position");
+            glBindAttribLocation(prog.program_id, 1, "in_Color");
+            glBindAttribLocation(prog.program_id, 2, "in_TexCoord");
+
+            if(type == kShaderType_Fill) {
+                glBindAttribLocation(prog.program_id, 3, "in_ObjCoord");
+                glBindAttribLocation(prog.program_id, 4, "in_Data0");
+                glBindAttribLocation(prog.program_id, 5, "in_Data1");
+                glBindAttribLocation(prog.program_id, 6, "in_Data2");
+                glBindAttribLocation(prog.program_id, 7, "in_Data3");
+                glBindAttribLocation(prog.program_id, 8, "in_Data4");
+                glBindAttribLocation(prog.program_id, 9, "in_Data5");
+                glBindAttribLocation(prog.program_id, 10, "in_Data6");
+            }
 
-        if(type == kShaderType_Fill) {
-            glBindAttribLocation(prog.program_id, 3, "in_ObjCoord");
-            glBindAttribLocation(prog.program_id, 4, "in_Data0");
-            glBindAttribLocation(prog.program_id, 5, "in_Data1");
-            glBindAttribLocation(prog.program_id, 6, "in_Data2");
-            glBindAttribLocation(prog.program_id, 7, "in_Data3");
-            glBindAttribLocation(prog.program_id, 8, "in_Data4");
-            glBindAttribLocation(prog.program_id, 9, "in_Data5");
-            glBindAttribLocation(prog.program_id, 10, "in_Data6");
+            glLinkProgram(prog.program_id);
+
+            // Querying the status waits for drivers which link in the background, so the timing covers the link
+            GLint linked = GL_FALSE;
+            glGetProgramiv(prog.program_id, GL_LINK_STATUS, &linked);
+            program_cache_statistics_.compile_nanoseconds += NanosecondsSince(start);
+            program_cache_statistics_.misses++;
+
+            if(linked && !cache_path.empty())
+                StoreCachedProgram(prog, cache_path);
         }
 
-        glLinkProgram(prog.program_id);
         glUseProgram(prog.program_id);
+        state_cache_.InvalidateProgram();
 
         if(type == kShaderType_Fill) {
             glUniform1i(glGetUniformLocation(prog.program_id, "Texture1"), 0);
@@ -666,6 +1372,13 @@ namespace ultralight {
             glUniform1i(glGetUniformLocation(prog.program_id, "Texture3"), 2);
         }
 
+        prog.state_location = glGetUniformLocation(prog.program_id, "State");
+        prog.transform_location = glGetUniformLocation(prog.program_id, "Transform");
+        prog.scalar4_location = glGetUniformLocation(prog.program_id, "Scalar4");
+        prog.vector_location = glGetUniformLocation(prog.program_id, "Vector");
+        prog.clip_size_location = glGetUniformLocation(prog.program_id, "ClipSize");
+        prog.clip_location = glGetUniformLocation(prog.program_id, "Clip");
+
         if(glGetError())
             FATAL(
                 "Unable to link shader.\n\tError:" << glErrorString(glGetError())
@@ -674,69 +1387,175 @@ namespace ultralight {
         programs_[type] = prog;
     }
 
+    std::string GPUDriverGL::ProgramCachePath(
+        ProgramType type, const std::string &vert_source, const std::string &frag_source) {
+        if(program_cache_directory_.empty() || !gl_extensions().has_program_binary)
+            return std::string();
+
+        // Binaries are only valid for the exact driver which produced them, it may refuse them otherwise
+        uint64_t key = 0xCBF29CE484222325ull;
+        key = HashString(key, GetGLString(GL_VENDOR));
+        key = HashString(key, GetGLString(GL_RENDERER));
+        key = HashString(key, GetGLString(GL_VERSION));
+        key = HashString(key, vert_source.c_str());
+        key = HashString(key, frag_source.c_str());
+
+        char name[64];
+        snprintf(name, sizeof(name), "program-%d-%016llx.bin", (int) type, (unsigned long long) key);
+        if(IsPathSeparator(program_cache_directory_.back()))
+            return program_cache_directory_ + name;
+
+        return program_cache_directory_ + "/" + name;
+    }
+
+    bool GPUDriverGL::LoadCachedProgram(ProgramEntry &prog, const std::string &path) {
+        std::ifstream file(path, std::ios::binary | std::ios::ate);
+        if(!file)
+            return false;
+
+        std::streamoff size = file.tellg();
+        if(size <= (std::streamoff) sizeof(ProgramCacheHeader))
+            return false;
+
+        ProgramCacheHeader header;
+        std::vector<char> binary((size_t) size - sizeof(ProgramCacheHeader));
+        file.seekg(0);
+        if(!file.read(reinterpret_cast<char *>(&header), sizeof(header)) || !file.read(binary.data(), binary.size()) ||
+           header.magic != kProgramCacheMagic)
+            return false;
+
+        GLuint program_id = glCreateProgram();
+        gl_extensions().ProgramBinary(program_id, header.format, binary.data(), (GLsizei) binary.size());
+
+        GLint linked = GL_FALSE;
+        glGetProgramiv(program_id, GL_LINK_STATUS, &linked);
+
+        // A binary format the driver no longer supports raises an error, which must not be mistaken for a failed
+        // link of the program compiled instead
+        glGetError();
+
+        if(!linked) {
+            glDeleteProgram(program_id);
+            program_cache_statistics_.rejected++;
+            return false;
+        }
+
+        prog.program_id = program_id;
+        prog.vert_shader_id = 0;
+        prog.frag_shader_id = 0;
+        return true;
+    }
+
+    void GPUDriverGL::StoreCachedProgram(const ProgramEntry &prog, const std::string &path) {
+        GLint length = 0;
+        glGetProgramiv(prog.program_id, GL_PROGRAM_BINARY_LENGTH, &length);
+        if(length <= 0)
+            return;
+
+        ProgramCacheHeader header = {kProgramCacheMagic, 0};
+        std::vector<char> binary(length);
+        GLsizei written = 0;
+        gl_extensions().GetProgramBinary(prog.program_id, length, &written, &header.format, binary.data());
+        if(written <= 0)
+            return;
+
+        CreateDirectories(program_cache_directory_);
+
+        // Written to a temporary file first, so a crash or a process starting concurrently never sees a partial
+        // binary. Failing to write the cache is not fatal, the program is simply compiled again next time.
+        std::string temp_path = path + ".tmp";
+        {
+            std::ofstream file(temp_path, std::ios::binary | std::ios::trunc);
+            if(!file.write(reinterpret_cast<const char *>(&header), sizeof(header)) ||
+               !file.write(binary.data(), written)) {
+                file.close();
+                std::remove(temp_path.c_str());
+                return;
+            }
+        }
+
+        if(!MoveFileReplacing(temp_path, path)) {
+            std::remove(temp_path.c_str());
+            return;
+        }
+
+        program_cache_statistics_.stored_bytes += sizeof(header) + written;
+    }
+
     void GPUDriverGL::SelectProgram(ProgramType type) {
         auto i = programs_.find(type);
         if(i != programs_.end()) {
-            cur_program_id_ = i->second.program_id;
-            glUseProgram(i->second.program_id);
+            cur_program_ = &i->second;
+            state_cache_.UseProgram(i->second.program_id);
         } else {
             FATAL("Missing shader type: " << type);
         }
     }
 
     void GPUDriverGL::UpdateUniforms(const GPUState &state) {
+        ProgramEntry &program = *cur_program_;
+
         bool flip_y = state.render_buffer_id != 0;
         Matrix model_view_projection =
             ApplyProjection(state.transform, (float) state.viewport_width, (float) state.viewport_height, flip_y);
 
+        // All locations have been resolved in LoadProgram
         float params[4] =
             {(float) (getTime() / 1000.0), (float) state.viewport_width, (float) state.viewport_height, 1.0f};
-        SetUniform4f("State", params);
+        UploadIfChanged(state_cache_, program.state, params, [&]() {
+            SetUniform4f(program.state_location, params);
+        });
         CHECK_GL();
         ultralight::Matrix4x4 mat = model_view_projection.GetMatrix4x4();
-        SetUniformMatrix4fv("Transform", 1, mat.data);
+        UploadIfChanged(state_cache_, program.transform, mat.data, [&]() {
+            SetUniformMatrix4fv(program.transform_location, 1, mat.data);
+        });
         CHECK_GL();
-        SetUniform4fv("Scalar4", 2, &state.uniform_scalar[0]);
+        UploadIfChanged(state_cache_, program.scalar4, &state.uniform_scalar[0], [&]() {
+            SetUniform4fv(program.scalar4_location, 2, &state.uniform_scalar[0]);
+        });
         CHECK_GL();
-        SetUniform4fv("Vector", 8, &state.uniform_vector[0].value[0]);
+        UploadIfChanged(state_cache_, program.vector, &state.uniform_vector[0].value[0], [&]() {
+            SetUniform4fv(program.vector_location, 8, &state.uniform_vector[0].value[0]);
+        });
         CHECK_GL();
-        SetUniform1ui("ClipSize", state.clip_size);
+        uint32_t clip_size = state.clip_size;
+        UploadIfChanged(state_cache_, program.clip_size, &clip_size, [&]() {
+            SetUniform1ui(program.clip_size_location, clip_size);
+        });
         CHECK_GL();
-        SetUniformMatrix4fv("Clip", 8, &state.clip[0].data[0]);
+        UploadIfChanged(state_cache_, program.clip, &state.clip[0].data[0], [&]() {
+            SetUniformMatrix4fv(program.clip_location, 8, &state.clip[0].data[0]);
+        });
         CHECK_GL();
     }
 
-    void GPUDriverGL::SetUniform1ui(const char *name, GLuint val) {
-        glUniform1ui(glGetUniformLocation(cur_program_id_, name), val);
+    void GPUDriverGL::SetUniform1ui(GLint location, GLuint val) {
+        glUniform1ui(location, val);
     }
 
-    void GPUDriverGL::SetUniform1f(const char *name, float val) {
-        glUniform1f(glGetUniformLocation(cur_program_id_, name), (GLfloat) val);
+    void GPUDriverGL::SetUniform1f(GLint location, float val) {
+        glUniform1f(location, (GLfloat) val);
     }
 
-    void GPUDriverGL::SetUniform1fv(const char *name, size_t count, const float *val) {
-        glUniform1fv(glGetUniformLocation(cur_program_id_, name), (GLsizei) count, val);
+    void GPUDriverGL::SetUniform1fv(GLint location, size_t count, const float *val) {
+        glUniform1fv(location, (GLsizei) count, val);
     }
 
-    void GPUDriverGL::SetUniform4f(const char *name, const float val[4]) {
-        glUniform4f(
-            glGetUniformLocation(cur_program_id_, name),
-            (GLfloat) val[0],
-            (GLfloat) val[1],
-            (GLfloat) val[2],
-            (GLfloat) val[3]);
+    void GPUDriverGL::SetUniform4f(GLint location, const float val[4]) {
+        glUniform4f(location, (GLfloat) val[0], (GLfloat) val[1], (GLfloat) val[2], (GLfloat) val[3]);
     }
 
-    void GPUDriverGL::SetUniform4fv(const char *name, size_t count, const float *val) {
-        glUniform4fv(glGetUniformLocation(cur_program_id_, name), (GLsizei) count, val);
+    void GPUDriverGL::SetUniform4fv(GLint location, size_t count, const float *val) {
+        glUniform4fv(location, (GLsizei) count, val);
     }
 
-    void GPUDriverGL::SetUniformMatrix4fv(const char *name, size_t count, const float *val) {
-        glUniformMatrix4fv(glGetUniformLocation(cur_program_id_, name), (GLsizei) count, false, val);
+    void GPUDriverGL::SetUniformMatrix4fv(GLint location, size_t count, const float *val) {
+        glUniformMatrix4fv(location, (GLsizei) count, false, val);
     }
 
     void GPUDriverGL::SetViewport(uint32_t width, uint32_t height) {
-        glViewport(0, 0, static_cast<GLsizei>(width), static_cast<GLsizei>(height));
+        state_cache_.SetViewport(static_cast<GLsizei>(width), static_cast<GLsizei>(height));
     }
 
     Matrix GPUDriverGL::ApplyProjection(
@@ -768,6 +1587,7 @@ namespace ultralight {
         glGenTextures(1, &entry.tex_id);
         glActiveTexture(GL_TEXTURE0 + 0);
         glBindTexture(GL_TEXTURE_2D, entry.tex_id);
+        state_cache_.InvalidateTextures();
 
         // Allocate texture in linear space.
         // We will convert back to sRGB for monitor when binding renderbuffer 0
@@ -790,18 +1610,22 @@ namespace ultralight {
         if(render_buffer_id == 0)
             return;
 
-        auto i = render_buffer_map.find(render_buffer_id);
-        if(i == render_buffer_map.end()) {
+        RenderBufferEntry *found = render_buffer_map.Find(render_buffer_id);
+        if(!found) {
             FATAL("Error, render buffer entry should exist here.")
             return;
         }
 
-        RenderBufferEntry &entry = i->second;
-        auto j = entry.fbo_map.find(context_->active_window());
+        RenderBufferEntry &entry = *found;
+        auto j = entry.fbo_map.find(CurrentWindow());
         if(j != entry.fbo_map.end())
             return; // Already exists, we can return
 
-        FBOEntry &fbo_entry = entry.fbo_map[context_->active_window()];
+        FBOEntry &fbo_entry = entry.fbo_map[CurrentWindow()];
+
+        // Framebuffer and texture bindings are changed below
+        state_cache_.InvalidateFramebuffer();
+        state_cache_.InvalidateTextures();
 
         glGenFramebuffers(1, &fbo_entry.fbo_id);
         CHECK_GL();
@@ -859,15 +1683,15 @@ namespace ultralight {
     }
 
     void GPUDriverGL::CreateVAOIfNeededForActiveContext(uint32_t geometry_id) {
-        auto i = geometry_map.find(geometry_id);
-        if(i == geometry_map.end()) {
+        GeometryEntry *found = geometry_map.Find(geometry_id);
+        if(!found) {
             FATAL("Geometry ID doesn't exist.");
             return;
         }
 
-        auto &geometry_entry = i->second;
+        auto &geometry_entry = *found;
 
-        auto j = geometry_entry.vao_map.find(context_->active_window());
+        auto j = geometry_entry.vao_map.find(CurrentWindow());
         if(j != geometry_entry.vao_map.end())
             return; // Already exists, we can return
 
@@ -875,6 +1699,7 @@ namespace ultralight {
 
         glGenVertexArrays(1, &vao_entry);
         glBindVertexArray(vao_entry);
+        state_cache_.InvalidateVertexArray();
 
         glBindBuffer(GL_ARRAY_BUFFER, geometry_entry.vbo_vertices);
         CHECK_GL();
@@ -928,7 +1753,7 @@ namespace ultralight {
 
         glBindVertexArray(0);
 
-        geometry_entry.vao_map[context_->active_window()] = vao_entry;
+        geometry_entry.vao_map[CurrentWindow()] = vao_entry;
     }
 
     void GPUDriverGL::ResolveIfNeeded(uint32_t render_buffer_id) {
@@ -942,7 +1767,7 @@ namespace ultralight {
         if(!renderBufferEntry.texture_id)
             return;
 
-        auto i = renderBufferEntry.fbo_map.find(context_->active_window());
+        auto i = renderBufferEntry.fbo_map.find(CurrentWindow());
         if(i == renderBufferEntry.fbo_map.end())
             return;
 
@@ -987,6 +1812,8 @@ namespace ultralight {
             glGenTextures(1, &textureEntry.tex_id);
             glActiveTexture(GL_TEXTURE0 + 0);
             glBindTexture(GL_TEXTURE_2D, textureEntry.tex_id);
+            state_cache_.InvalidateTextures();
+            textureEntry.has_sampler_state = false;
             CHECK_GL();
             glTexImage2D(
                 GL_TEXTURE_2D,
@@ -1011,13 +1838,133 @@ namespace ultralight {
         CHECK_GL();
         GLubyte *src = (GLubyte *) glMapBuffer(GL_PIXEL_PACK_BUFFER, GL_READ_ONLY);
         CHECK_GL();
-        void *dest = entry.bitmap->LockPixels();
-        memcpy(dest, src, entry.bitmap->size());
-        entry.bitmap->UnlockPixels();
-        glUnmapBuffer(GL_PIXEL_PACK_BUFFER);
+        if(src) {
+            void *dest = entry.bitmap->LockPixels();
+            memcpy(dest, src, entry.bitmap->size());
+            entry.bitmap->UnlockPixels();
+            glUnmapBuffer(GL_PIXEL_PACK_BUFFER);
+            CHECK_GL();
+            // Flag our bitmap as dirty
+            entry.is_bitmap_dirty = true;
+        }
+        glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
+    }
+
+    void GPUDriverGL::CreateReadbackRing(RenderBufferEntry &entry) {
+        entry.readback_ring.resize(readback_latency_ + 1);
+        entry.next_readback_slot = 0;
+        entry.pending_readbacks = 0;
+
+        for(auto &slot : entry.readback_ring) {
+            glGenBuffers(1, &slot.pbo_id);
+            glBindBuffer(GL_PIXEL_PACK_BUFFER, slot.pbo_id);
+            glBufferData(GL_PIXEL_PACK_BUFFER, entry.bitmap->size(), 0, GL_STREAM_READ);
+            CHECK_GL();
+        }
+
+        glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
+        CHECK_GL();
+    }
+
+    void GPUDriverGL::DestroyReadbackRing(RenderBufferEntry &entry) {
+        for(auto &slot : entry.readback_ring) {
+            if(slot.fence)
+                glDeleteSync(slot.fence);
+            glDeleteBuffers(1, &slot.pbo_id);
+        }
+
         CHECK_GL();
-        // Flag our bitmap as dirty
-        entry.is_bitmap_dirty = true;
+        entry.readback_ring.clear();
+        entry.next_readback_slot = 0;
+        entry.pending_readbacks = 0;
+    }
+
+    void GPUDriverGL::IssueReadback(uint32_t render_buffer_id, RenderBufferEntry &entry, GLenum format) {
+        if(entry.pending_readbacks == entry.readback_ring.size()) {
+            // Every PBO is still in flight, the oldest one has to be finished before it can be reused
+            ConsumeReadbacks(entry, static_cast<uint32_t>(entry.readback_ring.size() - 1));
+            if(entry.pending_readbacks == entry.readback_ring.size())
+                return;
+        }
+
+        auto fbo = entry.fbo_map.find(CurrentWindow());
+        if(fbo == entry.fbo_map.end())
+            return;
+
+        ResolveIfNeeded(render_buffer_id);
+        glBindFramebuffer(GL_FRAMEBUFFER, fbo->second.fbo_id);
+        state_cache_.InvalidateFramebuffer();
+        CHECK_GL();
+
+        // Start an asynchronous copy of pixels from the FBO to the next PBO
+        ReadbackSlot &slot = entry.readback_ring[entry.next_readback_slot];
+        glBindBuffer(GL_PIXEL_PACK_BUFFER, slot.pbo_id);
+        CHECK_GL();
+        glReadPixels(0, 0, entry.bitmap->width(), entry.bitmap->height(), format, GL_UNSIGNED_BYTE, 0);
+        CHECK_GL();
+        glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
+        slot.fence = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+        CHECK_GL();
+
+        entry.next_readback_slot = (entry.next_readback_slot + 1) % entry.readback_ring.size();
+        entry.pending_readbacks++;
+        readback_statistics_.issued++;
+    }
+
+    void GPUDriverGL::ConsumeReadbacks(RenderBufferEntry &entry, uint32_t max_pending) {
+        size_t ring_size = entry.readback_ring.size();
+        if(!ring_size || !entry.pending_readbacks)
+            return;
+
+        size_t oldest = (entry.next_readback_slot + ring_size - entry.pending_readbacks) % ring_size;
+
+        // Readbacks exceeding the allowed amount of pending ones have to be waited for, the
+        // remaining ones are only taken if the GPU has finished them already
+        size_t finished = 0;
+        for(size_t i = 0; i < entry.pending_readbacks; i++) {
+            bool block = entry.pending_readbacks - i > max_pending;
+            if(!WaitForReadback(entry.readback_ring[(oldest + i) % ring_size], block))
+                break;
+
+            finished = i + 1;
+        }
+
+        // Only the newest finished readback needs to be copied, older ones would be overwritten right away
+        for(size_t i = 0; i < finished; i++) {
+            ReadbackSlot &slot = entry.readback_ring[(oldest + i) % ring_size];
+            if(i + 1 == finished) {
+                UpdateBitmap(entry, slot.pbo_id);
+                readback_statistics_.completed++;
+            } else {
+                readback_statistics_.superseded++;
+            }
+
+            glDeleteSync(slot.fence);
+            slot.fence = nullptr;
+        }
+
+        entry.pending_readbacks -= finished;
+    }
+
+    bool GPUDriverGL::WaitForReadback(ReadbackSlot &slot, bool block) {
+        GLenum result = glClientWaitSync(slot.fence, 0, 0);
+        if(result == GL_ALREADY_SIGNALED || result == GL_CONDITION_SATISFIED)
+            return true;
+        else if(!block)
+            return false;
+        else if(result == GL_WAIT_FAILED)
+            return true; // Mapping the PBO synchronizes implicitly
+
+        auto start = std::chrono::steady_clock::now();
+        do {
+            result = glClientWaitSync(slot.fence, GL_SYNC_FLUSH_COMMANDS_BIT, 1000000);
+        } while(result == GL_TIMEOUT_EXPIRED);
+
+        readback_statistics_.stalls++;
+        readback_statistics_.stall_nanoseconds += std::chrono::duration_cast<std::chrono::nanoseconds>(
+                                                      std::chrono::steady_clock::now() - start)
+                                                      .count();
+        return true;
     }
 #endif
 
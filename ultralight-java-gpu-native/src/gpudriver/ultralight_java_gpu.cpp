@@ -18,6 +18,7 @@
  */
 
 #include "ultralight_java/gpudriver/com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil.h"
+#include "ultralight_java/gpudriver/gl/GLExtensions.h"
 #include "ultralight_java/gpudriver/gl/GPUContextGL.h"
 #include "ultralight_java/gpudriver/gl/GPUDriverGL.h"
 #include "ultralight_java/gpudriver/gl/glad.h"
@@ -43,6 +44,7 @@ JNIEXPORT jlong JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNat
 
     env = e;
     gladLoadGLLoader((GLADloadproc) JniLoaderFunc);
+    ultralight::LoadGLExtensions((GLADloadproc) JniLoaderFunc);
 
     auto *context = new ultralight::GPUContextGL((void *) window, msaa);
 
@@ -80,6 +82,18 @@ Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_drawCommandList(
     driver->DrawCommandList();
 }
 
+JNIEXPORT jboolean JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_hasWindowCommandsPending(
+    JNIEnv *, jobject, jlong handle, jlong window) {
+    auto *driver = (ultralight::GPUDriverGL *) handle;
+    return (jboolean) driver->HasCommandsPending(reinterpret_cast<void *>(window));
+}
+
+JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_drawWindowCommandList(
+    JNIEnv *, jobject, jlong handle, jlong window) {
+    auto *driver = (ultralight::GPUDriverGL *) handle;
+    driver->DrawCommandList(reinterpret_cast<void *>(window));
+}
+
 JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_setActiveWindow(
     JNIEnv *, jobject, jlong handle, jlong window) {
     auto *driver = (ultralight::GPUDriverGL *) handle;
@@ -96,3 +110,107 @@ JNIEXPORT jint JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNati
     auto *driver = (ultralight::GPUDriverGL *) handle;
     return (jint) driver->GetGlTextureId(texture);
 }
+
+JNIEXPORT jint JNICALL
+Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_getIssuedStateCallCount(JNIEnv *, jobject, jlong handle) {
+    auto *driver = (ultralight::GPUDriverGL *) handle;
+    return (jint) driver->state_cache().last_frame_issued_calls();
+}
+
+JNIEXPORT jint JNICALL
+Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_getSavedStateCallCount(JNIEnv *, jobject, jlong handle) {
+    auto *driver = (ultralight::GPUDriverGL *) handle;
+    return (jint) driver->state_cache().last_frame_saved_calls();
+}
+
+JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_setReadbackLatency(
+    JNIEnv *, jobject, jlong handle, jint frames) {
+    auto *driver = (ultralight::GPUDriverGL *) handle;
+    driver->SetReadbackLatency((uint32_t) frames);
+}
+
+JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_getReadbackStatistics(
+    JNIEnv *e, jobject, jlong handle, jlongArray out) {
+    auto *driver = (ultralight::GPUDriverGL *) handle;
+    const auto &statistics = driver->readback_statistics();
+
+    jlong counters[5] = {
+        (jlong) statistics.issued,
+        (jlong) statistics.completed,
+        (jlong) statistics.superseded,
+        (jlong) statistics.stalls,
+        (jlong) statistics.stall_nanoseconds};
+    e->SetLongArrayRegion(out, 0, 5, counters);
+}
+
+JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_setDrawBatchingEnabled(
+    JNIEnv *, jobject, jlong handle, jboolean enabled) {
+    auto *driver = (ultralight::GPUDriverGL *) handle;
+    driver->SetDrawBatchingEnabled(enabled);
+}
+
+JNIEXPORT jint JNICALL
+Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_getDrawCommandCount(JNIEnv *, jobject, jlong handle) {
+    auto *driver = (ultralight::GPUDriverGL *) handle;
+    return (jint) driver->draw_command_count();
+}
+
+JNIEXPORT jint JNICALL
+Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_getDrawCallCount(JNIEnv *, jobject, jlong handle) {
+    auto *driver = (ultralight::GPUDriverGL *) handle;
+    return (jint) driver->batch_count();
+}
+
+JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_setTextureDiffingEnabled(
+    JNIEnv *, jobject, jlong handle, jboolean enabled) {
+    auto *driver = (ultralight::GPUDriverGL *) handle;
+    driver->SetTextureDiffingEnabled(enabled);
+}
+
+JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_getTextureUploadStatistics(
+    JNIEnv *e, jobject, jlong handle, jlongArray out) {
+    auto *driver = (ultralight::GPUDriverGL *) handle;
+    const auto &statistics = driver->texture_upload_statistics();
+
+    jlong counters[5] = {
+        (jlong) statistics.updates,
+        (jlong) statistics.unchanged_updates,
+        (jlong) statistics.rectangles,
+        (jlong) statistics.uploaded_bytes,
+        (jlong) statistics.full_bytes};
+    e->SetLongArrayRegion(out, 0, 5, counters);
+}
+
+JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_setProgramCacheDirectory(
+    JNIEnv *e, jobject, jlong handle, jstring directory) {
+    auto *driver = (ultralight::GPUDriverGL *) handle;
+    if(!directory) {
+        driver->SetProgramCacheDirectory(std::string());
+        return;
+    }
+
+    const char *chars = e->GetStringUTFChars(directory, nullptr);
+    driver->SetProgramCacheDirectory(chars);
+    e->ReleaseStringUTFChars(directory, chars);
+}
+
+JNIEXPORT void JNICALL
+Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_preloadPrograms(JNIEnv *, jobject, jlong handle) {
+    auto *driver = (ultralight::GPUDriverGL *) handle;
+    driver->PreloadPrograms();
+}
+
+JNIEXPORT void JNICALL Java_com_labymedia_ultralight_gpu_UltralightGPUDriverNativeUtil_getProgramCacheStatistics(
+    JNIEnv *e, jobject, jlong handle, jlongArray out) {
+    auto *driver = (ultralight::GPUDriverGL *) handle;
+    const auto &statistics = driver->program_cache_statistics();
+
+    jlong counters[6] = {
+        (jlong) statistics.hits,
+        (jlong) statistics.misses,
+        (jlong) statistics.rejected,
+        (jlong) statistics.stored_bytes,
+        (jlong) statistics.load_nanoseconds,
+        (jlong) statistics.compile_nanoseconds};
+    e->SetLongArrayRegion(out, 0, 6, counters);
+}
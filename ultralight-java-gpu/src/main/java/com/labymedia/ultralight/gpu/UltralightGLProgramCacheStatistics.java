@@ -0,0 +1,122 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.gpu;
+
+/**
+ * Counters describing how the shader programs of the OpenGL driver have been obtained.
+ *
+ * @see UltralightOpenGLGPUDriverNative#getProgramCacheStatistics()
+ */
+public final class UltralightGLProgramCacheStatistics {
+    private final long hits;
+    private final long misses;
+    private final long rejected;
+    private final long storedBytes;
+    private final long loadNanoseconds;
+    private final long compileNanoseconds;
+
+    /**
+     * Constructs new program cache statistics.
+     *
+     * @param hits               the amount of programs loaded from a cached binary
+     * @param misses             the amount of programs compiled from source
+     * @param rejected           the amount of cached binaries the driver refused to load
+     * @param storedBytes        the amount of program binary data written to the cache in bytes
+     * @param loadNanoseconds    the time spent loading cached binaries in nanoseconds
+     * @param compileNanoseconds the time spent compiling programs from source in nanoseconds
+     */
+    public UltralightGLProgramCacheStatistics(
+            long hits, long misses, long rejected, long storedBytes, long loadNanoseconds, long compileNanoseconds) {
+        this.hits = hits;
+        this.misses = misses;
+        this.rejected = rejected;
+        this.storedBytes = storedBytes;
+        this.loadNanoseconds = loadNanoseconds;
+        this.compileNanoseconds = compileNanoseconds;
+    }
+
+    /**
+     * Get the amount of programs loaded from a cached binary.
+     *
+     * @return the amount of cache hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the amount of programs compiled from source, either because the cache is disabled, no binary has been
+     * cached yet or the cached binary has been rejected.
+     *
+     * @return the amount of cache misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get the amount of cached binaries the driver refused to load, usually after a driver update. Each of them is
+     * counted as a miss as well.
+     *
+     * @return the amount of rejected binaries
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Get the amount of program binary data written to the cache.
+     *
+     * @return the stored binary data in bytes
+     */
+    public long getStoredBytes() {
+        return storedBytes;
+    }
+
+    /**
+     * Get the time spent reading and loading cached binaries, including rejected ones.
+     *
+     * @return the load time in nanoseconds
+     */
+    public long getLoadNanoseconds() {
+        return loadNanoseconds;
+    }
+
+    /**
+     * Get the time spent compiling and linking programs from source.
+     *
+     * @return the compile time in nanoseconds
+     */
+    public long getCompileNanoseconds() {
+        return compileNanoseconds;
+    }
+
+    @Override
+    public String toString() {
+        return "UltralightGLProgramCacheStatistics{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", rejected=" + rejected +
+                ", storedBytes=" + storedBytes +
+                ", loadNanoseconds=" + loadNanoseconds +
+                ", compileNanoseconds=" + compileNanoseconds +
+                '}';
+    }
+}
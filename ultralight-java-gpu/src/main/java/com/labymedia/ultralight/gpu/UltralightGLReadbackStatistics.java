@@ -0,0 +1,107 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.gpu;
+
+/**
+ * Counters describing the readback of offscreen render buffers into their bitmaps.
+ *
+ * @see UltralightOpenGLGPUDriverNative#getReadbackStatistics()
+ */
+public final class UltralightGLReadbackStatistics {
+    private final long issued;
+    private final long completed;
+    private final long superseded;
+    private final long stalls;
+    private final long stallNanos;
+
+    /**
+     * Constructs new readback statistics.
+     *
+     * @param issued     the amount of readbacks started
+     * @param completed  the amount of readbacks copied into their bitmap
+     * @param superseded the amount of finished readbacks skipped because a newer one finished as well
+     * @param stalls     the amount of times the CPU had to wait for the GPU to finish a readback
+     * @param stallNanos the total time spent waiting for readbacks in nanoseconds
+     */
+    public UltralightGLReadbackStatistics(long issued, long completed, long superseded, long stalls, long stallNanos) {
+        this.issued = issued;
+        this.completed = completed;
+        this.superseded = superseded;
+        this.stalls = stalls;
+        this.stallNanos = stallNanos;
+    }
+
+    /**
+     * Get the amount of readbacks started.
+     *
+     * @return the amount of readbacks started
+     */
+    public long getIssued() {
+        return issued;
+    }
+
+    /**
+     * Get the amount of readbacks copied into their bitmap.
+     *
+     * @return the amount of readbacks completed
+     */
+    public long getCompleted() {
+        return completed;
+    }
+
+    /**
+     * Get the amount of finished readbacks which have not been copied, because a newer readback of the same render
+     * buffer had finished as well.
+     *
+     * @return the amount of superseded readbacks
+     */
+    public long getSuperseded() {
+        return superseded;
+    }
+
+    /**
+     * Get the amount of times the CPU had to wait for the GPU to finish a readback.
+     *
+     * @return the amount of stalls
+     */
+    public long getStalls() {
+        return stalls;
+    }
+
+    /**
+     * Get the total time spent waiting for readbacks.
+     *
+     * @return the stall time in nanoseconds
+     */
+    public long getStallNanos() {
+        return stallNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "UltralightGLReadbackStatistics{" +
+                "issued=" + issued +
+                ", completed=" + completed +
+                ", superseded=" + superseded +
+                ", stalls=" + stalls +
+                ", stallNanos=" + stallNanos +
+                '}';
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2020 - 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.labymedia.ultralight.gpu;
+
+/**
+ * Counters describing the bitmap texture uploads of a single frame.
+ *
+ * @see UltralightOpenGLGPUDriverNative#getTextureUploadStatistics()
+ */
+public final class UltralightGLTextureUploadStatistics {
+    private final long updates;
+    private final long unchangedUpdates;
+    private final long rectangles;
+    private final long uploadedBytes;
+    private final long fullBytes;
+
+    /**
+     * Constructs new texture upload statistics.
+     *
+     * @param updates          the amount of texture updates
+     * @param unchangedUpdates the amount of texture updates which did not change any pixel
+     * @param rectangles       the amount of regions uploaded
+     * @param uploadedBytes    the amount of pixel data uploaded in bytes
+     * @param fullBytes        the amount of pixel data uploading the textures completely would have taken in bytes
+     */
+    public UltralightGLTextureUploadStatistics(
+            long updates, long unchangedUpdates, long rectangles, long uploadedBytes, long fullBytes) {
+        this.updates = updates;
+        this.unchangedUpdates = unchangedUpdates;
+        this.rectangles = rectangles;
+        this.uploadedBytes = uploadedBytes;
+        this.fullBytes = fullBytes;
+    }
+
+    /**
+     * Get the amount of texture updates.
+     *
+     * @return the amount of texture updates
+     */
+    public long getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Get the amount of texture updates which did not change any pixel and therefore did not upload anything.
+     *
+     * @return the amount of unchanged updates
+     */
+    public long getUnchangedUpdates() {
+        return unchangedUpdates;
+    }
+
+    /**
+     * Get the amount of texture regions uploaded, including textures which have been created.
+     *
+     * @return the amount of uploaded regions
+     */
+    public long getRectangles() {
+        return rectangles;
+    }
+
+    /**
+     * Get the amount of pixel data uploaded.
+     *
+     * @return the uploaded pixel data in bytes
+     */
+    public long getUploadedBytes() {
+        return uploadedBytes;
+    }
+
+    /**
+     * Get the amount of pixel data uploading every created and updated texture completely would have taken.
+     *
+     * @return the full texture size in bytes
+     */
+    public long getFullBytes() {
+        return fullBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "UltralightGLTextureUploadStatistics{" +
+                "updates=" + updates +
+                ", unchangedUpdates=" + unchangedUpdates +
+                ", rectangles=" + rectangles +
+                ", uploadedBytes=" + uploadedBytes +
+                ", fullBytes=" + fullBytes +
+                '}';
+    }
+}
@@ -201,6 +201,23 @@ public class UltralightGPUDriverNativeUtil {
      */
     public native void drawCommandList(long handle);
 
+    /**
+     * Check whether the command queue of a window contains commands which have not been drawn yet.
+     *
+     * @param handle GPUDriver handle
+     * @param window GLFW window handle
+     * @return {@code true} if the window has commands pending, {@code false} otherwise
+     */
+    public native boolean hasWindowCommandsPending(long handle, long window);
+
+    /**
+     * Draw the command queue of a window. The context of the window has to be current on the calling thread.
+     *
+     * @param handle GPUDriver handle
+     * @param window GLFW window handle
+     */
+    public native void drawWindowCommandList(long handle, long window);
+
     /**
      * Bind OpenGL texture for a given OpenGL Context handle to a specified texture index.
      *
@@ -227,4 +244,99 @@ public class UltralightGPUDriverNativeUtil {
      * @param window GLFW window handle
      */
     public native void setActiveWindow(long handle, long window);
+
+    /**
+     * Get the amount of GL state calls issued during the last command list.
+     *
+     * @param handle GPUDriver handle
+     * @return the amount of GL state calls issued
+     */
+    public native int getIssuedStateCallCount(long handle);
+
+    /**
+     * Get the amount of GL calls skipped by the redundant state elimination during the last command list.
+     *
+     * @param handle GPUDriver handle
+     * @return the amount of GL calls saved
+     */
+    public native int getSavedStateCallCount(long handle);
+
+    /**
+     * Set how many frames the readback of offscreen render buffers may lag behind.
+     *
+     * @param handle GPUDriver handle
+     * @param frames the maximum amount of frames a readback may be pending, 0 for synchronous readback
+     */
+    public native void setReadbackLatency(long handle, int frames);
+
+    /**
+     * Get the readback counters of offscreen render buffers.
+     *
+     * @param handle GPUDriver handle
+     * @param out    array receiving the issued, completed, superseded, stall count and stall time counters
+     */
+    public native void getReadbackStatistics(long handle, long[] out);
+
+    /**
+     * Enable or disable merging consecutive draws with identical state into a single draw call.
+     *
+     * @param handle  GPUDriver handle
+     * @param enabled whether draws should be merged
+     */
+    public native void setDrawBatchingEnabled(long handle, boolean enabled);
+
+    /**
+     * Get the amount of geometry draw commands contained in the last command list.
+     *
+     * @param handle GPUDriver handle
+     * @return the amount of draw commands
+     */
+    public native int getDrawCommandCount(long handle);
+
+    /**
+     * Get the amount of OpenGL draw calls issued for the last command list.
+     *
+     * @param handle GPUDriver handle
+     * @return the amount of draw calls
+     */
+    public native int getDrawCallCount(long handle);
+
+    /**
+     * Enable or disable uploading only the changed regions of updated textures.
+     *
+     * @param handle  GPUDriver handle
+     * @param enabled whether updated textures should be compared against their previous contents
+     */
+    public native void setTextureDiffingEnabled(long handle, boolean enabled);
+
+    /**
+     * Get the texture upload counters of the last frame.
+     *
+     * @param handle GPUDriver handle
+     * @param out    array receiving the update, unchanged update, rectangle, uploaded byte and full byte counters
+     */
+    public native void getTextureUploadStatistics(long handle, long[] out);
+
+    /**
+     * Set the directory linked shader program binaries are cached in.
+     *
+     * @param handle    GPUDriver handle
+     * @param directory the cache directory, {@code null} or empty to disable the cache
+     */
+    public native void setProgramCacheDirectory(long handle, String directory);
+
+    /**
+     * Load all shader programs which have not been loaded yet.
+     *
+     * @param handle GPUDriver handle
+     */
+    public native void preloadPrograms(long handle);
+
+    /**
+     * Get the shader program cache counters.
+     *
+     * @param handle GPUDriver handle
+     * @param out    array receiving the hit, miss, rejected, stored byte, load time and compile time counters
+     */
+    public native void getProgramCacheStatistics(long handle, long[] out);
 }
@@ -21,6 +21,7 @@ package com.labymedia.ultralight.gpu;
 
 import com.labymedia.ultralight.plugin.render.UltralightGPUDriverNative;
 
+import java.nio.file.Path;
 import java.util.Queue;
 
 /**
@@ -83,6 +84,39 @@ public class UltralightOpenGLGPUDriverNative implements UltralightGPUDriverNativ
         this.util.drawCommandList(this.driverHandle);
     }
 
+    /**
+     * Check whether the command queue of a window contains commands which have not been drawn yet.
+     * <p>
+     * Command lists recorded by {@link com.labymedia.ultralight.UltralightRenderer#render()} are queued for the window
+     * which has been set using {@link #setActiveWindow(long)} at that time.
+     * <p>
+     * Note that Ultralight records the draws of all views into a single command list per render call. The queues
+     * therefore do not separate views by window, they only keep command lists of different render calls apart. To
+     * display different views in different windows, draw the queued commands once and sample the render targets of
+     * the views in each window using {@link #bindTexture(long, long)} or {@link #getGlTextureId(long)}.
+     *
+     * @param window GLFW window handle
+     * @return {@code true} if the window has commands pending, {@code false} otherwise
+     */
+    public boolean hasCommandsPending(long window) {
+        return this.util.hasWindowCommandsPending(this.driverHandle, window);
+    }
+
+    /**
+     * Draw the command queue of a window, without changing the active window. This may be called from any thread
+     * which has the OpenGL context of the window current, the context has to share its objects with the context this
+     * driver has been created for.
+     * <p>
+     * Draws and synchronization share the resources of the driver and are serialized, draws of different windows are
+     * never executed in parallel. Queueing and polling command lists only lock the queues and don't wait for a draw.
+     * See {@link #hasCommandsPending(long)} for which commands are queued for a window.
+     *
+     * @param window GLFW window handle
+     */
+    public void drawCommandList(long window) {
+        this.util.drawWindowCommandList(this.driverHandle, window);
+    }
+
     /**
      * Bind OpenGL texture for a given OpenGL Context handle to a specified texture index.
      *
@@ -100,7 +134,9 @@ public class UltralightOpenGLGPUDriverNative implements UltralightGPUDriverNativ
     }
 
     /**
-     * Set which GLFW context should be active.
+     * Set which GLFW context should be active. Command lists recorded from now on are queued for this window and the
+     * methods without a window parameter operate on it. Each command list contains the draws of all views, see
+     * {@link #hasCommandsPending(long)}.
      *
      * @param window GLFW window handle
      */
@@ -108,4 +144,138 @@ public class UltralightOpenGLGPUDriverNative implements UltralightGPUDriverNativ
     public void setActiveWindow(long window) {
         this.util.setActiveWindow(this.driverHandle, window);
     }
+
+    /**
+     * Get the amount of GL state calls (program, texture, framebuffer and vertex array binds, uniform uploads,
+     * viewport, blend and scissor changes) issued during the last {@link #drawCommandList()} call.
+     *
+     * @return the amount of GL state calls issued
+     */
+    public int getIssuedStateCallCount() {
+        return this.util.getIssuedStateCallCount(this.driverHandle);
+    }
+
+    /**
+     * Get the amount of GL calls which have been skipped during the last {@link #drawCommandList()} call, because
+     * the state they would have set was already in place.
+     *
+     * @return the amount of GL calls saved
+     */
+    public int getSavedStateCallCount() {
+        return this.util.getSavedStateCallCount(this.driverHandle);
+    }
+
+    /**
+     * Set how many frames the readback of offscreen render buffers into their bitmaps may lag behind. With a latency
+     * of 0 every readback blocks until the GPU has finished rendering, higher values let the GPU work ahead at the
+     * cost of the bitmap showing an older frame.
+     *
+     * @param frames the maximum amount of frames a readback may be pending
+     * @throws IllegalArgumentException if frames is negative
+     */
+    public void setReadbackLatency(int frames) {
+        if (frames < 0) {
+            throw new IllegalArgumentException("frames must not be negative");
+        }
+
+        this.util.setReadbackLatency(this.driverHandle, frames);
+    }
+
+    /**
+     * Get the counters of offscreen render buffer readbacks performed so far.
+     *
+     * @return the readback counters
+     */
+    public UltralightGLReadbackStatistics getReadbackStatistics() {
+        long[] counters = new long[5];
+        this.util.getReadbackStatistics(this.driverHandle, counters);
+        return new UltralightGLReadbackStatistics(counters[0], counters[1], counters[2], counters[3], counters[4]);
+    }
+
+    /**
+     * Enable or disable merging consecutive draws which only differ in their index ranges into a single draw call.
+     * Batching is enabled by default.
+     *
+     * @param enabled whether draws should be merged
+     */
+    public void setDrawBatchingEnabled(boolean enabled) {
+        this.util.setDrawBatchingEnabled(this.driverHandle, enabled);
+    }
+
+    /**
+     * Get the amount of geometry draw commands Ultralight submitted with the last {@link #drawCommandList()} call.
+     *
+     * @return the amount of draw commands before batching
+     */
+    public int getDrawCommandCount() {
+        return this.util.getDrawCommandCount(this.driverHandle);
+    }
+
+    /**
+     * Get the amount of OpenGL draw calls issued during the last {@link #drawCommandList()} call.
+     *
+     * @return the amount of draw calls after batching
+     */
+    public int getDrawCallCount() {
+        return this.util.getDrawCallCount(this.driverHandle);
+    }
+
+    /**
+     * Enable or disable uploading only the regions of updated textures which actually changed. This requires a copy of
+     * every bitmap texture to be kept in memory and is therefore disabled by default. When disabled, updated textures
+     * are uploaded completely. Enabling it pays off if large textures are updated frequently while only small parts
+     * of them change.
+     *
+     * @param enabled whether only changed texture regions should be uploaded
+     */
+    public void setTextureDiffingEnabled(boolean enabled) {
+        this.util.setTextureDiffingEnabled(this.driverHandle, enabled);
+    }
+
+    /**
+     * Get the counters of texture uploads performed in preparation of the last {@link #drawCommandList()} call.
+     *
+     * @return the texture upload counters of the last frame
+     */
+    public UltralightGLTextureUploadStatistics getTextureUploadStatistics() {
+        long[] counters = new long[5];
+        this.util.getTextureUploadStatistics(this.driverHandle, counters);
+        return new UltralightGLTextureUploadStatistics(counters[0], counters[1], counters[2], counters[3], counters[4]);
+    }
+
+    /**
+     * Set the directory linked shader program binaries are cached in. Once a program has been compiled, its binary
+     * is stored there and loaded instead of compiling the program again on later launches. Binaries are keyed by
+     * the OpenGL vendor, renderer and version, so a driver update falls back to compiling from source. The cache is
+     * disabled by default and silently ignored if the driver does not support program binaries.
+     * <p>
+     * The directory only applies to programs loaded after this call, so it should be set before the first
+     * {@link #drawCommandList()} or {@link #preloadPrograms()} call.
+     *
+     * @param directory the cache directory, created if missing, or {@code null} to disable the cache
+     */
+    public void setProgramCacheDirectory(Path directory) {
+        this.util.setProgramCacheDirectory(
+                this.driverHandle, directory == null ? null : directory.toAbsolutePath().toString());
+    }
+
+    /**
+     * Load the shader programs now instead of on the first draw, so the compilation does not delay the first frame.
+     * The OpenGL context of this driver has to be current on the calling thread.
+     */
+    public void preloadPrograms() {
+        this.util.preloadPrograms(this.driverHandle);
+    }
+
+    /**
+     * Get the counters describing how the shader programs loaded so far have been obtained.
+     *
+     * @return the program cache counters
+     */
+    public UltralightGLProgramCacheStatistics getProgramCacheStatistics() {
+        long[] counters = new long[6];
+        this.util.getProgramCacheStatistics(this.driverHandle, counters);
+        return new UltralightGLProgramCacheStatistics(
+                counters[0], counters[1], counters[2], counters[3], counters[4], counters[5]);
+    }
 }
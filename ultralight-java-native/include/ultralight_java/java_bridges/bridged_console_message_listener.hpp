@@ -0,0 +1,141 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+#pragma once
+
+#include <Ultralight/Ultralight.h>
+#include <cstdint>
+#include <unordered_map>
+#include <vector>
+
+#include "ultralight_java/util/jni_reference_wrapper.hpp"
+
+namespace ultralight_java {
+    /**
+     * Bridge for com/labymedia/ultralight/plugin/view/UltralightConsoleMessageListener.
+     *
+     * Console messages are collected natively and passed to java in a single call per renderer update.
+     * Identical messages within one update are merged into a single entry with a repeat count, and
+     * once the per update limit is reached further distinct messages are only counted.
+     */
+    class BridgedConsoleMessageListener : public JNIReferenceWrapper {
+    private:
+        /**
+         * A buffered console message
+         */
+        struct Entry {
+            ultralight::MessageSource source;
+            ultralight::MessageLevel level;
+            ultralight::String16 message;
+            uint32_t line_number;
+            uint32_t column_number;
+            ultralight::String16 source_id;
+            uint32_t repeat_count;
+        };
+
+        /**
+         * Hashes entries by everything except the repeat count
+         */
+        struct EntryHash {
+            size_t operator()(const Entry *entry) const;
+        };
+
+        /**
+         * Compares entries by everything except the repeat count
+         */
+        struct EntryEquals {
+            bool operator()(const Entry *a, const Entry *b) const;
+        };
+
+        size_t max_messages_per_update;
+        std::vector<Entry *> entries;
+        std::unordered_map<Entry *, size_t, EntryHash, EntryEquals> entry_indices;
+        uint64_t suppressed_count;
+
+        /**
+         * Deletes all buffered entries.
+         */
+        void clear();
+
+    public:
+        /**
+         * Creates a new BridgedConsoleMessageListener using a JNI environment and a java instance.
+         *
+         * @param env The environment to use for referencing the listener
+         * @param listener The java instance of the listener
+         * @param max_messages_per_update The maximum amount of distinct messages passed to java per update
+         */
+        explicit BridgedConsoleMessageListener(JNIEnv *env, jobject listener, size_t max_messages_per_update);
+
+        ~BridgedConsoleMessageListener() override;
+
+        /**
+         * Buffers a console message until the next flush.
+         *
+         * @param source The source the message originated from
+         * @param level The severity of the message
+         * @param message The message itself
+         * @param line_number The line the message originated from
+         * @param column_number The column the message originated from
+         * @param source_id The id of the source
+         */
+        void add(
+            ultralight::MessageSource source,
+            ultralight::MessageLevel level,
+            const ultralight::String &message,
+            uint32_t line_number,
+            uint32_t column_number,
+            const ultralight::String &source_id);
+
+        /**
+         * Console messages taken out of a listener, ready to be passed to java.
+         */
+        struct Batch {
+            /**
+             * Local reference to the java listener, stays valid if the native listener is deleted
+             */
+            jobject listener;
+
+            /**
+             * Local reference to the list of messages
+             */
+            jobject messages;
+
+            jlong suppressed_count;
+        };
+
+        /**
+         * Takes all buffered messages out of this listener. The batch is passed to java separately, so the
+         * java listener may replace or remove this listener without invalidating the batch.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param batch The batch to fill
+         * @return true if messages have been taken, false if no message has been buffered or an exception occurred
+         */
+        bool take(JNIEnv *env, Batch &batch);
+
+        /**
+         * Passes a batch to its java listener and deletes its local references.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param batch The batch to pass
+         */
+        static void deliver(JNIEnv *env, const Batch &batch);
+    };
+} // namespace ultralight_java
@@ -20,22 +20,134 @@
 #pragma once
 
 #include <Ultralight/platform/Logger.h>
+#include <atomic>
+#include <chrono>
+#include <condition_variable>
+#include <cstdint>
+#include <mutex>
+#include <thread>
+#include <vector>
 
+#include "ultralight_java/util/bounded_queue.hpp"
 #include "ultralight_java/util/jni_reference_wrapper.hpp"
 
 namespace ultralight_java {
+    /**
+     * Options controlling how log messages are passed to java.
+     */
+    struct BridgedLoggerOptions {
+        /**
+         * The least severe level which is still passed to java, messages below it never cross JNI
+         */
+        ultralight::LogLevel minimum_level = ultralight::kLogLevel_Info;
+
+        /**
+         * Whether messages should be buffered and delivered by a dedicated thread
+         */
+        bool asynchronous = false;
+
+        /**
+         * The amount of messages the buffer can hold in asynchronous mode
+         */
+        size_t buffer_capacity = 1024;
+
+        /**
+         * The maximum delay before buffered messages are delivered in asynchronous mode
+         */
+        std::chrono::milliseconds flush_interval = std::chrono::milliseconds(50);
+    };
+
     /**
      * Bridge for com/labymedia/ultralight/plugin/logging/Logger to ultralight::Logger
      */
     class BridgedLogger : public ultralight::Logger, public JNIReferenceWrapper {
+    private:
+        /**
+         * A message waiting in the buffer for delivery
+         */
+        struct PendingMessage {
+            ultralight::LogLevel level = ultralight::kLogLevel_Info;
+            ultralight::String16 message;
+        };
+
+        BridgedLoggerOptions options;
+
+        std::atomic<uint64_t> filtered_count;
+        std::atomic<uint64_t> dropped_count;
+        uint64_t reported_dropped_count;
+
+        /**
+         * Buffer receiving the messages logged on the current thread while a capture is active
+         */
+        static thread_local std::vector<ultralight::String16> *capture_target;
+
+        BoundedQueue<PendingMessage> queue;
+        std::mutex wakeup_mutex;
+        std::condition_variable wakeup_condition;
+        std::atomic<bool> running;
+        std::thread delivery_thread;
+
+        /**
+         * Passes a single message to java on the calling thread.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param log_level The level of the message
+         * @param message The message to pass
+         */
+        void deliver(JNIEnv *env, ultralight::LogLevel log_level, const ultralight::String16 &message);
+
+        /**
+         * Main loop of the delivery thread.
+         */
+        void run_delivery();
+
+        /**
+         * Passes all buffered messages to java in batches.
+         *
+         * @param env The JNI environment to use for accessing java
+         */
+        void drain(JNIEnv *env);
+
     public:
+        /**
+         * Redirects the messages logged on the calling thread into a buffer for as long as it exists, instead of
+         * passing them to java. Messages logged on other threads are not affected.
+         */
+        class ThreadCapture {
+        private:
+            std::vector<ultralight::String16> *previous_target;
+
+        public:
+            /**
+             * Starts capturing the messages of the calling thread.
+             *
+             * @param target The buffer to append the messages to
+             */
+            explicit ThreadCapture(std::vector<ultralight::String16> *target);
+
+            /**
+             * Stops capturing and restores a possibly enclosing capture.
+             */
+            ~ThreadCapture();
+
+            ThreadCapture(const ThreadCapture &) = delete;
+            ThreadCapture &operator=(const ThreadCapture &) = delete;
+        };
+
         /**
          * Creates a new BridgedLogger using a JNI environment and a java instance.
          *
          * @param env The environment to use for referencing the logger
          * @param logger The java instance of the logger
+         * @param options The options controlling the delivery of messages
+         */
+        explicit BridgedLogger(JNIEnv *env, jobject logger, const BridgedLoggerOptions &options);
+
+        /**
+         * Stops the delivery thread after delivering all remaining messages. Must not be called
+         * from the delivery thread.
          */
-        explicit BridgedLogger(JNIEnv *env, jobject logger);
+        ~BridgedLogger() override;
 
         /**
          * Called when the library wants to print a message to the log.
@@ -44,5 +156,27 @@ namespace ultralight_java {
          * @param message The message that should be printed
          */
         void LogMessage(ultralight::LogLevel log_level, const ultralight::String16 &message) final;
+
+        /**
+         * Determines whether the calling thread is the asynchronous delivery thread of this logger.
+         * The logger must not be destroyed from this thread, as it would have to join itself.
+         *
+         * @return Whether the calling thread is the delivery thread
+         */
+        bool is_delivery_thread() const;
+
+        /**
+         * Retrieves the amount of messages which have been discarded because they were below the minimum level.
+         *
+         * @return The amount of filtered messages
+         */
+        uint64_t get_filtered_count() const;
+
+        /**
+         * Retrieves the amount of messages which have been discarded because the buffer was full.
+         *
+         * @return The amount of dropped messages
+         */
+        uint64_t get_dropped_count() const;
     };
-} // namespace ultralight_java
\ No newline at end of file
+} // namespace ultralight_java
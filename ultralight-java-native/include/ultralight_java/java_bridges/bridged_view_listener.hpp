@@ -20,7 +20,9 @@
 #pragma once
 
 #include <Ultralight/Ultralight.h>
+#include <memory>
 
+#include "ultralight_java/java_bridges/bridged_console_message_listener.hpp"
 #include "ultralight_java/util/jni_reference_wrapper.hpp"
 
 namespace ultralight_java {
@@ -28,14 +30,39 @@ namespace ultralight_java {
      * Bridge for com/labymedia/ultralight/plugin/view/UltralightViewListener to ultralight::ViewListener
      */
     class BridgedViewListener : public ultralight::ViewListener, public JNIReferenceWrapper {
+    private:
+        std::unique_ptr<BridgedConsoleMessageListener> console_message_listener;
+
     public:
         /**
          * Constructs a new BridgedViewListener wrapping an existing java listener.
          *
          * @param env The environment to use for wrapping the listener
-         * @param listener The listener which should be wrapped
+         * @param listener The listener which should be wrapped, or nullptr, if only console messages
+         *                 should be batched
+         * @param console_message_listener The listener to batch console messages for, or nullptr, if console
+         *                                 messages should be passed to the wrapped listener directly
+         */
+        explicit BridgedViewListener(
+            JNIEnv *env,
+            jobject listener,
+            std::unique_ptr<BridgedConsoleMessageListener> console_message_listener = nullptr);
+
+        /**
+         * Takes the console message listener out of this listener, used when replacing the view listener.
+         *
+         * @return The console message listener, or nullptr, if none
+         */
+        std::unique_ptr<BridgedConsoleMessageListener> release_console_message_listener();
+
+        /**
+         * Takes the batched console messages out of this listener, if console messages are batched.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param batch The batch to fill
+         * @return true if messages have been taken, false otherwise
          */
-        explicit BridgedViewListener(JNIEnv *env, jobject listener);
+        bool take_console_messages(JNIEnv *env, BridgedConsoleMessageListener::Batch &batch);
 
         /**
          * Called when the page title changes.
@@ -135,6 +135,16 @@ namespace ultralight_java {
          */
         static jobject make_array(JNIEnv *env, jobject java_instance, jobjectArray java_arguments);
 
+        /**
+         * Creates a new javascript array of numbers.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param java_instance The java instance of this context
+         * @param java_values The numbers the array should contain
+         * @return The created array
+         */
+        static jobject make_number_array(JNIEnv *env, jobject java_instance, jdoubleArray java_values);
+
         /**
          * Creates a new javascript Date.
          *
@@ -167,6 +167,18 @@ namespace ultralight_java {
          */
         static void set_private(JNIEnv *env, jobject java_instance, jobject java_data);
 
+        /**
+         * Caches the value of a property of this object natively.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param java_instance The java instance of this JSObjectRef
+         * @param java_property_name The name of the property to cache the value for
+         * @param java_value The value to cache
+         * @return true if the value has been cached, false otherwise
+         */
+        static jboolean cache_property(
+            JNIEnv *env, jobject java_instance, jstring java_property_name, jobject java_value);
+
         /**
          * Determines whether this object can be called as a function.
          *
@@ -215,5 +227,14 @@ namespace ultralight_java {
          * @return An array of enumerable property names
          */
         static jobjectArray copy_property_names(JNIEnv *env, jobject java_instance);
+
+        /**
+         * Copies the elements of this array like object into a java array of numbers.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param java_instance The java instance of this JSObjectRef
+         * @return The elements converted to numbers
+         */
+        static jdoubleArray to_number_array(JNIEnv *env, jobject java_instance);
     };
 } // namespace ultralight_java
\ No newline at end of file
@@ -52,6 +52,15 @@ namespace ultralight_java {
          */
         static jfloatArray get_data(JNIEnv *env, jobject instance);
 
+        /**
+         * Overwrites the data of the matrix with the values of a float array.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param instance The java instance of the Matrix
+         * @param data The 16 values to copy into the matrix, in the same order as returned by get_data
+         */
+        static void set_data(JNIEnv *env, jobject instance, jfloatArray data);
+
         /**
          * Sets this matrix as an identity matrix.
          *
@@ -109,8 +109,27 @@ namespace ultralight_java {
          * @param env The JNI environment to use for accessing java
          * @param java_instance The instance of the platform as a java object
          * @param java_logger The java logger object
+         * @param java_config The java logger config controlling filtering and delivery
          */
-        static void set_logger(JNIEnv *env, jobject java_instance, jobject java_logger);
+        static void set_logger(JNIEnv *env, jobject java_instance, jobject java_logger, jobject java_config);
+
+        /**
+         * Retrieves the amount of log messages discarded by the current logger for being below its minimum level.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param java_instance The instance of the platform as a java object
+         * @return The amount of filtered messages, or 0, if no logger is set
+         */
+        static jlong filtered_log_message_count(JNIEnv *env, jobject java_instance);
+
+        /**
+         * Retrieves the amount of log messages dropped by the current logger because its buffer was full.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param java_instance The instance of the platform as a java object
+         * @return The amount of dropped messages, or 0, if no logger is set
+         */
+        static jlong dropped_log_message_count(JNIEnv *env, jobject java_instance);
 
         static void use_opengl_driver(JNIEnv *env, jobject java_instance);
     };
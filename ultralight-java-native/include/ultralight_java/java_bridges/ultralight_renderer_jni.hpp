@@ -79,5 +79,24 @@ namespace ultralight_java {
          * @param instance The java object of the ultralight::Renderer instance
          */
         static void logMemoryUsage(JNIEnv *env, jobject instance);
+
+        /**
+         * Calls the ultralight::Renderer::LogMemoryUsage method while capturing the
+         * logged lines instead of passing them to the platform logger.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param instance The java object of the ultralight::Renderer instance
+         * @return The captured lines as a java string array
+         */
+        static jobjectArray capture_memory_usage(JNIEnv *env, jobject instance);
+
+        /**
+         * Copies the counters of the current GPU driver into a java array and resets them.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param caller_class The java class calling the method, should always be UltralightRenderer
+         * @param target The java array to write the counters to
+         */
+        static void take_gpu_driver_counters(JNIEnv *env, jclass caller_class, jlongArray target);
     };
 } // namespace ultralight_java
\ No newline at end of file
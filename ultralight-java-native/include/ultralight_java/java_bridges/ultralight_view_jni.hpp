@@ -22,6 +22,7 @@
 #include <jni.h>
 #include <Ultralight/Ultralight.h>
 
+#include <memory>
 #include <unordered_map>
 
 #include "ultralight_java/java_bridges/bridged_view_listener.hpp"
@@ -35,6 +36,21 @@ namespace ultralight_java {
     private:
         static std::unordered_map<ultralight::View *, BridgedViewListener *> existing_view_listeners;
         static std::unordered_map<ultralight::View *, BridgedLoadListener *> existing_load_listeners;
+        static std::unordered_map<ultralight::View *, ultralight::Renderer *> view_renderers;
+
+        /**
+         * Replaces the native listener of a view, deleting the previous one.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param view The view to replace the listener on
+         * @param listener The java view listener, may be nullptr
+         * @param console_message_listener The console message batching listener, may be nullptr
+         */
+        static void install_view_listener(
+            JNIEnv *env,
+            ultralight::View *view,
+            jobject listener,
+            std::unique_ptr<BridgedConsoleMessageListener> console_message_listener);
 
     public:
         /**
@@ -268,6 +284,65 @@ namespace ultralight_java {
          */
         static void fire_scroll_event(JNIEnv *env, jobject instance, jobject event);
 
+        /**
+         * Sends a key event described by its primitive components to this view.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param instance The java instance of the view
+         * @param type The type code of the event
+         * @param modifiers The modifiers of the event
+         * @param virtual_key_code The virtual key code of the event
+         * @param native_key_code The native key code of the event
+         * @param flags The flags of the event
+         * @param text The text the event generated, may be nullptr
+         * @param unmodified_text The text the event would have generated without modifiers, may be nullptr
+         */
+        static void fire_key_event_primitive(
+            JNIEnv *env,
+            jobject instance,
+            jint type,
+            jint modifiers,
+            jint virtual_key_code,
+            jint native_key_code,
+            jint flags,
+            jstring text,
+            jstring unmodified_text);
+
+        /**
+         * Sends a mouse event described by its primitive components to this view.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param instance The java instance of the view
+         * @param type The type code of the event
+         * @param x The x position of the mouse
+         * @param y The y position of the mouse
+         * @param button The button code of the event
+         */
+        static void fire_mouse_event_primitive(JNIEnv *env, jobject instance, jint type, jint x, jint y, jint button);
+
+        /**
+         * Sends a scroll event described by its primitive components to this view.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param instance The java instance of the view
+         * @param type The type code of the event
+         * @param delta_x The horizontal scroll delta
+         * @param delta_y The vertical scroll delta
+         */
+        static void fire_scroll_event_primitive(JNIEnv *env, jobject instance, jint type, jint delta_x, jint delta_y);
+
+        /**
+         * Decodes and sends a batch of encoded input events to this view.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param instance The java instance of the view
+         * @param buffer The direct buffer containing the encoded events
+         * @param offset The offset in bytes of the first event in the buffer
+         * @param length The length in bytes of the encoded events
+         * @return The amount of events that have been sent
+         */
+        static jint fire_input_events(JNIEnv *env, jobject instance, jobject buffer, jint offset, jint length);
+
         /**
          * Sets the view listener for this view.
          *
@@ -277,6 +352,34 @@ namespace ultralight_java {
          */
         static void set_view_listener(JNIEnv *env, jobject instance, jobject listener);
 
+        /**
+         * Sets the listener receiving batched console messages for this view.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param instance The java instance of the view
+         * @param listener The listener to set on this view, or nullptr, to pass console messages to the
+         *                 view listener again
+         * @param max_messages_per_update The maximum amount of distinct messages passed per update
+         */
+        static void set_console_message_listener(
+            JNIEnv *env, jobject instance, jobject listener, jint max_messages_per_update);
+
+        /**
+         * Records the renderer which created a view.
+         *
+         * @param view The created view
+         * @param renderer The renderer which created the view
+         */
+        static void register_view(ultralight::View *view, ultralight::Renderer *renderer);
+
+        /**
+         * Passes the batched console messages of all views of a renderer to java.
+         *
+         * @param env The JNI environment to use for accessing java
+         * @param renderer The renderer to pass the messages of
+         */
+        static void flush_console_messages(JNIEnv *env, ultralight::Renderer *renderer);
+
         /**
          * Sets the load listener for this view.
          *
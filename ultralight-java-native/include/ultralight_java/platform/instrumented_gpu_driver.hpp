@@ -0,0 +1,101 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+#pragma once
+
+#include <Ultralight/Ultralight.h>
+#include <atomic>
+#include <cstdint>
+
+namespace ultralight_java {
+    /**
+     * Indices of the counters collected by an InstrumentedGPUDriver. The same order is used
+     * by com/labymedia/ultralight/instrumentation/UltralightFrameStatistics.
+     */
+    enum class GPUDriverCounter : uint8_t {
+        COMMAND_LISTS = 0,
+        COMMANDS,
+        GEOMETRY_CREATES,
+        GEOMETRY_UPDATES,
+        GEOMETRY_BYTES,
+        TEXTURE_CREATES,
+        TEXTURE_UPDATES,
+        TEXTURE_BYTES,
+        COUNT
+    };
+
+    /**
+     * GPU driver which forwards every call to another driver and counts the work submitted
+     * by the renderer in between.
+     */
+    class InstrumentedGPUDriver : public ultralight::GPUDriver {
+    private:
+        ultralight::GPUDriver *delegate;
+        std::atomic<int64_t> counters[static_cast<size_t>(GPUDriverCounter::COUNT)];
+
+        void increment(GPUDriverCounter counter, int64_t amount = 1);
+
+    public:
+        /**
+         * Creates a new InstrumentedGPUDriver taking ownership of the given driver.
+         *
+         * @param delegate The driver to forward all calls to
+         */
+        explicit InstrumentedGPUDriver(ultralight::GPUDriver *delegate);
+        ~InstrumentedGPUDriver() override;
+
+        /**
+         * Copies the current counter values into the given array and resets them to 0.
+         *
+         * @param target The array to write the counters to, needs to hold at least
+         *               GPUDriverCounter::COUNT elements
+         */
+        void take_counters(int64_t *target);
+
+        void BeginSynchronize() final;
+
+        void EndSynchronize() final;
+
+        uint32_t NextTextureId() final;
+
+        void CreateTexture(uint32_t texture_id, ultralight::Ref<ultralight::Bitmap> bitmap) final;
+
+        void UpdateTexture(uint32_t texture_id, ultralight::Ref<ultralight::Bitmap> bitmap) final;
+
+        void DestroyTexture(uint32_t texture_id) final;
+
+        uint32_t NextRenderBufferId() final;
+
+        void CreateRenderBuffer(uint32_t render_buffer_id, const ultralight::RenderBuffer &buffer) final;
+
+        void DestroyRenderBuffer(uint32_t render_buffer_id) final;
+
+        uint32_t NextGeometryId() final;
+
+        void CreateGeometry(
+            uint32_t geometry_id, const ultralight::VertexBuffer &vertices, const ultralight::IndexBuffer &indices) final;
+
+        void UpdateGeometry(
+            uint32_t geometry_id, const ultralight::VertexBuffer &vertices, const ultralight::IndexBuffer &indices) final;
+
+        void DestroyGeometry(uint32_t geometry_id) final;
+
+        void UpdateCommandList(const ultralight::CommandList &list) final;
+    };
+} // namespace ultralight_java
@@ -33,7 +33,7 @@ namespace ultralight_java {
     private:
         jobject reference;
         uint64_t ref_count;
-
+        JSObjectRef cached_properties;
 
     public:
         /**
@@ -79,6 +79,21 @@ namespace ultralight_java {
          * @param new_reference The new reference to carry
          */
         void swap(JNIEnv *env, jobject new_reference);
+
+        /**
+         * Retrieves the object holding the cached property values of the owning object.
+         *
+         * @return The object holding the cached property values, or nullptr, if no values have been cached yet
+         */
+        JSObjectRef get_cached_properties() const;
+
+        /**
+         * Sets the object holding the cached property values of the owning object. The holder is not protected,
+         * it needs to be kept alive by the owning object itself.
+         *
+         * @param holder The object holding the cached property values
+         */
+        void set_cached_properties(JSObjectRef holder);
     };
 
     /**
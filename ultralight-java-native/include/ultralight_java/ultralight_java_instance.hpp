@@ -31,6 +31,7 @@ namespace ultralight_java {
     class BridgedFileSystem;
     class BridgedGPUDriver;
     class BridgedClipboard;
+    class InstrumentedGPUDriver;
 
     struct UltralightJavaRuntime {
         struct {
@@ -144,8 +145,25 @@ namespace ultralight_java {
              * Method taking a log level and message to log
              */
             jmethodID log_message_method;
+
+            /*
+             * Method taking arrays of log levels and messages to log in a batch
+             */
+            jmethodID log_messages_method;
         } logger;
 
+        struct {
+            /**
+             * The java class itself
+             */
+            jclass clazz;
+
+            /* UltralightLogLevel */ jfieldID minimum_level_field;
+            /* boolean */ jfieldID asynchronous_field;
+            /* int */ jfieldID buffer_capacity_field;
+            /* long */ jfieldID flush_interval_millis_field;
+        } ultralight_logger_config;
+
         struct {
             /**
              * The java class itself
@@ -609,6 +627,42 @@ namespace ultralight_java {
             jmethodID on_create_child_view_method;
         } ultralight_view_listener;
 
+        struct {
+            /**
+             * The java class itself
+             */
+            jclass clazz;
+
+            /**
+             * Constructor taking the source, level, message, line, column, source id and repeat count
+             */
+            jmethodID constructor;
+        } ultralight_console_message;
+
+        struct {
+            /**
+             * The java class itself
+             */
+            jclass clazz;
+
+            /**
+             * Method taking a list of console messages and the amount of suppressed messages
+             */
+            jmethodID on_console_messages_method;
+        } ultralight_console_message_listener;
+
+        struct {
+            /**
+             * The java class itself
+             */
+            jclass clazz;
+
+            /**
+             * The static asList method
+             */
+            jmethodID as_list_method;
+        } arrays;
+
         struct {
             /**
              * The java class itself
@@ -1006,7 +1060,7 @@ namespace ultralight_java {
         /**
          * Current global GPU driver instance, or nullptr, if none
          */
-        ultralight::GPUDriver *bridged_gpu_driver;
+        InstrumentedGPUDriver *bridged_gpu_driver;
 
         /**
          * Current global clipboard instance, or nullptr, if none
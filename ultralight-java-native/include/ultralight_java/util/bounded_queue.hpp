@@ -0,0 +1,165 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+#pragma once
+
+#include <atomic>
+#include <cstddef>
+#include <memory>
+
+namespace ultralight_java {
+    /**
+     * Bounded lock-free multi-producer multi-consumer queue.
+     *
+     * Every slot carries a sequence number which tells producers and consumers whether the slot
+     * is free for the current lap, so neither side ever needs a lock. Pushing to a full queue
+     * fails instead of blocking.
+     *
+     * @tparam T The type of the stored elements, needs to be default constructible and move assignable
+     */
+    template <typename T>
+    class BoundedQueue {
+    private:
+        struct Slot {
+            std::atomic<size_t> sequence;
+            T value;
+        };
+
+        std::unique_ptr<Slot[]> slots;
+        size_t mask;
+
+        // Keep the positions on separate cache lines, producers and consumers touch them from different threads
+        alignas(64) std::atomic<size_t> enqueue_position;
+        alignas(64) std::atomic<size_t> dequeue_position;
+
+        static size_t round_up_to_power_of_two(size_t value) {
+            size_t result = 2;
+            while(result < value) {
+                result <<= 1;
+            }
+
+            return result;
+        }
+
+    public:
+        /**
+         * Constructs a new queue.
+         *
+         * @param capacity The minimum capacity of the queue, rounded up to the next power of two
+         */
+        explicit BoundedQueue(size_t capacity)
+            : mask(round_up_to_power_of_two(capacity) - 1), enqueue_position(0), dequeue_position(0) {
+            slots = std::make_unique<Slot[]>(mask + 1);
+            for(size_t i = 0; i <= mask; i++) {
+                slots[i].sequence.store(i, std::memory_order_relaxed);
+            }
+        }
+
+        BoundedQueue(const BoundedQueue &) = delete;
+        BoundedQueue &operator=(const BoundedQueue &) = delete;
+
+        /**
+         * Attempts to push a value onto the queue.
+         *
+         * @param value The value to push
+         * @return Whether the value has been pushed, false if the queue is full
+         */
+        bool try_push(T value) {
+            size_t position = enqueue_position.load(std::memory_order_relaxed);
+            Slot *slot;
+
+            for(;;) {
+                slot = &slots[position & mask];
+                size_t sequence = slot->sequence.load(std::memory_order_acquire);
+                auto difference = static_cast<intptr_t>(sequence) - static_cast<intptr_t>(position);
+
+                if(difference == 0) {
+                    // The slot is free for this lap, try to claim it
+                    if(enqueue_position.compare_exchange_weak(position, position + 1, std::memory_order_relaxed)) {
+                        break;
+                    }
+                } else if(difference < 0) {
+                    // The consumer has not freed the slot yet, the queue is full
+                    return false;
+                } else {
+                    // Another producer claimed the slot, retry with the new position
+                    position = enqueue_position.load(std::memory_order_relaxed);
+                }
+            }
+
+            slot->value = std::move(value);
+            slot->sequence.store(position + 1, std::memory_order_release);
+            return true;
+        }
+
+        /**
+         * Attempts to pop a value from the queue.
+         *
+         * @param out The location to move the popped value to
+         * @return Whether a value has been popped, false if the queue is empty
+         */
+        bool try_pop(T &out) {
+            size_t position = dequeue_position.load(std::memory_order_relaxed);
+            Slot *slot;
+
+            for(;;) {
+                slot = &slots[position & mask];
+                size_t sequence = slot->sequence.load(std::memory_order_acquire);
+                auto difference = static_cast<intptr_t>(sequence) - static_cast<intptr_t>(position + 1);
+
+                if(difference == 0) {
+                    // The slot has been filled for this lap, try to claim it
+                    if(dequeue_position.compare_exchange_weak(position, position + 1, std::memory_order_relaxed)) {
+                        break;
+                    }
+                } else if(difference < 0) {
+                    // The producer has not filled the slot yet, the queue is empty
+                    return false;
+                } else {
+                    // Another consumer claimed the slot, retry with the new position
+                    position = dequeue_position.load(std::memory_order_relaxed);
+                }
+            }
+
+            out = std::move(slot->value);
+            slot->sequence.store(position + mask + 1, std::memory_order_release);
+            return true;
+        }
+
+        /**
+         * Retrieves an approximation of the amount of elements in the queue.
+         *
+         * @return The approximate size, may be outdated as soon as it is returned
+         */
+        size_t approximate_size() const {
+            size_t enqueued = enqueue_position.load(std::memory_order_relaxed);
+            size_t dequeued = dequeue_position.load(std::memory_order_relaxed);
+            return enqueued >= dequeued ? enqueued - dequeued : 0;
+        }
+
+        /**
+         * Retrieves the capacity of this queue.
+         *
+         * @return The amount of elements this queue can hold
+         */
+        size_t capacity() const {
+            return mask + 1;
+        }
+    };
+} // namespace ultralight_java
@@ -139,6 +139,57 @@ namespace ultralight_java {
          */
         static ultralight::ScrollEvent create_scroll_event_from_jobject(JNIEnv *env, jobject event);
 
+        /**
+         * Creates a native ultralight::KeyEvent from its primitive components. The key identifier is derived from
+         * the virtual key code for all events except character events.
+         *
+         * @param env The JNI environment to use for throwing exceptions
+         * @param type The type code of the event, one of the UltralightInputEvents.KEY_* constants
+         * @param modifiers The modifiers of the event
+         * @param virtual_key_code The virtual key code of the event
+         * @param native_key_code The native key code of the event
+         * @param flags The flags of the event, a combination of the UltralightInputEvents.KEY_FLAG_* constants
+         * @param text The text the event generated
+         * @param unmodified_text The text the event would have generated without modifiers
+         * @param out A pointer to write the created event to
+         * @return Whether the event could be created, if false, a java exception has been thrown
+         */
+        static bool create_key_event(
+            JNIEnv *env,
+            jint type,
+            jint modifiers,
+            jint virtual_key_code,
+            jint native_key_code,
+            jint flags,
+            const ultralight::String &text,
+            const ultralight::String &unmodified_text,
+            ultralight::KeyEvent *out);
+
+        /**
+         * Creates a native ultralight::MouseEvent from its primitive components.
+         *
+         * @param env The JNI environment to use for throwing exceptions
+         * @param type The type code of the event, one of the UltralightInputEvents.MOUSE_* constants
+         * @param x The x position of the mouse
+         * @param y The y position of the mouse
+         * @param button The button code of the event, one of the UltralightInputEvents.MOUSE_BUTTON_* constants
+         * @param out A pointer to write the created event to
+         * @return Whether the event could be created, if false, a java exception has been thrown
+         */
+        static bool create_mouse_event(JNIEnv *env, jint type, jint x, jint y, jint button, ultralight::MouseEvent *out);
+
+        /**
+         * Creates a native ultralight::ScrollEvent from its primitive components.
+         *
+         * @param env The JNI environment to use for throwing exceptions
+         * @param type The type code of the event, one of the UltralightInputEvents.SCROLL_* constants
+         * @param delta_x The horizontal scroll delta
+         * @param delta_y The vertical scroll delta
+         * @param out A pointer to write the created event to
+         * @return Whether the event could be created, if false, a java exception has been thrown
+         */
+        static bool create_scroll_event(JNIEnv *env, jint type, jint delta_x, jint delta_y, ultralight::ScrollEvent *out);
+
         /**
          * Creates a java float array from a native float array.
          *
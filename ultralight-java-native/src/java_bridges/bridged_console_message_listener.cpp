@@ -0,0 +1,177 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+#include "ultralight_java/java_bridges/bridged_console_message_listener.hpp"
+
+#include <cstring>
+
+#include "ultralight_java/ultralight_java_instance.hpp"
+#include "ultralight_java/util/util.hpp"
+
+namespace ultralight_java {
+    namespace {
+        /**
+         * FNV-1a over the characters of a string, mixed into an existing hash.
+         */
+        uint64_t hash_string(uint64_t hash, const ultralight::String16 &str) {
+            const jchar *chars = str.udata();
+            for(size_t i = 0; i < str.length(); i++) {
+                hash ^= chars[i];
+                hash *= 1099511628211ULL;
+            }
+
+            return hash;
+        }
+
+        bool strings_equal(const ultralight::String16 &a, const ultralight::String16 &b) {
+            return a.length() == b.length() && std::memcmp(a.udata(), b.udata(), a.length() * sizeof(jchar)) == 0;
+        }
+    } // namespace
+
+    size_t BridgedConsoleMessageListener::EntryHash::operator()(const Entry *entry) const {
+        uint64_t hash = 14695981039346656037ULL;
+        hash = hash_string(hash, entry->message);
+        hash = hash_string(hash, entry->source_id);
+        hash ^= (static_cast<uint64_t>(entry->line_number) << 32) ^ entry->column_number;
+        hash ^= (static_cast<uint64_t>(entry->source) << 8) ^ static_cast<uint64_t>(entry->level);
+        return static_cast<size_t>(hash);
+    }
+
+    bool BridgedConsoleMessageListener::EntryEquals::operator()(const Entry *a, const Entry *b) const {
+        return a->source == b->source && a->level == b->level && a->line_number == b->line_number &&
+               a->column_number == b->column_number && strings_equal(a->message, b->message) &&
+               strings_equal(a->source_id, b->source_id);
+    }
+
+    BridgedConsoleMessageListener::BridgedConsoleMessageListener(
+        JNIEnv *env, jobject listener, size_t max_messages_per_update)
+        : JNIReferenceWrapper(env, listener), max_messages_per_update(max_messages_per_update), suppressed_count(0) {
+    }
+
+    BridgedConsoleMessageListener::~BridgedConsoleMessageListener() {
+        clear();
+    }
+
+    void BridgedConsoleMessageListener::clear() {
+        entry_indices.clear();
+        for(Entry *entry : entries) {
+            delete entry;
+        }
+
+        entries.clear();
+        suppressed_count = 0;
+    }
+
+    void BridgedConsoleMessageListener::add(
+        ultralight::MessageSource source,
+        ultralight::MessageLevel level,
+        const ultralight::String &message,
+        uint32_t line_number,
+        uint32_t column_number,
+        const ultralight::String &source_id) {
+        auto *entry = new Entry{source, level, message.utf16(), line_number, column_number, source_id.utf16(), 1};
+
+        if(auto it = entry_indices.find(entry); it != entry_indices.end()) {
+            // Same message as before in this update, only count it
+            entries[it->second]->repeat_count++;
+            delete entry;
+            return;
+        }
+
+        if(entries.size() >= max_messages_per_update) {
+            suppressed_count++;
+            delete entry;
+            return;
+        }
+
+        entry_indices.emplace(entry, entries.size());
+        entries.push_back(entry);
+    }
+
+    bool BridgedConsoleMessageListener::take(JNIEnv *env, Batch &batch) {
+        if(entries.empty() && suppressed_count == 0) {
+            return false;
+        }
+
+        auto count = static_cast<jsize>(entries.size());
+        jobjectArray java_messages = env->NewObjectArray(count, runtime.ultralight_console_message.clazz, nullptr);
+        if(!java_messages) {
+            clear();
+            return false;
+        }
+
+        for(jsize i = 0; i < count; i++) {
+            const Entry *entry = entries[i];
+
+            jobject java_source = runtime.message_source.constants.to_java(env, entry->source);
+            jobject java_level = runtime.message_level.constants.to_java(env, entry->level);
+            jstring java_message = Util::create_jstring_from_utf16(env, entry->message);
+            jstring java_source_id = Util::create_jstring_from_utf16(env, entry->source_id);
+
+            jobject java_console_message = env->NewObject(
+                runtime.ultralight_console_message.clazz,
+                runtime.ultralight_console_message.constructor,
+                java_source,
+                java_level,
+                java_message,
+                static_cast<jlong>(entry->line_number),
+                static_cast<jlong>(entry->column_number),
+                java_source_id,
+                static_cast<jint>(entry->repeat_count));
+
+            env->SetObjectArrayElement(java_messages, i, java_console_message);
+
+            env->DeleteLocalRef(java_console_message);
+            env->DeleteLocalRef(java_source_id);
+            env->DeleteLocalRef(java_message);
+            env->DeleteLocalRef(java_level);
+            env->DeleteLocalRef(java_source);
+
+            if(env->ExceptionCheck()) {
+                env->DeleteLocalRef(java_messages);
+                clear();
+                return false;
+            }
+        }
+
+        jlong suppressed = static_cast<jlong>(suppressed_count);
+        clear();
+
+        jobject java_list = env->CallStaticObjectMethod(runtime.arrays.clazz, runtime.arrays.as_list_method, java_messages);
+        env->DeleteLocalRef(java_messages);
+        if(env->ExceptionCheck()) {
+            return false;
+        }
+
+        batch.listener = env->NewLocalRef(reference);
+        batch.messages = java_list;
+        batch.suppressed_count = suppressed;
+        return true;
+    }
+
+    void BridgedConsoleMessageListener::deliver(JNIEnv *env, const Batch &batch) {
+        env->CallVoidMethod(
+            batch.listener,
+            runtime.ultralight_console_message_listener.on_console_messages_method,
+            batch.messages,
+            batch.suppressed_count);
+        env->DeleteLocalRef(batch.messages);
+        env->DeleteLocalRef(batch.listener);
+    }
+} // namespace ultralight_java
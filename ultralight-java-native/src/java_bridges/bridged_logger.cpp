@@ -19,18 +19,102 @@
 
 #include "ultralight_java/java_bridges/bridged_logger.hpp"
 
+#include <string>
+#include <vector>
+
 #include "ultralight_java/java_bridges/proxied_java_exception.hpp"
 #include "ultralight_java/ultralight_java_instance.hpp"
 #include "ultralight_java/util/temporary_jni.hpp"
 #include "ultralight_java/util/util.hpp"
 
 namespace ultralight_java {
-    BridgedLogger::BridgedLogger(JNIEnv *env, jobject logger) : JNIReferenceWrapper(env, logger) {
+    // Maximum amount of messages passed to java in a single call
+    static constexpr size_t MAX_BATCH_SIZE = 256;
+
+    thread_local std::vector<ultralight::String16> *BridgedLogger::capture_target = nullptr;
+
+    BridgedLogger::ThreadCapture::ThreadCapture(std::vector<ultralight::String16> *target)
+        : previous_target(capture_target) {
+        capture_target = target;
+    }
+
+    BridgedLogger::ThreadCapture::~ThreadCapture() {
+        capture_target = previous_target;
+    }
+
+    BridgedLogger::BridgedLogger(JNIEnv *env, jobject logger, const BridgedLoggerOptions &options)
+        : JNIReferenceWrapper(env, logger),
+          options(options),
+          filtered_count(0),
+          dropped_count(0),
+          reported_dropped_count(0),
+          queue(options.asynchronous ? options.buffer_capacity : 1),
+          running(options.asynchronous) {
+        if(options.asynchronous) {
+            delivery_thread = std::thread(&BridgedLogger::run_delivery, this);
+        }
+    }
+
+    BridgedLogger::~BridgedLogger() {
+        if(!delivery_thread.joinable()) {
+            return;
+        }
+
+        running.store(false);
+        {
+            std::lock_guard<std::mutex> lock(wakeup_mutex);
+            wakeup_condition.notify_one();
+        }
+
+        delivery_thread.join();
     }
 
     void BridgedLogger::LogMessage(ultralight::LogLevel log_level, const ultralight::String16 &message) {
-        TemporaryJNI env;
+        if(capture_target) {
+            // Captured messages are requested explicitly, so they bypass the level filter
+            capture_target->push_back(message);
+            return;
+        }
+
+        // Lower values are more severe
+        if(static_cast<int>(log_level) > static_cast<int>(options.minimum_level)) {
+            filtered_count.fetch_add(1, std::memory_order_relaxed);
+            return;
+        }
+
+        if(!options.asynchronous) {
+            TemporaryJNI env;
+            deliver(env, log_level, message);
+
+            // Possibly throw exception if one occurred
+            ProxiedJavaException::throw_if_any(env);
+            return;
+        }
+
+        if(!queue.try_push(PendingMessage{log_level, message})) {
+            dropped_count.fetch_add(1, std::memory_order_relaxed);
+            return;
+        }
+
+        // Wake up the delivery thread early if a full batch is waiting
+        if(queue.approximate_size() >= MAX_BATCH_SIZE) {
+            wakeup_condition.notify_one();
+        }
+    }
+
+    bool BridgedLogger::is_delivery_thread() const {
+        return delivery_thread.joinable() && delivery_thread.get_id() == std::this_thread::get_id();
+    }
+
+    uint64_t BridgedLogger::get_filtered_count() const {
+        return filtered_count.load(std::memory_order_relaxed);
+    }
+
+    uint64_t BridgedLogger::get_dropped_count() const {
+        return dropped_count.load(std::memory_order_relaxed);
+    }
 
+    void BridgedLogger::deliver(JNIEnv *env, ultralight::LogLevel log_level, const ultralight::String16 &message) {
         // Convert the level
         jobject java_log_level = runtime.log_level.constants.to_java(env, log_level);
 
@@ -43,8 +127,86 @@ namespace ultralight_java {
         // Clean up the references
         env->DeleteLocalRef(java_message);
         env->DeleteLocalRef(java_log_level);
+    }
+
+    void BridgedLogger::run_delivery() {
+        JNIEnv *env;
+        JavaVMAttachArgs attach_args{JNI_VERSION_1_8, const_cast<char *>("Ultralight log delivery"), nullptr};
+        if(runtime.vm->AttachCurrentThreadAsDaemon(reinterpret_cast<void **>(&env), &attach_args) != JNI_OK) {
+            return;
+        }
+
+        while(running.load()) {
+            {
+                std::unique_lock<std::mutex> lock(wakeup_mutex);
+                wakeup_condition.wait_for(lock, options.flush_interval, [this]() {
+                    return !running.load() || queue.approximate_size() >= MAX_BATCH_SIZE;
+                });
+            }
+
+            drain(env);
+        }
+
+        // Deliver whatever has been logged while shutting down
+        drain(env);
+
+        runtime.vm->DetachCurrentThread();
+    }
+
+    void BridgedLogger::drain(JNIEnv *env) {
+        std::vector<PendingMessage> batch;
+        batch.reserve(MAX_BATCH_SIZE);
+
+        for(;;) {
+            batch.clear();
+
+            // Report dropped messages in front of the ones which made it into the buffer
+            uint64_t dropped = dropped_count.load(std::memory_order_relaxed);
+            if(dropped != reported_dropped_count) {
+                std::string notice = "Dropped " + std::to_string(dropped - reported_dropped_count) +
+                                     " log messages because the asynchronous log buffer was full";
+                batch.push_back(PendingMessage{ultralight::kLogLevel_Warning, ultralight::String16(notice.c_str())});
+                reported_dropped_count = dropped;
+            }
+
+            PendingMessage pending;
+            while(batch.size() < MAX_BATCH_SIZE && queue.try_pop(pending)) {
+                batch.push_back(std::move(pending));
+            }
+
+            if(batch.empty()) {
+                return;
+            }
+
+            auto count = static_cast<jsize>(batch.size());
+            if(env->PushLocalFrame(count * 2 + 4) != JNI_OK) {
+                env->ExceptionClear();
+                return;
+            }
+
+            jobjectArray java_levels = env->NewObjectArray(count, runtime.log_level.clazz, nullptr);
+            jobjectArray java_messages = env->NewObjectArray(count, runtime.string.clazz, nullptr);
+
+            if(java_levels && java_messages) {
+                for(jsize i = 0; i < count; i++) {
+                    env->SetObjectArrayElement(
+                        java_levels, i, runtime.log_level.constants.to_java(env, batch[i].level));
+                    env->SetObjectArrayElement(
+                        java_messages, i, Util::create_jstring_from_utf16(env, batch[i].message));
+                }
+
+                // Invoke the logMessages method
+                env->CallVoidMethod(
+                    reference, runtime.logger.log_messages_method, java_levels, java_messages, count);
+            }
+
+            if(env->ExceptionCheck()) {
+                // There is no java caller to propagate the exception to
+                env->ExceptionDescribe();
+                env->ExceptionClear();
+            }
 
-        // Possibly throw exception if one occurred
-        ProxiedJavaException::throw_if_any(env);
+            env->PopLocalFrame(nullptr);
+        }
     }
-} // namespace ultralight_java
\ No newline at end of file
+} // namespace ultralight_java
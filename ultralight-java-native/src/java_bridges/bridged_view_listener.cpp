@@ -26,10 +26,24 @@
 #include "ultralight_java/util/util.hpp"
 
 namespace ultralight_java {
-    BridgedViewListener::BridgedViewListener(JNIEnv *env, jobject listener) : JNIReferenceWrapper(env, listener) {
+    BridgedViewListener::BridgedViewListener(
+        JNIEnv *env, jobject listener, std::unique_ptr<BridgedConsoleMessageListener> console_message_listener)
+        : JNIReferenceWrapper(env, listener), console_message_listener(std::move(console_message_listener)) {
+    }
+
+    std::unique_ptr<BridgedConsoleMessageListener> BridgedViewListener::release_console_message_listener() {
+        return std::move(console_message_listener);
+    }
+
+    bool BridgedViewListener::take_console_messages(JNIEnv *env, BridgedConsoleMessageListener::Batch &batch) {
+        return console_message_listener && console_message_listener->take(env, batch);
     }
 
     void BridgedViewListener::OnChangeTitle(ultralight::View *caller, const ultralight::String &title) {
+        if(!reference) {
+            return;
+        }
+
         TemporaryJNI env;
 
         jstring java_title = Util::create_jstring_from_utf16(env, title.utf16());
@@ -40,6 +54,10 @@ namespace ultralight_java {
     }
 
     void BridgedViewListener::OnChangeURL(ultralight::View *caller, const ultralight::String &url) {
+        if(!reference) {
+            return;
+        }
+
         TemporaryJNI env;
 
         jstring java_url = Util::create_jstring_from_utf16(env, url.utf16());
@@ -50,6 +68,10 @@ namespace ultralight_java {
     }
 
     void BridgedViewListener::OnChangeTooltip(ultralight::View *caller, const ultralight::String &tooltip) {
+        if(!reference) {
+            return;
+        }
+
         TemporaryJNI env;
 
         jstring java_tooltip = Util::create_jstring_from_utf16(env, tooltip.utf16());
@@ -60,6 +82,10 @@ namespace ultralight_java {
     }
 
     void BridgedViewListener::OnChangeCursor(ultralight::View *caller, ultralight::Cursor cursor) {
+        if(!reference) {
+            return;
+        }
+
         TemporaryJNI env;
 
         jobject java_cursor = runtime.ultralight_cursor.constants.to_java(env, cursor);
@@ -77,6 +103,16 @@ namespace ultralight_java {
         uint32_t line_number,
         uint32_t column_number,
         const ultralight::String &source_id) {
+        if(console_message_listener) {
+            // Delivered in a batch after the next update
+            console_message_listener->add(source, level, message, line_number, column_number, source_id);
+            return;
+        }
+
+        if(!reference) {
+            return;
+        }
+
         TemporaryJNI env;
 
         jobject java_source = runtime.message_source.constants.to_java(env, source);
@@ -112,6 +148,10 @@ namespace ultralight_java {
         const ultralight::String &target_url,
         bool is_popup,
         const ultralight::IntRect &popup_rect) {
+        if(!reference) {
+            return nullptr;
+        }
+
         TemporaryJNI env;
 
         jstring java_opener_url = Util::create_jstring_from_utf16(env, opener_url.utf16());
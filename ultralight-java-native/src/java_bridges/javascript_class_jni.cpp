@@ -23,6 +23,9 @@
 
 namespace ultralight_java {
     void JavascriptClassJNI::release(JNIEnv *, jclass, jlong handle) {
-        // TODO: Actually release when callback is implemented in Javascript engine
+        // Objects created from the class retain it themselves, so this only frees the class once all of them are
+        // gone. The private data of the class is shared with those objects and can not be freed here, as the
+        // engine provides no callback for the destruction of a class.
+        JSClassRelease(reinterpret_cast<JSClassRef>(handle));
     }
 } // namespace ultralight_java
\ No newline at end of file
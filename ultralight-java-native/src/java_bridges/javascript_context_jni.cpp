@@ -20,6 +20,7 @@
 #include "ultralight_java/java_bridges/javascript_context_jni.hpp"
 
 #include <JavaScriptCore/JavaScript.h>
+#include <vector>
 #include <ultralight_java/ultralight_java_instance.hpp>
 
 #include "ultralight_java/platform/managed_javascript_class.hpp"
@@ -242,6 +243,37 @@ namespace ultralight_java {
             lock);
     }
 
+    jobject JavascriptContextJNI::make_number_array(JNIEnv *env, jobject java_instance, jdoubleArray java_values) {
+        auto [ok, context, lock] = extract(env, java_instance);
+        if(!ok) {
+            return nullptr;
+        }
+
+        size_t value_count = env->GetArrayLength(java_values);
+        std::vector<jdouble> numbers(value_count);
+        env->GetDoubleArrayRegion(java_values, 0, static_cast<jsize>(value_count), numbers.data());
+
+        // Numbers are immediate values and not allocated on the Javascript heap,
+        // so they don't need to be protected while the array is being created
+        std::vector<JSValueRef> values(value_count);
+        for(size_t i = 0; i < value_count; i++) {
+            values[i] = JSValueMakeNumber(context, numbers[i]);
+        }
+
+        JSValueRef exception = nullptr;
+        auto array = JSObjectMakeArray(context, value_count, values.data(), &exception);
+        if(exception) {
+            Util::throw_jssvalue_ref_as_java_exception("Error while creating array", context, exception, env, lock);
+            return nullptr;
+        }
+
+        return env->NewObject(
+            runtime.javascript_object.clazz,
+            runtime.javascript_object.constructor,
+            reinterpret_cast<jlong>(array),
+            lock);
+    }
+
     jobject JavascriptContextJNI::make_date(JNIEnv *env, jobject java_instance, jobjectArray java_arguments) {
         auto [ok, context, lock] = extract(env, java_instance);
         if(!ok) {
@@ -400,4 +432,4 @@ namespace ultralight_java {
 
         JSGarbageCollect(context);
     }
-} // namespace ultralight_java
\ No newline at end of file
+} // namespace ultralight_java
\ No newline at end of file
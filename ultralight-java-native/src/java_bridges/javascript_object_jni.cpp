@@ -20,7 +20,9 @@
 #include "ultralight_java/java_bridges/javascript_object_jni.hpp"
 
 #include <JavaScriptCore/JavaScript.h>
+#include <string>
 #include <tuple>
+#include <vector>
 #include <ultralight_java/ultralight_java_instance.hpp>
 
 #include "ultralight_java/java_bridges/javascript_context_lock_jni.hpp"
@@ -310,6 +312,72 @@ namespace ultralight_java {
         existing->swap(env, java_data);
     }
 
+    jboolean JavascriptObjectJNI::cache_property(
+        JNIEnv *env, jobject java_instance, jstring java_property_name, jobject java_value) {
+        auto [ok, context, object, lock] = extract_with_lock(env, java_instance);
+        auto [value_ok, value] = extract_secondary(env, java_value);
+
+        if(!ok || !value_ok) {
+            return false;
+        }
+
+        auto *data = reinterpret_cast<ManagedJavascriptPrivateData *>(JSObjectGetPrivate(object));
+        if(!data) {
+            // Only objects of java defined classes consult the cache
+            return false;
+        }
+
+        JSValueRef exception = nullptr;
+        JSObjectRef holder = data->get_cached_properties();
+        if(!holder) {
+            // The holder is stored under a private symbol of the object, which keeps it alive for as long as the
+            // object exists and keeps it out of the property names
+            holder = JSObjectMake(context, nullptr, nullptr);
+            JSObjectSetPrototype(context, holder, JSValueMakeNull(context));
+
+            JSStringRef description = JSStringCreateWithUTF8CString("cachedProperties");
+            JSValueRef key = JSValueMakeSymbol(context, description);
+            JSStringRelease(description);
+
+            JSObjectSetPropertyForKey(
+                context,
+                object,
+                key,
+                holder,
+                kJSPropertyAttributeReadOnly | kJSPropertyAttributeDontEnum | kJSPropertyAttributeDontDelete,
+                &exception);
+            if(exception) {
+                Util::throw_jssvalue_ref_as_java_exception(
+                    "Error while caching javascript property", context, exception, env, lock);
+                return false;
+            }
+
+            // Objects which are not extensible silently drop the holder, it would not be kept alive then
+            JSValueRef stored = JSObjectGetPropertyForKey(context, object, key, &exception);
+            if(exception) {
+                Util::throw_jssvalue_ref_as_java_exception(
+                    "Error while caching javascript property", context, exception, env, lock);
+                return false;
+            } else if(stored != holder) {
+                return false;
+            }
+
+            data->set_cached_properties(holder);
+        }
+
+        JSStringRef javascript_property_name = Util::create_jsstring_ref_from_jstring(env, java_property_name);
+        JSObjectSetProperty(context, holder, javascript_property_name, value, kJSPropertyAttributeNone, &exception);
+        JSStringRelease(javascript_property_name);
+
+        if(exception) {
+            Util::throw_jssvalue_ref_as_java_exception(
+                "Error while caching javascript property", context, exception, env, lock);
+            return false;
+        }
+
+        return true;
+    }
+
     jboolean JavascriptObjectJNI::is_function(JNIEnv *env, jobject java_instance) {
         auto [ok, context, object] = extract(env, java_instance);
         if(!ok) {
@@ -418,4 +486,70 @@ namespace ultralight_java {
 
         return java_property_names;
     }
-} // namespace ultralight_java
\ No newline at end of file
+
+    jdoubleArray JavascriptObjectJNI::to_number_array(JNIEnv *env, jobject java_instance) {
+        auto [ok, context, object, lock] = extract_with_lock(env, java_instance);
+        if(!ok) {
+            return nullptr;
+        }
+
+        JSValueRef exception = nullptr;
+        JSTypedArrayType typed_array_type = JSValueGetTypedArrayType(context, object, &exception);
+        if(!exception && typed_array_type == kJSTypedArrayTypeFloat64Array) {
+            // Fast path, the storage can be copied directly
+            size_t length = JSObjectGetTypedArrayLength(context, object, &exception);
+            void *bytes = exception ? nullptr : JSObjectGetTypedArrayBytesPtr(context, object, &exception);
+
+            if(!exception) {
+                jdoubleArray java_values = env->NewDoubleArray(static_cast<jsize>(length));
+                env->SetDoubleArrayRegion(
+                    java_values, 0, static_cast<jsize>(length), reinterpret_cast<const jdouble *>(bytes));
+                return java_values;
+            }
+        }
+
+        if(exception) {
+            Util::throw_jssvalue_ref_as_java_exception(
+                "Error while determining javascript array type", context, exception, env, lock);
+            return nullptr;
+        }
+
+        JSStringRef length_name = JSStringCreateWithUTF8CString("length");
+        JSValueRef length_value = JSObjectGetProperty(context, object, length_name, &exception);
+        JSStringRelease(length_name);
+
+        double length = exception ? 0 : JSValueToNumber(context, length_value, &exception);
+        if(exception) {
+            Util::throw_jssvalue_ref_as_java_exception(
+                "Error while retrieving javascript array length", context, exception, env, lock);
+            return nullptr;
+        }
+
+        size_t value_count = length > 0 ? static_cast<size_t>(length) : 0;
+        std::vector<jdouble> values(value_count);
+
+        for(size_t i = 0; i < value_count; i++) {
+            JSValueRef element = JSObjectGetPropertyAtIndex(context, object, static_cast<unsigned>(i), &exception);
+            if(!exception && !JSValueIsNumber(context, element)) {
+                // Implicit conversion would silently turn strings, null and undefined into NaN or 0
+                std::string message = "Javascript array element " + std::to_string(i) + " is not a number";
+                env->ThrowNew(runtime.illegal_argument_exception.clazz, message.c_str());
+                return nullptr;
+            }
+
+            if(!exception) {
+                values[i] = JSValueToNumber(context, element, &exception);
+            }
+
+            if(exception) {
+                Util::throw_jssvalue_ref_as_java_exception(
+                    "Error while converting javascript array element to number", context, exception, env, lock);
+                return nullptr;
+            }
+        }
+
+        jdoubleArray java_values = env->NewDoubleArray(static_cast<jsize>(value_count));
+        env->SetDoubleArrayRegion(java_values, 0, static_cast<jsize>(value_count), values.data());
+        return java_values;
+    }
+} // namespace ultralight_java
@@ -40,6 +40,20 @@ namespace ultralight_java {
         return Util::create_float_array(env, 16, matrix4x4->data);
     }
 
+    void UltralightMatrix4x4JNI::set_data(JNIEnv *env, jobject instance, jfloatArray data) {
+        if(!data) {
+            env->ThrowNew(runtime.null_pointer_exception.clazz, "data can't be null");
+            return;
+        } else if(env->GetArrayLength(data) != 16) {
+            env->ThrowNew(runtime.illegal_argument_exception.clazz, "data needs to contain exactly 16 values");
+            return;
+        }
+
+        auto *matrix4x4 = reinterpret_cast<ultralight::Matrix4x4 *>(
+            env->CallLongMethod(instance, runtime.object_with_handle.get_handle_method));
+        env->GetFloatArrayRegion(data, 0, 16, matrix4x4->data);
+    }
+
     void UltralightMatrix4x4JNI::set_identity(JNIEnv *env, jobject instance) {
         auto *matrix4x4 = reinterpret_cast<ultralight::Matrix4x4 *>(
             env->CallLongMethod(instance, runtime.object_with_handle.get_handle_method));
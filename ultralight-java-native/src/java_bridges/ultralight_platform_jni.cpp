@@ -26,6 +26,7 @@
 #include "ultralight_java/java_bridges/bridged_file_system.hpp"
 #include "ultralight_java/java_bridges/bridged_gpu_driver.hpp"
 #include "ultralight_java/java_bridges/bridged_logger.hpp"
+#include "ultralight_java/platform/instrumented_gpu_driver.hpp"
 #include "ultralight_java/ultralight_java_instance.hpp"
 #include "ultralight_java/util/util.hpp"
 
@@ -190,8 +191,8 @@ namespace ultralight_java {
         delete runtime.bridged_gpu_driver;
 
         if(java_gpu_driver) {
-            // Create and set the new gpu driver
-            runtime.bridged_gpu_driver = new BridgedGPUDriver(env, java_gpu_driver);
+            // Create and set the new gpu driver, wrapped so the renderer can report per frame statistics
+            runtime.bridged_gpu_driver = new InstrumentedGPUDriver(new BridgedGPUDriver(env, java_gpu_driver));
             platform->set_gpu_driver(runtime.bridged_gpu_driver);
         } else {
             // NUll out the gpu driver
@@ -211,8 +212,8 @@ namespace ultralight_java {
         delete runtime.bridged_gpu_driver;
         if(handle) {
             auto *driver = (ultralight::GPUDriver *) handle;
-            runtime.bridged_gpu_driver = driver;
-            platform->set_gpu_driver(driver);
+            runtime.bridged_gpu_driver = new InstrumentedGPUDriver(driver);
+            platform->set_gpu_driver(runtime.bridged_gpu_driver);
         } else {
             runtime.bridged_gpu_driver = nullptr;
         }
@@ -244,7 +245,8 @@ namespace ultralight_java {
         }
     }
 
-    void UltralightPlatformJNI::set_logger(JNIEnv *env, jobject java_instance, jobject java_logger) {
+    void UltralightPlatformJNI::set_logger(
+        JNIEnv *env, jobject java_instance, jobject java_logger, jobject java_config) {
         // Retrieve the native platform pointer from the java object
         auto *platform = reinterpret_cast<ultralight::Platform *>(
             env->CallLongMethod(java_instance, runtime.object_with_handle.get_handle_method));
@@ -254,15 +256,49 @@ namespace ultralight_java {
             return;
         }
 
+        if(!java_config) {
+            env->ThrowNew(runtime.null_pointer_exception.clazz, "config can't be null");
+            return;
+        }
+
+        if(runtime.bridged_logger && runtime.bridged_logger->is_delivery_thread()) {
+            env->ThrowNew(
+                runtime.illegal_state_exception.clazz,
+                "The logger can't be replaced from within an asynchronous log callback");
+            return;
+        }
+
+        // Read the delivery options
+        auto &config_type = runtime.ultralight_logger_config;
+
+        BridgedLoggerOptions options;
+        jobject java_minimum_level = env->GetObjectField(java_config, config_type.minimum_level_field);
+        if(!runtime.log_level.constants.from_java(env, java_minimum_level, &options.minimum_level)) {
+            return;
+        }
+        env->DeleteLocalRef(java_minimum_level);
+
+        options.asynchronous = env->GetBooleanField(java_config, config_type.asynchronous_field);
+
+        jint buffer_capacity = env->GetIntField(java_config, config_type.buffer_capacity_field);
+        jlong flush_interval = env->GetLongField(java_config, config_type.flush_interval_millis_field);
+        if(buffer_capacity < 1 || flush_interval < 1) {
+            env->ThrowNew(
+                runtime.illegal_argument_exception.clazz, "bufferCapacity and flushIntervalMillis need to be positive");
+            return;
+        }
+        options.buffer_capacity = static_cast<size_t>(buffer_capacity);
+        options.flush_interval = std::chrono::milliseconds(flush_interval);
+
         // Remove the existing logger
         platform->set_logger(nullptr);
 
-        // Get rid of the existing logger
+        // Get rid of the existing logger, this delivers remaining asynchronous messages
         delete runtime.bridged_logger;
 
         if(java_logger) {
             // Create and set the new logger
-            runtime.bridged_logger = new BridgedLogger(env, java_logger);
+            runtime.bridged_logger = new BridgedLogger(env, java_logger, options);
             platform->set_logger(runtime.bridged_logger);
         } else {
             // Null out the logger
@@ -270,4 +306,12 @@ namespace ultralight_java {
         }
     }
 
+    jlong UltralightPlatformJNI::filtered_log_message_count(JNIEnv *env, jobject java_instance) {
+        return runtime.bridged_logger ? static_cast<jlong>(runtime.bridged_logger->get_filtered_count()) : 0;
+    }
+
+    jlong UltralightPlatformJNI::dropped_log_message_count(JNIEnv *env, jobject java_instance) {
+        return runtime.bridged_logger ? static_cast<jlong>(runtime.bridged_logger->get_dropped_count()) : 0;
+    }
+
 } // namespace ultralight_java
\ No newline at end of file
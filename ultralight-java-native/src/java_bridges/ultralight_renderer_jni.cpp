@@ -20,13 +20,32 @@
 #include "ultralight_java/java_bridges/ultralight_renderer_jni.hpp"
 
 #include <Ultralight/Ultralight.h>
+#include <vector>
 
+#include "ultralight_java/java_bridges/bridged_logger.hpp"
 #include "ultralight_java/java_bridges/proxied_java_exception.hpp"
 #include "ultralight_java/java_bridges/ultralight_ref_ptr_jni.hpp"
+#include "ultralight_java/java_bridges/ultralight_view_jni.hpp"
+#include "ultralight_java/platform/instrumented_gpu_driver.hpp"
 #include "ultralight_java/ultralight_java_instance.hpp"
 #include "ultralight_java/util/util.hpp"
 
 namespace ultralight_java {
+    namespace {
+        /**
+         * Logger collecting all messages instead of printing them, used to capture the
+         * output of ultralight::Renderer::LogMemoryUsage.
+         */
+        class CapturingLogger : public ultralight::Logger {
+        public:
+            std::vector<ultralight::String16> messages;
+
+            void LogMessage(ultralight::LogLevel log_level, const ultralight::String16 &message) final {
+                messages.push_back(message);
+            }
+        };
+    } // namespace
+
     jobject UltralightRendererJNI::create(JNIEnv *env, jclass caller_class) {
         // Create the renderer instance
         auto renderer = ultralight::Renderer::Create();
@@ -68,6 +87,7 @@ namespace ultralight_java {
 
         // Create the view RefPtr
         auto view = renderer->CreateView(width, height, config, nullptr);
+        UltralightViewJNI::register_view(view.get(), renderer.get());
 
         // Convert the RefPtr to a java object
         jobject pointer = UltralightRefPtrJNI::create(env, ultralight::RefPtr<ultralight::View>(std::move(view)));
@@ -86,7 +106,11 @@ namespace ultralight_java {
             renderer->Update();
         } catch(ProxiedJavaException &ex) {
             ex.throw_to_java(env);
+            return;
         }
+
+        // Console messages collected during the update are passed in one batch per view of this renderer
+        UltralightViewJNI::flush_console_messages(env, renderer.get());
     }
 
     void UltralightRendererJNI::render(JNIEnv *env, jobject instance) {
@@ -123,4 +147,70 @@ namespace ultralight_java {
             ex.throw_to_java(env);
         }
     }
+
+    jobjectArray UltralightRendererJNI::capture_memory_usage(JNIEnv *env, jobject instance) {
+        auto renderer = UltralightRefPtrJNI::unwrap_ref_ptr<ultralight::Renderer>(env, instance);
+        if(env->ExceptionCheck()) {
+            return nullptr;
+        }
+
+        std::vector<ultralight::String16> messages;
+        auto &platform = ultralight::Platform::instance();
+
+        if(runtime.bridged_logger && platform.logger() == runtime.bridged_logger) {
+            // Only capture the messages of this thread, other threads keep logging normally
+            BridgedLogger::ThreadCapture capture(&messages);
+            renderer->LogMemoryUsage();
+        } else if(!platform.logger()) {
+            // Without a logger no messages can be lost, so a temporary one can be installed
+            CapturingLogger logger;
+            platform.set_logger(&logger);
+            renderer->LogMemoryUsage();
+            platform.set_logger(nullptr);
+
+            messages = std::move(logger.messages);
+        }
+        // A logger not installed through this library can not be captured without replacing it, the report is
+        // empty in that case
+
+        // Convert the captured lines
+        jobjectArray java_lines =
+            env->NewObjectArray(static_cast<jsize>(messages.size()), runtime.string.clazz, nullptr);
+        if(env->ExceptionCheck()) {
+            return nullptr;
+        }
+
+        for(size_t i = 0; i < messages.size(); i++) {
+            jstring java_line = Util::create_jstring_from_utf16(env, messages[i]);
+            env->SetObjectArrayElement(java_lines, static_cast<jsize>(i), java_line);
+            env->DeleteLocalRef(java_line);
+        }
+
+        return java_lines;
+    }
+
+    void UltralightRendererJNI::take_gpu_driver_counters(JNIEnv *env, jclass caller_class, jlongArray target) {
+        if(!target) {
+            env->ThrowNew(runtime.null_pointer_exception.clazz, "target can't be null");
+            return;
+        }
+
+        if(env->GetArrayLength(target) < static_cast<jsize>(GPUDriverCounter::COUNT)) {
+            env->ThrowNew(runtime.illegal_argument_exception.clazz, "target is too small to hold all counters");
+            return;
+        }
+
+        // Nothing has been submitted if there is no driver at all
+        jlong counters[static_cast<size_t>(GPUDriverCounter::COUNT)] = {};
+        if(runtime.bridged_gpu_driver) {
+            int64_t values[static_cast<size_t>(GPUDriverCounter::COUNT)];
+            runtime.bridged_gpu_driver->take_counters(values);
+
+            for(size_t i = 0; i < static_cast<size_t>(GPUDriverCounter::COUNT); i++) {
+                counters[i] = static_cast<jlong>(values[i]);
+            }
+        }
+
+        env->SetLongArrayRegion(target, 0, static_cast<jsize>(GPUDriverCounter::COUNT), counters);
+    }
 } // namespace ultralight_java
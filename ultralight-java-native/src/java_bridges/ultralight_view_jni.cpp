@@ -21,11 +21,96 @@
 
 #include "ultralight_java/java_bridges/javascript_context_lock_jni.hpp"
 #include "ultralight_java/java_bridges/ultralight_ref_ptr_jni.hpp"
+#include "ultralight_java/ultralight_java_instance.hpp"
 #include "ultralight_java/util/util.hpp"
 
+#include "com_labymedia_ultralight_input_UltralightInputEventBuffer.h"
+
+#include <cstring>
+#include <vector>
+
 namespace ultralight_java {
+    namespace {
+        /**
+         * Cursor over a buffer of encoded input events, see UltralightInputEventBuffer
+         * for the layout of the records.
+         */
+        class InputEventReader {
+            const uint8_t *data;
+            size_t size;
+            size_t position;
+
+        public:
+            explicit InputEventReader(const uint8_t *data, size_t size) : data(data), size(size), position(0) {
+            }
+
+            /**
+             * Checks if there is data left to read.
+             *
+             * @return Whether there is data left to read
+             */
+            bool has_remaining() const {
+                return position < size;
+            }
+
+            /**
+             * Reads a single 32 bit integer in native byte order.
+             *
+             * @param out A pointer to write the integer to
+             * @return Whether enough data was available
+             */
+            bool read_int(jint *out) {
+                if(size - position < sizeof(jint)) {
+                    return false;
+                }
+
+                std::memcpy(out, data + position, sizeof(jint));
+                position += sizeof(jint);
+                return true;
+            }
+
+            /**
+             * Reads a UTF-16 string of the given length in chars.
+             *
+             * @param length The length of the string in chars
+             * @param out A pointer to write the string to
+             * @return Whether enough data was available
+             */
+            bool read_string(jint length, ultralight::String *out) {
+                if(length < 0 || (size - position) / sizeof(jchar) < static_cast<size_t>(length)) {
+                    return false;
+                } else if(length == 0) {
+                    return true;
+                }
+
+                std::vector<jchar> chars(length);
+                std::memcpy(chars.data(), data + position, length * sizeof(jchar));
+                position += length * sizeof(jchar);
+
+                *out = ultralight::String16(chars.data(), chars.size());
+                return true;
+            }
+
+            /**
+             * Skips the padding up to the next 4 byte boundary.
+             *
+             * @return Whether the padding was present
+             */
+            bool align() {
+                size_t aligned = (position + 3) & ~static_cast<size_t>(3);
+                if(aligned > size) {
+                    return false;
+                }
+
+                position = aligned;
+                return true;
+            }
+        };
+    } // namespace
+
     std::unordered_map<ultralight::View *, BridgedViewListener *> UltralightViewJNI::existing_view_listeners;
     std::unordered_map<ultralight::View *, BridgedLoadListener *> UltralightViewJNI::existing_load_listeners;
+    std::unordered_map<ultralight::View *, ultralight::Renderer *> UltralightViewJNI::view_renderers;
 
     void UltralightViewJNI::clean_up() {
         for(const auto [_, listener] : existing_view_listeners) {
@@ -316,27 +401,281 @@ namespace ultralight_java {
         view->FireScrollEvent(Util::create_scroll_event_from_jobject(env, event));
     }
 
-    void UltralightViewJNI::set_view_listener(JNIEnv *env, jobject instance, jobject listener) {
+    void UltralightViewJNI::fire_key_event_primitive(
+        JNIEnv *env,
+        jobject instance,
+        jint type,
+        jint modifiers,
+        jint virtual_key_code,
+        jint native_key_code,
+        jint flags,
+        jstring text,
+        jstring unmodified_text) {
         auto view = UltralightRefPtrJNI::unwrap_ref_ptr<ultralight::View>(env, instance);
         if(env->ExceptionCheck()) {
             return;
         }
 
-        auto *view_key = view.get();
+        ultralight::String native_text;
+        if(text) {
+            native_text = Util::create_utf16_from_jstring(env, text);
+        }
 
-        if(auto it = existing_view_listeners.find(view_key); it != existing_view_listeners.end()) {
-            view->set_load_listener(nullptr);
-            delete it->second;
+        ultralight::String native_unmodified_text;
+        if(unmodified_text) {
+            native_unmodified_text = Util::create_utf16_from_jstring(env, unmodified_text);
+        }
+
+        ultralight::KeyEvent event;
+        if(!Util::create_key_event(
+               env,
+               type,
+               modifiers,
+               virtual_key_code,
+               native_key_code,
+               flags,
+               native_text,
+               native_unmodified_text,
+               &event)) {
+            return;
+        }
+
+        view->FireKeyEvent(event);
+    }
+
+    void UltralightViewJNI::fire_mouse_event_primitive(
+        JNIEnv *env, jobject instance, jint type, jint x, jint y, jint button) {
+        auto view = UltralightRefPtrJNI::unwrap_ref_ptr<ultralight::View>(env, instance);
+        if(env->ExceptionCheck()) {
+            return;
+        }
+
+        ultralight::MouseEvent event;
+        if(!Util::create_mouse_event(env, type, x, y, button, &event)) {
+            return;
+        }
+
+        view->FireMouseEvent(event);
+    }
+
+    void UltralightViewJNI::fire_scroll_event_primitive(
+        JNIEnv *env, jobject instance, jint type, jint delta_x, jint delta_y) {
+        auto view = UltralightRefPtrJNI::unwrap_ref_ptr<ultralight::View>(env, instance);
+        if(env->ExceptionCheck()) {
+            return;
+        }
+
+        ultralight::ScrollEvent event;
+        if(!Util::create_scroll_event(env, type, delta_x, delta_y, &event)) {
+            return;
+        }
+
+        view->FireScrollEvent(event);
+    }
+
+    jint UltralightViewJNI::fire_input_events(JNIEnv *env, jobject instance, jobject buffer, jint offset, jint length) {
+        auto view = UltralightRefPtrJNI::unwrap_ref_ptr<ultralight::View>(env, instance);
+        if(env->ExceptionCheck()) {
+            return 0;
+        } else if(!buffer) {
+            env->ThrowNew(runtime.null_pointer_exception.clazz, "buffer can't be null");
+            return 0;
+        }
+
+        auto *data = reinterpret_cast<const uint8_t *>(env->GetDirectBufferAddress(buffer));
+        jlong capacity = env->GetDirectBufferCapacity(buffer);
+        if(!data || capacity < 0) {
+            env->ThrowNew(runtime.illegal_argument_exception.clazz, "buffer needs to be a direct buffer");
+            return 0;
+        } else if(offset < 0 || length < 0 || static_cast<jlong>(offset) + length > capacity) {
+            env->ThrowNew(runtime.illegal_argument_exception.clazz, "offset and length exceed the buffer");
+            return 0;
+        }
+
+        InputEventReader reader(data + offset, static_cast<size_t>(length));
+
+        jint fired = 0;
+        while(reader.has_remaining()) {
+            jint tag;
+            if(!reader.read_int(&tag)) {
+                env->ThrowNew(runtime.illegal_argument_exception.clazz, "Truncated input event record");
+                return fired;
+            }
+
+            switch(tag) {
+                case com_labymedia_ultralight_input_UltralightInputEventBuffer_MOUSE_EVENT: {
+                    jint type, x, y, button;
+                    if(!reader.read_int(&type) || !reader.read_int(&x) || !reader.read_int(&y) ||
+                       !reader.read_int(&button)) {
+                        env->ThrowNew(runtime.illegal_argument_exception.clazz, "Truncated mouse event record");
+                        return fired;
+                    }
+
+                    ultralight::MouseEvent event;
+                    if(!Util::create_mouse_event(env, type, x, y, button, &event)) {
+                        return fired;
+                    }
+
+                    view->FireMouseEvent(event);
+                    break;
+                }
+
+                case com_labymedia_ultralight_input_UltralightInputEventBuffer_SCROLL_EVENT: {
+                    jint type, delta_x, delta_y;
+                    if(!reader.read_int(&type) || !reader.read_int(&delta_x) || !reader.read_int(&delta_y)) {
+                        env->ThrowNew(runtime.illegal_argument_exception.clazz, "Truncated scroll event record");
+                        return fired;
+                    }
+
+                    ultralight::ScrollEvent event;
+                    if(!Util::create_scroll_event(env, type, delta_x, delta_y, &event)) {
+                        return fired;
+                    }
+
+                    view->FireScrollEvent(event);
+                    break;
+                }
+
+                case com_labymedia_ultralight_input_UltralightInputEventBuffer_KEY_EVENT: {
+                    jint type, modifiers, virtual_key_code, native_key_code, flags, text_length,
+                        unmodified_text_length;
+                    ultralight::String text;
+                    ultralight::String unmodified_text;
+                    if(!reader.read_int(&type) || !reader.read_int(&modifiers) ||
+                       !reader.read_int(&virtual_key_code) || !reader.read_int(&native_key_code) ||
+                       !reader.read_int(&flags) || !reader.read_int(&text_length) ||
+                       !reader.read_int(&unmodified_text_length) || !reader.read_string(text_length, &text) ||
+                       !reader.read_string(unmodified_text_length, &unmodified_text) || !reader.align()) {
+                        env->ThrowNew(runtime.illegal_argument_exception.clazz, "Truncated key event record");
+                        return fired;
+                    }
+
+                    ultralight::KeyEvent event;
+                    if(!Util::create_key_event(
+                           env,
+                           type,
+                           modifiers,
+                           virtual_key_code,
+                           native_key_code,
+                           flags,
+                           text,
+                           unmodified_text,
+                           &event)) {
+                        return fired;
+                    }
+
+                    view->FireKeyEvent(event);
+                    break;
+                }
+
+                default:
+                    env->ThrowNew(runtime.illegal_argument_exception.clazz, "Invalid input event record tag");
+                    return fired;
+            }
+
+            fired++;
+        }
+
+        return fired;
+    }
+
+    void UltralightViewJNI::install_view_listener(
+        JNIEnv *env,
+        ultralight::View *view,
+        jobject listener,
+        std::unique_ptr<BridgedConsoleMessageListener> console_message_listener) {
+        BridgedViewListener *previous = nullptr;
+        if(auto it = existing_view_listeners.find(view); it != existing_view_listeners.end()) {
+            previous = it->second;
             existing_view_listeners.erase(it);
         }
 
-        if(listener) {
+        if(listener || console_message_listener) {
             auto [it, _] = existing_view_listeners.insert(
-                std::make_pair(view_key, new BridgedViewListener(env, listener)));
+                std::make_pair(view, new BridgedViewListener(env, listener, std::move(console_message_listener))));
             view->set_view_listener(it->second);
         } else {
             view->set_view_listener(nullptr);
         }
+
+        delete previous;
+    }
+
+    void UltralightViewJNI::set_view_listener(JNIEnv *env, jobject instance, jobject listener) {
+        auto view = UltralightRefPtrJNI::unwrap_ref_ptr<ultralight::View>(env, instance);
+        if(env->ExceptionCheck()) {
+            return;
+        }
+
+        // Keep batching console messages if a console message listener has been set
+        std::unique_ptr<BridgedConsoleMessageListener> console_message_listener;
+        if(auto it = existing_view_listeners.find(view.get()); it != existing_view_listeners.end()) {
+            console_message_listener = it->second->release_console_message_listener();
+        }
+
+        install_view_listener(env, view.get(), listener, std::move(console_message_listener));
+    }
+
+    void UltralightViewJNI::set_console_message_listener(
+        JNIEnv *env, jobject instance, jobject listener, jint max_messages_per_update) {
+        auto view = UltralightRefPtrJNI::unwrap_ref_ptr<ultralight::View>(env, instance);
+        if(env->ExceptionCheck()) {
+            return;
+        }
+
+        if(max_messages_per_update < 1) {
+            env->ThrowNew(runtime.illegal_argument_exception.clazz, "maxMessagesPerUpdate needs to be positive");
+            return;
+        }
+
+        // Keep the existing view listener
+        jobject view_listener = nullptr;
+        if(auto it = existing_view_listeners.find(view.get()); it != existing_view_listeners.end()) {
+            view_listener = it->second->get();
+        }
+
+        std::unique_ptr<BridgedConsoleMessageListener> console_message_listener;
+        if(listener) {
+            console_message_listener = std::make_unique<BridgedConsoleMessageListener>(
+                env, listener, static_cast<size_t>(max_messages_per_update));
+        }
+
+        install_view_listener(env, view.get(), view_listener, std::move(console_message_listener));
+    }
+
+    void UltralightViewJNI::register_view(ultralight::View *view, ultralight::Renderer *renderer) {
+        // A view allocated at the address of a destroyed one replaces its entry
+        view_renderers[view] = renderer;
+    }
+
+    void UltralightViewJNI::flush_console_messages(JNIEnv *env, ultralight::Renderer *renderer) {
+        // Take all batches before calling java, a java listener may replace listeners and thereby delete the
+        // native listeners and modify the map
+        std::vector<BridgedConsoleMessageListener::Batch> batches;
+        for(const auto &[view, listener] : existing_view_listeners) {
+            if(auto it = view_renderers.find(view); it == view_renderers.end() || it->second != renderer) {
+                continue;
+            }
+
+            // A batch keeps 2 local references until it has been delivered, taking it uses a few more temporarily
+            if(env->EnsureLocalCapacity(8) != 0) {
+                return;
+            }
+
+            BridgedConsoleMessageListener::Batch batch{};
+            if(listener->take_console_messages(env, batch)) {
+                batches.push_back(batch);
+            } else if(env->ExceptionCheck()) {
+                return;
+            }
+        }
+
+        for(const auto &batch : batches) {
+            BridgedConsoleMessageListener::deliver(env, batch);
+            if(env->ExceptionCheck()) {
+                return;
+            }
+        }
     }
 
     void UltralightViewJNI::set_load_listener(JNIEnv *env, jobject instance, jobject listener) {
@@ -0,0 +1,110 @@
+/*
+ * Ultralight Java - Java wrapper for the Ultralight web engine
+ * Copyright (C) 2021 LabyMedia and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+#include "ultralight_java/platform/instrumented_gpu_driver.hpp"
+
+namespace ultralight_java {
+    InstrumentedGPUDriver::InstrumentedGPUDriver(ultralight::GPUDriver *delegate) : delegate(delegate) {
+        for(auto &counter : counters) {
+            counter.store(0, std::memory_order_relaxed);
+        }
+    }
+
+    InstrumentedGPUDriver::~InstrumentedGPUDriver() {
+        delete delegate;
+    }
+
+    void InstrumentedGPUDriver::increment(GPUDriverCounter counter, int64_t amount) {
+        counters[static_cast<size_t>(counter)].fetch_add(amount, std::memory_order_relaxed);
+    }
+
+    void InstrumentedGPUDriver::take_counters(int64_t *target) {
+        for(size_t i = 0; i < static_cast<size_t>(GPUDriverCounter::COUNT); i++) {
+            target[i] = counters[i].exchange(0, std::memory_order_relaxed);
+        }
+    }
+
+    void InstrumentedGPUDriver::BeginSynchronize() {
+        delegate->BeginSynchronize();
+    }
+
+    void InstrumentedGPUDriver::EndSynchronize() {
+        delegate->EndSynchronize();
+    }
+
+    uint32_t InstrumentedGPUDriver::NextTextureId() {
+        return delegate->NextTextureId();
+    }
+
+    void InstrumentedGPUDriver::CreateTexture(uint32_t texture_id, ultralight::Ref<ultralight::Bitmap> bitmap) {
+        increment(GPUDriverCounter::TEXTURE_CREATES);
+        increment(GPUDriverCounter::TEXTURE_BYTES, static_cast<int64_t>(bitmap->size()));
+        delegate->CreateTexture(texture_id, std::move(bitmap));
+    }
+
+    void InstrumentedGPUDriver::UpdateTexture(uint32_t texture_id, ultralight::Ref<ultralight::Bitmap> bitmap) {
+        increment(GPUDriverCounter::TEXTURE_UPDATES);
+        increment(GPUDriverCounter::TEXTURE_BYTES, static_cast<int64_t>(bitmap->size()));
+        delegate->UpdateTexture(texture_id, std::move(bitmap));
+    }
+
+    void InstrumentedGPUDriver::DestroyTexture(uint32_t texture_id) {
+        delegate->DestroyTexture(texture_id);
+    }
+
+    uint32_t InstrumentedGPUDriver::NextRenderBufferId() {
+        return delegate->NextRenderBufferId();
+    }
+
+    void InstrumentedGPUDriver::CreateRenderBuffer(uint32_t render_buffer_id, const ultralight::RenderBuffer &buffer) {
+        delegate->CreateRenderBuffer(render_buffer_id, buffer);
+    }
+
+    void InstrumentedGPUDriver::DestroyRenderBuffer(uint32_t render_buffer_id) {
+        delegate->DestroyRenderBuffer(render_buffer_id);
+    }
+
+    uint32_t InstrumentedGPUDriver::NextGeometryId() {
+        return delegate->NextGeometryId();
+    }
+
+    void InstrumentedGPUDriver::CreateGeometry(
+        uint32_t geometry_id, const ultralight::VertexBuffer &vertices, const ultralight::IndexBuffer &indices) {
+        increment(GPUDriverCounter::GEOMETRY_CREATES);
+        increment(GPUDriverCounter::GEOMETRY_BYTES, static_cast<int64_t>(vertices.size) + indices.size);
+        delegate->CreateGeometry(geometry_id, vertices, indices);
+    }
+
+    void InstrumentedGPUDriver::UpdateGeometry(
+        uint32_t geometry_id, const ultralight::VertexBuffer &vertices, const ultralight::IndexBuffer &indices) {
+        increment(GPUDriverCounter::GEOMETRY_UPDATES);
+        increment(GPUDriverCounter::GEOMETRY_BYTES, static_cast<int64_t>(vertices.size) + indices.size);
+        delegate->UpdateGeometry(geometry_id, vertices, indices);
+    }
+
+    void InstrumentedGPUDriver::DestroyGeometry(uint32_t geometry_id) {
+        delegate->DestroyGeometry(geometry_id);
+    }
+
+    void InstrumentedGPUDriver::UpdateCommandList(const ultralight::CommandList &list) {
+        increment(GPUDriverCounter::COMMAND_LISTS);
+        increment(GPUDriverCounter::COMMANDS, list.size);
+        delegate->UpdateCommandList(list);
+    }
+} // namespace ultralight_java
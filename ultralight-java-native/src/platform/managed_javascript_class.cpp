@@ -60,7 +60,7 @@
 
 namespace ultralight_java {
     ManagedJavascriptPrivateData::ManagedJavascriptPrivateData(JNIEnv *env, jobject reference)
-        : reference(env->NewGlobalRef(reference)), ref_count(0) {
+        : reference(env->NewGlobalRef(reference)), ref_count(0), cached_properties(nullptr) {
     }
 
     ManagedJavascriptPrivateData::~ManagedJavascriptPrivateData() {
@@ -99,6 +99,14 @@ namespace ultralight_java {
         }
     }
 
+    JSObjectRef ManagedJavascriptPrivateData::get_cached_properties() const {
+        return cached_properties;
+    }
+
+    void ManagedJavascriptPrivateData::set_cached_properties(JSObjectRef holder) {
+        cached_properties = holder;
+    }
+
     ManagedJavascriptFunctionContainer::ManagedJavascriptFunctionContainer()
         : java_initializer(nullptr),
           java_finalizer(nullptr),
@@ -210,6 +218,16 @@ namespace ultralight_java {
         JSContextRef ctx, JSClassRef clazz, JSObjectRef object, JSStringRef property_name, JSValueRef *exception) {
         auto *class_data = reinterpret_cast<ManagedJavascriptClassData *>(JSClassGetPrivate(clazz));
 
+        // Values cached by JavascriptObject#cacheProperty are answered without calling into java
+        auto *private_data = reinterpret_cast<ManagedJavascriptPrivateData *>(JSObjectGetPrivate(object));
+        if(private_data && private_data->get_cached_properties()) {
+            JSValueRef cached =
+                JSObjectGetProperty(ctx, private_data->get_cached_properties(), property_name, nullptr);
+            if(cached && !JSValueIsUndefined(ctx, cached)) {
+                return cached;
+            }
+        }
+
         TemporaryJNI env;
         LocalJNIReferenceWrapper<jobject> java_lock(env, JavascriptContextLockJNI::create(env, ctx));
         auto java_context = WRAP_CONTEXT(env, ctx, java_lock);
@@ -55,11 +55,11 @@ namespace ultralight_java {
              NATIVE_METHOD(
                  "usePlatformFileSystem", "(Ljava/lang/String;)V", UltralightPlatformJNI::use_platform_file_system),
              NATIVE_METHOD(
-                 "setFileSystem",
+                 "nativeSetFileSystem",
                  "(Lcom/labymedia/ultralight/plugin/filesystem/UltralightFileSystem;)V",
                  UltralightPlatformJNI::set_file_system),
              NATIVE_METHOD(
-                 "setGPUDriver",
+                 "nativeSetGPUDriver",
                  "(Lcom/labymedia/ultralight/plugin/render/UltralightGPUDriver;)V",
                  UltralightPlatformJNI::set_gpu_driver),
              NATIVE_METHOD("setGPUDriverPointer", "(J)V", UltralightPlatformJNI::set_gpu_driver_pointer),
@@ -69,8 +69,11 @@ namespace ultralight_java {
                  UltralightPlatformJNI::set_clipboard),
              NATIVE_METHOD(
                  "setLogger",
-                 "(Lcom/labymedia/ultralight/plugin/logging/UltralightLogger;)V",
-                 UltralightPlatformJNI::set_logger)};
+                 "(Lcom/labymedia/ultralight/plugin/logging/UltralightLogger;"
+                 "Lcom/labymedia/ultralight/plugin/logging/UltralightLoggerConfig;)V",
+                 UltralightPlatformJNI::set_logger),
+             NATIVE_METHOD("filteredLogMessageCount", "()J", UltralightPlatformJNI::filtered_log_message_count),
+             NATIVE_METHOD("droppedLogMessageCount", "()J", UltralightPlatformJNI::dropped_log_message_count)};
 
         runtime.face_winding.constants = JavaEnum<ultralight::FaceWinding>(
             ultralight::kFaceWinding_Clockwise,
@@ -99,13 +102,15 @@ namespace ultralight_java {
         runtime.ultralight_renderer.native_methods =
             {NATIVE_METHOD("create", "()Lcom/labymedia/ultralight/UltralightRenderer;", UltralightRendererJNI::create),
              NATIVE_METHOD(
-                 "createView",
+                 "nativeCreateView",
                  "(JJLcom/labymedia/ultralight/config/UltralightViewConfig;)Lcom/labymedia/ultralight/UltralightView;",
                  UltralightRendererJNI::create_view),
-             NATIVE_METHOD("update", "()V", UltralightRendererJNI::update),
-             NATIVE_METHOD("render", "()V", UltralightRendererJNI::render),
+             NATIVE_METHOD("nativeUpdate", "()V", UltralightRendererJNI::update),
+             NATIVE_METHOD("nativeRender", "()V", UltralightRendererJNI::render),
              NATIVE_METHOD("purgeMemory", "()V", UltralightRendererJNI::purgeMemory),
-             NATIVE_METHOD("logMemoryUsage", "()V", UltralightRendererJNI::logMemoryUsage)};
+             NATIVE_METHOD("logMemoryUsage", "()V", UltralightRendererJNI::logMemoryUsage),
+             NATIVE_METHOD("captureMemoryUsage", "()[Ljava/lang/String;", UltralightRendererJNI::capture_memory_usage),
+             NATIVE_METHOD("takeGPUDriverCounters", "([J)V", UltralightRendererJNI::take_gpu_driver_counters)};
 
         runtime.ultralight_view.native_methods =
             {NATIVE_METHOD("url", "()Ljava/lang/String;", UltralightViewJNI::url),
@@ -122,7 +127,7 @@ namespace ultralight_java {
                  "()Lcom/labymedia/ultralight/javascript/JavascriptContextLock;",
                  UltralightViewJNI::lock_javascript_context),
              NATIVE_METHOD(
-                 "evaluateScript", "(Ljava/lang/String;)Ljava/lang/String;", UltralightViewJNI::evaluate_script),
+                 "nativeEvaluateScript", "(Ljava/lang/String;)Ljava/lang/String;", UltralightViewJNI::evaluate_script),
              NATIVE_METHOD("canGoBack", "()Z", UltralightViewJNI::can_go_back),
              NATIVE_METHOD("canGoForward", "()Z", UltralightViewJNI::can_go_forward),
              NATIVE_METHOD("goBack", "()V", UltralightViewJNI::go_back),
@@ -146,10 +151,21 @@ namespace ultralight_java {
                  "fireScrollEvent",
                  "(Lcom/labymedia/ultralight/input/UltralightScrollEvent;)V",
                  UltralightViewJNI::fire_scroll_event),
+             NATIVE_METHOD(
+                 "fireKeyEvent",
+                 "(IIIIILjava/lang/String;Ljava/lang/String;)V",
+                 UltralightViewJNI::fire_key_event_primitive),
+             NATIVE_METHOD("fireMouseEvent", "(IIII)V", UltralightViewJNI::fire_mouse_event_primitive),
+             NATIVE_METHOD("fireScrollEvent", "(III)V", UltralightViewJNI::fire_scroll_event_primitive),
+             NATIVE_METHOD("nativeFireInputEvents", "(Ljava/nio/ByteBuffer;II)I", UltralightViewJNI::fire_input_events),
              NATIVE_METHOD(
                  "setViewListener",
                  "(Lcom/labymedia/ultralight/plugin/view/UltralightViewListener;)V",
                  UltralightViewJNI::set_view_listener),
+             NATIVE_METHOD(
+                 "setConsoleMessageListener",
+                 "(Lcom/labymedia/ultralight/plugin/view/UltralightConsoleMessageListener;I)V",
+                 UltralightViewJNI::set_console_message_listener),
              NATIVE_METHOD(
                  "setLoadListener",
                  "(Lcom/labymedia/ultralight/plugin/loading/UltralightLoadListener;)V",
@@ -181,6 +197,7 @@ namespace ultralight_java {
         runtime.ultralight_matrix4x4.native_methods =
             {NATIVE_METHOD("setIdentity", "()V", UltralightMatrix4x4JNI::set_identity),
              NATIVE_METHOD("getData", "()[F", UltralightMatrix4x4JNI::get_data),
+             NATIVE_METHOD("setData", "([F)V", UltralightMatrix4x4JNI::set_data),
              NATIVE_METHOD("construct", "()J", UltralightMatrix4x4JNI::construct),
              NATIVE_METHOD("delete", "(J)V", UltralightMatrix4x4JNI::_delete)};
 
@@ -498,6 +515,10 @@ namespace ultralight_java {
                  "[Lcom/labymedia/ultralight/javascript/JavascriptValue;"
                  ")Lcom/labymedia/ultralight/javascript/JavascriptObject;",
                  JavascriptContextJNI::make_array),
+             NATIVE_METHOD(
+                 "makeNumberArray",
+                 "([D)Lcom/labymedia/ultralight/javascript/JavascriptObject;",
+                 JavascriptContextJNI::make_number_array),
              NATIVE_METHOD(
                  "makeDate",
                  "("
@@ -634,6 +655,10 @@ namespace ultralight_java {
                  JavascriptObjectJNI::set_property_at_index),
              NATIVE_METHOD("getPrivate", "()Ljava/lang/Object;", JavascriptObjectJNI::get_private),
              NATIVE_METHOD("setPrivate", "(Ljava/lang/Object;)V", JavascriptObjectJNI::set_private),
+             NATIVE_METHOD(
+                 "cacheProperty",
+                 "(Ljava/lang/String;Lcom/labymedia/ultralight/javascript/JavascriptValue;)Z",
+                 JavascriptObjectJNI::cache_property),
              NATIVE_METHOD("isFunction", "()Z", JavascriptObjectJNI::is_function),
              NATIVE_METHOD(
                  "callAsFunction",
@@ -649,7 +674,8 @@ namespace ultralight_java {
                  "[Lcom/labymedia/ultralight/javascript/JavascriptValue;"
                  ")Lcom/labymedia/ultralight/javascript/JavascriptObject;",
                  JavascriptObjectJNI::call_as_constructor),
-             NATIVE_METHOD("copyPropertyNames", "()[Ljava/lang/String;", JavascriptObjectJNI::copy_property_names)};
+             NATIVE_METHOD("copyPropertyNames", "()[Ljava/lang/String;", JavascriptObjectJNI::copy_property_names),
+             NATIVE_METHOD("toNumberArray", "()[D", JavascriptObjectJNI::to_number_array)};
 
         runtime.javascript_type.constants = JavaEnum<JSType>(
             kJSTypeUndefined,
@@ -179,6 +179,24 @@ namespace ultralight_java {
             runtime.logger.clazz,
             "logMessage",
             "(Lcom/labymedia/ultralight/plugin/logging/UltralightLogLevel;Ljava/lang/String;)V");
+        runtime.logger.log_messages_method = env->GetMethodID(
+            runtime.logger.clazz,
+            "logMessages",
+            "([Lcom/labymedia/ultralight/plugin/logging/UltralightLogLevel;[Ljava/lang/String;I)V");
+
+        // Retrieve information about the UltralightLoggerConfig class
+        auto ultralight_logger_config_class = reinterpret_cast<jclass>(
+            env->NewGlobalRef(env->FindClass("com/labymedia/ultralight/plugin/logging/UltralightLoggerConfig")));
+        runtime.ultralight_logger_config.clazz = ultralight_logger_config_class;
+
+        runtime.ultralight_logger_config.minimum_level_field = env->GetFieldID(
+            ultralight_logger_config_class, "minimumLevel", "Lcom/labymedia/ultralight/plugin/logging/UltralightLogLevel;");
+        runtime.ultralight_logger_config
+            .asynchronous_field = env->GetFieldID(ultralight_logger_config_class, "asynchronous", "Z");
+        runtime.ultralight_logger_config
+            .buffer_capacity_field = env->GetFieldID(ultralight_logger_config_class, "bufferCapacity", "I");
+        runtime.ultralight_logger_config
+            .flush_interval_millis_field = env->GetFieldID(ultralight_logger_config_class, "flushIntervalMillis", "J");
 
         // Retrieve information about the UltralightLogLevel enum
         runtime.log_level.clazz = reinterpret_cast<jclass>(
@@ -589,6 +607,33 @@ namespace ultralight_java {
             "Lcom/labymedia/ultralight/math/IntRect;"
             ")Lcom/labymedia/ultralight/UltralightView;");
 
+        // Retrieve information about the UltralightConsoleMessage class
+        runtime.ultralight_console_message.clazz = reinterpret_cast<jclass>(
+            env->NewGlobalRef(env->FindClass("com/labymedia/ultralight/plugin/view/UltralightConsoleMessage")));
+        runtime.ultralight_console_message.constructor = env->GetMethodID(
+            runtime.ultralight_console_message.clazz,
+            "<init>",
+            "("
+            "Lcom/labymedia/ultralight/plugin/view/MessageSource;"
+            "Lcom/labymedia/ultralight/plugin/view/MessageLevel;"
+            "Ljava/lang/String;"
+            "J"
+            "J"
+            "Ljava/lang/String;"
+            "I"
+            ")V");
+
+        // Retrieve information about the UltralightConsoleMessageListener interface
+        runtime.ultralight_console_message_listener.clazz = reinterpret_cast<jclass>(env->NewGlobalRef(
+            env->FindClass("com/labymedia/ultralight/plugin/view/UltralightConsoleMessageListener")));
+        runtime.ultralight_console_message_listener.on_console_messages_method = env->GetMethodID(
+            runtime.ultralight_console_message_listener.clazz, "onConsoleMessages", "(Ljava/util/List;J)V");
+
+        // Retrieve information about the Arrays class
+        runtime.arrays.clazz = reinterpret_cast<jclass>(env->NewGlobalRef(env->FindClass("java/util/Arrays")));
+        runtime.arrays.as_list_method =
+            env->GetStaticMethodID(runtime.arrays.clazz, "asList", "([Ljava/lang/Object;)Ljava/util/List;");
+
         // Retrieve information about the Runnable class
         runtime.runnable.clazz = reinterpret_cast<jclass>(env->NewGlobalRef(env->FindClass("java/lang/Runnable")));
         runtime.runnable.run_method = env->GetMethodID(runtime.runnable.clazz, "run", "()V");
@@ -950,6 +995,9 @@ namespace ultralight_java {
         env->DeleteGlobalRef(runtime.ultralight_clipboard.clazz);
         env->DeleteGlobalRef(runtime.ultralight_file_system.clazz);
         env->DeleteGlobalRef(runtime.runnable.clazz);
+        env->DeleteGlobalRef(runtime.arrays.clazz);
+        env->DeleteGlobalRef(runtime.ultralight_console_message_listener.clazz);
+        env->DeleteGlobalRef(runtime.ultralight_console_message.clazz);
         env->DeleteGlobalRef(runtime.ultralight_view_listener.clazz);
         runtime.message_source.constants.clear(env);
         env->DeleteGlobalRef(runtime.message_source.clazz);
@@ -1000,6 +1048,7 @@ namespace ultralight_java {
         runtime.log_level.constants.clear(env);
         env->DeleteGlobalRef(runtime.log_level.clazz);
         env->DeleteGlobalRef(runtime.logger.clazz);
+        env->DeleteGlobalRef(runtime.ultralight_logger_config.clazz);
         runtime.font_hinting.constants.clear(env);
         env->DeleteGlobalRef(runtime.font_hinting.clazz);
         runtime.face_winding.constants.clear(env);
@@ -23,6 +23,8 @@
 
 #include "ultralight_java/ultralight_java_instance.hpp"
 
+#include "com_labymedia_ultralight_input_UltralightInputEvents.h"
+
 namespace ultralight_java {
     template <typename T>
     constexpr const jchar *to_jchar_ptr(const T *value) {
@@ -232,6 +234,122 @@ namespace ultralight_java {
         return ultralight::ScrollEvent{type, delta_x, delta_y};
     }
 
+    bool Util::create_key_event(
+        JNIEnv *env,
+        jint type,
+        jint modifiers,
+        jint virtual_key_code,
+        jint native_key_code,
+        jint flags,
+        const ultralight::String &text,
+        const ultralight::String &unmodified_text,
+        ultralight::KeyEvent *out) {
+        switch(type) {
+            case com_labymedia_ultralight_input_UltralightInputEvents_KEY_DOWN:
+                out->type = ultralight::KeyEvent::kType_KeyDown;
+                break;
+
+            case com_labymedia_ultralight_input_UltralightInputEvents_KEY_UP:
+                out->type = ultralight::KeyEvent::kType_KeyUp;
+                break;
+
+            case com_labymedia_ultralight_input_UltralightInputEvents_KEY_RAW_DOWN:
+                out->type = ultralight::KeyEvent::kType_RawKeyDown;
+                break;
+
+            case com_labymedia_ultralight_input_UltralightInputEvents_KEY_CHAR:
+                out->type = ultralight::KeyEvent::kType_Char;
+                break;
+
+            default:
+                env->ThrowNew(runtime.illegal_argument_exception.clazz, "Invalid key event type code");
+                return false;
+        }
+
+        out->modifiers = static_cast<unsigned>(modifiers);
+        out->virtual_key_code = virtual_key_code;
+        out->native_key_code = native_key_code;
+        out->text = text;
+        out->unmodified_text = unmodified_text;
+        out->is_keypad = (flags & com_labymedia_ultralight_input_UltralightInputEvents_KEY_FLAG_KEYPAD) != 0;
+        out->is_auto_repeat = (flags & com_labymedia_ultralight_input_UltralightInputEvents_KEY_FLAG_AUTO_REPEAT) != 0;
+        out->is_system_key = (flags & com_labymedia_ultralight_input_UltralightInputEvents_KEY_FLAG_SYSTEM_KEY) != 0;
+
+        if(out->type != ultralight::KeyEvent::kType_Char) {
+            ultralight::GetKeyIdentifierFromVirtualKeyCode(virtual_key_code, out->key_identifier);
+        }
+
+        return true;
+    }
+
+    bool Util::create_mouse_event(JNIEnv *env, jint type, jint x, jint y, jint button, ultralight::MouseEvent *out) {
+        switch(type) {
+            case com_labymedia_ultralight_input_UltralightInputEvents_MOUSE_MOVED:
+                out->type = ultralight::MouseEvent::kType_MouseMoved;
+                break;
+
+            case com_labymedia_ultralight_input_UltralightInputEvents_MOUSE_DOWN:
+                out->type = ultralight::MouseEvent::kType_MouseDown;
+                break;
+
+            case com_labymedia_ultralight_input_UltralightInputEvents_MOUSE_UP:
+                out->type = ultralight::MouseEvent::kType_MouseUp;
+                break;
+
+            default:
+                env->ThrowNew(runtime.illegal_argument_exception.clazz, "Invalid mouse event type code");
+                return false;
+        }
+
+        switch(button) {
+            case com_labymedia_ultralight_input_UltralightInputEvents_MOUSE_BUTTON_NONE:
+                out->button = ultralight::MouseEvent::kButton_None;
+                break;
+
+            case com_labymedia_ultralight_input_UltralightInputEvents_MOUSE_BUTTON_LEFT:
+                out->button = ultralight::MouseEvent::kButton_Left;
+                break;
+
+            case com_labymedia_ultralight_input_UltralightInputEvents_MOUSE_BUTTON_MIDDLE:
+                out->button = ultralight::MouseEvent::kButton_Middle;
+                break;
+
+            case com_labymedia_ultralight_input_UltralightInputEvents_MOUSE_BUTTON_RIGHT:
+                out->button = ultralight::MouseEvent::kButton_Right;
+                break;
+
+            default:
+                env->ThrowNew(runtime.illegal_argument_exception.clazz, "Invalid mouse event button code");
+                return false;
+        }
+
+        out->x = x;
+        out->y = y;
+
+        return true;
+    }
+
+    bool Util::create_scroll_event(JNIEnv *env, jint type, jint delta_x, jint delta_y, ultralight::ScrollEvent *out) {
+        switch(type) {
+            case com_labymedia_ultralight_input_UltralightInputEvents_SCROLL_BY_PIXEL:
+                out->type = ultralight::ScrollEvent::kType_ScrollByPixel;
+                break;
+
+            case com_labymedia_ultralight_input_UltralightInputEvents_SCROLL_BY_PAGE:
+                out->type = ultralight::ScrollEvent::kType_ScrollByPage;
+                break;
+
+            default:
+                env->ThrowNew(runtime.illegal_argument_exception.clazz, "Invalid scroll event type code");
+                return false;
+        }
+
+        out->delta_x = delta_x;
+        out->delta_y = delta_y;
+
+        return true;
+    }
+
     jfloatArray Util::create_float_array(JNIEnv *env, int count, const float *data) {
         auto array = env->NewFloatArray(count);
         env->SetFloatArrayRegion(array, 0, count, data);